@@ -109,6 +109,11 @@ public abstract class GeoJsonConstants {
    */
   public static final String PROPERTIES = "properties";
 
+  /**
+   * The constant CRS.
+   */
+  public static final String CRS = "crs";
+
 
   private GeoJsonConstants() {
   }
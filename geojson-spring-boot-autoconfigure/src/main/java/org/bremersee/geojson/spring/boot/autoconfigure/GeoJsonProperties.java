@@ -18,6 +18,7 @@ package org.bremersee.geojson.spring.boot.autoconfigure;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.bremersee.geojson.converter.serialization.GeometryToJsonConverter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -42,4 +43,17 @@ public class GeoJsonProperties {
    */
   private boolean withBoundingBox = false;
 
+  /**
+   * Specifies the maximum number of fraction digits of the coordinates, that the
+   * {@link org.bremersee.geojson.GeoJsonObjectMapperModule} writes at serialization (0 to 15).
+   * The ordinates are rounded half up. Six digits are about 10 cm in WGS84.
+   */
+  private int coordinatePrecision = GeometryToJsonConverter.DEFAULT_COORDINATE_PRECISION;
+
+  /**
+   * Specifies after how many features the web mvc message converter of feature collections
+   * flushes the response body (zero flushes only at the end).
+   */
+  private int flushInterval = 100;
+
 }
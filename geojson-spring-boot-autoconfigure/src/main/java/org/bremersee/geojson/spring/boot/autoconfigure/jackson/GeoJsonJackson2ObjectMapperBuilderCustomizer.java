@@ -87,7 +87,8 @@ public class GeoJsonJackson2ObjectMapperBuilderCustomizer
     GeoJsonObjectMapperModule module = new GeoJsonObjectMapperModule(
         geometryFactory,
         properties.isWithBoundingBox(),
-        properties.isUseBigDecimal()
+        properties.isUseBigDecimal(),
+        properties.getCoordinatePrecision()
     );
     jacksonObjectMapperBuilder.postConfigurer(objectMapper -> objectMapper
         .registerModule(module));
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.spring.boot.autoconfigure.web;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.io.GeoJsonFeatureCollectionWriter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+/**
+ * The GeoJSON feature collection http message converter writes a
+ * {@link GeoJsonFeatureCollection}, a {@link Stream} of {@link GeoJsonFeature}s or an
+ * {@link Iterator} of {@link GeoJsonFeature}s as feature collection directly into the body of the
+ * response.
+ *
+ * <p>The features are written one by one with a {@link GeoJsonFeatureCollectionWriter}, so the
+ * response starts with the first feature and a stream or an iterator doesn't have to be collected
+ * before. The body is flushed after the specified number of features. A stream and a closeable
+ * iterator (like a {@link org.bremersee.geojson.io.GeoJsonFeatureCollectionReader}) are closed,
+ * when all features are written.
+ *
+ * <p>The converter only writes; reading a feature collection is left to the Jackson converter.
+ *
+ * @author Christian Bremer
+ */
+public class GeoJsonFeatureCollectionHttpMessageConverter
+    extends AbstractGenericHttpMessageConverter<Object> {
+
+  private final ObjectMapper objectMapper;
+
+  private final int flushInterval;
+
+  /**
+   * Instantiates a new GeoJSON feature collection http message converter.
+   *
+   * @param objectMapper the object mapper
+   * @param flushInterval the number of features after that the body is flushed; zero or a
+   *     negative value flushes only at the end
+   */
+  public GeoJsonFeatureCollectionHttpMessageConverter(
+      ObjectMapper objectMapper,
+      int flushInterval) {
+    super(APPLICATION_GEO_JSON, MediaType.APPLICATION_JSON);
+    if (isNull(objectMapper)) {
+      throw new IllegalArgumentException("Object mapper must be present.");
+    }
+    this.objectMapper = objectMapper;
+    this.flushInterval = flushInterval;
+  }
+
+  @Override
+  protected boolean supports(@NonNull Class<?> clazz) {
+    return GeoJsonFeatureCollection.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public boolean canRead(
+      @NonNull Type type,
+      @Nullable Class<?> contextClass,
+      @Nullable MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected boolean canRead(@Nullable MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public boolean canWrite(
+      @Nullable Type type,
+      @NonNull Class<?> clazz,
+      @Nullable MediaType mediaType) {
+    return isFeatureSource(type, clazz) && canWrite(mediaType);
+  }
+
+  private static boolean isFeatureSource(Type type, Class<?> clazz) {
+    if (GeoJsonFeatureCollection.class.isAssignableFrom(clazz)) {
+      return true;
+    }
+    ResolvableType resolvableType = nonNull(type)
+        ? ResolvableType.forType(type)
+        : ResolvableType.forClass(clazz);
+    ResolvableType elementType;
+    if (Stream.class.isAssignableFrom(clazz)) {
+      elementType = resolvableType.as(Stream.class).getGeneric(0);
+    } else if (Iterator.class.isAssignableFrom(clazz)) {
+      elementType = resolvableType.as(Iterator.class).getGeneric(0);
+    } else {
+      return false;
+    }
+    return GeoJsonFeature.class.isAssignableFrom(elementType.toClass());
+  }
+
+  @NonNull
+  @Override
+  public Object read(
+      @NonNull Type type,
+      @Nullable Class<?> contextClass,
+      @NonNull HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException(
+        "Reading is not supported by this converter.", inputMessage);
+  }
+
+  @NonNull
+  @Override
+  protected Object readInternal(
+      @NonNull Class<?> clazz,
+      @NonNull HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException(
+        "Reading is not supported by this converter.", inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(
+      @NonNull Object object,
+      @Nullable Type type,
+      @NonNull HttpOutputMessage outputMessage) throws IOException {
+
+    OutputStream body = StreamUtils.nonClosing(outputMessage.getBody());
+    if (object instanceof GeoJsonFeatureCollection<?, ?> collection) {
+      if (collection.hasUnknown()) {
+        // the writer doesn't know the unknown members
+        objectMapper.writeValue(body, collection);
+        return;
+      }
+      try (GeoJsonFeatureCollectionWriter writer = new GeoJsonFeatureCollectionWriter(
+          objectMapper,
+          objectMapper.createGenerator(body),
+          collection.getCrs(),
+          collection.getBbox(),
+          false)) {
+        write(collection.getFeatures().iterator(), writer);
+      }
+    } else if (object instanceof Stream<?> stream) {
+      try (stream; GeoJsonFeatureCollectionWriter writer = new GeoJsonFeatureCollectionWriter(
+          objectMapper, body, false)) {
+        write(stream.iterator(), writer);
+      }
+    } else if (object instanceof Iterator<?> iterator) {
+      try (GeoJsonFeatureCollectionWriter writer = new GeoJsonFeatureCollectionWriter(
+          objectMapper, body, false)) {
+        write(iterator, writer);
+      } finally {
+        if (iterator instanceof AutoCloseable closeable) {
+          close(closeable);
+        }
+      }
+    } else {
+      throw new IllegalArgumentException(String.format(
+          "Object of type %s is not supported.", object.getClass().getName()));
+    }
+  }
+
+  private void write(
+      Iterator<?> features,
+      GeoJsonFeatureCollectionWriter writer) throws IOException {
+
+    int count = 0;
+    while (features.hasNext()) {
+      writer.write((GeoJsonFeature<?, ?>) features.next());
+      if (flushInterval > 0 && ++count % flushInterval == 0) {
+        writer.flush();
+      }
+    }
+  }
+
+  private static void close(AutoCloseable closeable) throws IOException {
+    try {
+      closeable.close();
+    } catch (IOException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException("Closing iterator failed.", e);
+    }
+  }
+
+}
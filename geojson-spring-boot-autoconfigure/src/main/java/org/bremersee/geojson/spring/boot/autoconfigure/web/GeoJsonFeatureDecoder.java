@@ -0,0 +1,333 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.spring.boot.autoconfigure.web;
+
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.GeoJsonConstants.CRS;
+import static org.bremersee.geojson.GeoJsonConstants.FEATURES;
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON;
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON_SEQ;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.crs.AbstractGeoJsonCrs;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The GeoJSON feature decoder reads a stream of features either from a GeoJSON feature
+ * collection ({@code application/geo+json}) or from a GeoJSON text sequence
+ * ({@code application/geo+json-seq}, see RFC 8142).
+ *
+ * <p>The bytes are fed into the non-blocking parser of Jackson as they arrive. The tokens of a
+ * feature are collected until the feature is complete and then it is emitted, so only the
+ * feature that is currently read is held in memory. A feature collection may also be sent as a
+ * plain array of features. The features of a collection are read with the coordinate reference
+ * system of the {@code crs} member of the collection, if it precedes the features.
+ *
+ * @author Christian Bremer
+ */
+public class GeoJsonFeatureDecoder implements Decoder<GeoJsonFeature<?, ?>> {
+
+  private static final byte RECORD_SEPARATOR = 0x1E;
+
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Instantiates a new GeoJSON feature decoder.
+   *
+   * @param objectMapper the object mapper
+   */
+  public GeoJsonFeatureDecoder(ObjectMapper objectMapper) {
+    Assert.notNull(objectMapper, "Object mapper must be present.");
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public boolean canDecode(@NonNull ResolvableType elementType, @Nullable MimeType mimeType) {
+    return GeoJsonFeature.class.isAssignableFrom(elementType.toClass())
+        && nonNull(mimeType)
+        && (mimeType.equalsTypeAndSubtype(APPLICATION_GEO_JSON)
+        || mimeType.equalsTypeAndSubtype(APPLICATION_GEO_JSON_SEQ));
+  }
+
+  @NonNull
+  @Override
+  public List<MimeType> getDecodableMimeTypes() {
+    return List.of(APPLICATION_GEO_JSON, APPLICATION_GEO_JSON_SEQ);
+  }
+
+  @NonNull
+  @Override
+  public Flux<GeoJsonFeature<?, ?>> decode(
+      @NonNull Publisher<DataBuffer> inputStream,
+      @NonNull ResolvableType elementType,
+      @Nullable MimeType mimeType,
+      @Nullable Map<String, Object> hints) {
+
+    ObjectReader reader = objectMapper.readerFor(objectMapper.constructType(elementType.getType()));
+    boolean sequence = nonNull(mimeType) && mimeType.equalsTypeAndSubtype(APPLICATION_GEO_JSON_SEQ);
+    return Flux.using(
+        () -> new FeatureTokenizer(objectMapper, reader, sequence),
+        tokenizer -> Flux.from(inputStream)
+            .concatMapIterable(tokenizer::tokenize)
+            .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())))
+            .map(tokenBuffer -> read(tokenizer.getFeatureReader(), tokenBuffer)),
+        FeatureTokenizer::close);
+  }
+
+  @NonNull
+  @Override
+  public Mono<GeoJsonFeature<?, ?>> decodeToMono(
+      @NonNull Publisher<DataBuffer> inputStream,
+      @NonNull ResolvableType elementType,
+      @Nullable MimeType mimeType,
+      @Nullable Map<String, Object> hints) {
+
+    return DataBufferUtils.join(inputStream)
+        .map(dataBuffer -> decode(dataBuffer, elementType, mimeType, hints));
+  }
+
+  @Override
+  public GeoJsonFeature<?, ?> decode(
+      @NonNull DataBuffer buffer,
+      @NonNull ResolvableType targetType,
+      @Nullable MimeType mimeType,
+      @Nullable Map<String, Object> hints) throws DecodingException {
+
+    try (InputStream in = buffer.asInputStream(true)) {
+      return objectMapper
+          .readerFor(objectMapper.constructType(targetType.getType()))
+          .readValue(in);
+    } catch (IOException e) {
+      throw new DecodingException("Decoding GeoJSON feature failed.", e);
+    }
+  }
+
+  private GeoJsonFeature<?, ?> read(ObjectReader reader, TokenBuffer tokenBuffer) {
+    try (JsonParser parser = tokenBuffer.asParser(objectMapper)) {
+      return reader.readValue(parser);
+    } catch (IOException e) {
+      throw new DecodingException("Decoding GeoJSON feature failed.", e);
+    }
+  }
+
+  /**
+   * The feature tokenizer feeds the bytes into the non-blocking parser and collects the tokens
+   * of each feature in a token buffer. In a feature collection the features are the elements of
+   * the {@code features} array of the root object or the elements of a root array, in a text
+   * sequence the features are the root values. The {@code crs} member of the root object is
+   * collected, too; it is read and attached to the reader of the following features.
+   */
+  private static class FeatureTokenizer {
+
+    private final ObjectMapper objectMapper;
+
+    private final JsonParser parser;
+
+    private final ByteArrayFeeder feeder;
+
+    private final boolean sequence;
+
+    private int depth;
+
+    private boolean rootArray;
+
+    private boolean featuresField;
+
+    private boolean featuresArray;
+
+    private boolean crsField;
+
+    private boolean crsValue;
+
+    private TokenBuffer tokenBuffer;
+
+    private int featureDepth;
+
+    private ObjectReader featureReader;
+
+    /**
+     * Instantiates a new feature tokenizer.
+     *
+     * @param objectMapper the object mapper
+     * @param featureReader the reader of the features
+     * @param sequence specifies whether the input is a text sequence
+     * @throws IOException if the parser cannot be created
+     */
+    FeatureTokenizer(
+        ObjectMapper objectMapper,
+        ObjectReader featureReader,
+        boolean sequence) throws IOException {
+      this.objectMapper = objectMapper;
+      this.featureReader = featureReader;
+      this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+      this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+      this.sequence = sequence;
+    }
+
+    /**
+     * Feeds the content of the data buffer into the parser and returns the token buffers of the
+     * features that are completed by it. The data buffer is released.
+     *
+     * @param dataBuffer the data buffer
+     * @return the token buffers of the completed features
+     */
+    List<TokenBuffer> tokenize(DataBuffer dataBuffer) {
+      byte[] bytes = new byte[dataBuffer.readableByteCount()];
+      dataBuffer.read(bytes);
+      DataBufferUtils.release(dataBuffer);
+      if (sequence) {
+        for (int i = 0; i < bytes.length; i++) {
+          if (bytes[i] == RECORD_SEPARATOR) {
+            bytes[i] = ' ';
+          }
+        }
+      }
+      try {
+        feeder.feedInput(bytes, 0, bytes.length);
+        return parseTokens();
+      } catch (IOException e) {
+        throw new DecodingException("Parsing GeoJSON failed.", e);
+      }
+    }
+
+    /**
+     * Signals the end of the input and returns the token buffers of the remaining features.
+     *
+     * @return the token buffers of the remaining features
+     */
+    List<TokenBuffer> endOfInput() {
+      feeder.endOfInput();
+      try {
+        List<TokenBuffer> tokenBuffers = parseTokens();
+        if (nonNull(tokenBuffer) || depth > 0) {
+          throw new DecodingException("Unexpected end of GeoJSON.");
+        }
+        return tokenBuffers;
+      } catch (IOException e) {
+        throw new DecodingException("Parsing GeoJSON failed.", e);
+      }
+    }
+
+    private List<TokenBuffer> parseTokens() throws IOException {
+      List<TokenBuffer> tokenBuffers = new ArrayList<>();
+      JsonToken token;
+      while (nonNull(token = parser.nextToken()) && token != JsonToken.NOT_AVAILABLE) {
+        if (nonNull(tokenBuffer)) {
+          tokenBuffer.copyCurrentEvent(parser);
+          if (token.isStructStart()) {
+            featureDepth++;
+          } else if (token.isStructEnd() && --featureDepth == 0) {
+            if (crsValue) {
+              readCrs(tokenBuffer);
+            } else {
+              tokenBuffers.add(tokenBuffer);
+            }
+            tokenBuffer = null;
+          }
+        } else if (token == JsonToken.START_OBJECT && (crsField || isFeatureStart())) {
+          crsValue = crsField;
+          crsField = false;
+          tokenBuffer = new TokenBuffer(parser);
+          tokenBuffer.copyCurrentEvent(parser);
+          featureDepth = 1;
+        } else {
+          skipToken(token);
+        }
+      }
+      return tokenBuffers;
+    }
+
+    private void readCrs(TokenBuffer crsBuffer) throws IOException {
+      try (JsonParser crsParser = crsBuffer.asParser(objectMapper)) {
+        AbstractGeoJsonCrs crs = objectMapper.readValue(crsParser, AbstractGeoJsonCrs.class);
+        if (nonNull(crs)) {
+          featureReader = featureReader.withAttribute(AbstractGeoJsonCrs.class, crs);
+        }
+      }
+    }
+
+    /**
+     * Returns the reader of the features, that has the coordinate reference system of the
+     * feature collection as attribute, if it is read before.
+     *
+     * @return the reader of the features
+     */
+    ObjectReader getFeatureReader() {
+      return featureReader;
+    }
+
+    private boolean isFeatureStart() {
+      if (sequence) {
+        return depth == 0;
+      }
+      return (depth == 1 && rootArray) || (depth == 2 && featuresArray);
+    }
+
+    private void skipToken(JsonToken token) throws IOException {
+      if (token.isStructStart()) {
+        if (token == JsonToken.START_ARRAY && !sequence) {
+          rootArray = rootArray || depth == 0;
+          featuresArray = featuresArray || (depth == 1 && featuresField);
+        }
+        depth++;
+      } else if (token.isStructEnd()) {
+        depth--;
+        if (depth == 1) {
+          featuresArray = false;
+        }
+      }
+      boolean memberName = token == JsonToken.FIELD_NAME && depth == 1 && !rootArray
+          && !sequence;
+      featuresField = memberName && FEATURES.equals(parser.currentName());
+      crsField = memberName && CRS.equals(parser.currentName());
+    }
+
+    /**
+     * Closes the parser.
+     */
+    void close() {
+      try {
+        parser.close();
+      } catch (IOException ignored) {
+        // ignored
+      }
+    }
+  }
+
+}
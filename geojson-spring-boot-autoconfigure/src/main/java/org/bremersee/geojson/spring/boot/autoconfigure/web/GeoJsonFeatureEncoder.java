@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.spring.boot.autoconfigure.web;
+
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON;
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON_SEQ;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The GeoJSON feature encoder writes a stream of features either as a GeoJSON feature collection
+ * ({@code application/geo+json}) or as a GeoJSON text sequence ({@code application/geo+json-seq},
+ * see RFC 8142).
+ *
+ * <p>Each feature is encoded into its own data buffer as soon as it is emitted, so the features
+ * are written with the demand of the server response and the collection is never held in memory.
+ * A text sequence is a streaming media type, so each feature is flushed immediately.
+ *
+ * @author Christian Bremer
+ */
+public class GeoJsonFeatureEncoder implements HttpMessageEncoder<GeoJsonFeature<?, ?>> {
+
+  private static final byte[] COLLECTION_START = "{\"type\":\"FeatureCollection\",\"features\":["
+      .getBytes(StandardCharsets.UTF_8);
+
+  private static final byte[] COLLECTION_END = "]}".getBytes(StandardCharsets.UTF_8);
+
+  private static final byte SEPARATOR = ',';
+
+  private static final byte RECORD_SEPARATOR = 0x1E;
+
+  private static final byte LINE_FEED = '\n';
+
+  private final ObjectWriter objectWriter;
+
+  /**
+   * Instantiates a new GeoJSON feature encoder.
+   *
+   * @param objectMapper the object mapper
+   */
+  public GeoJsonFeatureEncoder(ObjectMapper objectMapper) {
+    Assert.notNull(objectMapper, "Object mapper must be present.");
+    this.objectWriter = objectMapper.writer()
+        .without(SerializationFeature.INDENT_OUTPUT)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
+  @Override
+  public boolean canEncode(@NonNull ResolvableType elementType, @Nullable MimeType mimeType) {
+    // features without an explicit media type are left to the json encoder
+    return GeoJsonFeature.class.isAssignableFrom(elementType.toClass())
+        && nonNull(mimeType)
+        && (mimeType.equalsTypeAndSubtype(APPLICATION_GEO_JSON)
+        || mimeType.equalsTypeAndSubtype(APPLICATION_GEO_JSON_SEQ));
+  }
+
+  @NonNull
+  @Override
+  public List<MimeType> getEncodableMimeTypes() {
+    return List.of(APPLICATION_GEO_JSON, APPLICATION_GEO_JSON_SEQ);
+  }
+
+  @NonNull
+  @Override
+  public List<MediaType> getStreamingMediaTypes() {
+    return List.of(APPLICATION_GEO_JSON_SEQ);
+  }
+
+  @NonNull
+  @Override
+  public Flux<DataBuffer> encode(
+      @NonNull Publisher<? extends GeoJsonFeature<?, ?>> inputStream,
+      @NonNull DataBufferFactory bufferFactory,
+      @NonNull ResolvableType elementType,
+      @Nullable MimeType mimeType,
+      @Nullable Map<String, Object> hints) {
+
+    if (inputStream instanceof Mono) {
+      return Mono.from(inputStream)
+          .map(feature -> encodeValue(feature, bufferFactory, elementType, mimeType, hints))
+          .flux();
+    }
+    if (isSequence(mimeType)) {
+      return Flux.from(inputStream)
+          .map(feature -> encode(feature, bufferFactory, RECORD_SEPARATOR, LINE_FEED));
+    }
+    return Flux.concat(
+        Mono.fromSupplier(() -> bufferFactory.wrap(COLLECTION_START)),
+        Flux.from(inputStream)
+            .index()
+            .map(tuple -> encode(
+                tuple.getT2(),
+                bufferFactory,
+                tuple.getT1() > 0 ? SEPARATOR : null,
+                null)),
+        Mono.fromSupplier(() -> bufferFactory.wrap(COLLECTION_END)));
+  }
+
+  @NonNull
+  @Override
+  public DataBuffer encodeValue(
+      @NonNull GeoJsonFeature<?, ?> value,
+      @NonNull DataBufferFactory bufferFactory,
+      @NonNull ResolvableType valueType,
+      @Nullable MimeType mimeType,
+      @Nullable Map<String, Object> hints) {
+
+    return isSequence(mimeType)
+        ? encode(value, bufferFactory, RECORD_SEPARATOR, LINE_FEED)
+        : encode(value, bufferFactory, null, null);
+  }
+
+  private static boolean isSequence(MimeType mimeType) {
+    return nonNull(mimeType) && mimeType.equalsTypeAndSubtype(APPLICATION_GEO_JSON_SEQ);
+  }
+
+  private DataBuffer encode(
+      GeoJsonFeature<?, ?> feature,
+      DataBufferFactory bufferFactory,
+      Byte prefix,
+      Byte suffix) {
+
+    DataBuffer buffer = bufferFactory.allocateBuffer(256);
+    boolean release = true;
+    try {
+      OutputStream out = buffer.asOutputStream();
+      if (nonNull(prefix)) {
+        out.write(prefix);
+      }
+      objectWriter.writeValue(out, feature);
+      if (nonNull(suffix)) {
+        out.write(suffix);
+      }
+      release = false;
+      return buffer;
+    } catch (IOException e) {
+      throw new EncodingException("Encoding GeoJSON feature failed.", e);
+    } finally {
+      if (release) {
+        DataBufferUtils.release(buffer);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.spring.boot.autoconfigure.web;
+
+import org.springframework.http.MediaType;
+
+/**
+ * The GeoJSON media types.
+ *
+ * @author Christian Bremer
+ */
+public abstract class GeoJsonMediaTypes {
+
+  /**
+   * The GeoJSON media type value.
+   */
+  public static final String APPLICATION_GEO_JSON_VALUE = "application/geo+json";
+
+  /**
+   * The GeoJSON media type (see RFC 7946).
+   */
+  public static final MediaType APPLICATION_GEO_JSON = MediaType
+      .parseMediaType(APPLICATION_GEO_JSON_VALUE);
+
+  /**
+   * The GeoJSON text sequence media type value.
+   */
+  public static final String APPLICATION_GEO_JSON_SEQ_VALUE = "application/geo+json-seq";
+
+  /**
+   * The GeoJSON text sequence media type (see RFC 8142).
+   */
+  public static final MediaType APPLICATION_GEO_JSON_SEQ = MediaType
+      .parseMediaType(APPLICATION_GEO_JSON_SEQ_VALUE);
+
+  private GeoJsonMediaTypes() {
+  }
+
+}
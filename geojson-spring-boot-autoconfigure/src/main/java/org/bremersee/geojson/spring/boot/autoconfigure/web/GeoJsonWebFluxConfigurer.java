@@ -16,8 +16,10 @@
 
 package org.bremersee.geojson.spring.boot.autoconfigure.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
 import org.bremersee.geojson.converter.GeometryConverters;
 import org.bremersee.geojson.spring.boot.autoconfigure.GeoJsonGeometryFactoryAutoConfiguration;
 import org.springframework.beans.factory.ObjectProvider;
@@ -29,6 +31,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.lang.NonNull;
 import org.springframework.util.ClassUtils;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
@@ -47,13 +50,19 @@ public class GeoJsonWebFluxConfigurer implements WebFluxConfigurer {
 
   private final GeoJsonGeometryFactory geometryFactory;
 
+  private final ObjectProvider<ObjectMapper> objectMapper;
+
   /**
    * Instantiates a new GeoJSON web flux configurer.
    *
    * @param geometryFactory the geometry factory
+   * @param objectMapper the object mapper
    */
-  public GeoJsonWebFluxConfigurer(ObjectProvider<GeoJsonGeometryFactory> geometryFactory) {
+  public GeoJsonWebFluxConfigurer(
+      ObjectProvider<GeoJsonGeometryFactory> geometryFactory,
+      ObjectProvider<ObjectMapper> objectMapper) {
     this.geometryFactory = geometryFactory.getIfAvailable(GeoJsonGeometryFactory::new);
+    this.objectMapper = objectMapper;
   }
 
   /**
@@ -75,4 +84,12 @@ public class GeoJsonWebFluxConfigurer implements WebFluxConfigurer {
         .forEach(registry::addConverter);
   }
 
+  @Override
+  public void configureHttpMessageCodecs(@NonNull ServerCodecConfigurer configurer) {
+    ObjectMapper om = objectMapper.getIfAvailable(() -> new ObjectMapper()
+        .registerModule(new GeoJsonObjectMapperModule(geometryFactory)));
+    configurer.customCodecs().register(new GeoJsonFeatureEncoder(om));
+    configurer.customCodecs().register(new GeoJsonFeatureDecoder(om));
+  }
+
 }
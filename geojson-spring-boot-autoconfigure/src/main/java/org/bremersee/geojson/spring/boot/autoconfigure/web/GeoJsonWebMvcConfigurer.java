@@ -16,10 +16,14 @@
 
 package org.bremersee.geojson.spring.boot.autoconfigure.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
 import org.bremersee.geojson.converter.GeometryConverters;
 import org.bremersee.geojson.spring.boot.autoconfigure.GeoJsonGeometryFactoryAutoConfiguration;
+import org.bremersee.geojson.spring.boot.autoconfigure.GeoJsonProperties;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -27,8 +31,10 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.event.EventListener;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.lang.NonNull;
 import org.springframework.util.ClassUtils;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -42,18 +48,30 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @ConditionalOnWebApplication(type = Type.SERVLET)
 @AutoConfiguration
 @AutoConfigureAfter(GeoJsonGeometryFactoryAutoConfiguration.class)
+@EnableConfigurationProperties(GeoJsonProperties.class)
 @Slf4j
 public class GeoJsonWebMvcConfigurer implements WebMvcConfigurer {
 
+  private final GeoJsonProperties properties;
+
   private final GeoJsonGeometryFactory geometryFactory;
 
+  private final ObjectProvider<ObjectMapper> objectMapper;
+
   /**
    * Instantiates a new GeoJSON web mvc configurer.
    *
+   * @param properties the properties
    * @param geometryFactory the geometry factory
+   * @param objectMapper the object mapper
    */
-  public GeoJsonWebMvcConfigurer(ObjectProvider<GeoJsonGeometryFactory> geometryFactory) {
+  public GeoJsonWebMvcConfigurer(
+      GeoJsonProperties properties,
+      ObjectProvider<GeoJsonGeometryFactory> geometryFactory,
+      ObjectProvider<ObjectMapper> objectMapper) {
+    this.properties = properties;
     this.geometryFactory = geometryFactory.getIfAvailable(GeoJsonGeometryFactory::new);
+    this.objectMapper = objectMapper;
   }
 
   /**
@@ -75,4 +93,12 @@ public class GeoJsonWebMvcConfigurer implements WebMvcConfigurer {
         .forEach(registry::addConverter);
   }
 
+  @Override
+  public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+    ObjectMapper om = objectMapper.getIfAvailable(() -> new ObjectMapper()
+        .registerModule(new GeoJsonObjectMapperModule(geometryFactory)));
+    converters.add(0, new GeoJsonFeatureCollectionHttpMessageConverter(
+        om, properties.getFlushInterval()));
+  }
+
 }
@@ -75,5 +75,6 @@ class GeoJsonJackson2ObjectMapperBuilderCustomizerTest {
     verify(builder).postConfigurer(any(Consumer.class));
     verify(properties, atLeast(1)).isUseBigDecimal();
     verify(properties, atLeast(1)).isWithBoundingBox();
+    verify(properties, atLeast(1)).getCoordinatePrecision();
   }
 }
\ No newline at end of file
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.spring.boot.autoconfigure.web;
+
+import static org.assertj.core.api.Assertions.within;
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.bremersee.geojson.crs.CrsTransformRegistry;
+import org.bremersee.geojson.crs.GeoJsonNamedCrs;
+import org.bremersee.geojson.io.GeoJsonFeatureCollectionReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+
+/**
+ * The geo json feature collection http message converter test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeoJsonFeatureCollectionHttpMessageConverterTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = JsonMapper.builder()
+      .addModule(new GeoJsonObjectMapperModule())
+      .build();
+
+  private static final TypeReference<GeoJsonFeatureCollection<Geometry, Map<String, Object>>>
+      collectionType = new TypeReference<>() {
+      };
+
+  private static final GeoJsonFeatureCollectionHttpMessageConverter target
+      = new GeoJsonFeatureCollectionHttpMessageConverter(objectMapper, 3);
+
+  private static Type streamType() {
+    return ResolvableType.forClassWithGenerics(
+            Stream.class,
+            ResolvableType.forClassWithGenerics(GeoJsonFeature.class, Geometry.class, Map.class))
+        .getType();
+  }
+
+  /**
+   * Can write.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void canWrite(SoftAssertions softly) {
+    softly.assertThat(target.canWrite(
+            GeoJsonFeatureCollection.class, GeoJsonFeatureCollection.class, APPLICATION_GEO_JSON))
+        .isTrue();
+    softly.assertThat(target.canWrite(
+            GeoJsonFeatureCollection.class, MediaType.APPLICATION_JSON))
+        .isTrue();
+    softly.assertThat(target.canWrite(streamType(), Stream.class, APPLICATION_GEO_JSON))
+        .isTrue();
+    softly.assertThat(target.canWrite(
+            ResolvableType.forClassWithGenerics(Iterator.class, GeoJsonFeature.class).getType(),
+            Iterator.class,
+            null))
+        .isTrue();
+    softly.assertThat(target.canWrite(
+            ResolvableType.forClassWithGenerics(Stream.class, String.class).getType(),
+            Stream.class,
+            APPLICATION_GEO_JSON))
+        .isFalse();
+    softly.assertThat(target.canWrite(
+            GeoJsonFeatureCollection.class, MediaType.APPLICATION_XML))
+        .isFalse();
+    softly.assertThat(target.canRead(
+            GeoJsonFeatureCollection.class, null, APPLICATION_GEO_JSON))
+        .isFalse();
+  }
+
+  /**
+   * Write feature collection.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void writeFeatureCollection(SoftAssertions softly) throws Exception {
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> expected
+        = new GeoJsonFeatureCollection<>(TestFeatures.points(10), true);
+    TestOutputMessage outputMessage = new TestOutputMessage();
+    target.write(expected, GeoJsonFeatureCollection.class, APPLICATION_GEO_JSON, outputMessage);
+    softly.assertThat(outputMessage.getBodyAsString())
+        .isEqualTo(objectMapper.writeValueAsString(expected));
+    softly.assertThat(outputMessage.getHeaders().getContentType())
+        .isEqualTo(APPLICATION_GEO_JSON);
+
+    expected.unknown("foo", "bar");
+    outputMessage = new TestOutputMessage();
+    target.write(expected, GeoJsonFeatureCollection.class, APPLICATION_GEO_JSON, outputMessage);
+    softly.assertThat(objectMapper.readValue(outputMessage.getBodyAsString(), collectionType))
+        .isEqualTo(expected);
+  }
+
+  /**
+   * Write feature collection with crs.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void writeFeatureCollectionWithCrs(SoftAssertions softly) throws Exception {
+    ObjectMapper crsObjectMapper = JsonMapper.builder()
+        .addModule(new GeoJsonObjectMapperModule(
+            factory, false, false, 3, new CrsTransformRegistry(), null))
+        .build();
+    GeoJsonFeatureCollectionHttpMessageConverter crsTarget
+        = new GeoJsonFeatureCollectionHttpMessageConverter(crsObjectMapper, 3);
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> expected
+        = new GeoJsonFeatureCollection<>(TestFeatures.points(3), true);
+    expected.setCrs(new GeoJsonNamedCrs("EPSG:3857"));
+    TestOutputMessage outputMessage = new TestOutputMessage();
+    crsTarget.write(expected, GeoJsonFeatureCollection.class, APPLICATION_GEO_JSON, outputMessage);
+    softly.assertThat(outputMessage.getBodyAsString())
+        .isEqualTo(crsObjectMapper.writeValueAsString(expected))
+        .contains("\"crs\":{\"type\":\"name\"")
+        .doesNotContain("\"coordinates\":[1.0,1.5]");
+    softly.assertThat(crsObjectMapper.readValue(outputMessage.getBodyAsString(), collectionType)
+            .getFeatures())
+        .hasSize(3)
+        .allSatisfy(feature -> softly.assertThat(feature.getGeometry().getCoordinate().x)
+            .isCloseTo(Double.parseDouble(feature.getId()), within(1e-6)));
+  }
+
+  /**
+   * Write stream.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void writeStream(SoftAssertions softly) throws Exception {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = TestFeatures.points(10);
+    AtomicBoolean closed = new AtomicBoolean();
+    TestOutputMessage outputMessage = new TestOutputMessage();
+    target.write(
+        features.stream().onClose(() -> closed.set(true)),
+        streamType(),
+        APPLICATION_GEO_JSON,
+        outputMessage);
+    softly.assertThat(objectMapper.readValue(outputMessage.getBodyAsString(), collectionType)
+            .getFeatures())
+        .containsExactlyElementsOf(features);
+    softly.assertThat(closed)
+        .isTrue();
+    // flushed after 3, 6 and 9 features, at the end of the collection and by the converter
+    softly.assertThat(outputMessage.flushes)
+        .isGreaterThanOrEqualTo(4);
+    softly.assertThat(outputMessage.closed)
+        .isFalse();
+  }
+
+  /**
+   * Write iterator.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void writeIterator(SoftAssertions softly) throws Exception {
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> expected
+        = new GeoJsonFeatureCollection<>(TestFeatures.points(5), false);
+    GeoJsonFeatureCollectionReader<Geometry, Map<String, Object>> reader
+        = new GeoJsonFeatureCollectionReader<>(
+        objectMapper,
+        new ByteArrayInputStream(objectMapper.writeValueAsBytes(expected)),
+        new TypeReference<>() {
+        });
+    TestOutputMessage outputMessage = new TestOutputMessage();
+    target.write(reader, Iterator.class, APPLICATION_GEO_JSON, outputMessage);
+    softly.assertThat(objectMapper.readValue(outputMessage.getBodyAsString(), collectionType))
+        .isEqualTo(expected);
+    softly.assertThat(reader.hasNext())
+        .isFalse();
+  }
+
+  private static class TestOutputMessage implements HttpOutputMessage {
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private int flushes;
+
+    private boolean closed;
+
+    private final OutputStream body = new OutputStream() {
+      @Override
+      public void write(int b) {
+        bytes.write(b);
+      }
+
+      @Override
+      public void write(@NonNull byte[] b, int off, int len) {
+        bytes.write(b, off, len);
+      }
+
+      @Override
+      public void flush() {
+        flushes++;
+      }
+
+      @Override
+      public void close() {
+        closed = true;
+      }
+    };
+
+    @NonNull
+    @Override
+    public OutputStream getBody() {
+      return body;
+    }
+
+    @NonNull
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+
+    String getBodyAsString() {
+      return bytes.toString(StandardCharsets.UTF_8);
+    }
+  }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.spring.boot.autoconfigure.web;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON;
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON_SEQ;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.bremersee.geojson.crs.CrsTransformRegistry;
+import org.bremersee.geojson.crs.GeoJsonNamedCrs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+/**
+ * The geo json feature decoder test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeoJsonFeatureDecoderTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = JsonMapper.builder()
+      .addModule(new GeoJsonObjectMapperModule())
+      .build();
+
+  private static final ResolvableType featureType = ResolvableType
+      .forClassWithGenerics(GeoJsonFeature.class, Geometry.class, Map.class);
+
+  private static final GeoJsonFeatureDecoder target = new GeoJsonFeatureDecoder(objectMapper);
+
+  private static Flux<DataBuffer> chunks(String json, int chunkSize) {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    List<DataBuffer> buffers = new ArrayList<>();
+    for (int i = 0; i < bytes.length; i += chunkSize) {
+      buffers.add(DefaultDataBufferFactory.sharedInstance
+          .wrap(Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunkSize))));
+    }
+    return Flux.fromIterable(buffers);
+  }
+
+  private static List<GeoJsonFeature<?, ?>> decode(String json, MediaType mediaType) {
+    return target.decode(chunks(json, 7), featureType, mediaType, null)
+        .collectList()
+        .block();
+  }
+
+  /**
+   * Can decode.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void canDecode(SoftAssertions softly) {
+    softly.assertThat(target.canDecode(featureType, APPLICATION_GEO_JSON))
+        .isTrue();
+    softly.assertThat(target.canDecode(featureType, APPLICATION_GEO_JSON_SEQ))
+        .isTrue();
+    softly.assertThat(target.canDecode(featureType, MediaType.APPLICATION_JSON))
+        .isFalse();
+    softly.assertThat(target.canDecode(featureType, null))
+        .isFalse();
+  }
+
+  /**
+   * Decode feature collection.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void decodeFeatureCollection(SoftAssertions softly) throws Exception {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = TestFeatures.lines(10);
+    String json = "{\"bbox\":[0,0,1,1],\"foo\":{\"features\":[{\"type\":\"Feature\"}]},"
+        + "\"type\":\"FeatureCollection\",\"features\":"
+        + objectMapper.writeValueAsString(features)
+        + ",\"bar\":[{}]}";
+    softly.assertThat(decode(json, APPLICATION_GEO_JSON))
+        .containsExactlyElementsOf(features);
+
+    softly.assertThat(decode(objectMapper.writeValueAsString(features), APPLICATION_GEO_JSON))
+        .containsExactlyElementsOf(features);
+
+    softly.assertThat(decode("{\"type\":\"FeatureCollection\",\"features\":[]}",
+            APPLICATION_GEO_JSON))
+        .isEmpty();
+  }
+
+  /**
+   * Decode feature collection with crs.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void decodeFeatureCollectionWithCrs(SoftAssertions softly) throws Exception {
+    ObjectMapper crsObjectMapper = JsonMapper.builder()
+        .addModule(new GeoJsonObjectMapperModule(
+            factory, false, false, 3, new CrsTransformRegistry(), null))
+        .build();
+    GeoJsonFeatureDecoder crsTarget = new GeoJsonFeatureDecoder(crsObjectMapper);
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> collection
+        = new GeoJsonFeatureCollection<>(List.of(
+        new GeoJsonFeature<>("a", factory.createGeometryFromWellKnownText("POINT (9.5 50)"),
+            false, Map.of()),
+        new GeoJsonFeature<>("b", factory.createGeometryFromWellKnownText("POINT (-3 40.5)"),
+            false, Map.of())), false);
+    collection.setCrs(new GeoJsonNamedCrs("EPSG:3857"));
+    String json = crsObjectMapper.writeValueAsString(collection);
+    softly.assertThat(json)
+        .startsWith("{\"type\":\"FeatureCollection\",\"crs\":");
+    List<GeoJsonFeature<?, ?>> actual = crsTarget
+        .decode(chunks(json, 7), featureType, APPLICATION_GEO_JSON, null)
+        .collectList()
+        .block();
+    softly.assertThat(actual)
+        .containsExactlyElementsOf(crsObjectMapper
+            .readValue(json, new TypeReference<GeoJsonFeatureCollection<Geometry,
+                Map<String, Object>>>() {
+            })
+            .getFeatures());
+    softly.assertThat(actual)
+        .extracting(feature -> ((Geometry) feature.getGeometry()).getCoordinate().x)
+        .satisfiesExactly(
+            x -> softly.assertThat(x).isCloseTo(9.5, within(1e-6)),
+            x -> softly.assertThat(x).isCloseTo(-3., within(1e-6)));
+  }
+
+  /**
+   * Decode sequence.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void decodeSequence(SoftAssertions softly) throws Exception {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = TestFeatures.lines(10);
+    StringBuilder json = new StringBuilder();
+    for (GeoJsonFeature<Geometry, Map<String, Object>> feature : features) {
+      json.append('\u001E').append(objectMapper.writeValueAsString(feature)).append('\n');
+    }
+    softly.assertThat(decode(json.toString(), APPLICATION_GEO_JSON_SEQ))
+        .containsExactlyElementsOf(features);
+  }
+
+  /**
+   * Decode with backpressure.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void decodeWithBackpressure(SoftAssertions softly) throws Exception {
+    byte[] record = ("\u001E"
+        + objectMapper.writeValueAsString(TestFeatures.lines(1).get(0)) + "\n")
+        .getBytes(StandardCharsets.UTF_8);
+    AtomicInteger generated = new AtomicInteger();
+    Flux<DataBuffer> endless = Flux.generate(sink -> {
+      generated.incrementAndGet();
+      sink.next(DefaultDataBufferFactory.sharedInstance.wrap(record.clone()));
+    });
+    List<GeoJsonFeature<?, ?>> actual = target
+        .decode(endless, featureType, APPLICATION_GEO_JSON_SEQ, null)
+        .take(3)
+        .collectList()
+        .block(Duration.ofSeconds(10));
+    softly.assertThat(actual)
+        .hasSize(3);
+    softly.assertThat(generated.get())
+        .isLessThan(1000);
+  }
+
+  /**
+   * Decode and expect decoding exception.
+   */
+  @Test
+  void decodeAndExpectDecodingException() {
+    assertThatExceptionOfType(DecodingException.class)
+        .isThrownBy(() -> decode(
+            "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\"",
+            APPLICATION_GEO_JSON));
+    assertThatExceptionOfType(DecodingException.class)
+        .isThrownBy(() -> decode("{\"type\":\"Feature\",]", APPLICATION_GEO_JSON_SEQ));
+  }
+
+  /**
+   * Decode to mono.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void decodeToMono(SoftAssertions softly) throws Exception {
+    GeoJsonFeature<Geometry, Map<String, Object>> feature = TestFeatures.lines(1).get(0);
+    softly.assertThat(target
+            .decodeToMono(chunks(objectMapper.writeValueAsString(feature), 5),
+                featureType, APPLICATION_GEO_JSON, null)
+            .block())
+        .isEqualTo(feature);
+  }
+
+}
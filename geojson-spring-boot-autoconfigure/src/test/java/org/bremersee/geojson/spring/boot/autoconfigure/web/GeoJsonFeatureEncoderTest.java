@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.spring.boot.autoconfigure.web;
+
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON;
+import static org.bremersee.geojson.spring.boot.autoconfigure.web.GeoJsonMediaTypes.APPLICATION_GEO_JSON_SEQ;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The geo json feature encoder test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeoJsonFeatureEncoderTest {
+
+  private static final ObjectMapper objectMapper = JsonMapper.builder()
+      .addModule(new GeoJsonObjectMapperModule())
+      .build();
+
+  private static final ResolvableType featureType = ResolvableType
+      .forClassWithGenerics(GeoJsonFeature.class, Geometry.class, Map.class);
+
+  private static final GeoJsonFeatureEncoder target = new GeoJsonFeatureEncoder(objectMapper);
+
+  private static String encode(
+      Flux<GeoJsonFeature<Geometry, Map<String, Object>>> features,
+      MediaType mediaType) {
+    DataBuffer buffer = DataBufferUtils.join(target.encode(
+            features,
+            DefaultDataBufferFactory.sharedInstance,
+            featureType,
+            mediaType,
+            null))
+        .block();
+    String json = buffer.toString(StandardCharsets.UTF_8);
+    DataBufferUtils.release(buffer);
+    return json;
+  }
+
+  /**
+   * Can encode.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void canEncode(SoftAssertions softly) {
+    softly.assertThat(target.canEncode(featureType, APPLICATION_GEO_JSON))
+        .isTrue();
+    softly.assertThat(target.canEncode(featureType, APPLICATION_GEO_JSON_SEQ))
+        .isTrue();
+    softly.assertThat(target.canEncode(featureType, null))
+        .isFalse();
+    softly.assertThat(target.canEncode(featureType, MediaType.APPLICATION_JSON))
+        .isFalse();
+    softly.assertThat(target.canEncode(
+            ResolvableType.forClass(GeoJsonFeatureCollection.class), APPLICATION_GEO_JSON))
+        .isFalse();
+    softly.assertThat(target.getStreamingMediaTypes())
+        .containsExactly(APPLICATION_GEO_JSON_SEQ);
+  }
+
+  /**
+   * Encode feature collection.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void encodeFeatureCollection(SoftAssertions softly) throws Exception {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = TestFeatures.points(10);
+    String json = encode(Flux.fromIterable(features), APPLICATION_GEO_JSON);
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> actual = objectMapper
+        .readValue(json, new TypeReference<>() {
+        });
+    softly.assertThat(actual.getFeatures())
+        .containsExactlyElementsOf(features);
+
+    softly.assertThat(encode(Flux.empty(), APPLICATION_GEO_JSON))
+        .isEqualTo("{\"type\":\"FeatureCollection\",\"features\":[]}");
+  }
+
+  /**
+   * Encode sequence.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void encodeSequence(SoftAssertions softly) throws Exception {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = TestFeatures.points(10);
+    String json = encode(Flux.fromIterable(features), APPLICATION_GEO_JSON_SEQ);
+    String[] records = json.split("\n");
+    softly.assertThat(records)
+        .hasSize(features.size());
+    for (int i = 0; i < records.length; i++) {
+      softly.assertThat(records[i])
+          .startsWith("\u001E");
+      softly.assertThat(objectMapper.readValue(records[i].substring(1),
+              new TypeReference<GeoJsonFeature<Geometry, Map<String, Object>>>() {
+              }))
+          .isEqualTo(features.get(i));
+    }
+  }
+
+  /**
+   * Encode mono.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void encodeMono(SoftAssertions softly) throws Exception {
+    GeoJsonFeature<Geometry, Map<String, Object>> feature = TestFeatures.points(1).get(0);
+    DataBuffer buffer = DataBufferUtils.join(target.encode(
+            Mono.just(feature),
+            DefaultDataBufferFactory.sharedInstance,
+            featureType,
+            APPLICATION_GEO_JSON,
+            null))
+        .block();
+    String json = buffer.toString(StandardCharsets.UTF_8);
+    DataBufferUtils.release(buffer);
+    softly.assertThat(json)
+        .isEqualTo(objectMapper.writeValueAsString(feature));
+  }
+
+}
@@ -16,18 +16,23 @@
 
 package org.bremersee.geojson.spring.boot.autoconfigure.web;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.bremersee.geojson.GeoJsonGeometryFactory;
 import org.bremersee.geojson.converter.GeometryConverters;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
 
 /**
  * The geo json web flux configurer test.
@@ -40,7 +45,10 @@ class GeoJsonWebFluxConfigurerTest {
     //noinspection unchecked
     ObjectProvider<GeoJsonGeometryFactory> objectProvider = mock(ObjectProvider.class);
     when(objectProvider.getIfAvailable(any())).thenReturn(new GeoJsonGeometryFactory());
-    return new GeoJsonWebFluxConfigurer(objectProvider);
+    //noinspection unchecked
+    ObjectProvider<ObjectMapper> objectMapperProvider = mock(ObjectProvider.class);
+    when(objectMapperProvider.getIfAvailable(any())).thenReturn(new ObjectMapper());
+    return new GeoJsonWebFluxConfigurer(objectProvider, objectMapperProvider);
   }
 
   /**
@@ -66,4 +74,20 @@ class GeoJsonWebFluxConfigurerTest {
     verify(formatterRegistry, times(wantedNumberOfInvocations))
         .addConverter(any(Converter.class));
   }
-}
\ No newline at end of file
+
+  /**
+   * Configure http message codecs.
+   */
+  @Test
+  void configureHttpMessageCodecs() {
+    GeoJsonWebFluxConfigurer target = newInstance();
+    ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+    target.configureHttpMessageCodecs(configurer);
+    assertThat(configurer.getWriters())
+        .anyMatch(writer -> writer instanceof EncoderHttpMessageWriter<?> w
+            && w.getEncoder() instanceof GeoJsonFeatureEncoder);
+    assertThat(configurer.getReaders())
+        .anyMatch(reader -> reader instanceof DecoderHttpMessageReader<?> r
+            && r.getDecoder() instanceof GeoJsonFeatureDecoder);
+  }
+}
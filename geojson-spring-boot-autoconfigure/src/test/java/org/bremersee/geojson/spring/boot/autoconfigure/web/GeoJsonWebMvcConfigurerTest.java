@@ -16,18 +16,24 @@
 
 package org.bremersee.geojson.spring.boot.autoconfigure.web;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
 import org.bremersee.geojson.GeoJsonGeometryFactory;
 import org.bremersee.geojson.converter.GeometryConverters;
+import org.bremersee.geojson.spring.boot.autoconfigure.GeoJsonProperties;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.http.converter.HttpMessageConverter;
 
 /**
  * The geo json web mvc configurer test.
@@ -40,7 +46,11 @@ class GeoJsonWebMvcConfigurerTest {
     //noinspection unchecked
     ObjectProvider<GeoJsonGeometryFactory> objectProvider = mock(ObjectProvider.class);
     when(objectProvider.getIfAvailable(any())).thenReturn(new GeoJsonGeometryFactory());
-    return new GeoJsonWebMvcConfigurer(objectProvider);
+    //noinspection unchecked
+    ObjectProvider<ObjectMapper> objectMapperProvider = mock(ObjectProvider.class);
+    when(objectMapperProvider.getIfAvailable(any())).thenReturn(new ObjectMapper());
+    return new GeoJsonWebMvcConfigurer(
+        new GeoJsonProperties(), objectProvider, objectMapperProvider);
   }
 
   /**
@@ -66,4 +76,18 @@ class GeoJsonWebMvcConfigurerTest {
     verify(formatterRegistry, times(wantedNumberOfInvocations))
         .addConverter(any(Converter.class));
   }
-}
\ No newline at end of file
+
+  /**
+   * Extend message converters.
+   */
+  @Test
+  void extendMessageConverters() {
+    GeoJsonWebMvcConfigurer target = newInstance();
+    List<HttpMessageConverter<?>> converters = new ArrayList<>();
+    target.extendMessageConverters(converters);
+    assertThat(converters)
+        .hasSize(1)
+        .first()
+        .isInstanceOf(GeoJsonFeatureCollectionHttpMessageConverter.class);
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.spring.boot.autoconfigure.web;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The test features, that are shared by the tests of the encoders, decoders and converters.
+ *
+ * @author Christian Bremer
+ */
+abstract class TestFeatures {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private TestFeatures() {
+  }
+
+  /**
+   * Creates features with the index as id, the points (i, i + 0.5) and the property
+   * {@code index}.
+   *
+   * @param size the number of features
+   * @return the features
+   */
+  static List<GeoJsonFeature<Geometry, Map<String, Object>>> points(int size) {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      features.add(new GeoJsonFeature<>(
+          String.valueOf(i),
+          factory.createPoint(GeoJsonGeometryFactory.createCoordinate(i, i + 0.5)),
+          false,
+          Map.of("index", i)));
+    }
+    return features;
+  }
+
+  /**
+   * Creates features with the index as id, the lines from (i, i + 0.5) to (i + 1, i - 0.5), a
+   * bounding box on every second feature and properties with a nested {@code features} member.
+   *
+   * @param size the number of features
+   * @return the features
+   */
+  static List<GeoJsonFeature<Geometry, Map<String, Object>>> lines(int size) {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      features.add(new GeoJsonFeature<>(
+          String.valueOf(i),
+          factory.createLineString(List.of(
+              GeoJsonGeometryFactory.createCoordinate(i, i + 0.5),
+              GeoJsonGeometryFactory.createCoordinate(i + 1, i - 0.5))),
+          i % 2 == 0,
+          Map.of("index", i, "nested", Map.of("features", List.of(i)))));
+    }
+    return features;
+  }
+
+}
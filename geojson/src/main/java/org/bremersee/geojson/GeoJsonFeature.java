@@ -20,6 +20,7 @@ import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.bremersee.geojson.GeoJsonConstants.BBOX;
+import static org.bremersee.geojson.GeoJsonConstants.CRS;
 import static org.bremersee.geojson.GeoJsonConstants.FEATURE;
 import static org.bremersee.geojson.GeoJsonConstants.GEOMETRY;
 import static org.bremersee.geojson.GeoJsonConstants.ID;
@@ -37,8 +38,12 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.Arrays;
 import java.util.Objects;
+import org.bremersee.geojson.converter.deserialization.JacksonBoundingBoxDeserializer;
+import org.bremersee.geojson.converter.deserialization.JacksonCrsDeserializer;
 import org.bremersee.geojson.converter.deserialization.JacksonGeometryDeserializer;
+import org.bremersee.geojson.converter.serialization.JacksonBoundingBoxSerializer;
 import org.bremersee.geojson.converter.serialization.JacksonGeometrySerializer;
+import org.bremersee.geojson.crs.AbstractGeoJsonCrs;
 import org.bremersee.geojson.model.UnknownAware;
 import org.locationtech.jts.geom.Geometry;
 
@@ -46,12 +51,16 @@ import org.locationtech.jts.geom.Geometry;
  * A GeoJSON object with the type {@code Feature} (see
  * <a href="https://tools.ietf.org/html/rfc7946#section-3.2">rfc7946 section 3.2</a>).
  *
+ * <p>The feature can have the {@code crs} member of the former GeoJSON specification. If the
+ * object mapper reprojects the positions (see {@link GeoJsonObjectMapperModule}), the geometry
+ * and the bounding box are transformed from and into this coordinate reference system.
+ *
  * @param <G> the geometry type parameter
  * @param <P> the properties type parameter
  * @author Christian Bremer
  */
 @Schema(description = "A GeoJSON object with type 'Feature'.")
-@JsonPropertyOrder({"type", "id", "bbox", "geometry", "properties"})
+@JsonPropertyOrder({"type", "id", "crs", "bbox", "geometry", "properties"})
 public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
 
   @Schema(description = "The id of the GeoJSON feature.")
@@ -59,7 +68,13 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
   @JsonProperty(ID)
   private final String id;
 
+  @Schema(description = "The coordinate reference system of the GeoJSON feature.")
+  @JsonInclude(Include.NON_NULL)
+  @JsonProperty(CRS)
+  private final AbstractGeoJsonCrs crs;
+
   @Schema(description = "The bounding box of the GeoJSON feature.")
+  @JsonSerialize(using = JacksonBoundingBoxSerializer.class)
   @JsonInclude(Include.NON_EMPTY)
   @JsonProperty(BBOX)
   private final double[] bbox;
@@ -79,6 +94,7 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
    *
    * @param type the type
    * @param id the id
+   * @param crs the crs
    * @param bbox the bbox
    * @param geometry the geometry
    * @param properties the properties
@@ -87,7 +103,12 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
   GeoJsonFeature(
       @JsonProperty(value = TYPE, required = true) String type,
       @JsonProperty(ID) String id,
-      @JsonProperty(BBOX) double[] bbox,
+      @JsonProperty(CRS)
+      @JsonDeserialize(using = JacksonCrsDeserializer.class)
+      AbstractGeoJsonCrs crs,
+      @JsonProperty(BBOX)
+      @JsonDeserialize(using = JacksonBoundingBoxDeserializer.class)
+      double[] bbox,
       @JsonProperty(GEOMETRY)
       @JsonDeserialize(using = JacksonGeometryDeserializer.class)
       G geometry,
@@ -98,6 +119,7 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
     }
 
     this.id = id;
+    this.crs = crs;
     if (isNull(bbox) || (bbox.length == 4) || (bbox.length == 6)) {
       this.bbox = bbox;
     } else {
@@ -121,7 +143,25 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
       double[] bbox,
       G geometry,
       P properties) {
-    this(FEATURE, id, bbox, geometry, properties);
+    this(FEATURE, id, null, bbox, geometry, properties);
+  }
+
+  /**
+   * Instantiates a new geo json feature with a coordinate reference system.
+   *
+   * @param id the id
+   * @param bbox the bbox
+   * @param geometry the geometry
+   * @param properties the properties
+   * @param crs the coordinate reference system of the feature (can be {@code null})
+   */
+  public GeoJsonFeature(
+      String id,
+      double[] bbox,
+      G geometry,
+      P properties,
+      AbstractGeoJsonCrs crs) {
+    this(FEATURE, id, crs, bbox, geometry, properties);
   }
 
   /**
@@ -142,6 +182,7 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
     this(
         FEATURE,
         id,
+        null,
         calculateBounds ? GeoJsonGeometryFactory.getBoundingBox(geometry) : null,
         geometry,
         properties);
@@ -168,6 +209,17 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
     return id;
   }
 
+  /**
+   * Return the coordinate reference system of this GeoJSON feature or {@code null} if there is
+   * none.
+   *
+   * @return the coordinate reference system
+   */
+  @JsonIgnore
+  public AbstractGeoJsonCrs getCrs() {
+    return crs;
+  }
+
   /**
    * Return the bounding box of the GeoJSON object or {@code null} if there is no such object (see
    * <a href="https://tools.ietf.org/html/rfc7946#section-5">Bounding Box</a>).
@@ -205,6 +257,7 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
   public String toString() {
     return "GeoJsonFeature {"
         + "id='" + getId() + '\''
+        + ", crs=" + getCrs()
         + ", bbox=" + Arrays.toString(getBbox())
         + ", geometry=" + (nonNull(getGeometry()) ? getGeometry().toText() : "null")
         + ", properties=" + getProperties()
@@ -214,11 +267,9 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
 
   @Override
   public int hashCode() {
-    int result = Objects.hash(getId(), getProperties());
+    int result = Objects.hash(getId(), getCrs(), getProperties());
     result = 31 * result + Arrays.hashCode(getBbox());
-    if (nonNull(getGeometry())) {
-      result = 31 * result + getGeometry().toText().hashCode();
-    }
+    result = 31 * result + GeoJsonGeometryFactory.hashCode(getGeometry());
     return result;
   }
 
@@ -231,9 +282,10 @@ public class GeoJsonFeature<G extends Geometry, P> extends UnknownAware {
       return false;
     }
     return Objects.equals(getId(), that.getId())
-        && GeoJsonGeometryFactory.equals(getGeometry(), that.getGeometry())
+        && Objects.equals(getCrs(), that.getCrs())
         && Arrays.equals(getBbox(), that.getBbox())
-        && Objects.equals(getProperties(), that.getProperties());
+        && Objects.equals(getProperties(), that.getProperties())
+        && GeoJsonGeometryFactory.equals(getGeometry(), that.getGeometry());
   }
 
 }
@@ -19,6 +19,7 @@ package org.bremersee.geojson;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.bremersee.geojson.GeoJsonConstants.BBOX;
+import static org.bremersee.geojson.GeoJsonConstants.CRS;
 import static org.bremersee.geojson.GeoJsonConstants.FEATURES;
 import static org.bremersee.geojson.GeoJsonConstants.FEATURE_COLLECTION;
 import static org.bremersee.geojson.GeoJsonConstants.TYPE;
@@ -29,6 +30,8 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
 import java.util.ArrayList;
@@ -40,6 +43,10 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import org.bremersee.geojson.converter.deserialization.JacksonBoundingBoxDeserializer;
+import org.bremersee.geojson.converter.deserialization.JacksonCrsDeserializer;
+import org.bremersee.geojson.converter.serialization.JacksonBoundingBoxSerializer;
+import org.bremersee.geojson.crs.AbstractGeoJsonCrs;
 import org.bremersee.geojson.model.UnknownAware;
 import org.locationtech.jts.geom.Geometry;
 
@@ -47,12 +54,17 @@ import org.locationtech.jts.geom.Geometry;
  * A GeoJSON object with the type {@code FeatureCollection} is a feature collection object (see
  * <a href="https://tools.ietf.org/html/rfc7946#section-3.3">rfc7946 section 3.3</a>).
  *
+ * <p>The feature collection can have the {@code crs} member of the former GeoJSON specification.
+ * If the object mapper reprojects the positions (see {@link GeoJsonObjectMapperModule}), the
+ * geometries and bounding boxes of the features without an own {@code crs} member and the
+ * bounding box of the collection are transformed from and into this coordinate reference system.
+ *
  * @param <G> the geometry type parameter
  * @param <P> the properties type parameter
  * @author Christian Bremer
  */
 @Schema(description = "A GeoJSON object with type 'Feature'.")
-@JsonPropertyOrder({"type", "bbox", "features"})
+@JsonPropertyOrder({"type", "crs", "bbox", "features"})
 public class GeoJsonFeatureCollection<G extends Geometry, P> extends UnknownAware {
 
   @Schema(hidden = true)
@@ -63,11 +75,33 @@ public class GeoJsonFeatureCollection<G extends Geometry, P> extends UnknownAwar
   @JsonIgnore
   private final Comparator<GeoJsonFeature<G, P>> comparator;
 
+  @Schema(description = "The coordinate reference system of the GeoJSON feature collection.")
+  @JsonInclude(Include.NON_NULL)
+  @JsonProperty(CRS)
+  private AbstractGeoJsonCrs crs;
+
   @Schema(description = "The bounding box of the GeoJSON feature collection.")
+  @JsonSerialize(using = JacksonBoundingBoxSerializer.class)
   @JsonInclude(Include.NON_EMPTY)
   @JsonProperty(BBOX)
   private double[] bbox;
 
+  /**
+   * The bounding box of the added features, that is merged with the bounding box of each added
+   * feature.
+   */
+  @Schema(hidden = true)
+  @JsonIgnore
+  private double[] featuresBbox;
+
+  /**
+   * Specifies whether the features are sorted; the features are sorted with the comparator, when
+   * they are read.
+   */
+  @Schema(hidden = true)
+  @JsonIgnore
+  private boolean sorted = true;
+
   @SuppressWarnings("DefaultAnnotationParam")
   @Schema(description = "The features the GeoJSON feature collection.")
   @JsonInclude(Include.ALWAYS)
@@ -179,13 +213,35 @@ public class GeoJsonFeatureCollection<G extends Geometry, P> extends UnknownAwar
    * @param bbox the bbox
    * @param features the features
    */
+  GeoJsonFeatureCollection(
+      String type,
+      double[] bbox,
+      Collection<? extends GeoJsonFeature<G, P>> features) {
+
+    this(type, null, bbox, features);
+  }
+
+  /**
+   * Instantiates a new geo json feature collection.
+   *
+   * @param type the type
+   * @param crs the crs
+   * @param bbox the bbox
+   * @param features the features
+   */
   @JsonCreator
   GeoJsonFeatureCollection(
       @JsonProperty(value = TYPE, required = true) String type,
-      @JsonProperty(BBOX) double[] bbox,
+      @JsonProperty(CRS)
+      @JsonDeserialize(using = JacksonCrsDeserializer.class)
+      AbstractGeoJsonCrs crs,
+      @JsonProperty(BBOX)
+      @JsonDeserialize(using = JacksonBoundingBoxDeserializer.class)
+      double[] bbox,
       @JsonProperty(FEATURES) Collection<? extends GeoJsonFeature<G, P>> features) {
 
     this(bbox, features, null);
+    this.crs = crs;
     if (!FEATURE_COLLECTION.equals(type)) {
       throw new IllegalArgumentException(String.format("Type must be '%s'.", FEATURE_COLLECTION));
     }
@@ -205,6 +261,27 @@ public class GeoJsonFeatureCollection<G extends Geometry, P> extends UnknownAwar
     return FEATURE_COLLECTION;
   }
 
+  /**
+   * Return the coordinate reference system of this GeoJSON feature collection or {@code null} if
+   * there is none.
+   *
+   * @return the coordinate reference system
+   */
+  @JsonIgnore
+  public AbstractGeoJsonCrs getCrs() {
+    return crs;
+  }
+
+  /**
+   * Sets the coordinate reference system of this GeoJSON feature collection.
+   *
+   * @param crs the coordinate reference system (can be {@code null})
+   */
+  @JsonIgnore
+  public void setCrs(AbstractGeoJsonCrs crs) {
+    this.crs = crs;
+  }
+
   /**
    * Return the bounding box of the GeoJSON object or {@code null} if there is no such object (see
    * <a href="https://tools.ietf.org/html/rfc7946#section-5">Bounding Box</a>).
@@ -217,13 +294,24 @@ public class GeoJsonFeatureCollection<G extends Geometry, P> extends UnknownAwar
   }
 
   /**
-   * Gets features.
+   * Gets features. If a comparator is present, the features are sorted.
    *
    * @return the features
    */
-  @JsonIgnore
+  @JsonProperty(FEATURES)
   public List<GeoJsonFeature<G, P>> getFeatures() {
-    return isNull(features) ? List.of() : Collections.unmodifiableList(features);
+    if (isNull(features)) {
+      return List.of();
+    }
+    sortFeatures();
+    return Collections.unmodifiableList(features);
+  }
+
+  private synchronized void sortFeatures() {
+    if (!sorted) {
+      features.sort(comparator);
+      sorted = true;
+    }
   }
 
   /**
@@ -238,7 +326,8 @@ public class GeoJsonFeatureCollection<G extends Geometry, P> extends UnknownAwar
   }
 
   /**
-   * Add all.
+   * Add all. The bounding box is merged with the bounding box of the added features and the
+   * features are sorted not until they are read, so adding features one by one takes linear time.
    *
    * @param features the features
    */
@@ -246,10 +335,13 @@ public class GeoJsonFeatureCollection<G extends Geometry, P> extends UnknownAwar
     if (nonNull(features) && !features.isEmpty()) {
       this.features.addAll(features);
       if (withBoundingBox) {
-        this.bbox = GeoJsonGeometryFactory.getBoundingBox(getGeometries(this.features));
+        featuresBbox = GeoJsonGeometryFactory.mergeBoundingBoxes(
+            featuresBbox,
+            GeoJsonGeometryFactory.getBoundingBox(getGeometries(features)));
+        this.bbox = isNull(featuresBbox) ? null : featuresBbox.clone();
       }
       if (nonNull(comparator)) {
-        this.features.sort(this.comparator);
+        sorted = false;
       }
     }
   }
@@ -263,13 +355,14 @@ public class GeoJsonFeatureCollection<G extends Geometry, P> extends UnknownAwar
       return false;
     }
     GeoJsonFeatureCollection<?, ?> that = (GeoJsonFeatureCollection<?, ?>) o;
-    return Arrays.equals(getBbox(), that.getBbox())
+    return Objects.equals(getCrs(), that.getCrs())
+        && Arrays.equals(getBbox(), that.getBbox())
         && Objects.equals(getFeatures(), that.getFeatures());
   }
 
   @Override
   public int hashCode() {
-    int result = Objects.hash(getFeatures());
+    int result = Objects.hash(getCrs(), getFeatures());
     result = 31 * result + Arrays.hashCode(getBbox());
     return result;
   }
@@ -277,6 +370,7 @@ public class GeoJsonFeatureCollection<G extends Geometry, P> extends UnknownAwar
   @Override
   public String toString() {
     return "GeoJsonFeatureCollection {"
+        + ", crs=" + getCrs()
         + ", features=" + getFeatures()
         + ", bbox=" + Arrays.toString(getBbox())
         + ", unknown=" + unknown()
@@ -17,23 +17,32 @@
 package org.bremersee.geojson;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.Serial;
 import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.bremersee.geojson.converter.GeometryToTwkbConverter;
+import org.bremersee.geojson.converter.TwkbToGeometryConverter;
+import org.bremersee.geojson.filter.CoordinateFilterPipeline;
+import org.bremersee.geojson.geom.OffHeapCoordinateSequenceFactory;
 import org.bremersee.geojson.model.LatLon;
 import org.bremersee.geojson.model.LatLonAware;
 import org.bremersee.geojson.model.LatitudeLongitude;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateFilter;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -44,7 +53,12 @@ import org.locationtech.jts.geom.MultiPoint;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+import org.locationtech.jts.io.ByteOrderValues;
 import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
 import org.locationtech.jts.io.WKTReader;
 
 /**
@@ -54,6 +68,65 @@ import org.locationtech.jts.io.WKTReader;
  */
 public class GeoJsonGeometryFactory extends GeometryFactory {
 
+  /**
+   * Instantiates a new geo json geometry factory with a floating precision model, no SRID and
+   * coordinate array sequences.
+   */
+  public GeoJsonGeometryFactory() {
+    super();
+  }
+
+  /**
+   * Instantiates a new geo json geometry factory with a floating precision model, no SRID and
+   * the given coordinate sequence factory.
+   *
+   * @param coordinateSequenceFactory the coordinate sequence factory
+   */
+  public GeoJsonGeometryFactory(CoordinateSequenceFactory coordinateSequenceFactory) {
+    super(coordinateSequenceFactory);
+  }
+
+  /**
+   * Instantiates a new geo json geometry factory.
+   *
+   * @param precisionModel the precision model
+   * @param srid the SRID
+   * @param coordinateSequenceFactory the coordinate sequence factory
+   */
+  public GeoJsonGeometryFactory(
+      PrecisionModel precisionModel,
+      int srid,
+      CoordinateSequenceFactory coordinateSequenceFactory) {
+    super(precisionModel, srid, coordinateSequenceFactory);
+  }
+
+  /**
+   * Creates a geo json geometry factory, that stores the coordinates of the geometries in packed
+   * coordinate sequences, i.e. in primitive arrays instead of one coordinate object per position.
+   * The readers and deserializers of this library write the parsed ordinates directly into such
+   * sequences.
+   *
+   * @param useFloat specifies whether the ordinates are stored as floats instead of doubles
+   * @return the geo json geometry factory
+   */
+  public static GeoJsonGeometryFactory withPackedCoordinateSequences(boolean useFloat) {
+    return new GeoJsonGeometryFactory(useFloat
+        ? PackedCoordinateSequenceFactory.FLOAT_FACTORY
+        : PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+  }
+
+  /**
+   * Creates a geo json geometry factory, that stores the coordinates of the geometries in
+   * off-heap memory (see {@link OffHeapCoordinateSequenceFactory}). This keeps very large layers
+   * out of the java heap. The readers and deserializers of this library write the parsed ordinates
+   * directly into the off-heap sequences.
+   *
+   * @return the geo json geometry factory
+   */
+  public static GeoJsonGeometryFactory withOffHeapCoordinateSequences() {
+    return new GeoJsonGeometryFactory(new OffHeapCoordinateSequenceFactory());
+  }
+
   /**
    * Creates a coordinate.
    *
@@ -320,7 +393,23 @@ public class GeoJsonGeometryFactory extends GeometryFactory {
     if (g1 instanceof GeometryCollection || g2 instanceof GeometryCollection) {
       return false;
     }
-    return g1.equals(g2);
+    if (isDifferent(g1, g2)) {
+      return false;
+    }
+    return g1.equalsExact(g2) || g1.equals(g2);
+  }
+
+  /**
+   * Quick check whether two geometries can't be topologically equal, because their envelopes
+   * (which are cached by the geometries) or their dimensions are different.
+   *
+   * @param g1 one geometry
+   * @param g2 another geometry
+   * @return {@code true} if the geometries are not equal, {@code false} if they may be equal
+   */
+  private static boolean isDifferent(Geometry g1, Geometry g2) {
+    return !g1.getEnvelopeInternal().equals(g2.getEnvelopeInternal())
+        || (!g1.isEmpty() && !g2.isEmpty() && g1.getDimension() != g2.getDimension());
   }
 
   /**
@@ -331,7 +420,7 @@ public class GeoJsonGeometryFactory extends GeometryFactory {
    * @return {@code true} if the geometry collections are equal otherwise {@code false}
    */
   private static boolean equals(GeometryCollection gc1, GeometryCollection gc2) {
-    if (gc1.getNumGeometries() != gc2.getNumGeometries()) {
+    if (gc1.getNumGeometries() != gc2.getNumGeometries() || isDifferent(gc1, gc2)) {
       return false;
     }
     for (int i = 0; i < gc1.getNumGeometries(); i++) {
@@ -344,6 +433,24 @@ public class GeoJsonGeometryFactory extends GeometryFactory {
     return true;
   }
 
+  /**
+   * Calculates a hash code of the geometry, that is consistent with
+   * {@link #equals(Geometry, Geometry)}.
+   *
+   * <p>The hash code is calculated from the dimension and the envelope of the geometry. Because
+   * the geometry caches its envelope, the coordinates are only scanned once (or again after
+   * {@link Geometry#geometryChanged()} was called).
+   *
+   * @param geometry the geometry
+   * @return the hash code
+   */
+  public static int hashCode(Geometry geometry) {
+    if (isNull(geometry)) {
+      return 0;
+    }
+    return 31 * geometry.getDimension() + geometry.getEnvelopeInternal().hashCode();
+  }
+
   /**
    * Calculate the bounding box of the specified geometry (see
    * <a href="https://tools.ietf.org/html/rfc7946#section-5">bounding-boxes</a>).
@@ -358,9 +465,12 @@ public class GeoJsonGeometryFactory extends GeometryFactory {
    * @return {@code null} if the bounding box can not be calculated, otherwise the bounding box
    */
   public static double[] getBoundingBox(Geometry geometry) {
-    return Optional.ofNullable(geometry)
-        .map(g -> getBoundingBox(Collections.singletonList(g)))
-        .orElse(null);
+    if (isNull(geometry)) {
+      return null;
+    }
+    BoundingBoxFilter filter = new BoundingBoxFilter();
+    geometry.apply(filter);
+    return filter.getBoundingBox();
   }
 
   /**
@@ -373,58 +483,85 @@ public class GeoJsonGeometryFactory extends GeometryFactory {
     if (isNull(geometries) || geometries.isEmpty()) {
       return null;
     }
-    double minX = Double.NaN;
-    double minY = Double.NaN;
-    double minZ = Double.NaN;
-    double maxX = Double.NaN;
-    double maxY = Double.NaN;
-    double maxZ = Double.NaN;
+    BoundingBoxFilter filter = new BoundingBoxFilter();
     for (Geometry geometry : geometries) {
-      if (geometry != null && geometry.getCoordinates() != null) {
-        Coordinate[] coords = geometry.getCoordinates();
-        //noinspection ForLoopReplaceableByForEach
-        for (int i = 0; i < coords.length; i++) {
-          if (Double.isNaN(minX)) {
-            minX = coords[i].getX();
-          } else if (!Double.isNaN(coords[i].getX())) {
-            minX = Math.min(minX, coords[i].getX());
-          }
-          if (Double.isNaN(minY)) {
-            minY = coords[i].getY();
-          } else if (!Double.isNaN(coords[i].getY())) {
-            minY = Math.min(minY, coords[i].getY());
-          }
-          if (Double.isNaN(minZ)) {
-            minZ = coords[i].getZ();
-          } else if (!Double.isNaN(coords[i].getZ())) {
-            minZ = Math.min(minZ, coords[i].getZ());
-          }
-
-          if (Double.isNaN(maxX)) {
-            maxX = coords[i].getX();
-          } else if (!Double.isNaN(coords[i].getX())) {
-            maxX = Math.max(maxX, coords[i].getX());
-          }
-          if (Double.isNaN(maxY)) {
-            maxY = coords[i].getY();
-          } else if (!Double.isNaN(coords[i].getY())) {
-            maxY = Math.max(maxY, coords[i].getY());
-          }
-          if (Double.isNaN(maxZ)) {
-            maxZ = coords[i].getZ();
-          } else if (!Double.isNaN(coords[i].getZ())) {
-            maxZ = Math.max(maxZ, coords[i].getZ());
-          }
-        }
+      if (geometry != null) {
+        geometry.apply(filter);
       }
     }
-    if (!Double.isNaN(minX) && !Double.isNaN(maxX) && !Double.isNaN(minY) && !Double.isNaN(maxY)) {
-      if (!Double.isNaN(minZ) && !Double.isNaN(maxZ)) {
-        return new double[]{minX, minY, minZ, maxX, maxY, maxZ};
-      }
-      return new double[]{minX, minY, maxX, maxY};
+    return filter.getBoundingBox();
+  }
+
+  /**
+   * Calculate the bounding box of the specified geometries in parallel with the common fork join
+   * pool. The geometries are split into chunks, the bounding boxes of the chunks are calculated
+   * in parallel and merged. The result is the same as of {@link #getBoundingBox(Collection)}.
+   *
+   * @param geometries the geometries
+   * @return {@code null} if the bounding box can not be calculated, otherwise the bounding box
+   */
+  public static double[] getBoundingBoxInParallel(Collection<? extends Geometry> geometries) {
+    return getBoundingBoxInParallel(geometries, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Calculate the bounding box of the specified geometries in parallel with the given fork join
+   * pool. The geometries are split into chunks, the bounding boxes of the chunks are calculated
+   * in parallel and merged. The result is the same as of {@link #getBoundingBox(Collection)}.
+   *
+   * @param geometries the geometries
+   * @param pool the fork join pool
+   * @return {@code null} if the bounding box can not be calculated, otherwise the bounding box
+   */
+  public static double[] getBoundingBoxInParallel(
+      Collection<? extends Geometry> geometries,
+      ForkJoinPool pool) {
+
+    if (isNull(geometries) || geometries.size() <= BoundingBoxTask.THRESHOLD) {
+      return getBoundingBox(geometries);
+    }
+    ForkJoinPool p = isNull(pool) ? ForkJoinPool.commonPool() : pool;
+    Geometry[] array = geometries.toArray(new Geometry[0]);
+    return p.invoke(new BoundingBoxTask(array, 0, array.length)).getBoundingBox();
+  }
+
+  /**
+   * Merges two bounding boxes into one bounding box that contains both. The z values are only
+   * present, if one of the bounding boxes has z values (so the result is the same as calculating
+   * the bounding box of all geometries at once).
+   *
+   * @param boundingBox1 the first bounding box (can be {@code null})
+   * @param boundingBox2 the second bounding box (can be {@code null})
+   * @return the merged bounding box or {@code null} if both bounding boxes are {@code null}
+   * @throws IllegalArgumentException if a bounding box has not a length of four or six
+   */
+  public static double[] mergeBoundingBoxes(double[] boundingBox1, double[] boundingBox2) {
+    if (nonNull(boundingBox1) && boundingBox1.length != 4 && boundingBox1.length != 6
+        || nonNull(boundingBox2) && boundingBox2.length != 4 && boundingBox2.length != 6) {
+      throw new IllegalArgumentException(
+          "Bounding box must be null or must have a length of four or six.");
+    }
+    if (isNull(boundingBox1)) {
+      return isNull(boundingBox2) ? null : boundingBox2.clone();
+    }
+    if (isNull(boundingBox2)) {
+      return boundingBox1.clone();
+    }
+    int d1 = boundingBox1.length / 2;
+    int d2 = boundingBox2.length / 2;
+    double minX = Math.min(boundingBox1[0], boundingBox2[0]);
+    double minY = Math.min(boundingBox1[1], boundingBox2[1]);
+    double maxX = Math.max(boundingBox1[d1], boundingBox2[d2]);
+    double maxY = Math.max(boundingBox1[d1 + 1], boundingBox2[d2 + 1]);
+    if (d1 == 3 && d2 == 3) {
+      return new double[]{minX, minY, Math.min(boundingBox1[2], boundingBox2[2]),
+          maxX, maxY, Math.max(boundingBox1[5], boundingBox2[5])};
+    }
+    if (d1 == 3 || d2 == 3) {
+      double[] bbox = d1 == 3 ? boundingBox1 : boundingBox2;
+      return new double[]{minX, minY, bbox[2], maxX, maxY, bbox[5]};
     }
-    return null;
+    return new double[]{minX, minY, maxX, maxY};
   }
 
   /**
@@ -606,7 +743,108 @@ public class GeoJsonGeometryFactory extends GeometryFactory {
   }
 
   /**
-   * Copy and apply filters.
+   * Reads a Well-Known Binary representation of a Geometry. The extended Well-Known Binary
+   * (EWKB) of PostGIS with a SRID is supported, too.
+   *
+   * @param wkb the well-known binary
+   * @return a Geometry read from the well-known binary
+   * @throws IllegalArgumentException if a parsing problem occurs
+   */
+  public Geometry createGeometryFromWellKnownBinary(byte[] wkb) throws IllegalArgumentException {
+    if (isNull(wkb)) {
+      return null;
+    }
+    try {
+      return new WKBReader(this).read(wkb);
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Parsing WKB failed.", e);
+    }
+  }
+
+  /**
+   * Reads a Well-Known Binary representation of a Geometry from a hex string. The extended
+   * Well-Known Binary (EWKB) of PostGIS with a SRID is supported, too.
+   *
+   * @param hex the hex string of the well-known binary
+   * @return a Geometry read from the hex string
+   * @throws IllegalArgumentException if a parsing problem occurs
+   */
+  public Geometry createGeometryFromWellKnownBinary(String hex) throws IllegalArgumentException {
+    if (isNull(hex)) {
+      return null;
+    }
+    if (hex.length() % 2 != 0) {
+      throw new IllegalArgumentException(String.format("Parsing WKB [%s] failed.", hex));
+    }
+    try {
+      return createGeometryFromWellKnownBinary(WKBReader.hexToBytes(hex));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException(String.format("Parsing WKB [%s] failed.", hex), e);
+    }
+  }
+
+  /**
+   * Reads a Tiny Well-Known Binary (TWKB) representation of a Geometry.
+   *
+   * @param twkb the tiny well-known binary
+   * @return a Geometry read from the tiny well-known binary
+   * @throws IllegalArgumentException if a parsing problem occurs
+   */
+  public Geometry createGeometryFromTinyWellKnownBinary(byte[] twkb)
+      throws IllegalArgumentException {
+    return isNull(twkb) ? null : new TwkbToGeometryConverter(this).convert(twkb);
+  }
+
+  /**
+   * Writes the Well-Known Binary representation of a geometry. Geometries with z values are
+   * written with three dimensions.
+   *
+   * @param geometry the geometry
+   * @param includeSrid specifies whether the SRID should be included, then the extended
+   *     Well-Known Binary (EWKB) of PostGIS is written
+   * @return the well-known binary
+   */
+  public static byte[] toWellKnownBinary(Geometry geometry, boolean includeSrid) {
+    if (isNull(geometry)) {
+      return null;
+    }
+    boolean[] hasZ = {false};
+    geometry.apply((CoordinateFilter) coordinate -> hasZ[0] |= !Double.isNaN(coordinate.getZ()));
+    return new WKBWriter(hasZ[0] ? 3 : 2, ByteOrderValues.BIG_ENDIAN, includeSrid)
+        .write(geometry);
+  }
+
+  /**
+   * Writes the Well-Known Binary representation of a geometry as hex string.
+   *
+   * @param geometry the geometry
+   * @param includeSrid specifies whether the SRID should be included, then the extended
+   *     Well-Known Binary (EWKB) of PostGIS is written
+   * @return the hex string of the well-known binary
+   */
+  public static String toWellKnownBinaryHex(Geometry geometry, boolean includeSrid) {
+    byte[] wkb = toWellKnownBinary(geometry, includeSrid);
+    return isNull(wkb) ? null : WKBWriter.toHex(wkb);
+  }
+
+  /**
+   * Writes the Tiny Well-Known Binary (TWKB) representation of a geometry.
+   *
+   * @param geometry the geometry
+   * @param precision the number of fraction digits of the ordinates (-8 to 7)
+   * @return the tiny well-known binary
+   */
+  public static byte[] toTinyWellKnownBinary(Geometry geometry, int precision) {
+    return isNull(geometry) ? null : new GeometryToTwkbConverter(precision).convert(geometry);
+  }
+
+  /**
+   * Copy and apply filters. The filters are applied in one traversal of the coordinates (see
+   * {@link CoordinateFilterPipeline}). As with {@link Geometry#apply(CoordinateFilter)} the
+   * filters get the coordinate instances of the copy, if it has coordinate array sequences, so
+   * they may keep references to them. The positions of other sequences (like packed sequences)
+   * are given to the filters as a reused coordinate, whose changes are written back; filters
+   * must not keep references to it.
    *
    * @param geometry the geometry
    * @param filters the filters
@@ -616,18 +854,16 @@ public class GeoJsonGeometryFactory extends GeometryFactory {
       Geometry geometry,
       CoordinateFilter... filters) {
 
-    Geometry result;
-    if (isNull(geometry) || isNull(filters) || filters.length == 0) {
-      result = geometry;
-    } else {
-      result = geometry.copy();
-      Arrays.stream(filters).forEach(result::apply);
-    }
-    return result;
+    return new CoordinateFilterPipeline(filters).apply(geometry);
   }
 
   /**
-   * Copy and apply filters.
+   * Copy and apply filters. The filters are applied in one traversal of the coordinates (see
+   * {@link CoordinateFilterPipeline}). As with {@link Geometry#apply(CoordinateFilter)} the
+   * filters get the coordinate instances of the copy, if it has coordinate array sequences, so
+   * they may keep references to them. The positions of other sequences (like packed sequences)
+   * are given to the filters as a reused coordinate, whose changes are written back; filters
+   * must not keep references to it.
    *
    * @param geometry the geometry
    * @param filters the filters
@@ -637,14 +873,146 @@ public class GeoJsonGeometryFactory extends GeometryFactory {
       Geometry geometry,
       Collection<? extends CoordinateFilter> filters) {
 
-    Geometry result;
-    if (isNull(geometry) || isNull(filters) || filters.isEmpty()) {
-      result = geometry;
-    } else {
-      result = geometry.copy();
-      filters.forEach(result::apply);
+    return new CoordinateFilterPipeline(filters).apply(geometry);
+  }
+
+  /**
+   * The coordinate sequence filter, that calculates a bounding box without copying the
+   * coordinates. Ordinates, that are not a number, are ignored.
+   */
+  private static class BoundingBoxFilter implements CoordinateSequenceFilter {
+
+    private double minX = Double.NaN;
+
+    private double minY = Double.NaN;
+
+    private double minZ = Double.NaN;
+
+    private double maxX = Double.NaN;
+
+    private double maxY = Double.NaN;
+
+    private double maxZ = Double.NaN;
+
+    @Override
+    public void filter(CoordinateSequence seq, int i) {
+      double x = seq.getX(i);
+      if (!Double.isNaN(x)) {
+        minX = Double.isNaN(minX) ? x : Math.min(minX, x);
+        maxX = Double.isNaN(maxX) ? x : Math.max(maxX, x);
+      }
+      double y = seq.getY(i);
+      if (!Double.isNaN(y)) {
+        minY = Double.isNaN(minY) ? y : Math.min(minY, y);
+        maxY = Double.isNaN(maxY) ? y : Math.max(maxY, y);
+      }
+      double z = seq.getZ(i);
+      if (!Double.isNaN(z)) {
+        minZ = Double.isNaN(minZ) ? z : Math.min(minZ, z);
+        maxZ = Double.isNaN(maxZ) ? z : Math.max(maxZ, z);
+      }
+    }
+
+    /**
+     * Merges the bounds of the other filter into this filter.
+     *
+     * @param other the other filter
+     * @return this filter
+     */
+    BoundingBoxFilter merge(BoundingBoxFilter other) {
+      minX = min(minX, other.minX);
+      minY = min(minY, other.minY);
+      minZ = min(minZ, other.minZ);
+      maxX = max(maxX, other.maxX);
+      maxY = max(maxY, other.maxY);
+      maxZ = max(maxZ, other.maxZ);
+      return this;
+    }
+
+    private static double min(double a, double b) {
+      return Double.isNaN(a) ? b : Double.isNaN(b) ? a : Math.min(a, b);
+    }
+
+    private static double max(double a, double b) {
+      return Double.isNaN(a) ? b : Double.isNaN(b) ? a : Math.max(a, b);
+    }
+
+    /**
+     * Gets the bounding box with z values, if z values were found.
+     *
+     * @return the bounding box or {@code null}
+     */
+    double[] getBoundingBox() {
+      if (!Double.isNaN(minX) && !Double.isNaN(maxX)
+          && !Double.isNaN(minY) && !Double.isNaN(maxY)) {
+        if (!Double.isNaN(minZ) && !Double.isNaN(maxZ)) {
+          return new double[]{minX, minY, minZ, maxX, maxY, maxZ};
+        }
+        return new double[]{minX, minY, maxX, maxY};
+      }
+      return null;
+    }
+
+    @Override
+    public boolean isDone() {
+      return false;
+    }
+
+    @Override
+    public boolean isGeometryChanged() {
+      return false;
+    }
+  }
+
+  /**
+   * The fork join task, that calculates the bounding box of a range of geometries.
+   */
+  private static class BoundingBoxTask extends RecursiveTask<BoundingBoxFilter> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of geometries, that are processed without splitting.
+     */
+    static final int THRESHOLD = 1024;
+
+    private final Geometry[] geometries;
+
+    private final int from;
+
+    private final int to;
+
+    /**
+     * Instantiates a new bounding box task.
+     *
+     * @param geometries the geometries
+     * @param from the start index (inclusive)
+     * @param to the end index (exclusive)
+     */
+    BoundingBoxTask(Geometry[] geometries, int from, int to) {
+      this.geometries = geometries;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected BoundingBoxFilter compute() {
+      if (to - from <= THRESHOLD) {
+        BoundingBoxFilter filter = new BoundingBoxFilter();
+        for (int i = from; i < to; i++) {
+          if (geometries[i] != null) {
+            geometries[i].apply(filter);
+          }
+        }
+        return filter;
+      }
+      int middle = (from + to) >>> 1;
+      BoundingBoxTask left = new BoundingBoxTask(geometries, from, middle);
+      left.fork();
+      BoundingBoxFilter right = new BoundingBoxTask(geometries, middle, to).compute();
+      return left.join().merge(right);
     }
-    return result;
   }
 
 }
@@ -28,8 +28,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
+import org.bremersee.geojson.converter.deserialization.CrsDeserializerModifier;
 import org.bremersee.geojson.converter.deserialization.JacksonGeometryDeserializer;
+import org.bremersee.geojson.converter.serialization.GeometryToJsonConverter;
 import org.bremersee.geojson.converter.serialization.JacksonGeometrySerializer;
+import org.bremersee.geojson.crs.CrsTransformRegistry;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -103,11 +106,63 @@ public class GeoJsonObjectMapperModule extends SimpleModule {
       GeometryFactory geometryFactory,
       boolean withBoundingBox,
       boolean useBigDecimal) {
+    this(
+        geometryFactory,
+        withBoundingBox,
+        useBigDecimal,
+        GeometryToJsonConverter.DEFAULT_COORDINATE_PRECISION);
+  }
+
+  /**
+   * Instantiates a new geo json object mapper module.
+   *
+   * @param geometryFactory the geometry factory
+   * @param withBoundingBox the with bounding box
+   * @param useBigDecimal the use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits of an ordinate (0 to 15)
+   */
+  public GeoJsonObjectMapperModule(
+      GeometryFactory geometryFactory,
+      boolean withBoundingBox,
+      boolean useBigDecimal,
+      int coordinatePrecision) {
+    this(geometryFactory, withBoundingBox, useBigDecimal, coordinatePrecision, null, null);
+  }
+
+  /**
+   * Instantiates a new geo json object mapper module, that reprojects the positions of the
+   * geometries while they are read or written.
+   *
+   * <p>The geometries are in the specified coordinate reference system (CRS). The GeoJSON
+   * documents are in the CRS of the {@code crs} member of the geometry, the feature or the feature
+   * collection or, if there is none, in the CRS of the attribute {@code AbstractGeoJsonCrs.class}
+   * of the object reader or writer; without any of them the positions of the documents are WGS84
+   * positions. The bounding boxes of features and feature collections are transformed, too.
+   *
+   * @param geometryFactory the geometry factory
+   * @param withBoundingBox the with bounding box
+   * @param useBigDecimal the use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits of an ordinate (0 to 15)
+   * @param crsTransformRegistry the crs transform registry (can be {@code null}, then the
+   *     positions are not reprojected)
+   * @param crs the name of the CRS of the geometries ({@code null} means WGS84)
+   */
+  public GeoJsonObjectMapperModule(
+      GeometryFactory geometryFactory,
+      boolean withBoundingBox,
+      boolean useBigDecimal,
+      int coordinatePrecision,
+      CrsTransformRegistry crsTransformRegistry,
+      String crs) {
     super(
         TYPE_ID,
         getVersion(),
-        getDeserializers(geometryFactory),
-        getSerializers(withBoundingBox, useBigDecimal));
+        getDeserializers(geometryFactory, crsTransformRegistry, crs),
+        getSerializers(
+            withBoundingBox, useBigDecimal, coordinatePrecision, crsTransformRegistry, crs));
+    if (!isNull(crsTransformRegistry)) {
+      setDeserializerModifier(new CrsDeserializerModifier());
+    }
   }
 
   private static Version getVersion() {
@@ -148,27 +203,33 @@ public class GeoJsonObjectMapperModule extends SimpleModule {
   }
 
   private static Map<Class<?>, JsonDeserializer<?>> getDeserializers(
-      GeometryFactory geometryFactory) {
+      GeometryFactory geometryFactory,
+      CrsTransformRegistry crsTransformRegistry,
+      String crs) {
 
     GeometryFactory gf = isNull(geometryFactory)
         ? new GeoJsonGeometryFactory()
         : geometryFactory;
+    JacksonGeometryDeserializer deserializer = new JacksonGeometryDeserializer(
+        gf, crsTransformRegistry, crs);
     HashMap<Class<?>, JsonDeserializer<?>> map = new HashMap<>();
-    map.put(Geometry.class, new JacksonGeometryDeserializer(gf));
-    map.put(Point.class, new JacksonGeometryDeserializer(gf));
-    map.put(LineString.class, new JacksonGeometryDeserializer(gf));
-    map.put(Polygon.class, new JacksonGeometryDeserializer(gf));
-    map.put(MultiPoint.class, new JacksonGeometryDeserializer(gf));
-    map.put(MultiLineString.class, new JacksonGeometryDeserializer(gf));
-    map.put(MultiPolygon.class, new JacksonGeometryDeserializer(gf));
-    map.put(GeometryCollection.class, new JacksonGeometryDeserializer(gf));
+    map.put(Geometry.class, deserializer);
+    map.put(Point.class, deserializer);
+    map.put(LineString.class, deserializer);
+    map.put(Polygon.class, deserializer);
+    map.put(MultiPoint.class, deserializer);
+    map.put(MultiLineString.class, deserializer);
+    map.put(MultiPolygon.class, deserializer);
+    map.put(GeometryCollection.class, deserializer);
     return map;
   }
 
   private static List<JsonSerializer<?>> getSerializers(boolean withBoundingBox,
-      boolean useBigDecimal) {
+      boolean useBigDecimal, int coordinatePrecision, CrsTransformRegistry crsTransformRegistry,
+      String crs) {
     ArrayList<JsonSerializer<?>> list = new ArrayList<>();
-    list.add(new JacksonGeometrySerializer(withBoundingBox, useBigDecimal));
+    list.add(new JacksonGeometrySerializer(
+        withBoundingBox, useBigDecimal, coordinatePrecision, crsTransformRegistry, crs));
     return list;
   }
 
@@ -19,9 +19,11 @@ package org.bremersee.geojson.converter;
 import static java.util.Objects.isNull;
 
 import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.locationtech.jts.geom.Geometry;
 
 /**
- * The abstract string to geometry converter.
+ * The abstract string to geometry converter, that is also the base of the binary to geometry
+ * converters.
  *
  * @author Christian Bremer
  */
@@ -53,4 +55,29 @@ abstract class AbstractStringToGeometryConverter {
   GeoJsonGeometryFactory getGeometryFactory() {
     return geometryFactory;
   }
+
+  /**
+   * Creates a geometry from well-known text or from the hex string of (extended) well-known
+   * binary.
+   *
+   * @param source the well-known text or the hex string of well-known binary
+   * @return the geometry
+   */
+  Geometry createGeometry(String source) {
+    return isHex(source)
+        ? geometryFactory.createGeometryFromWellKnownBinary(source)
+        : geometryFactory.createGeometryFromWellKnownText(source);
+  }
+
+  private static boolean isHex(String source) {
+    if (isNull(source) || source.isEmpty() || source.length() % 2 != 0) {
+      return false;
+    }
+    for (int i = 0; i < source.length(); i++) {
+      if (Character.digit(source.charAt(i), 16) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
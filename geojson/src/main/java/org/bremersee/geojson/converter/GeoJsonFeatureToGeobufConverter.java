@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import static java.util.Objects.isNull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+
+/**
+ * The GeoJSON feature to geobuf converter encodes a feature in the compact binary Geobuf format
+ * (see {@link GeometryToGeobufConverter}).
+ *
+ * <p>The properties are converted into a map with the object mapper, if they are not a map.
+ * Strings, booleans, integral and floating point numbers are stored as Geobuf values, all other
+ * values (like {@code null}, lists or maps) are stored as json.
+ *
+ * @author Christian Bremer
+ */
+public class GeoJsonFeatureToGeobufConverter
+    implements Converter<GeoJsonFeature<?, ?>, byte[]> {
+
+  private final ObjectMapper objectMapper;
+
+  private final int precision;
+
+  /**
+   * Instantiates a new GeoJSON feature to geobuf converter with the default precision.
+   *
+   * @param objectMapper the object mapper
+   */
+  public GeoJsonFeatureToGeobufConverter(ObjectMapper objectMapper) {
+    this(objectMapper, GeometryToGeobufConverter.DEFAULT_PRECISION);
+  }
+
+  /**
+   * Instantiates a new GeoJSON feature to geobuf converter.
+   *
+   * @param objectMapper the object mapper
+   * @param precision the number of fraction digits of the ordinates (0 to 10)
+   */
+  public GeoJsonFeatureToGeobufConverter(ObjectMapper objectMapper, int precision) {
+    if (isNull(objectMapper)) {
+      throw new IllegalArgumentException("Object mapper must be present.");
+    }
+    this.objectMapper = objectMapper;
+    this.precision = new GeometryToGeobufConverter(precision).getPrecision();
+  }
+
+  @Override
+  public byte[] convert(@NonNull GeoJsonFeature<?, ?> source) {
+    return new GeobufEncoder(precision).encodeFeature(
+        source.getId(),
+        source.getGeometry(),
+        toMap(source.getProperties()),
+        this::writeJson);
+  }
+
+  private Map<String, Object> toMap(Object properties) {
+    if (isNull(properties)) {
+      return null;
+    }
+    if (properties instanceof Map<?, ?> map) {
+      Map<String, Object> result = new LinkedHashMap<>();
+      map.forEach((key, value) -> result.put(String.valueOf(key), value));
+      return result;
+    }
+    return objectMapper.convertValue(properties, new TypeReference<>() {
+    });
+  }
+
+  private String writeJson(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Property value cannot be written as json.", e);
+    }
+  }
+
+}
@@ -0,0 +1,485 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import static java.util.Objects.isNull;
+import static org.bremersee.geojson.converter.GeobufEncoder.DATA_DIMENSIONS;
+import static org.bremersee.geojson.converter.GeobufEncoder.DATA_FEATURE;
+import static org.bremersee.geojson.converter.GeobufEncoder.DATA_GEOMETRY;
+import static org.bremersee.geojson.converter.GeobufEncoder.DATA_KEYS;
+import static org.bremersee.geojson.converter.GeobufEncoder.DATA_PRECISION;
+import static org.bremersee.geojson.converter.GeobufEncoder.FEATURE_GEOMETRY;
+import static org.bremersee.geojson.converter.GeobufEncoder.FEATURE_ID;
+import static org.bremersee.geojson.converter.GeobufEncoder.FEATURE_INT_ID;
+import static org.bremersee.geojson.converter.GeobufEncoder.FEATURE_PROPERTIES;
+import static org.bremersee.geojson.converter.GeobufEncoder.FEATURE_VALUES;
+import static org.bremersee.geojson.converter.GeobufEncoder.FIXED32;
+import static org.bremersee.geojson.converter.GeobufEncoder.FIXED64;
+import static org.bremersee.geojson.converter.GeobufEncoder.GEOMETRY_COLLECTION;
+import static org.bremersee.geojson.converter.GeobufEncoder.GEOMETRY_COORDS;
+import static org.bremersee.geojson.converter.GeobufEncoder.GEOMETRY_GEOMETRIES;
+import static org.bremersee.geojson.converter.GeobufEncoder.GEOMETRY_LENGTHS;
+import static org.bremersee.geojson.converter.GeobufEncoder.GEOMETRY_TYPE;
+import static org.bremersee.geojson.converter.GeobufEncoder.LENGTH_DELIMITED;
+import static org.bremersee.geojson.converter.GeobufEncoder.LINESTRING;
+import static org.bremersee.geojson.converter.GeobufEncoder.MULTI_LINESTRING;
+import static org.bremersee.geojson.converter.GeobufEncoder.MULTI_POINT;
+import static org.bremersee.geojson.converter.GeobufEncoder.MULTI_POLYGON;
+import static org.bremersee.geojson.converter.GeobufEncoder.POINT;
+import static org.bremersee.geojson.converter.GeobufEncoder.POLYGON;
+import static org.bremersee.geojson.converter.GeobufEncoder.VALUE_BOOL;
+import static org.bremersee.geojson.converter.GeobufEncoder.VALUE_DOUBLE;
+import static org.bremersee.geojson.converter.GeobufEncoder.VALUE_JSON;
+import static org.bremersee.geojson.converter.GeobufEncoder.VALUE_NEG_INT;
+import static org.bremersee.geojson.converter.GeobufEncoder.VALUE_POS_INT;
+import static org.bremersee.geojson.converter.GeobufEncoder.VALUE_STRING;
+import static org.bremersee.geojson.converter.GeobufEncoder.VARINT;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * The decoder of the Geobuf format, see {@link GeobufEncoder}.
+ *
+ * <p>The ordinates are read from the byte array and written directly into the coordinate
+ * sequences of the geometry factory.
+ *
+ * @author Christian Bremer
+ */
+class GeobufDecoder {
+
+  private final byte[] buffer;
+
+  private final GeometryFactory geometryFactory;
+
+  private final Function<String, Object> jsonReader;
+
+  private final List<String> keys = new ArrayList<>();
+
+  private int position;
+
+  private int dimension = 2;
+
+  private double factor = 1e6;
+
+  private boolean feature;
+
+  private String id;
+
+  private Geometry geometry;
+
+  private Map<String, Object> properties;
+
+  /**
+   * Instantiates a new geobuf decoder and decodes the given bytes.
+   *
+   * @param buffer the bytes
+   * @param geometryFactory the geometry factory
+   * @param jsonReader the reader of json values of properties
+   */
+  GeobufDecoder(
+      byte[] buffer,
+      GeometryFactory geometryFactory,
+      Function<String, Object> jsonReader) {
+    this.buffer = buffer;
+    this.geometryFactory = geometryFactory;
+    this.jsonReader = jsonReader;
+    readData();
+  }
+
+  /**
+   * Determines whether the data contains a feature.
+   *
+   * @return {@code true} if the data contains a feature, otherwise {@code false}
+   */
+  boolean isFeature() {
+    return feature;
+  }
+
+  /**
+   * Gets the id of the feature.
+   *
+   * @return the id
+   */
+  String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the geometry.
+   *
+   * @return the geometry
+   */
+  Geometry getGeometry() {
+    return geometry;
+  }
+
+  /**
+   * Gets the properties of the feature.
+   *
+   * @return the properties
+   */
+  Map<String, Object> getProperties() {
+    return properties;
+  }
+
+  private void readData() {
+    boolean found = false;
+    while (position < buffer.length) {
+      long tag = readVarint();
+      int field = (int) (tag >>> 3);
+      int wireType = (int) (tag & 0x7);
+      if (field == DATA_KEYS && wireType == LENGTH_DELIMITED) {
+        keys.add(readString());
+      } else if (field == DATA_DIMENSIONS && wireType == VARINT) {
+        dimension = (int) readVarint();
+        if (dimension < 2) {
+          throw new IllegalArgumentException(String.format(
+              "Illegal dimension: %d", dimension));
+        }
+      } else if (field == DATA_PRECISION && wireType == VARINT) {
+        factor = Math.pow(10, readVarint());
+      } else if (field == DATA_FEATURE && wireType == LENGTH_DELIMITED) {
+        feature = true;
+        found = true;
+        readFeature(readLength());
+      } else if (field == DATA_GEOMETRY && wireType == LENGTH_DELIMITED) {
+        found = true;
+        geometry = readGeometry(readLength());
+      } else {
+        skip(wireType);
+      }
+    }
+    if (!found) {
+      throw new IllegalArgumentException(
+          "Geobuf data must contain a feature or a geometry.");
+    }
+  }
+
+  private void readFeature(int end) {
+    List<Object> values = new ArrayList<>();
+    int[] pairs = new int[0];
+    while (position < end) {
+      long tag = readVarint();
+      int field = (int) (tag >>> 3);
+      int wireType = (int) (tag & 0x7);
+      if (field == FEATURE_GEOMETRY && wireType == LENGTH_DELIMITED) {
+        geometry = readGeometry(readLength());
+      } else if (field == FEATURE_ID && wireType == LENGTH_DELIMITED) {
+        id = readString();
+      } else if (field == FEATURE_INT_ID && wireType == VARINT) {
+        long value = readVarint();
+        id = String.valueOf((value >>> 1) ^ -(value & 1));
+      } else if (field == FEATURE_VALUES && wireType == LENGTH_DELIMITED) {
+        values.add(readValue(readLength()));
+      } else if (field == FEATURE_PROPERTIES && wireType == LENGTH_DELIMITED) {
+        pairs = readPackedInts(readLength());
+      } else {
+        skip(wireType);
+      }
+    }
+    properties = new LinkedHashMap<>();
+    for (int i = 0; i + 1 < pairs.length; i += 2) {
+      if (pairs[i] >= keys.size() || pairs[i + 1] >= values.size()) {
+        throw new IllegalArgumentException("Illegal property index in geobuf data.");
+      }
+      properties.put(keys.get(pairs[i]), values.get(pairs[i + 1]));
+    }
+  }
+
+  private Object readValue(int end) {
+    Object value = null;
+    while (position < end) {
+      long tag = readVarint();
+      int field = (int) (tag >>> 3);
+      int wireType = (int) (tag & 0x7);
+      if (field == VALUE_STRING && wireType == LENGTH_DELIMITED) {
+        value = readString();
+      } else if (field == VALUE_DOUBLE && wireType == FIXED64) {
+        value = Double.longBitsToDouble(readFixed64());
+      } else if (field == VALUE_POS_INT && wireType == VARINT) {
+        value = toNumber(readVarint());
+      } else if (field == VALUE_NEG_INT && wireType == VARINT) {
+        value = toNumber(-readVarint());
+      } else if (field == VALUE_BOOL && wireType == VARINT) {
+        value = readVarint() != 0;
+      } else if (field == VALUE_JSON && wireType == LENGTH_DELIMITED) {
+        value = jsonReader.apply(readString());
+      } else {
+        skip(wireType);
+      }
+    }
+    return value;
+  }
+
+  private static Number toNumber(long value) {
+    if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+      return (int) value;
+    }
+    return value;
+  }
+
+  private Geometry readGeometry(int end) {
+    int type = POINT;
+    int[] lengths = null;
+    int coordsStart = position;
+    int coordsEnd = position;
+    List<Geometry> geometries = new ArrayList<>();
+    while (position < end) {
+      long tag = readVarint();
+      int field = (int) (tag >>> 3);
+      int wireType = (int) (tag & 0x7);
+      if (field == GEOMETRY_TYPE && wireType == VARINT) {
+        type = (int) readVarint();
+      } else if (field == GEOMETRY_LENGTHS && wireType == LENGTH_DELIMITED) {
+        lengths = readPackedInts(readLength());
+      } else if (field == GEOMETRY_COORDS && wireType == LENGTH_DELIMITED) {
+        coordsEnd = readLength();
+        coordsStart = position;
+        position = coordsEnd;
+      } else if (field == GEOMETRY_GEOMETRIES && wireType == LENGTH_DELIMITED) {
+        geometries.add(readGeometry(readLength()));
+      } else {
+        skip(wireType);
+      }
+    }
+    position = coordsStart;
+    Geometry result = createGeometry(type, lengths, countVarints(coordsStart, coordsEnd),
+        geometries);
+    if (position != coordsEnd) {
+      throw new IllegalArgumentException("Coordinates don't match the geometry type.");
+    }
+    position = end;
+    return result;
+  }
+
+  private Geometry createGeometry(
+      int type,
+      int[] lengths,
+      int numValues,
+      List<Geometry> geometries) {
+
+    GeometryFactory gf = geometryFactory;
+    int numPositions = numValues / dimension;
+    if (type == POINT) {
+      if (numPositions == 0) {
+        return gf.createPoint();
+      }
+      CoordinateSequence sequence = createSequence(1);
+      for (int i = 0; i < dimension; i++) {
+        setOrdinate(sequence, 0, i, readSVarint());
+      }
+      return gf.createPoint(sequence);
+
+    } else if (type == MULTI_POINT) {
+      Point[] points = new Point[numPositions];
+      long[] last = new long[dimension];
+      for (int i = 0; i < points.length; i++) {
+        CoordinateSequence sequence = createSequence(1);
+        for (int j = 0; j < dimension; j++) {
+          last[j] += readSVarint();
+          setOrdinate(sequence, 0, j, last[j]);
+        }
+        points[i] = gf.createPoint(sequence);
+      }
+      return gf.createMultiPoint(points);
+
+    } else if (type == LINESTRING) {
+      return gf.createLineString(readLine(numPositions, false));
+
+    } else if (type == MULTI_LINESTRING) {
+      int[] sizes = isNull(lengths) ? new int[]{numPositions} : lengths;
+      LineString[] lineStrings = new LineString[sizes.length];
+      for (int i = 0; i < sizes.length; i++) {
+        lineStrings[i] = gf.createLineString(readLine(sizes[i], false));
+      }
+      return gf.createMultiLineString(lineStrings);
+
+    } else if (type == POLYGON) {
+      int[] sizes = isNull(lengths) ? new int[]{numPositions} : lengths;
+      return createPolygon(sizes, 0, sizes.length);
+
+    } else if (type == MULTI_POLYGON) {
+      if (isNull(lengths)) {
+        return gf.createMultiPolygon(new Polygon[]{
+            createPolygon(new int[]{numPositions}, 0, 1)});
+      }
+      int numPolygons = lengths.length > 0 ? lengths[0] : 0;
+      Polygon[] polygons = new Polygon[numPolygons];
+      int index = 1;
+      for (int i = 0; i < numPolygons; i++) {
+        if (index >= lengths.length) {
+          throw new IllegalArgumentException("Illegal lengths of multi polygon.");
+        }
+        int numRings = lengths[index++];
+        polygons[i] = createPolygon(lengths, index, numRings);
+        index += numRings;
+      }
+      return gf.createMultiPolygon(polygons);
+
+    } else if (type == GEOMETRY_COLLECTION) {
+      return gf.createGeometryCollection(geometries.toArray(new Geometry[0]));
+    }
+    throw new IllegalArgumentException(String.format("Illegal geometry type: %d", type));
+  }
+
+  private Polygon createPolygon(int[] sizes, int offset, int numRings) {
+    if (numRings == 0) {
+      return geometryFactory.createPolygon();
+    }
+    if (offset + numRings > sizes.length) {
+      throw new IllegalArgumentException("Illegal lengths of polygon.");
+    }
+    LinearRing shell = geometryFactory.createLinearRing(readLine(sizes[offset], true));
+    LinearRing[] holes = new LinearRing[numRings - 1];
+    for (int i = 1; i < numRings; i++) {
+      holes[i - 1] = geometryFactory.createLinearRing(readLine(sizes[offset + i], true));
+    }
+    return geometryFactory.createPolygon(shell, holes);
+  }
+
+  private CoordinateSequence createSequence(int size) {
+    CoordinateSequenceFactory csf = geometryFactory.getCoordinateSequenceFactory();
+    return csf.create(size, dimension);
+  }
+
+  private void setOrdinate(CoordinateSequence sequence, int index, int ordinate, long value) {
+    if (ordinate < sequence.getDimension()) {
+      sequence.setOrdinate(index, ordinate, value / factor);
+    }
+  }
+
+  private CoordinateSequence readLine(int size, boolean closed) {
+    CoordinateSequence sequence = createSequence(closed && size > 0 ? size + 1 : size);
+    long x = 0;
+    long y = 0;
+    long z = 0;
+    for (int i = 0; i < size; i++) {
+      x += readSVarint();
+      setOrdinate(sequence, i, 0, x);
+      y += readSVarint();
+      setOrdinate(sequence, i, 1, y);
+      if (dimension > 2) {
+        z += readSVarint();
+        setOrdinate(sequence, i, 2, z);
+        for (int j = 3; j < dimension; j++) {
+          readSVarint();
+        }
+      }
+    }
+    if (closed && size > 0) {
+      for (int i = 0; i < sequence.getDimension(); i++) {
+        sequence.setOrdinate(size, i, sequence.getOrdinate(0, i));
+      }
+    }
+    return sequence;
+  }
+
+  private int countVarints(int start, int end) {
+    int count = 0;
+    for (int i = start; i < end; i++) {
+      if ((buffer[i] & 0x80) == 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private int[] readPackedInts(int end) {
+    int[] values = new int[countVarints(position, end)];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (int) readVarint();
+    }
+    return values;
+  }
+
+  private byte readByte() {
+    if (position >= buffer.length) {
+      throw new IllegalArgumentException("Unexpected end of geobuf data.");
+    }
+    return buffer[position++];
+  }
+
+  private long readVarint() {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint in geobuf data.");
+  }
+
+  private long readSVarint() {
+    long value = readVarint();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private long readFixed64() {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value |= (readByte() & 0xFFL) << (8 * i);
+    }
+    return value;
+  }
+
+  /**
+   * Reads the length of a length delimited field.
+   *
+   * @return the end of the field
+   */
+  private int readLength() {
+    long length = readVarint();
+    if (length < 0 || position + length > buffer.length) {
+      throw new IllegalArgumentException("Unexpected end of geobuf data.");
+    }
+    return position + (int) length;
+  }
+
+  private String readString() {
+    int end = readLength();
+    String value = new String(buffer, position, end - position, StandardCharsets.UTF_8);
+    position = end;
+    return value;
+  }
+
+  private void skip(int wireType) {
+    switch (wireType) {
+      case VARINT -> readVarint();
+      case FIXED64 -> position += 8;
+      case LENGTH_DELIMITED -> position = readLength();
+      case FIXED32 -> position += 4;
+      default -> throw new IllegalArgumentException(String.format(
+          "Unsupported wire type: %d", wireType));
+    }
+  }
+
+}
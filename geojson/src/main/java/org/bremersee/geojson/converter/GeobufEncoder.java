@@ -0,0 +1,499 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * The encoder of the Geobuf format (see <a href="https://github.com/mapbox/geobuf">Geobuf</a>),
+ * a compact protocol buffers encoding of GeoJSON.
+ *
+ * <p>The ordinates are multiplied with ten to the power of the precision, rounded and stored as
+ * delta encoded zig-zag varints. The last position of a ring is not stored. The ordinates are
+ * read directly from the coordinate sequences and the protocol buffers message is written into
+ * one growable byte array, so no object is created per coordinate.
+ *
+ * @author Christian Bremer
+ */
+class GeobufEncoder {
+
+  /**
+   * The field numbers of the message {@code Data}.
+   */
+  static final int DATA_KEYS = 1;
+
+  static final int DATA_DIMENSIONS = 2;
+
+  static final int DATA_PRECISION = 3;
+
+  static final int DATA_FEATURE = 5;
+
+  static final int DATA_GEOMETRY = 6;
+
+  /**
+   * The field numbers of the message {@code Feature}.
+   */
+  static final int FEATURE_GEOMETRY = 1;
+
+  static final int FEATURE_ID = 11;
+
+  static final int FEATURE_INT_ID = 12;
+
+  static final int FEATURE_VALUES = 13;
+
+  static final int FEATURE_PROPERTIES = 14;
+
+  /**
+   * The field numbers of the message {@code Geometry}.
+   */
+  static final int GEOMETRY_TYPE = 1;
+
+  static final int GEOMETRY_LENGTHS = 2;
+
+  static final int GEOMETRY_COORDS = 3;
+
+  static final int GEOMETRY_GEOMETRIES = 4;
+
+  /**
+   * The field numbers of the message {@code Value}.
+   */
+  static final int VALUE_STRING = 1;
+
+  static final int VALUE_DOUBLE = 2;
+
+  static final int VALUE_POS_INT = 3;
+
+  static final int VALUE_NEG_INT = 4;
+
+  static final int VALUE_BOOL = 5;
+
+  static final int VALUE_JSON = 6;
+
+  /**
+   * The geometry types.
+   */
+  static final int POINT = 0;
+
+  static final int MULTI_POINT = 1;
+
+  static final int LINESTRING = 2;
+
+  static final int MULTI_LINESTRING = 3;
+
+  static final int POLYGON = 4;
+
+  static final int MULTI_POLYGON = 5;
+
+  static final int GEOMETRY_COLLECTION = 6;
+
+  /**
+   * The wire types.
+   */
+  static final int VARINT = 0;
+
+  static final int FIXED64 = 1;
+
+  static final int LENGTH_DELIMITED = 2;
+
+  static final int FIXED32 = 5;
+
+  private final double factor;
+
+  private final int precision;
+
+  private int dimension;
+
+  private byte[] buffer = new byte[256];
+
+  private int position;
+
+  /**
+   * Instantiates a new geobuf encoder.
+   *
+   * @param precision the number of fraction digits of the ordinates
+   */
+  GeobufEncoder(int precision) {
+    this.precision = precision;
+    this.factor = Math.pow(10, precision);
+  }
+
+  /**
+   * Encodes a geometry.
+   *
+   * @param geometry the geometry
+   * @return the bytes
+   */
+  byte[] encodeGeometry(Geometry geometry) {
+    dimension = hasZ(geometry) ? 3 : 2;
+    writeHeader(List.of());
+    int start = startMessage(DATA_GEOMETRY);
+    writeGeometry(geometry);
+    endMessage(start);
+    return toByteArray();
+  }
+
+  /**
+   * Encodes a feature.
+   *
+   * @param id the id of the feature (can be {@code null})
+   * @param geometry the geometry (can be {@code null})
+   * @param properties the properties (can be {@code null})
+   * @param jsonWriter the writer of json values for properties, that are no simple values
+   * @return the bytes
+   */
+  byte[] encodeFeature(
+      String id,
+      Geometry geometry,
+      Map<String, Object> properties,
+      Function<Object, String> jsonWriter) {
+
+    dimension = nonNull(geometry) && hasZ(geometry) ? 3 : 2;
+    Map<String, Object> props = isNull(properties) ? Map.of() : properties;
+    writeHeader(new ArrayList<>(props.keySet()));
+    int start = startMessage(DATA_FEATURE);
+    if (nonNull(geometry)) {
+      int geometryStart = startMessage(FEATURE_GEOMETRY);
+      writeGeometry(geometry);
+      endMessage(geometryStart);
+    }
+    if (nonNull(id)) {
+      writeString(FEATURE_ID, id);
+    }
+    for (Object value : props.values()) {
+      int valueStart = startMessage(FEATURE_VALUES);
+      writeValue(value, jsonWriter);
+      endMessage(valueStart);
+    }
+    if (!props.isEmpty()) {
+      int packedStart = startMessage(FEATURE_PROPERTIES);
+      for (int i = 0; i < props.size(); i++) {
+        writeVarint(i);
+        writeVarint(i);
+      }
+      endMessage(packedStart);
+    }
+    endMessage(start);
+    return toByteArray();
+  }
+
+  private void writeHeader(List<String> keys) {
+    for (String key : keys) {
+      writeString(DATA_KEYS, key);
+    }
+    writeTag(DATA_DIMENSIONS, VARINT);
+    writeVarint(dimension);
+    writeTag(DATA_PRECISION, VARINT);
+    writeVarint(precision);
+  }
+
+  private void writeValue(Object value, Function<Object, String> jsonWriter) {
+    if (value instanceof String string) {
+      writeString(VALUE_STRING, string);
+    } else if (value instanceof Boolean bool) {
+      writeTag(VALUE_BOOL, VARINT);
+      writeVarint(bool ? 1 : 0);
+    } else if (value instanceof Integer || value instanceof Long
+        || value instanceof Short || value instanceof Byte
+        || (value instanceof BigInteger bigInteger && bigInteger.bitLength() < 64)) {
+      long number = ((Number) value).longValue();
+      if (number >= 0) {
+        writeTag(VALUE_POS_INT, VARINT);
+        writeVarint(number);
+      } else {
+        writeTag(VALUE_NEG_INT, VARINT);
+        writeVarint(-number);
+      }
+    } else if (value instanceof Double || value instanceof Float
+        || value instanceof BigDecimal) {
+      writeTag(VALUE_DOUBLE, FIXED64);
+      writeFixed64(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+    } else {
+      writeString(VALUE_JSON, jsonWriter.apply(value));
+    }
+  }
+
+  private static boolean hasZ(Geometry geometry) {
+    if (geometry instanceof Point point) {
+      return hasZ(point.getCoordinateSequence());
+    } else if (geometry instanceof LineString lineString) {
+      return hasZ(lineString.getCoordinateSequence());
+    } else if (geometry instanceof Polygon polygon) {
+      if (polygon.isEmpty()) {
+        return false;
+      }
+      boolean hasZ = hasZ(polygon.getExteriorRing().getCoordinateSequence());
+      for (int i = 0; !hasZ && i < polygon.getNumInteriorRing(); i++) {
+        hasZ = hasZ(polygon.getInteriorRingN(i).getCoordinateSequence());
+      }
+      return hasZ;
+    }
+    for (int i = 0; i < geometry.getNumGeometries(); i++) {
+      if (hasZ(geometry.getGeometryN(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasZ(CoordinateSequence sequence) {
+    if (sequence.getDimension() - sequence.getMeasures() < 3) {
+      return false;
+    }
+    for (int i = 0; i < sequence.size(); i++) {
+      if (!Double.isNaN(sequence.getZ(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void writeGeometry(Geometry geometry) {
+    if (geometry instanceof Point point) {
+      writeType(POINT);
+      CoordinateSequence sequence = point.getCoordinateSequence();
+      if (sequence.size() > 0) {
+        int start = startMessage(GEOMETRY_COORDS);
+        for (int i = 0; i < dimension; i++) {
+          writeSVarint(round(sequence.getOrdinate(0, i)));
+        }
+        endMessage(start);
+      }
+    } else if (geometry instanceof LineString lineString) {
+      writeType(LINESTRING);
+      int start = startMessage(GEOMETRY_COORDS);
+      writeLine(lineString.getCoordinateSequence(), false);
+      endMessage(start);
+    } else if (geometry instanceof Polygon polygon) {
+      writeType(POLYGON);
+      int numRings = polygon.isEmpty() ? 0 : 1 + polygon.getNumInteriorRing();
+      if (numRings != 1) {
+        int start = startMessage(GEOMETRY_LENGTHS);
+        for (int i = 0; i < numRings; i++) {
+          writeVarint(getRing(polygon, i).size() - 1);
+        }
+        endMessage(start);
+      }
+      int start = startMessage(GEOMETRY_COORDS);
+      for (int i = 0; i < numRings; i++) {
+        writeLine(getRing(polygon, i), true);
+      }
+      endMessage(start);
+    } else if (geometry instanceof MultiPoint multiPoint) {
+      writeType(MULTI_POINT);
+      int start = startMessage(GEOMETRY_COORDS);
+      long[] last = new long[dimension];
+      for (int i = 0; i < multiPoint.getNumGeometries(); i++) {
+        CoordinateSequence sequence = ((Point) multiPoint.getGeometryN(i))
+            .getCoordinateSequence();
+        for (int j = 0; j < dimension && sequence.size() > 0; j++) {
+          long value = round(sequence.getOrdinate(0, j));
+          writeSVarint(value - last[j]);
+          last[j] = value;
+        }
+      }
+      endMessage(start);
+    } else if (geometry instanceof MultiLineString multiLineString) {
+      writeType(MULTI_LINESTRING);
+      int numLines = multiLineString.getNumGeometries();
+      if (numLines != 1) {
+        int start = startMessage(GEOMETRY_LENGTHS);
+        for (int i = 0; i < numLines; i++) {
+          writeVarint(multiLineString.getGeometryN(i).getNumPoints());
+        }
+        endMessage(start);
+      }
+      int start = startMessage(GEOMETRY_COORDS);
+      for (int i = 0; i < numLines; i++) {
+        writeLine(((LineString) multiLineString.getGeometryN(i)).getCoordinateSequence(), false);
+      }
+      endMessage(start);
+    } else if (geometry instanceof MultiPolygon multiPolygon) {
+      writeType(MULTI_POLYGON);
+      int numPolygons = multiPolygon.getNumGeometries();
+      if (numPolygons != 1 || getNumRings((Polygon) multiPolygon.getGeometryN(0)) != 1) {
+        int start = startMessage(GEOMETRY_LENGTHS);
+        writeVarint(numPolygons);
+        for (int i = 0; i < numPolygons; i++) {
+          Polygon polygon = (Polygon) multiPolygon.getGeometryN(i);
+          int numRings = getNumRings(polygon);
+          writeVarint(numRings);
+          for (int j = 0; j < numRings; j++) {
+            writeVarint(getRing(polygon, j).size() - 1);
+          }
+        }
+        endMessage(start);
+      }
+      int start = startMessage(GEOMETRY_COORDS);
+      for (int i = 0; i < numPolygons; i++) {
+        Polygon polygon = (Polygon) multiPolygon.getGeometryN(i);
+        for (int j = 0; j < getNumRings(polygon); j++) {
+          writeLine(getRing(polygon, j), true);
+        }
+      }
+      endMessage(start);
+    } else if (geometry instanceof GeometryCollection collection) {
+      writeType(GEOMETRY_COLLECTION);
+      for (int i = 0; i < collection.getNumGeometries(); i++) {
+        int start = startMessage(GEOMETRY_GEOMETRIES);
+        writeGeometry(collection.getGeometryN(i));
+        endMessage(start);
+      }
+    } else {
+      throw new IllegalArgumentException(String.format(
+          "Unsupported geometry type: %s", geometry.getGeometryType()));
+    }
+  }
+
+  private static int getNumRings(Polygon polygon) {
+    return polygon.isEmpty() ? 0 : 1 + polygon.getNumInteriorRing();
+  }
+
+  private static CoordinateSequence getRing(Polygon polygon, int index) {
+    return index == 0
+        ? polygon.getExteriorRing().getCoordinateSequence()
+        : polygon.getInteriorRingN(index - 1).getCoordinateSequence();
+  }
+
+  private void writeType(int type) {
+    writeTag(GEOMETRY_TYPE, VARINT);
+    writeVarint(type);
+  }
+
+  private void writeLine(CoordinateSequence sequence, boolean closed) {
+    int size = sequence.size() - (closed && sequence.size() > 0 ? 1 : 0);
+    long x = 0;
+    long y = 0;
+    long z = 0;
+    for (int i = 0; i < size; i++) {
+      long value = round(sequence.getX(i));
+      writeSVarint(value - x);
+      x = value;
+      value = round(sequence.getY(i));
+      writeSVarint(value - y);
+      y = value;
+      if (dimension == 3) {
+        value = round(sequence.getZ(i));
+        writeSVarint(value - z);
+        z = value;
+      }
+    }
+  }
+
+  private long round(double value) {
+    return Double.isNaN(value) ? 0L : Math.round(value * factor);
+  }
+
+  private void ensureCapacity(int length) {
+    if (position + length > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, position + length));
+    }
+  }
+
+  private void writeTag(int field, int wireType) {
+    writeVarint(((long) field << 3) | wireType);
+  }
+
+  private void writeVarint(long value) {
+    ensureCapacity(10);
+    long v = value;
+    while ((v & ~0x7FL) != 0) {
+      buffer[position++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    buffer[position++] = (byte) v;
+  }
+
+  private void writeSVarint(long value) {
+    writeVarint((value << 1) ^ (value >> 63));
+  }
+
+  private void writeFixed64(long value) {
+    ensureCapacity(8);
+    for (int i = 0; i < 8; i++) {
+      buffer[position++] = (byte) (value >>> (8 * i));
+    }
+  }
+
+  private void writeString(int field, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeTag(field, LENGTH_DELIMITED);
+    writeVarint(bytes.length);
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  /**
+   * Starts a length delimited field. One byte is reserved for the length, because most messages
+   * are short.
+   *
+   * @param field the field number
+   * @return the start of the content
+   */
+  private int startMessage(int field) {
+    writeTag(field, LENGTH_DELIMITED);
+    ensureCapacity(1);
+    position++;
+    return position;
+  }
+
+  /**
+   * Ends a length delimited field and writes the length. If the length needs more than one
+   * byte, the content is moved.
+   *
+   * @param start the start of the content
+   */
+  private void endMessage(int start) {
+    int length = position - start;
+    int extra = length < 0x80 ? 0
+        : length < 0x4000 ? 1
+            : length < 0x200000 ? 2
+                : length < 0x10000000 ? 3 : 4;
+    if (extra > 0) {
+      ensureCapacity(extra);
+      System.arraycopy(buffer, start, buffer, start + extra, length);
+    }
+    int end = position + extra;
+    position = start - 1;
+    writeVarint(length);
+    position = end;
+  }
+
+  private byte[] toByteArray() {
+    return Arrays.copyOf(buffer, position);
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import static java.util.Objects.isNull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+
+/**
+ * The geobuf to GeoJSON feature converter decodes a feature, that was encoded in the Geobuf
+ * format (see {@link GeoJsonFeatureToGeobufConverter}).
+ *
+ * @author Christian Bremer
+ */
+public class GeobufToGeoJsonFeatureConverter
+    implements Converter<byte[], GeoJsonFeature<Geometry, Map<String, Object>>> {
+
+  private final ObjectMapper objectMapper;
+
+  private final GeoJsonGeometryFactory geometryFactory;
+
+  /**
+   * Instantiates a new geobuf to GeoJSON feature converter.
+   *
+   * @param objectMapper the object mapper
+   */
+  public GeobufToGeoJsonFeatureConverter(ObjectMapper objectMapper) {
+    this(objectMapper, null);
+  }
+
+  /**
+   * Instantiates a new geobuf to GeoJSON feature converter.
+   *
+   * @param objectMapper the object mapper
+   * @param geometryFactory the geometry factory
+   */
+  public GeobufToGeoJsonFeatureConverter(
+      ObjectMapper objectMapper,
+      GeoJsonGeometryFactory geometryFactory) {
+    if (isNull(objectMapper)) {
+      throw new IllegalArgumentException("Object mapper must be present.");
+    }
+    this.objectMapper = objectMapper;
+    this.geometryFactory = isNull(geometryFactory) ? new GeoJsonGeometryFactory() : geometryFactory;
+  }
+
+  @Override
+  public GeoJsonFeature<Geometry, Map<String, Object>> convert(@NonNull byte[] source) {
+    GeobufDecoder decoder = new GeobufDecoder(source, geometryFactory, this::readJson);
+    if (!decoder.isFeature()) {
+      throw new IllegalArgumentException("Geobuf data contains a geometry and not a feature.");
+    }
+    return new GeoJsonFeature<>(
+        decoder.getId(),
+        decoder.getGeometry(),
+        false,
+        decoder.getProperties());
+  }
+
+  private Object readJson(String json) {
+    try {
+      return objectMapper.readValue(json, Object.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Property value is not valid json.", e);
+    }
+  }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import static java.util.Objects.isNull;
+
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+
+/**
+ * The geobuf to geometry converter decodes a geometry, that was encoded in the Geobuf format (see
+ * {@link GeometryToGeobufConverter}).
+ *
+ * <p>The ordinates are written directly into the coordinate sequences of the geometry factory,
+ * no object is created per coordinate.
+ *
+ * @author Christian Bremer
+ */
+public class GeobufToGeometryConverter implements Converter<byte[], Geometry> {
+
+  private final GeoJsonGeometryFactory geometryFactory;
+
+  /**
+   * Instantiates a new geobuf to geometry converter.
+   */
+  public GeobufToGeometryConverter() {
+    this(null);
+  }
+
+  /**
+   * Instantiates a new geobuf to geometry converter.
+   *
+   * @param geometryFactory the geometry factory
+   */
+  public GeobufToGeometryConverter(GeoJsonGeometryFactory geometryFactory) {
+    this.geometryFactory = isNull(geometryFactory) ? new GeoJsonGeometryFactory() : geometryFactory;
+  }
+
+  @Override
+  public Geometry convert(@NonNull byte[] source) {
+    GeobufDecoder decoder = new GeobufDecoder(source, geometryFactory, json -> json);
+    if (decoder.isFeature()) {
+      throw new IllegalArgumentException("Geobuf data contains a feature and not a geometry.");
+    }
+    return decoder.getGeometry();
+  }
+
+}
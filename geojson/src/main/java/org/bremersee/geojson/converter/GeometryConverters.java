@@ -38,6 +38,8 @@ public abstract class GeometryConverters {
 
     return List.of(
         new GeometryToStringConverter(),
+        new GeometryToWkbConverter(),
+        new WkbToGeometryConverter(geometryFactory),
         new StringToPointConverter(geometryFactory),
         new StringToLineStringConverter(geometryFactory),
         new StringToPolygonConverter(geometryFactory),
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+
+/**
+ * The geometry to geobuf converter encodes a geometry in the compact binary Geobuf format (see
+ * <a href="https://github.com/mapbox/geobuf">Geobuf</a>).
+ *
+ * <p>The ordinates are stored as delta encoded zig-zag varints of integers, that are the
+ * ordinates multiplied with ten to the power of the precision. With the default precision of six
+ * fraction digits the result is usually much smaller than the GeoJSON of the geometry. No object
+ * is created per coordinate.
+ *
+ * @author Christian Bremer
+ */
+public class GeometryToGeobufConverter implements Converter<Geometry, byte[]> {
+
+  /**
+   * The default precision (number of fraction digits).
+   */
+  public static final int DEFAULT_PRECISION = 6;
+
+  /**
+   * The maximum precision (number of fraction digits).
+   */
+  public static final int MAXIMUM_PRECISION = 10;
+
+  private final int precision;
+
+  /**
+   * Instantiates a new geometry to geobuf converter with the default precision.
+   */
+  public GeometryToGeobufConverter() {
+    this(DEFAULT_PRECISION);
+  }
+
+  /**
+   * Instantiates a new geometry to geobuf converter.
+   *
+   * @param precision the number of fraction digits of the ordinates (0 to 10)
+   */
+  public GeometryToGeobufConverter(int precision) {
+    if (precision < 0 || precision > MAXIMUM_PRECISION) {
+      throw new IllegalArgumentException(String.format(
+          "Precision must be between 0 and %d, but is %d.", MAXIMUM_PRECISION, precision));
+    }
+    this.precision = precision;
+  }
+
+  /**
+   * Gets the precision.
+   *
+   * @return the number of fraction digits of the ordinates
+   */
+  public int getPrecision() {
+    return precision;
+  }
+
+  @Override
+  public byte[] convert(@NonNull Geometry source) {
+    return new GeobufEncoder(precision).encodeGeometry(source);
+  }
+
+}
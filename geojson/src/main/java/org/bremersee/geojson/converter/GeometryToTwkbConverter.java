@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+
+/**
+ * The geometry to tiny well-known binary converter (see
+ * <a href="https://github.com/TWKB/Specification">TWKB</a>).
+ *
+ * <p>This converter is not registered by {@link GeometryConverters}, because geometries are
+ * converted into well-known binary there.
+ *
+ * @author Christian Bremer
+ */
+public class GeometryToTwkbConverter implements Converter<Geometry, byte[]> {
+
+  /**
+   * The default precision (number of fraction digits of x and y).
+   */
+  public static final int DEFAULT_PRECISION = 6;
+
+  private final int precision;
+
+  private final int zPrecision;
+
+  /**
+   * Instantiates a new geometry to tiny well-known binary converter with the default precision.
+   */
+  public GeometryToTwkbConverter() {
+    this(DEFAULT_PRECISION);
+  }
+
+  /**
+   * Instantiates a new geometry to tiny well-known binary converter. The precision of z is the
+   * same as the precision of x and y, but at least 0.
+   *
+   * @param precision the number of fraction digits of x and y (-8 to 7)
+   */
+  public GeometryToTwkbConverter(int precision) {
+    this(precision, Math.max(0, precision));
+  }
+
+  /**
+   * Instantiates a new geometry to tiny well-known binary converter.
+   *
+   * @param precision the number of fraction digits of x and y (-8 to 7)
+   * @param zPrecision the number of fraction digits of z (0 to 7)
+   */
+  public GeometryToTwkbConverter(int precision, int zPrecision) {
+    if (precision < -8 || precision > 7) {
+      throw new IllegalArgumentException(String.format(
+          "Precision must be between -8 and 7, but is %d.", precision));
+    }
+    if (zPrecision < 0 || zPrecision > 7) {
+      throw new IllegalArgumentException(String.format(
+          "Precision of z must be between 0 and 7, but is %d.", zPrecision));
+    }
+    this.precision = precision;
+    this.zPrecision = zPrecision;
+  }
+
+  @Override
+  public byte[] convert(@NonNull Geometry source) {
+    return new TwkbEncoder(precision, zPrecision).encode(source);
+  }
+
+}
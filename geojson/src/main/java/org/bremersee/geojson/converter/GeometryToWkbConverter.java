@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+
+/**
+ * The geometry to well-known binary converter.
+ *
+ * <p>Geometries with z values are written with three dimensions. If the SRID should be
+ * included, the extended well-known binary (EWKB) of PostGIS is written.
+ *
+ * @author Christian Bremer
+ */
+public class GeometryToWkbConverter implements Converter<Geometry, byte[]> {
+
+  private final boolean includeSrid;
+
+  /**
+   * Instantiates a new geometry to well-known binary converter, that doesn't include the SRID.
+   */
+  public GeometryToWkbConverter() {
+    this(false);
+  }
+
+  /**
+   * Instantiates a new geometry to well-known binary converter.
+   *
+   * @param includeSrid specifies whether the SRID should be included (EWKB)
+   */
+  public GeometryToWkbConverter(boolean includeSrid) {
+    this.includeSrid = includeSrid;
+  }
+
+  @Override
+  public byte[] convert(@NonNull Geometry source) {
+    return GeoJsonGeometryFactory.toWellKnownBinary(source, includeSrid);
+  }
+
+}
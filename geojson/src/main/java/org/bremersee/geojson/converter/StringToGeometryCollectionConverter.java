@@ -42,6 +42,6 @@ public class StringToGeometryCollectionConverter extends AbstractStringToGeometr
 
   @Override
   public GeometryCollection convert(@NonNull String source) {
-    return (GeometryCollection) getGeometryFactory().createGeometryFromWellKnownText(source);
+    return (GeometryCollection) createGeometry(source);
   }
 }
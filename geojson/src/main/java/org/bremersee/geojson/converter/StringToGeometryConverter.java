@@ -42,6 +42,6 @@ public class StringToGeometryConverter extends AbstractStringToGeometryConverter
 
   @Override
   public Geometry convert(@NonNull String source) {
-    return getGeometryFactory().createGeometryFromWellKnownText(source);
+    return createGeometry(source);
   }
 }
@@ -42,6 +42,6 @@ public class StringToLineStringConverter extends AbstractStringToGeometryConvert
 
   @Override
   public LineString convert(@NonNull String source) {
-    return (LineString) getGeometryFactory().createGeometryFromWellKnownText(source);
+    return (LineString) createGeometry(source);
   }
 }
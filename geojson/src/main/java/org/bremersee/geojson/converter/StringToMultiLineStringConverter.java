@@ -42,6 +42,6 @@ public class StringToMultiLineStringConverter extends AbstractStringToGeometryCo
 
   @Override
   public MultiLineString convert(@NonNull String source) {
-    return (MultiLineString) getGeometryFactory().createGeometryFromWellKnownText(source);
+    return (MultiLineString) createGeometry(source);
   }
 }
@@ -42,6 +42,6 @@ public class StringToMultiPointConverter extends AbstractStringToGeometryConvert
 
   @Override
   public MultiPoint convert(@NonNull String source) {
-    return (MultiPoint) getGeometryFactory().createGeometryFromWellKnownText(source);
+    return (MultiPoint) createGeometry(source);
   }
 }
@@ -42,6 +42,6 @@ public class StringToMultiPolygonConverter extends AbstractStringToGeometryConve
 
   @Override
   public MultiPolygon convert(@NonNull String source) {
-    return (MultiPolygon) getGeometryFactory().createGeometryFromWellKnownText(source);
+    return (MultiPolygon) createGeometry(source);
   }
 }
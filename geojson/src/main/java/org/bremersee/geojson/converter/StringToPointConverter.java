@@ -42,6 +42,6 @@ public class StringToPointConverter extends AbstractStringToGeometryConverter
 
   @Override
   public Point convert(@NonNull String source) {
-    return (Point) getGeometryFactory().createGeometryFromWellKnownText(source);
+    return (Point) createGeometry(source);
   }
 }
@@ -42,6 +42,6 @@ public class StringToPolygonConverter extends AbstractStringToGeometryConverter
 
   @Override
   public Polygon convert(@NonNull String source) {
-    return (Polygon) getGeometryFactory().createGeometryFromWellKnownText(source);
+    return (Polygon) createGeometry(source);
   }
 }
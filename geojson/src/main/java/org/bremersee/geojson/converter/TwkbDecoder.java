@@ -0,0 +1,240 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import static org.bremersee.geojson.converter.TwkbEncoder.BBOX_FLAG;
+import static org.bremersee.geojson.converter.TwkbEncoder.EMPTY_FLAG;
+import static org.bremersee.geojson.converter.TwkbEncoder.EXTENDED_PRECISION_FLAG;
+import static org.bremersee.geojson.converter.TwkbEncoder.GEOMETRY_COLLECTION;
+import static org.bremersee.geojson.converter.TwkbEncoder.ID_LIST_FLAG;
+import static org.bremersee.geojson.converter.TwkbEncoder.LINESTRING;
+import static org.bremersee.geojson.converter.TwkbEncoder.MULTI_LINESTRING;
+import static org.bremersee.geojson.converter.TwkbEncoder.MULTI_POINT;
+import static org.bremersee.geojson.converter.TwkbEncoder.MULTI_POLYGON;
+import static org.bremersee.geojson.converter.TwkbEncoder.POINT;
+import static org.bremersee.geojson.converter.TwkbEncoder.POLYGON;
+import static org.bremersee.geojson.converter.TwkbEncoder.SIZE_FLAG;
+
+import java.util.Arrays;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * The decoder of Tiny Well-known Binary, see {@link TwkbEncoder}.
+ *
+ * <p>Bounding boxes, sizes, id lists and m values are skipped. The ordinates are
+ * written directly into the coordinate sequences of the geometry factory.
+ *
+ * @author Christian Bremer
+ */
+class TwkbDecoder {
+
+  private final byte[] buffer;
+
+  private final GeometryFactory geometryFactory;
+
+  private final long[] last = new long[4];
+
+  private int position;
+
+  private double factor;
+
+  private double zFactor;
+
+  private boolean hasZ;
+
+  private boolean hasM;
+
+  /**
+   * Instantiates a new twkb decoder.
+   *
+   * @param buffer the bytes
+   * @param geometryFactory the geometry factory
+   */
+  TwkbDecoder(byte[] buffer, GeometryFactory geometryFactory) {
+    this.buffer = buffer;
+    this.geometryFactory = geometryFactory;
+  }
+
+  /**
+   * Decodes the geometry.
+   *
+   * @return the geometry
+   */
+  Geometry decode() {
+    Geometry geometry = readGeometry();
+    if (position != buffer.length) {
+      throw new IllegalArgumentException("Unexpected bytes after TWKB geometry.");
+    }
+    return geometry;
+  }
+
+  private Geometry readGeometry() {
+    int typeAndPrecision = readByte();
+    int type = typeAndPrecision & 0x0F;
+    int zigZagPrecision = (typeAndPrecision >> 4) & 0x0F;
+    factor = Math.pow(10, (zigZagPrecision >>> 1) ^ -(zigZagPrecision & 1));
+    int metadata = readByte();
+    hasZ = false;
+    hasM = false;
+    if ((metadata & EXTENDED_PRECISION_FLAG) != 0) {
+      int extended = readByte();
+      hasZ = (extended & 0x01) != 0;
+      hasM = (extended & 0x02) != 0;
+      zFactor = Math.pow(10, (extended >> 2) & 0x07);
+    }
+    if ((metadata & SIZE_FLAG) != 0) {
+      readVarint();
+    }
+    if ((metadata & BBOX_FLAG) != 0) {
+      for (int i = 0; i < 2 * getDimension(); i++) {
+        readVarint();
+      }
+    }
+    GeometryFactory gf = geometryFactory;
+    boolean empty = (metadata & EMPTY_FLAG) != 0;
+    boolean idList = (metadata & ID_LIST_FLAG) != 0;
+    Arrays.fill(last, 0L);
+    switch (type) {
+      case POINT:
+        return empty ? gf.createPoint() : gf.createPoint(readPositions(1));
+      case LINESTRING:
+        return empty ? gf.createLineString() : gf.createLineString(readLine());
+      case POLYGON:
+        return empty ? gf.createPolygon() : readPolygon();
+      case MULTI_POINT: {
+        Point[] points = new Point[empty ? 0 : readCount(idList)];
+        for (int i = 0; i < points.length; i++) {
+          points[i] = gf.createPoint(readPositions(1));
+        }
+        return gf.createMultiPoint(points);
+      }
+      case MULTI_LINESTRING: {
+        LineString[] lineStrings = new LineString[empty ? 0 : readCount(idList)];
+        for (int i = 0; i < lineStrings.length; i++) {
+          lineStrings[i] = gf.createLineString(readLine());
+        }
+        return gf.createMultiLineString(lineStrings);
+      }
+      case MULTI_POLYGON: {
+        Polygon[] polygons = new Polygon[empty ? 0 : readCount(idList)];
+        for (int i = 0; i < polygons.length; i++) {
+          polygons[i] = readPolygon();
+        }
+        return gf.createMultiPolygon(polygons);
+      }
+      case GEOMETRY_COLLECTION: {
+        Geometry[] geometries = new Geometry[empty ? 0 : readCount(idList)];
+        for (int i = 0; i < geometries.length; i++) {
+          geometries[i] = readGeometry();
+        }
+        return gf.createGeometryCollection(geometries);
+      }
+      default:
+        throw new IllegalArgumentException(String.format("Illegal geometry type: %d", type));
+    }
+  }
+
+  private int getDimension() {
+    return 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+  }
+
+  private int readCount(boolean idList) {
+    int count = readInt();
+    if (idList) {
+      for (int i = 0; i < count; i++) {
+        readVarint();
+      }
+    }
+    return count;
+  }
+
+  private Polygon readPolygon() {
+    int numRings = readInt();
+    if (numRings == 0) {
+      return geometryFactory.createPolygon();
+    }
+    LinearRing shell = geometryFactory.createLinearRing(readLine());
+    LinearRing[] holes = new LinearRing[numRings - 1];
+    for (int i = 0; i < holes.length; i++) {
+      holes[i] = geometryFactory.createLinearRing(readLine());
+    }
+    return geometryFactory.createPolygon(shell, holes);
+  }
+
+  private CoordinateSequence readLine() {
+    return readPositions(readInt());
+  }
+
+  private CoordinateSequence readPositions(int size) {
+    CoordinateSequence sequence = geometryFactory.getCoordinateSequenceFactory()
+        .create(size, hasZ ? 3 : 2);
+    for (int i = 0; i < size; i++) {
+      sequence.setOrdinate(i, 0, readDelta(0) / factor);
+      sequence.setOrdinate(i, 1, readDelta(1) / factor);
+      if (hasZ) {
+        double z = readDelta(2) / zFactor;
+        if (sequence.getDimension() > 2) {
+          sequence.setOrdinate(i, 2, z);
+        }
+      }
+      if (hasM) {
+        readDelta(3);
+      }
+    }
+    return sequence;
+  }
+
+  private long readDelta(int ordinate) {
+    long value = readVarint();
+    last[ordinate] += (value >>> 1) ^ -(value & 1);
+    return last[ordinate];
+  }
+
+  private int readByte() {
+    if (position >= buffer.length) {
+      throw new IllegalArgumentException("Unexpected end of TWKB data.");
+    }
+    return buffer[position++] & 0xFF;
+  }
+
+  private int readInt() {
+    long value = readVarint();
+    if (value < 0 || value > buffer.length - position) {
+      throw new IllegalArgumentException("Illegal count in TWKB data.");
+    }
+    return (int) value;
+  }
+
+  private long readVarint() {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint in TWKB data.");
+  }
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import java.util.Arrays;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * The encoder of Tiny Well-known Binary (see
+ * <a href="https://github.com/TWKB/Specification">TWKB</a>).
+ *
+ * <p>The ordinates are multiplied with ten to the power of the precision, rounded and stored as
+ * zig-zag varints of the difference to the previous position. The ordinates are read directly
+ * from the coordinate sequences, so no object is created per coordinate.
+ *
+ * @author Christian Bremer
+ */
+class TwkbEncoder {
+
+  /**
+   * The geometry types.
+   */
+  static final int POINT = 1;
+
+  static final int LINESTRING = 2;
+
+  static final int POLYGON = 3;
+
+  static final int MULTI_POINT = 4;
+
+  static final int MULTI_LINESTRING = 5;
+
+  static final int MULTI_POLYGON = 6;
+
+  static final int GEOMETRY_COLLECTION = 7;
+
+  /**
+   * The flags of the metadata header.
+   */
+  static final int BBOX_FLAG = 0x01;
+
+  static final int SIZE_FLAG = 0x02;
+
+  static final int ID_LIST_FLAG = 0x04;
+
+  static final int EXTENDED_PRECISION_FLAG = 0x08;
+
+  static final int EMPTY_FLAG = 0x10;
+
+  private final int precision;
+
+  private final double factor;
+
+  private final int zPrecision;
+
+  private final double zFactor;
+
+  private final long[] last = new long[3];
+
+  private boolean hasZ;
+
+  private byte[] buffer = new byte[128];
+
+  private int position;
+
+  /**
+   * Instantiates a new twkb encoder.
+   *
+   * @param precision the number of fraction digits of x and y (-8 to 7)
+   * @param zPrecision the number of fraction digits of z (0 to 7)
+   */
+  TwkbEncoder(int precision, int zPrecision) {
+    this.precision = precision;
+    this.factor = Math.pow(10, precision);
+    this.zPrecision = zPrecision;
+    this.zFactor = Math.pow(10, zPrecision);
+  }
+
+  /**
+   * Encodes a geometry.
+   *
+   * @param geometry the geometry
+   * @return the bytes
+   */
+  byte[] encode(Geometry geometry) {
+    hasZ = hasZ(geometry);
+    writeGeometry(geometry);
+    return Arrays.copyOf(buffer, position);
+  }
+
+  private void writeGeometry(Geometry geometry) {
+    writeByte(getType(geometry) | (((precision << 1) ^ (precision >> 31)) & 0x0F) << 4);
+    writeByte((hasZ ? EXTENDED_PRECISION_FLAG : 0) | (geometry.isEmpty() ? EMPTY_FLAG : 0));
+    if (hasZ) {
+      writeByte(0x01 | (zPrecision << 2));
+    }
+    if (geometry.isEmpty()) {
+      return;
+    }
+    Arrays.fill(last, 0L);
+    if (geometry instanceof Point point) {
+      writePositions(point.getCoordinateSequence());
+    } else if (geometry instanceof LineString lineString) {
+      writeLine(lineString.getCoordinateSequence());
+    } else if (geometry instanceof Polygon polygon) {
+      writePolygon(polygon);
+    } else if (geometry instanceof MultiPoint) {
+      writeVarint(countNonEmpty(geometry));
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        writePositions(((Point) geometry.getGeometryN(i)).getCoordinateSequence());
+      }
+    } else if (geometry instanceof MultiLineString) {
+      writeVarint(geometry.getNumGeometries());
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        writeLine(((LineString) geometry.getGeometryN(i)).getCoordinateSequence());
+      }
+    } else if (geometry instanceof MultiPolygon) {
+      writeVarint(geometry.getNumGeometries());
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        writePolygon((Polygon) geometry.getGeometryN(i));
+      }
+    } else {
+      writeVarint(geometry.getNumGeometries());
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        writeGeometry(geometry.getGeometryN(i));
+      }
+    }
+  }
+
+  private static int getType(Geometry geometry) {
+    if (geometry instanceof Point) {
+      return POINT;
+    } else if (geometry instanceof LineString) {
+      return LINESTRING;
+    } else if (geometry instanceof Polygon) {
+      return POLYGON;
+    } else if (geometry instanceof MultiPoint) {
+      return MULTI_POINT;
+    } else if (geometry instanceof MultiLineString) {
+      return MULTI_LINESTRING;
+    } else if (geometry instanceof MultiPolygon) {
+      return MULTI_POLYGON;
+    } else if (geometry instanceof GeometryCollection) {
+      return GEOMETRY_COLLECTION;
+    }
+    throw new IllegalArgumentException(String.format(
+        "Unsupported geometry type: %s", geometry.getGeometryType()));
+  }
+
+  private static int countNonEmpty(Geometry geometry) {
+    int count = 0;
+    for (int i = 0; i < geometry.getNumGeometries(); i++) {
+      if (!geometry.getGeometryN(i).isEmpty()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static boolean hasZ(Geometry geometry) {
+    ZFilter filter = new ZFilter();
+    geometry.apply(filter);
+    return filter.hasZ;
+  }
+
+  private void writePolygon(Polygon polygon) {
+    if (polygon.isEmpty()) {
+      writeVarint(0);
+      return;
+    }
+    writeVarint(1 + polygon.getNumInteriorRing());
+    writeLine(polygon.getExteriorRing().getCoordinateSequence());
+    for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+      writeLine(polygon.getInteriorRingN(i).getCoordinateSequence());
+    }
+  }
+
+  private void writeLine(CoordinateSequence sequence) {
+    writeVarint(sequence.size());
+    writePositions(sequence);
+  }
+
+  private void writePositions(CoordinateSequence sequence) {
+    for (int i = 0; i < sequence.size(); i++) {
+      writeDelta(0, round(sequence.getX(i), factor));
+      writeDelta(1, round(sequence.getY(i), factor));
+      if (hasZ) {
+        writeDelta(2, round(sequence.hasZ() ? sequence.getZ(i) : Double.NaN, zFactor));
+      }
+    }
+  }
+
+  private static long round(double value, double factor) {
+    return Double.isNaN(value) ? 0L : Math.round(value * factor);
+  }
+
+  private void writeDelta(int ordinate, long value) {
+    long delta = value - last[ordinate];
+    last[ordinate] = value;
+    writeVarint((delta << 1) ^ (delta >> 63));
+  }
+
+  private void writeByte(int value) {
+    if (position == buffer.length) {
+      buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+    }
+    buffer[position++] = (byte) value;
+  }
+
+  private void writeVarint(long value) {
+    long v = value;
+    while ((v & ~0x7FL) != 0) {
+      writeByte((int) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    writeByte((int) v);
+  }
+
+  /**
+   * The filter, that finds a z value.
+   */
+  private static class ZFilter implements CoordinateSequenceFilter {
+
+    private boolean hasZ;
+
+    @Override
+    public void filter(CoordinateSequence sequence, int i) {
+      hasZ = sequence.hasZ() && !Double.isNaN(sequence.getZ(i));
+    }
+
+    @Override
+    public boolean isDone() {
+      return hasZ;
+    }
+
+    @Override
+    public boolean isGeometryChanged() {
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.deserialization;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.bremersee.geojson.crs.CrsTransform;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+
+/**
+ * A growable buffer of positions that are read directly from a {@link JsonParser}. The ordinates
+ * are stored as primitive x, y, z triples, so no object is created per position.
+ *
+ * @author Christian Bremer
+ */
+class CoordinateBuffer {
+
+  private static final int ORDINATES = 3;
+
+  private final boolean position;
+
+  private double[] ordinates;
+
+  private int size;
+
+  private boolean hasZ;
+
+  /**
+   * Instantiates a new coordinate buffer.
+   *
+   * @param position specifies whether the buffer contains the value of a single position (like
+   *     the coordinates of a point) or a list of positions
+   */
+  CoordinateBuffer(boolean position) {
+    this.position = position;
+    this.ordinates = new double[position ? ORDINATES : 16 * ORDINATES];
+  }
+
+  /**
+   * Determines whether this buffer contains the value of a single position.
+   *
+   * @return {@code true} if this buffer contains the value of a single position, otherwise
+   *     {@code false}
+   */
+  boolean isPosition() {
+    return position;
+  }
+
+  /**
+   * Returns the number of positions.
+   *
+   * @return the number of positions
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Reads a position from the parser and adds it to this buffer. The current token of the parser
+   * must be the first token after the start of the position array. After the call the parser is
+   * positioned at the end of the position array.
+   *
+   * @param parser the parser
+   * @param token the first token after the start of the position array
+   * @throws IOException if the position cannot be read
+   */
+  void add(JsonParser parser, JsonToken token) throws IOException {
+    if (size * ORDINATES == ordinates.length) {
+      ordinates = Arrays.copyOf(ordinates, ordinates.length * 2);
+    }
+    int offset = size * ORDINATES;
+    int count = 0;
+    for (JsonToken t = token; t != JsonToken.END_ARRAY; t = parser.nextToken()) {
+      if (count < ORDINATES) {
+        ordinates[offset + count] = readOrdinate(parser, t);
+      } else if (t.isStructStart()) {
+        parser.skipChildren();
+      }
+      count++;
+    }
+    if (count == 0) {
+      throw new JsonParseException(parser, "A position must have at least one element.");
+    }
+    if (count == 1) {
+      ordinates[offset + 1] = Double.NaN;
+    }
+    if (count < ORDINATES) {
+      ordinates[offset + 2] = Double.NaN;
+    } else if (!Double.isNaN(ordinates[offset + 2])) {
+      hasZ = true;
+    }
+    size++;
+  }
+
+  private static double readOrdinate(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+      return parser.getDoubleValue();
+    }
+    if (token == JsonToken.VALUE_NULL) {
+      return Double.NaN;
+    }
+    if (token == JsonToken.VALUE_STRING) {
+      try {
+        return new BigDecimal(parser.getText()).doubleValue();
+      } catch (NumberFormatException e) {
+        throw new JsonParseException(parser, String
+            .format("Ordinate [%s] is not a number.", parser.getText()), e);
+      }
+    }
+    throw new JsonParseException(parser, String
+        .format("Unexpected token [%s] in position.", token));
+  }
+
+  /**
+   * Transforms the x and y values of all positions of this buffer in place.
+   *
+   * @param transform the transform
+   */
+  void transform(CrsTransform transform) {
+    transform.transform(ordinates, 0, size, ORDINATES);
+  }
+
+  /**
+   * Creates a coordinate sequence with all positions of this buffer.
+   *
+   * @param factory the coordinate sequence factory
+   * @return the coordinate sequence
+   */
+  CoordinateSequence toCoordinateSequence(CoordinateSequenceFactory factory) {
+    return toCoordinateSequence(factory, 0, size);
+  }
+
+  /**
+   * Creates a coordinate sequence with the positions from the specified start index (inclusive)
+   * to the specified end index (exclusive).
+   *
+   * @param factory the coordinate sequence factory
+   * @param from the start index (inclusive)
+   * @param to the end index (exclusive)
+   * @return the coordinate sequence
+   */
+  CoordinateSequence toCoordinateSequence(CoordinateSequenceFactory factory, int from, int to) {
+    int dimension = hasZ ? 3 : 2;
+    CoordinateSequence sequence = factory.create(to - from, dimension);
+    for (int i = from; i < to; i++) {
+      int offset = i * ORDINATES;
+      sequence.setOrdinate(i - from, CoordinateSequence.X, ordinates[offset]);
+      sequence.setOrdinate(i - from, CoordinateSequence.Y, ordinates[offset + 1]);
+      if (hasZ) {
+        sequence.setOrdinate(i - from, CoordinateSequence.Z, ordinates[offset + 2]);
+      }
+    }
+    return sequence;
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.deserialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import java.io.IOException;
+import java.io.Serial;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+
+/**
+ * A bean deserializer modifier, that opens a scope of the coordinate reference system (CRS) for
+ * each feature and feature collection, that is read.
+ *
+ * <p>The geometries and bounding boxes of a feature or a feature collection are transformed from
+ * the CRS of its {@code crs} member or, if it has none, from the CRS of the enclosing feature
+ * collection (see {@link JacksonGeometryDeserializer}). The modifier is registered by the
+ * {@link org.bremersee.geojson.GeoJsonObjectMapperModule}, if it reprojects the positions.
+ *
+ * @author Christian Bremer
+ */
+public class CrsDeserializerModifier extends BeanDeserializerModifier {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  public JsonDeserializer<?> modifyDeserializer(
+      DeserializationConfig config,
+      BeanDescription beanDesc,
+      JsonDeserializer<?> deserializer) {
+
+    Class<?> beanClass = beanDesc.getBeanClass();
+    if (GeoJsonFeature.class.isAssignableFrom(beanClass)
+        || GeoJsonFeatureCollection.class.isAssignableFrom(beanClass)) {
+      return new ScopeDeserializer(deserializer);
+    }
+    return deserializer;
+  }
+
+  /**
+   * The deserializer of a feature or a feature collection, that opens the scope.
+   */
+  static class ScopeDeserializer extends DelegatingDeserializer {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Instantiates a new scope deserializer.
+     *
+     * @param delegatee the deserializer of the feature or the feature collection
+     */
+    ScopeDeserializer(JsonDeserializer<?> delegatee) {
+      super(delegatee);
+    }
+
+    @Override
+    protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+      return new ScopeDeserializer(newDelegatee);
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      Object previous = ctxt.getAttribute(CrsScope.class);
+      CrsScope parent = previous instanceof CrsScope scope ? scope : null;
+      CrsScope scope = new CrsScope(JacksonGeometryDeserializer.getDocumentCrs(p, ctxt, parent));
+      ctxt.setAttribute(CrsScope.class, scope);
+      try {
+        Object value = super.deserialize(p, ctxt);
+        scope.close(parent);
+        return value;
+      } finally {
+        ctxt.setAttribute(CrsScope.class, previous);
+      }
+    }
+  }
+
+}
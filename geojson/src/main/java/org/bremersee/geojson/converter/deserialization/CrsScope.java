@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.deserialization;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.bremersee.geojson.crs.CrsTransform;
+import org.bremersee.geojson.crs.CrsTransformRegistry;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The coordinate reference system (CRS) of a GeoJSON object, that is read, like a feature, a
+ * feature collection or a geometry collection.
+ *
+ * <p>The positions of a GeoJSON object are in the CRS of its {@code crs} member or, if it has
+ * none, in the CRS of the enclosing object. The positions are transformed, while they are read,
+ * with the CRS, that is known at this time. If the {@code crs} member follows other members, the
+ * values, that have been read before with the CRS of the enclosing object, are recorded and
+ * corrected in place, when the {@code crs} member is read.
+ *
+ * <p>A scope is used by one thread only.
+ *
+ * @author Christian Bremer
+ */
+final class CrsScope {
+
+  private final String inheritedCrs;
+
+  private String crs;
+
+  private boolean hasCrs;
+
+  private List<Object> values;
+
+  /**
+   * Instantiates a new crs scope.
+   *
+   * @param inheritedCrs the name of the CRS of the enclosing object ({@code null} means WGS84)
+   */
+  CrsScope(String inheritedCrs) {
+    this.inheritedCrs = inheritedCrs;
+  }
+
+  /**
+   * Gets the name of the CRS of the positions, that are read now.
+   *
+   * @return the name of the CRS ({@code null} means WGS84)
+   */
+  String getCrs() {
+    return hasCrs ? crs : inheritedCrs;
+  }
+
+  /**
+   * Determines whether the object has a {@code crs} member.
+   *
+   * @return {@code true}, if the {@code crs} member has been read, otherwise {@code false}
+   */
+  boolean hasCrs() {
+    return hasCrs;
+  }
+
+  /**
+   * Sets the name of the CRS of the {@code crs} member of the object. The values, that have been
+   * read before with the CRS of the enclosing object, are corrected in place.
+   *
+   * @param crs the name of the CRS ({@code null} means WGS84)
+   * @param registry the crs transform registry
+   * @param targetCrs the name of the CRS of the geometries
+   * @throws IllegalArgumentException if a CRS is not supported
+   */
+  void setCrs(String crs, CrsTransformRegistry registry, String targetCrs) {
+    String previousCrs = getCrs();
+    this.crs = crs;
+    this.hasCrs = true;
+    if (isNull(values) || CrsTransformRegistry.normalize(crs)
+        .equals(CrsTransformRegistry.normalize(previousCrs))) {
+      values = null;
+      return;
+    }
+    CrsTransform correction = registry.getTransform(targetCrs, previousCrs)
+        .andThen(registry.getTransform(crs, targetCrs));
+    for (Object value : values) {
+      if (value instanceof Geometry geometry) {
+        geometry.apply(correction.toCoordinateSequenceFilter());
+      } else if (value instanceof double[] bbox) {
+        double[] corrected = correction.transformBoundingBox(bbox);
+        System.arraycopy(corrected, 0, bbox, 0, bbox.length);
+      }
+    }
+    values = null;
+  }
+
+  /**
+   * Records a geometry or a bounding box, that has been read with the CRS of this scope. The
+   * value is only recorded, if the object has no {@code crs} member yet, because then it depends
+   * on the CRS of the enclosing object.
+   *
+   * @param value the geometry or the bounding box
+   */
+  void read(Object value) {
+    if (!hasCrs && (value instanceof Geometry || value instanceof double[])) {
+      if (isNull(values)) {
+        values = new ArrayList<>();
+      }
+      values.add(value);
+    }
+  }
+
+  /**
+   * Passes the recorded values to the scope of the enclosing object, if the object has no
+   * {@code crs} member, because then they depend on the CRS of the enclosing object, too.
+   *
+   * @param parent the scope of the enclosing object (can be {@code null})
+   */
+  void close(CrsScope parent) {
+    if (!hasCrs && !isNull(values) && !isNull(parent)) {
+      values.forEach(parent::read);
+    }
+    values = null;
+  }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.deserialization;
+
+import static java.util.Objects.isNull;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.io.Serial;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A Jackson deserializer for the bounding box of a feature or a feature collection.
+ *
+ * <p>If a {@link JacksonGeometryDeserializer} with a crs transform registry is registered (see
+ * {@link org.bremersee.geojson.GeoJsonObjectMapperModule}), the bounding box is transformed like
+ * the geometries into their coordinate reference system. Otherwise, the bounding box is read as
+ * it is.
+ *
+ * @author Christian Bremer
+ */
+public class JacksonBoundingBoxDeserializer extends StdDeserializer<double[]>
+    implements ContextualDeserializer {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final JacksonGeometryDeserializer geometryDeserializer;
+
+  /**
+   * Default constructor.
+   */
+  public JacksonBoundingBoxDeserializer() {
+    this(null);
+  }
+
+  /**
+   * Constructs a deserializer, that transforms the bounding box like the specified geometry
+   * deserializer the geometries.
+   *
+   * @param geometryDeserializer the geometry deserializer (can be {@code null})
+   */
+  public JacksonBoundingBoxDeserializer(JacksonGeometryDeserializer geometryDeserializer) {
+    super(double[].class);
+    this.geometryDeserializer = geometryDeserializer;
+  }
+
+  @Override
+  public JsonDeserializer<?> createContextual(
+      DeserializationContext ctxt,
+      BeanProperty property) throws JsonMappingException {
+
+    JacksonGeometryDeserializer registered = JacksonGeometryDeserializer
+        .findRegistered(ctxt, ctxt.constructType(Geometry.class));
+    return registered == geometryDeserializer
+        ? this
+        : new JacksonBoundingBoxDeserializer(registered);
+  }
+
+  @Override
+  public double[] deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+    double[] bbox = ctxt.readValue(jp, double[].class);
+    return isNull(geometryDeserializer)
+        ? bbox
+        : geometryDeserializer.transformBoundingBox(bbox, jp, ctxt);
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.deserialization;
+
+import static java.util.Objects.isNull;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import java.io.IOException;
+import java.io.Serial;
+import org.bremersee.geojson.crs.AbstractGeoJsonCrs;
+import org.bremersee.geojson.crs.CrsTransformRegistry;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A Jackson deserializer for the {@code crs} member of a feature or a feature collection.
+ *
+ * <p>The coordinate reference system (CRS) is read with the deserializer of its type. If a
+ * {@link JacksonGeometryDeserializer} with a crs transform registry is registered (see
+ * {@link org.bremersee.geojson.GeoJsonObjectMapperModule}), the CRS is set as the CRS of the
+ * positions of the feature or the feature collection (see {@link CrsDeserializerModifier}), so
+ * that the following geometries and bounding boxes are transformed from it and the ones, that
+ * have been read before, are corrected.
+ *
+ * @author Christian Bremer
+ */
+public class JacksonCrsDeserializer extends StdDeserializer<AbstractGeoJsonCrs>
+    implements ContextualDeserializer {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final JsonDeserializer<Object> delegate;
+
+  private final JacksonGeometryDeserializer geometryDeserializer;
+
+  /**
+   * Default constructor.
+   */
+  public JacksonCrsDeserializer() {
+    this(null, null);
+  }
+
+  private JacksonCrsDeserializer(
+      JsonDeserializer<Object> delegate,
+      JacksonGeometryDeserializer geometryDeserializer) {
+    super(AbstractGeoJsonCrs.class);
+    this.delegate = delegate;
+    this.geometryDeserializer = geometryDeserializer;
+  }
+
+  @Override
+  public JsonDeserializer<?> createContextual(
+      DeserializationContext ctxt,
+      BeanProperty property) throws JsonMappingException {
+
+    return new JacksonCrsDeserializer(
+        ctxt.findContextualValueDeserializer(
+            ctxt.constructType(AbstractGeoJsonCrs.class), property),
+        JacksonGeometryDeserializer.findRegistered(ctxt, ctxt.constructType(Geometry.class)));
+  }
+
+  @Override
+  public AbstractGeoJsonCrs deserialize(
+      JsonParser jp,
+      DeserializationContext ctxt) throws IOException {
+
+    JsonDeserializer<Object> deserializer = isNull(delegate)
+        ? ctxt.findRootValueDeserializer(ctxt.constructType(AbstractGeoJsonCrs.class))
+        : delegate;
+    return setCrs((AbstractGeoJsonCrs) deserializer.deserialize(jp, ctxt), jp, ctxt);
+  }
+
+  @Override
+  public Object deserializeWithType(
+      JsonParser jp,
+      DeserializationContext ctxt,
+      TypeDeserializer typeDeserializer) throws IOException {
+
+    return setCrs((AbstractGeoJsonCrs) typeDeserializer.deserializeTypedFromObject(jp, ctxt),
+        jp, ctxt);
+  }
+
+  private AbstractGeoJsonCrs setCrs(
+      AbstractGeoJsonCrs crs,
+      JsonParser jp,
+      DeserializationContext ctxt) throws JsonMappingException {
+
+    CrsScope scope = JacksonGeometryDeserializer.getScope(ctxt);
+    if (isNull(geometryDeserializer)
+        || isNull(geometryDeserializer.getCrsTransformRegistry())
+        || isNull(scope)) {
+      return crs;
+    }
+    try {
+      scope.setCrs(
+          CrsTransformRegistry.getName(crs),
+          geometryDeserializer.getCrsTransformRegistry(),
+          geometryDeserializer.getCrs());
+    } catch (IllegalArgumentException e) {
+      throw JsonMappingException.from(jp, e.getMessage(), e);
+    }
+    return crs;
+  }
+
+}
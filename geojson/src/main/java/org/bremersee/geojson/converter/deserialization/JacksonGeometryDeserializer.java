@@ -17,32 +17,63 @@
 package org.bremersee.geojson.converter.deserialization;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.BasicDeserializerFactory;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.Deserializers;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import java.io.IOException;
 import java.io.Serial;
-import java.util.Map;
 import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.crs.AbstractGeoJsonCrs;
+import org.bremersee.geojson.crs.CrsTransformRegistry;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 
 /**
  * A Jackson deserializer for a {@link Geometry}.
  *
+ * <p>The geometry is read directly from the token stream of the parser (see
+ * {@link JsonParserToGeometryConverter}).
+ *
+ * <p>Only the token api of the parser is used, so the deserializer works with binary data formats
+ * like CBOR or Smile, too. Ordinates can be float32, float64, integer or decimal values.
+ *
+ * <p>The deserializer is contextual: if it is declared on a property (like the geometry of a
+ * {@link org.bremersee.geojson.GeoJsonFeature}) and a deserializer of this type is registered for
+ * the geometry type (see {@link org.bremersee.geojson.GeoJsonObjectMapperModule}), the registered
+ * deserializer is used for the property, so that its settings apply.
+ *
+ * <p>If the deserializer has a crs transform registry, the positions are reprojected into the
+ * coordinate reference system (CRS) of the geometries. The CRS of the positions is taken from the
+ * {@code crs} member of the geometry, of the enclosing feature or feature collection (see
+ * {@link CrsDeserializerModifier}) or from the attribute {@code AbstractGeoJsonCrs.class} of the
+ * deserialization context. Without any of them the positions are WGS84 positions.
+ *
  * @author Christian Bremer
  */
-public class JacksonGeometryDeserializer extends StdDeserializer<Geometry> {
+public class JacksonGeometryDeserializer extends StdDeserializer<Geometry>
+    implements ContextualDeserializer {
 
   @Serial
-  private static final long serialVersionUID = 3L;
+  private static final long serialVersionUID = 5L;
 
   /**
-   * The json to geometry converter.
+   * The json parser to geometry converter.
    */
-  private final JsonToGeometryConverter geometryConverter;
+  private final JsonParserToGeometryConverter geometryConverter;
+
+  private final CrsTransformRegistry crsTransformRegistry;
+
+  private final String crs;
 
   /**
    * Default constructor.
@@ -57,23 +88,163 @@ public class JacksonGeometryDeserializer extends StdDeserializer<Geometry> {
    * @param geometryFactory the geometry factory
    */
   public JacksonGeometryDeserializer(GeometryFactory geometryFactory) {
+    this(geometryFactory, null, null);
+  }
+
+  /**
+   * Constructs a deserializer that uses the specified geometry factory and reprojects the
+   * positions while they are read.
+   *
+   * @param geometryFactory the geometry factory
+   * @param crsTransformRegistry the crs transform registry (can be {@code null}, then the
+   *     positions are not reprojected)
+   * @param crs the name of the coordinate reference system of the geometries ({@code null}
+   *     means WGS84)
+   */
+  public JacksonGeometryDeserializer(
+      GeometryFactory geometryFactory,
+      CrsTransformRegistry crsTransformRegistry,
+      String crs) {
     super(Geometry.class);
     GeometryFactory gf = isNull(geometryFactory) ? new GeoJsonGeometryFactory() : geometryFactory;
-    this.geometryConverter = new JsonToGeometryConverter(gf);
+    this.geometryConverter = new JsonParserToGeometryConverter(gf, crsTransformRegistry, crs);
+    this.crsTransformRegistry = crsTransformRegistry;
+    this.crs = crs;
+  }
+
+  @Override
+  public JsonDeserializer<?> createContextual(
+      DeserializationContext ctxt,
+      BeanProperty property) throws JsonMappingException {
+
+    JavaType type = isNull(property) ? ctxt.constructType(Geometry.class) : property.getType();
+    JacksonGeometryDeserializer registered = findRegistered(ctxt, type);
+    return isNull(registered) ? this : registered;
+  }
+
+  /**
+   * Finds the deserializer, that is registered for the geometry type (for example by the
+   * {@link org.bremersee.geojson.GeoJsonObjectMapperModule}).
+   *
+   * @param ctxt the deserialization context
+   * @param type the geometry type
+   * @return the registered deserializer or {@code null}
+   * @throws JsonMappingException if the lookup fails
+   */
+  static JacksonGeometryDeserializer findRegistered(
+      DeserializationContext ctxt,
+      JavaType type) throws JsonMappingException {
+
+    if (ctxt.getFactory() instanceof BasicDeserializerFactory factory) {
+      DeserializationConfig config = ctxt.getConfig();
+      for (Deserializers deserializers : factory.getFactoryConfig().deserializers()) {
+        JsonDeserializer<?> registered = deserializers.findBeanDeserializer(
+            type, config, config.introspectClassAnnotations(type));
+        if (registered instanceof JacksonGeometryDeserializer deserializer) {
+          return deserializer;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets the crs transform registry.
+   *
+   * @return the crs transform registry or {@code null}, if the positions are not reprojected
+   */
+  CrsTransformRegistry getCrsTransformRegistry() {
+    return crsTransformRegistry;
+  }
+
+  /**
+   * Gets the name of the coordinate reference system of the geometries.
+   *
+   * @return the name of the CRS ({@code null} means WGS84)
+   */
+  String getCrs() {
+    return crs;
   }
 
   @Override
   public Geometry deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
-    Map<String, Object> map = jp.readValueAs(new MapTypeReference());
-    if (isNull(map) || map.isEmpty()) {
-      return null;
+    if (isNull(crsTransformRegistry)) {
+      return geometryConverter.convert(jp);
+    }
+    CrsScope scope = getScope(ctxt);
+    return geometryConverter.convert(jp, getDocumentCrs(jp, ctxt, scope), scope);
+  }
+
+  /**
+   * Transforms a bounding box, that has been read, into the coordinate reference system of the
+   * geometries.
+   *
+   * @param bbox the bounding box (can be {@code null})
+   * @param jp the parser
+   * @param ctxt the deserialization context
+   * @return the transformed bounding box
+   * @throws IOException if the coordinate reference system is not supported
+   */
+  double[] transformBoundingBox(
+      double[] bbox,
+      JsonParser jp,
+      DeserializationContext ctxt) throws IOException {
+
+    if (isNull(crsTransformRegistry) || isNull(bbox)) {
+      return bbox;
+    }
+    CrsScope scope = getScope(ctxt);
+    double[] result;
+    try {
+      result = crsTransformRegistry
+          .getTransform(getDocumentCrs(jp, ctxt, scope), crs)
+          .transformBoundingBox(bbox);
+    } catch (IllegalArgumentException e) {
+      throw JsonMappingException.from(jp, e.getMessage(), e);
     }
-    return geometryConverter.convert(map);
+    if (nonNull(scope)) {
+      scope.read(result);
+    }
+    return result;
   }
 
-  private static class MapTypeReference extends TypeReference<Map<String, Object>> {
+  /**
+   * Gets the scope of the enclosing feature or feature collection.
+   *
+   * @param ctxt the deserialization context
+   * @return the scope or {@code null}
+   */
+  static CrsScope getScope(DeserializationContext ctxt) {
+    return ctxt.getAttribute(CrsScope.class) instanceof CrsScope scope ? scope : null;
+  }
 
-    private MapTypeReference() {
+  /**
+   * Gets the name of the coordinate reference system of the document, that is the CRS of the
+   * enclosing feature or feature collection or of the attribute {@code AbstractGeoJsonCrs.class}
+   * of the deserialization context.
+   *
+   * @param jp the parser
+   * @param ctxt the deserialization context
+   * @param scope the scope of the enclosing feature or feature collection (can be {@code null})
+   * @return the name of the CRS ({@code null} means WGS84)
+   * @throws JsonMappingException if the CRS of the attribute is not supported
+   */
+  static String getDocumentCrs(
+      JsonParser jp,
+      DeserializationContext ctxt,
+      CrsScope scope) throws JsonMappingException {
+
+    if (nonNull(scope)) {
+      return scope.getCrs();
+    }
+    if (ctxt.getAttribute(AbstractGeoJsonCrs.class) instanceof AbstractGeoJsonCrs documentCrs) {
+      try {
+        return CrsTransformRegistry.getName(documentCrs);
+      } catch (IllegalArgumentException e) {
+        throw JsonMappingException.from(jp, e.getMessage(), e);
+      }
     }
+    return null;
   }
+
 }
@@ -0,0 +1,454 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.deserialization;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.GeoJsonConstants.COORDINATES;
+import static org.bremersee.geojson.GeoJsonConstants.CRS;
+import static org.bremersee.geojson.GeoJsonConstants.GEOMETRIES;
+import static org.bremersee.geojson.GeoJsonConstants.GEOMETRY_COLLECTION;
+import static org.bremersee.geojson.GeoJsonConstants.LINESTRING;
+import static org.bremersee.geojson.GeoJsonConstants.MULTI_LINESTRING;
+import static org.bremersee.geojson.GeoJsonConstants.MULTI_POINT;
+import static org.bremersee.geojson.GeoJsonConstants.MULTI_POLYGON;
+import static org.bremersee.geojson.GeoJsonConstants.POINT;
+import static org.bremersee.geojson.GeoJsonConstants.POLYGON;
+import static org.bremersee.geojson.GeoJsonConstants.PROPERTIES;
+import static org.bremersee.geojson.GeoJsonConstants.TYPE;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.crs.CrsTransform;
+import org.bremersee.geojson.crs.CrsTransformRegistry;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * The json parser to geometry converter reads a GeoJSON geometry directly from the tokens of a
+ * {@link JsonParser}.
+ *
+ * <p>In contrast to the {@link JsonToGeometryConverter} no map and no list of boxed numbers is
+ * created. The positions are read into primitive arrays and then copied into the coordinate
+ * sequences of the geometry factory. The members of the GeoJSON object can be in any order.
+ *
+ * <p>If a crs transform registry is given, the positions are reprojected from the coordinate
+ * reference system (CRS) of the GeoJSON object into the CRS of the geometries. The CRS of the
+ * GeoJSON object is the one of its {@code crs} member or, if it has none, the CRS of the
+ * document (for example of the enclosing feature). The positions are transformed in the
+ * primitive buffers, before the coordinate sequences are created, so no additional copy of the
+ * geometry is made.
+ *
+ * @author Christian Bremer
+ */
+public class JsonParserToGeometryConverter extends AbstractJsonToGeometryConverter {
+
+  @Serial
+  private static final long serialVersionUID = 3L;
+
+  private final CrsTransformRegistry crsTransformRegistry;
+
+  private final String crs;
+
+  /**
+   * Instantiates a new json parser to geometry converter.
+   */
+  public JsonParserToGeometryConverter() {
+    this(new GeometryFactory());
+  }
+
+  /**
+   * Instantiates a new json parser to geometry converter.
+   *
+   * @param geometryFactory the geometry factory
+   */
+  public JsonParserToGeometryConverter(GeometryFactory geometryFactory) {
+    this(geometryFactory, null, null);
+  }
+
+  /**
+   * Instantiates a new json parser to geometry converter, that reprojects the positions while
+   * they are read.
+   *
+   * @param geometryFactory the geometry factory
+   * @param crsTransformRegistry the crs transform registry (can be {@code null}, then the
+   *     positions are not reprojected)
+   * @param crs the name of the coordinate reference system of the geometries ({@code null}
+   *     means WGS84)
+   */
+  public JsonParserToGeometryConverter(
+      GeometryFactory geometryFactory,
+      CrsTransformRegistry crsTransformRegistry,
+      String crs) {
+    super(isNull(geometryFactory) ? new GeoJsonGeometryFactory() : geometryFactory);
+    this.crsTransformRegistry = crsTransformRegistry;
+    this.crs = crs;
+  }
+
+  /**
+   * Reads a geometry from the parser. The current token of the parser must be the start of the
+   * GeoJSON object, the first field name of it or a {@code null} value. After the call the parser
+   * is positioned at the end of the GeoJSON object.
+   *
+   * @param parser the parser
+   * @return the geometry or {@code null} if the value is {@code null} or an empty object
+   * @throws IOException if the geometry cannot be read
+   */
+  public Geometry convert(JsonParser parser) throws IOException {
+    return convert(parser, null, null);
+  }
+
+  /**
+   * Reads a geometry from the parser, like {@link #convert(JsonParser)}, whose positions are in
+   * the specified coordinate reference system, if the GeoJSON object has no {@code crs} member.
+   *
+   * @param parser the parser
+   * @param documentCrs the name of the CRS of the document ({@code null} means WGS84)
+   * @return the geometry or {@code null} if the value is {@code null} or an empty object
+   * @throws IOException if the geometry cannot be read
+   */
+  public Geometry convert(JsonParser parser, String documentCrs) throws IOException {
+    return convert(parser, documentCrs, null);
+  }
+
+  /**
+   * Reads a geometry from the parser and records it in the scope of the enclosing object, if it
+   * depends on the CRS of the document.
+   *
+   * @param parser the parser
+   * @param documentCrs the name of the CRS of the document ({@code null} means WGS84)
+   * @param scope the scope of the enclosing object (can be {@code null})
+   * @return the geometry or {@code null} if the value is {@code null} or an empty object
+   * @throws IOException if the geometry cannot be read
+   */
+  Geometry convert(JsonParser parser, String documentCrs, CrsScope scope) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (isNull(token)) {
+      token = parser.nextToken();
+    }
+    if (isNull(token) || token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (token == JsonToken.START_OBJECT) {
+      token = parser.nextToken();
+    }
+    CrsScope local = isNull(crsTransformRegistry) ? null : new CrsScope(documentCrs);
+    String type = null;
+    Object coordinates = null;
+    List<Geometry> geometries = null;
+    boolean empty = true;
+    for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+      String name = parser.currentName();
+      JsonToken valueToken = parser.nextToken();
+      empty = false;
+      if (TYPE.equals(name)) {
+        type = valueToken == JsonToken.VALUE_NULL ? null : parser.getText();
+      } else if (COORDINATES.equals(name)) {
+        coordinates = readCoordinates(parser, valueToken);
+      } else if (GEOMETRIES.equals(name)) {
+        geometries = readGeometries(parser, valueToken, local);
+      } else if (CRS.equals(name) && nonNull(local)) {
+        String crsName = readCrs(parser, valueToken);
+        if (nonNull(crsName)) {
+          try {
+            local.setCrs(crsName, crsTransformRegistry, crs);
+          } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, e.getMessage(), e);
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (token != JsonToken.END_OBJECT) {
+      throw new JsonParseException(parser, String
+          .format("Unexpected token [%s], expected a GeoJSON geometry object.", token));
+    }
+    if (empty) {
+      return null;
+    }
+    if (isNull(local)) {
+      return createGeometry(parser, type, coordinates, geometries);
+    }
+    try {
+      transform(coordinates, crsTransformRegistry.getTransform(local.getCrs(), crs));
+    } catch (IllegalArgumentException e) {
+      throw new JsonParseException(parser, e.getMessage(), e);
+    }
+    local.close(scope);
+    Geometry geometry = createGeometry(parser, type, coordinates, geometries);
+    if (nonNull(scope) && !local.hasCrs() && !GEOMETRY_COLLECTION.equals(type)) {
+      scope.read(geometry);
+    }
+    return geometry;
+  }
+
+  /**
+   * Reads the name of a named coordinate reference system or the link of a linked one.
+   *
+   * @param parser the parser
+   * @param token the current token
+   * @return the name or the link of the CRS or {@code null}
+   * @throws IOException if the CRS cannot be read
+   */
+  private static String readCrs(JsonParser parser, JsonToken token) throws IOException {
+    if (token != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return null;
+    }
+    String name = null;
+    for (JsonToken t = parser.nextToken(); t == JsonToken.FIELD_NAME; t = parser.nextToken()) {
+      boolean properties = PROPERTIES.equals(parser.currentName());
+      if (parser.nextToken() != JsonToken.START_OBJECT || !properties) {
+        parser.skipChildren();
+        continue;
+      }
+      for (JsonToken p = parser.nextToken(); p == JsonToken.FIELD_NAME; p = parser.nextToken()) {
+        String key = parser.currentName();
+        if (parser.nextToken() == JsonToken.VALUE_STRING
+            && ("name".equals(key) || "href".equals(key))) {
+          name = parser.getText();
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+    return name;
+  }
+
+  private static void transform(Object coordinates, CrsTransform transform) {
+    if (transform == CrsTransform.IDENTITY) {
+      return;
+    }
+    if (coordinates instanceof CoordinateBuffer positions) {
+      positions.transform(transform);
+    } else if (coordinates instanceof List<?> list) {
+      for (Object element : list) {
+        transform(element, transform);
+      }
+    }
+  }
+
+  private Object readCoordinates(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (token != JsonToken.START_ARRAY) {
+      throw new JsonParseException(parser, String
+          .format("Unexpected token [%s], coordinates must be an array.", token));
+    }
+    return readArray(parser, parser.nextToken());
+  }
+
+  /**
+   * Reads the content of an array. The returned value is a coordinate buffer with a single
+   * position, if the array contains numbers, or a coordinate buffer with a list of positions, if
+   * the array contains arrays of numbers, or otherwise a list of nested values.
+   *
+   * @param parser the parser
+   * @param token the first token after the start of the array
+   * @return the coordinate buffer or the list of nested values
+   * @throws IOException if the array cannot be read
+   */
+  private Object readArray(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.END_ARRAY) {
+      return List.of();
+    }
+    if (token != JsonToken.START_ARRAY) {
+      CoordinateBuffer position = new CoordinateBuffer(true);
+      position.add(parser, token);
+      return position;
+    }
+    JsonToken first = parser.nextToken();
+    JsonToken next;
+    if (first != JsonToken.START_ARRAY && first != JsonToken.END_ARRAY) {
+      CoordinateBuffer positions = new CoordinateBuffer(false);
+      positions.add(parser, first);
+      while ((next = parser.nextToken()) == JsonToken.START_ARRAY) {
+        positions.add(parser, parser.nextToken());
+      }
+      assertEndArray(parser, next);
+      return positions;
+    }
+    List<Object> list = new ArrayList<>();
+    list.add(readArray(parser, first));
+    while ((next = parser.nextToken()) == JsonToken.START_ARRAY) {
+      list.add(readArray(parser, parser.nextToken()));
+    }
+    assertEndArray(parser, next);
+    return list;
+  }
+
+  private static void assertEndArray(JsonParser parser, JsonToken token) throws IOException {
+    if (token != JsonToken.END_ARRAY) {
+      throw new JsonParseException(parser, String
+          .format("Unexpected token [%s] in coordinates.", token));
+    }
+  }
+
+  private List<Geometry> readGeometries(
+      JsonParser parser,
+      JsonToken token,
+      CrsScope scope) throws IOException {
+
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (token != JsonToken.START_ARRAY) {
+      throw new JsonParseException(parser, String
+          .format("Unexpected token [%s], geometries must be an array.", token));
+    }
+    List<Geometry> geometries = new ArrayList<>();
+    for (JsonToken t = parser.nextToken(); t != JsonToken.END_ARRAY; t = parser.nextToken()) {
+      Geometry geometry = convert(parser, isNull(scope) ? null : scope.getCrs(), scope);
+      if (!isNull(geometry)) {
+        geometries.add(geometry);
+      }
+    }
+    return geometries;
+  }
+
+  private Geometry createGeometry(
+      JsonParser parser,
+      String type,
+      Object coordinates,
+      List<Geometry> geometries) throws IOException {
+
+    GeometryFactory gf = getGeometryFactory();
+    if (POINT.equals(type)) {
+      return createPoint(parser, coordinates);
+
+    } else if (LINESTRING.equals(type)) {
+      return createLineString(parser, coordinates);
+
+    } else if (POLYGON.equals(type)) {
+      return createPolygon(parser, coordinates);
+
+    } else if (MULTI_POINT.equals(type)) {
+      if (isNull(coordinates) || coordinates instanceof List) {
+        assertEmpty(parser, coordinates);
+        return gf.createMultiPoint(new Point[0]);
+      }
+      CoordinateBuffer positions = toPositions(parser, coordinates);
+      CoordinateSequenceFactory csf = gf.getCoordinateSequenceFactory();
+      Point[] points = new Point[positions.size()];
+      for (int i = 0; i < points.length; i++) {
+        points[i] = gf.createPoint(positions.toCoordinateSequence(csf, i, i + 1));
+      }
+      return gf.createMultiPoint(points);
+
+    } else if (MULTI_LINESTRING.equals(type)) {
+      List<?> list = toList(parser, coordinates);
+      LineString[] lineStrings = new LineString[list.size()];
+      for (int i = 0; i < lineStrings.length; i++) {
+        lineStrings[i] = createLineString(parser, list.get(i));
+      }
+      return gf.createMultiLineString(lineStrings);
+
+    } else if (MULTI_POLYGON.equals(type)) {
+      List<?> list = toList(parser, coordinates);
+      Polygon[] polygons = new Polygon[list.size()];
+      for (int i = 0; i < polygons.length; i++) {
+        polygons[i] = createPolygon(parser, list.get(i));
+      }
+      return gf.createMultiPolygon(polygons);
+
+    } else if (GEOMETRY_COLLECTION.equals(type)) {
+      return gf.createGeometryCollection(isNull(geometries)
+          ? new Geometry[0]
+          : geometries.toArray(new Geometry[0]));
+    }
+
+    throw new JsonParseException(parser, String.format("Illegal geometry type: %s", type));
+  }
+
+  private Point createPoint(JsonParser parser, Object coordinates) throws IOException {
+    if (coordinates instanceof CoordinateBuffer position && position.isPosition()) {
+      return getGeometryFactory().createPoint(
+          position.toCoordinateSequence(getGeometryFactory().getCoordinateSequenceFactory()));
+    }
+    assertEmpty(parser, coordinates);
+    return getGeometryFactory().createPoint();
+  }
+
+  private LineString createLineString(JsonParser parser, Object coordinates) throws IOException {
+    if (isNull(coordinates) || coordinates instanceof List) {
+      assertEmpty(parser, coordinates);
+      return getGeometryFactory().createLineString();
+    }
+    return getGeometryFactory().createLineString(toPositions(parser, coordinates)
+        .toCoordinateSequence(getGeometryFactory().getCoordinateSequenceFactory()));
+  }
+
+  private LinearRing createLinearRing(JsonParser parser, Object coordinates) throws IOException {
+    if (isNull(coordinates) || coordinates instanceof List) {
+      assertEmpty(parser, coordinates);
+      return getGeometryFactory().createLinearRing();
+    }
+    return getGeometryFactory().createLinearRing(toPositions(parser, coordinates)
+        .toCoordinateSequence(getGeometryFactory().getCoordinateSequenceFactory()));
+  }
+
+  private Polygon createPolygon(JsonParser parser, Object coordinates) throws IOException {
+    List<?> rings = toList(parser, coordinates);
+    if (rings.isEmpty()) {
+      return getGeometryFactory().createPolygon();
+    }
+    LinearRing shell = createLinearRing(parser, rings.get(0));
+    LinearRing[] holes = new LinearRing[rings.size() - 1];
+    for (int i = 1; i < rings.size(); i++) {
+      holes[i - 1] = createLinearRing(parser, rings.get(i));
+    }
+    return getGeometryFactory().createPolygon(shell, holes);
+  }
+
+  private static CoordinateBuffer toPositions(JsonParser parser, Object coordinates)
+      throws IOException {
+    if (coordinates instanceof CoordinateBuffer positions && !positions.isPosition()) {
+      return positions;
+    }
+    throw new JsonParseException(parser, "Coordinates must be an array of positions.");
+  }
+
+  private static List<?> toList(JsonParser parser, Object coordinates) throws IOException {
+    if (isNull(coordinates)) {
+      return List.of();
+    }
+    if (coordinates instanceof List<?> list) {
+      return list;
+    }
+    throw new JsonParseException(parser, "Coordinates must be an array of arrays.");
+  }
+
+  private static void assertEmpty(JsonParser parser, Object coordinates) throws IOException {
+    if (!isNull(coordinates) && !(coordinates instanceof List<?> list && list.isEmpty())) {
+      throw new JsonParseException(parser, "Coordinates don't match the geometry type.");
+    }
+  }
+
+}
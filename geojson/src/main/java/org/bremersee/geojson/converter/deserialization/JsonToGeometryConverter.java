@@ -82,7 +82,12 @@ public class JsonToGeometryConverter extends AbstractJsonToGeometryConverter {
   }
 
   /**
-   * Instantiates a new json to geometry converter.
+   * Instantiates a new json to geometry converter. The coordinates are written into the
+   * coordinate sequences of the coordinate sequence factory of the geometry factory, so a
+   * geometry factory with a
+   * {@link org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory} (see
+   * {@link org.bremersee.geojson.GeoJsonGeometryFactory#withPackedCoordinateSequences(boolean)})
+   * creates geometries, that store the coordinates in primitive arrays.
    *
    * @param geometryFactory the geometry factory
    */
@@ -90,7 +95,8 @@ public class JsonToGeometryConverter extends AbstractJsonToGeometryConverter {
     super(geometryFactory);
     ObjectToCoordinateConverter coordinateConverter = new ObjectToCoordinateConverter();
     ObjectToCoordinateSequenceConverter coordinateSequenceConverter
-        = new ObjectToCoordinateSequenceConverter(coordinateConverter);
+        = new ObjectToCoordinateSequenceConverter(
+            getGeometryFactory().getCoordinateSequenceFactory());
 
     pointConverter = new JsonToPointConverter(getGeometryFactory(), coordinateConverter);
     lineStringConverter = new JsonToLineStringConverter(
@@ -21,32 +21,38 @@ import static java.util.Objects.isNull;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.List;
-import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
-import org.locationtech.jts.geom.impl.CoordinateArraySequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.impl.CoordinateArraySequenceFactory;
 
 /**
  * The object to coordinate sequence converter.
  *
+ * <p>The ordinates are written directly into a coordinate sequence of the coordinate sequence
+ * factory, so with a {@link org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory} no
+ * coordinate object is created.
+ *
  * @author Christian Bremer
  */
 class ObjectToCoordinateSequenceConverter implements Serializable {
 
   @Serial
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L;
+
+  private final ObjectToDoubleConverter doubleConverter = new ObjectToDoubleConverter();
 
-  private final ObjectToCoordinateConverter coordinateConverter;
+  private final CoordinateSequenceFactory coordinateSequenceFactory;
 
   /**
-   * Instantiates a new Object to coordinate sequence converter.
+   * Instantiates a new object to coordinate sequence converter.
    *
-   * @param coordinateConverter the coordinate converter
+   * @param coordinateSequenceFactory the coordinate sequence factory (if it is {@code null},
+   *     coordinate array sequences are created)
    */
-  ObjectToCoordinateSequenceConverter(ObjectToCoordinateConverter coordinateConverter) {
-    if (isNull(coordinateConverter)) {
-      throw new IllegalArgumentException("Coordinate converter must be present.");
-    }
-    this.coordinateConverter = coordinateConverter;
+  ObjectToCoordinateSequenceConverter(CoordinateSequenceFactory coordinateSequenceFactory) {
+    this.coordinateSequenceFactory = isNull(coordinateSequenceFactory)
+        ? CoordinateArraySequenceFactory.instance()
+        : coordinateSequenceFactory;
   }
 
   /**
@@ -56,16 +62,30 @@ class ObjectToCoordinateSequenceConverter implements Serializable {
    * @return the coordinate sequence
    */
   CoordinateSequence convert(Object source) {
-    Coordinate[] coords;
     if (isNull(source)) {
-      coords = new Coordinate[0];
-    } else {
-      //noinspection unchecked
-      coords = ((List<Object>) source).stream()
-          .map(coordinateConverter::convert)
-          .toArray(Coordinate[]::new);
+      return coordinateSequenceFactory.create(0, 2);
+    }
+    //noinspection unchecked
+    List<Object> positions = (List<Object>) source;
+    boolean hasZ = false;
+    for (Object position : positions) {
+      hasZ = hasZ || (position instanceof List<?> list && list.size() >= 3);
+    }
+    CoordinateSequence sequence = coordinateSequenceFactory.create(positions.size(), hasZ ? 3 : 2);
+    int index = 0;
+    for (Object position : positions) {
+      if (isNull(position)) {
+        throw new IllegalArgumentException("Coordinate must be present.");
+      }
+      List<?> ordinates = (List<?>) position;
+      for (int i = 0; i < sequence.getDimension(); i++) {
+        sequence.setOrdinate(index, i, i < ordinates.size()
+            ? doubleConverter.convert(ordinates.get(i))
+            : Double.NaN);
+      }
+      index++;
     }
-    return new CoordinateArraySequence(coords);
+    return sequence;
   }
 
 }
@@ -23,6 +23,8 @@ import static org.bremersee.geojson.GeoJsonConstants.BBOX;
 import static org.bremersee.geojson.GeoJsonConstants.COORDINATES;
 import static org.bremersee.geojson.GeoJsonConstants.TYPE;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.Arrays;
@@ -31,6 +33,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.crs.CrsTransform;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
 import org.locationtech.jts.geom.Geometry;
 
 /**
@@ -68,7 +73,7 @@ abstract class AbstractGeometryToJsonConverter<S extends Geometry> implements Se
     Map<String, Object> map = new LinkedHashMap<>();
     map.put(TYPE, requireNonNull(getGeometryType()));
     if (withBoundingBox) {
-      Optional.ofNullable(GeoJsonGeometryFactory.getBoundingBox(source))
+      Optional.ofNullable(getBoundingBox(source, getTransform()))
           .map(bbox -> Arrays.stream(bbox).boxed().collect(Collectors.toList()))
           .ifPresent(bbox -> map.put(BBOX, bbox));
     }
@@ -76,6 +81,71 @@ abstract class AbstractGeometryToJsonConverter<S extends Geometry> implements Se
     return unmodifiableMap(map);
   }
 
+  /**
+   * Writes the geometry directly to the json generator without creating a map.
+   *
+   * @param source the source
+   * @param generator the json generator
+   * @throws IOException if writing fails
+   */
+  void write(S source, JsonGenerator generator) throws IOException {
+    if (isNull(source)) {
+      generator.writeNull();
+      return;
+    }
+    generator.writeStartObject();
+    generator.writeStringField(TYPE, requireNonNull(getGeometryType()));
+    if (withBoundingBox) {
+      writeBoundingBox(source, getTransform(), generator);
+    }
+    generator.writeFieldName(COORDINATES);
+    writeGeometryJsonValue(source, generator);
+    generator.writeEndObject();
+  }
+
+  /**
+   * Writes the bounding box field of the geometry, if the geometry has a bounding box.
+   *
+   * @param source the source
+   * @param transform the transform of the positions (can be {@code null})
+   * @param generator the json generator
+   * @throws IOException if writing fails
+   */
+  static void writeBoundingBox(
+      Geometry source,
+      CrsTransform transform,
+      JsonGenerator generator) throws IOException {
+    double[] bbox = getBoundingBox(source, transform);
+    if (!isNull(bbox)) {
+      generator.writeFieldName(BBOX);
+      generator.writeArray(bbox, 0, bbox.length);
+    }
+  }
+
+  /**
+   * Calculates the bounding box of the transformed positions of the geometry. The positions are
+   * transformed one by one, the geometry is not copied.
+   *
+   * @param source the source
+   * @param transform the transform of the positions (can be {@code null})
+   * @return the bounding box or {@code null}
+   */
+  static double[] getBoundingBox(Geometry source, CrsTransform transform) {
+    if (isNull(transform)) {
+      return GeoJsonGeometryFactory.getBoundingBox(source);
+    }
+    TransformedBoundsFilter filter = new TransformedBoundsFilter(transform);
+    source.apply(filter);
+    return filter.getBoundingBox();
+  }
+
+  /**
+   * Gets the transform of the positions.
+   *
+   * @return the transform or {@code null}
+   */
+  abstract CrsTransform getTransform();
+
   /**
    * Gets geometry type.
    *
@@ -90,4 +160,79 @@ abstract class AbstractGeometryToJsonConverter<S extends Geometry> implements Se
    * @return the geometry json value
    */
   abstract Object getGeometryJsonValue(S source);
+
+  /**
+   * Writes the geometry json value (the coordinates) directly to the json generator.
+   *
+   * @param source the source
+   * @param generator the json generator
+   * @throws IOException if writing fails
+   */
+  abstract void writeGeometryJsonValue(S source, JsonGenerator generator) throws IOException;
+
+  /**
+   * The coordinate sequence filter, that calculates the bounds of the transformed positions.
+   */
+  private static class TransformedBoundsFilter implements CoordinateSequenceFilter {
+
+    private final CrsTransform transform;
+
+    private final double[] position = new double[2];
+
+    private final double[] min = {Double.NaN, Double.NaN, Double.NaN};
+
+    private final double[] max = {Double.NaN, Double.NaN, Double.NaN};
+
+    /**
+     * Instantiates a new transformed bounds filter.
+     *
+     * @param transform the transform
+     */
+    TransformedBoundsFilter(CrsTransform transform) {
+      this.transform = transform;
+    }
+
+    @Override
+    public void filter(CoordinateSequence seq, int i) {
+      position[0] = seq.getX(i);
+      position[1] = seq.getY(i);
+      transform.transform(position, 0, 1, 2);
+      include(0, position[0]);
+      include(1, position[1]);
+      include(2, seq.getZ(i));
+    }
+
+    private void include(int index, double value) {
+      if (!Double.isNaN(value)) {
+        min[index] = Double.isNaN(min[index]) ? value : Math.min(min[index], value);
+        max[index] = Double.isNaN(max[index]) ? value : Math.max(max[index], value);
+      }
+    }
+
+    /**
+     * Gets the bounding box with z values, if z values were found.
+     *
+     * @return the bounding box or {@code null}
+     */
+    double[] getBoundingBox() {
+      if (Double.isNaN(min[0]) || Double.isNaN(min[1])) {
+        return null;
+      }
+      if (Double.isNaN(min[2])) {
+        return new double[]{min[0], min[1], max[0], max[1]};
+      }
+      return new double[]{min[0], min[1], min[2], max[0], max[1], max[2]};
+    }
+
+    @Override
+    public boolean isDone() {
+      return false;
+    }
+
+    @Override
+    public boolean isGeometryChanged() {
+      return false;
+    }
+  }
+
 }
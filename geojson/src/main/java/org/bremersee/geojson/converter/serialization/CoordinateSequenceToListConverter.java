@@ -19,12 +19,16 @@ package org.bremersee.geojson.converter.serialization;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.isNull;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import org.bremersee.geojson.crs.CrsTransform;
+import org.bremersee.geojson.simplify.GeometrySimplifier;
 import org.locationtech.jts.geom.CoordinateSequence;
 
 /**
@@ -36,10 +40,15 @@ import org.locationtech.jts.geom.CoordinateSequence;
 class CoordinateSequenceToListConverter implements Serializable {
 
   @Serial
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L;
 
   private final CoordinateToListConverter coordinateConverter;
 
+  /**
+   * The simplifier of the sequences (can be {@code null}).
+   */
+  private final GeometrySimplifier simplifier;
+
   /**
    * Convert list.
    *
@@ -47,13 +56,84 @@ class CoordinateSequenceToListConverter implements Serializable {
    * @return the list
    */
   List<List<Number>> convert(CoordinateSequence source) {
-    int size = isNull(source) ? 0 : source.size();
+    int[] indexes = getIndexes(source);
+    int size = getSize(source, indexes);
     List<List<Number>> list = new ArrayList<>(size);
     if (size > 0) {
-      for (int n = 0; n < source.size(); n++) {
-        list.add(coordinateConverter.convert(source.getCoordinate(n)));
+      double[] xy = getTransformedPositions(source, indexes, size);
+      for (int n = 0; n < size; n++) {
+        list.add(coordinateConverter.convertTransformed(xy[2 * n], xy[2 * n + 1]));
       }
     }
     return unmodifiableList(list);
   }
+
+  /**
+   * Writes the coordinate sequence as json array directly to the json generator. The ordinates
+   * are read from the sequence, so no coordinate object is created. If there is a simplifier,
+   * only the positions of the simplified sequence are written.
+   *
+   * @param source the source
+   * @param generator the json generator
+   * @throws IOException if writing fails
+   */
+  void write(CoordinateSequence source, JsonGenerator generator) throws IOException {
+    int[] indexes = getIndexes(source);
+    int size = getSize(source, indexes);
+    generator.writeStartArray(null, size);
+    if (size > 0 && !isNull(getTransform())) {
+      double[] xy = getTransformedPositions(source, indexes, size);
+      for (int n = 0; n < size; n++) {
+        coordinateConverter.writeTransformed(xy[2 * n], xy[2 * n + 1], generator);
+      }
+    } else {
+      for (int n = 0; n < size; n++) {
+        int i = isNull(indexes) ? n : indexes[n];
+        coordinateConverter.writeTransformed(source.getX(i), source.getY(i), generator);
+      }
+    }
+    generator.writeEndArray();
+  }
+
+  /**
+   * Gets the transform of the positions.
+   *
+   * @return the transform or {@code null}
+   */
+  CrsTransform getTransform() {
+    return coordinateConverter.getTransform();
+  }
+
+  private int[] getIndexes(CoordinateSequence source) {
+    return isNull(simplifier) || isNull(source) ? null : simplifier.simplify(source);
+  }
+
+  private static int getSize(CoordinateSequence source, int[] indexes) {
+    if (!isNull(indexes)) {
+      return indexes.length;
+    }
+    return isNull(source) ? 0 : source.size();
+  }
+
+  /**
+   * Reads the x and y values of the (kept) positions of the sequence into an array and
+   * transforms them in one call.
+   *
+   * @param source the source
+   * @param indexes the indexes of the kept positions or {@code null}
+   * @param size the number of kept positions
+   * @return the transformed x and y values
+   */
+  private double[] getTransformedPositions(CoordinateSequence source, int[] indexes, int size) {
+    double[] xy = new double[2 * size];
+    for (int n = 0; n < size; n++) {
+      int i = isNull(indexes) ? n : indexes[n];
+      xy[2 * n] = source.getX(i);
+      xy[2 * n + 1] = source.getY(i);
+    }
+    if (!isNull(getTransform())) {
+      getTransform().transform(xy, 0, size, 2);
+    }
+    return xy;
+  }
 }
@@ -17,58 +17,101 @@
 package org.bremersee.geojson.converter.serialization;
 
 import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
-import java.util.regex.Pattern;
+import org.bremersee.geojson.crs.CrsTransform;
 import org.locationtech.jts.geom.Coordinate;
 
 /**
  * The type Coordinate to list converter.
  *
+ * <p>The ordinates are rounded (half up) to a maximum number of fraction digits (the coordinate
+ * precision, nine by default). The rounding is done arithmetically on the exact binary value of
+ * the double, so it needs no string formatting, no shared state and, if no big decimals are
+ * used, no object allocation.
+ *
  * @author Christian Bremer
  */
 class CoordinateToListConverter implements Serializable {
 
   @Serial
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 3L;
+
+  private static final double SPLITTER = 134217729.; // 2^27 + 1
 
-  private static final int MAXIMUM_INTEGER_DIGITS = 17;
+  private final boolean useBigDecimal;
 
-  private static final int MAXIMUM_FRACTION_DIGITS = 9;
+  private final int coordinatePrecision;
 
-  private static final NumberFormat NUMBER_FORMAT = NumberFormat.getInstance(Locale.US);
+  private final double scale;
 
-  private static final NumberFormat TEST_NUMBER_FORMAT = NumberFormat.getInstance(Locale.US);
+  private final double resolution;
 
-  static {
-    NUMBER_FORMAT.setMaximumFractionDigits(MAXIMUM_FRACTION_DIGITS);
-    NUMBER_FORMAT.setMaximumIntegerDigits(MAXIMUM_INTEGER_DIGITS);
-    NUMBER_FORMAT.setRoundingMode(RoundingMode.HALF_UP);
-    NUMBER_FORMAT.setGroupingUsed(false);
+  private final CrsTransform transform;
 
-    TEST_NUMBER_FORMAT.setMaximumFractionDigits(MAXIMUM_FRACTION_DIGITS + 1);
-    TEST_NUMBER_FORMAT.setMaximumIntegerDigits(MAXIMUM_INTEGER_DIGITS + 1);
-    TEST_NUMBER_FORMAT.setRoundingMode(RoundingMode.HALF_UP);
-    TEST_NUMBER_FORMAT.setGroupingUsed(false);
+  /**
+   * Instantiates a new Coordinate to list converter.
+   *
+   * @param useBigDecimal the use big decimal
+   */
+  CoordinateToListConverter(boolean useBigDecimal) {
+    this(useBigDecimal, GeometryToJsonConverter.DEFAULT_COORDINATE_PRECISION);
   }
 
-  private final boolean useBigDecimal;
+  /**
+   * Instantiates a new Coordinate to list converter.
+   *
+   * @param useBigDecimal the use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits (0 to 15)
+   */
+  CoordinateToListConverter(boolean useBigDecimal, int coordinatePrecision) {
+    this(useBigDecimal, coordinatePrecision, null);
+  }
 
   /**
    * Instantiates a new Coordinate to list converter.
    *
    * @param useBigDecimal the use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits (0 to 15)
+   * @param transform the transform of the positions (can be {@code null})
    */
-  CoordinateToListConverter(boolean useBigDecimal) {
+  CoordinateToListConverter(
+      boolean useBigDecimal,
+      int coordinatePrecision,
+      CrsTransform transform) {
+    if (coordinatePrecision < 0
+        || coordinatePrecision > GeometryToJsonConverter.MAXIMUM_COORDINATE_PRECISION) {
+      throw new IllegalArgumentException(String.format(
+          "Coordinate precision must be between 0 and %d, but it is %d.",
+          GeometryToJsonConverter.MAXIMUM_COORDINATE_PRECISION, coordinatePrecision));
+    }
     this.useBigDecimal = useBigDecimal;
+    this.coordinatePrecision = coordinatePrecision;
+    double value = 1.;
+    for (int i = 0; i < coordinatePrecision; i++) {
+      value *= 10.;
+    }
+    this.scale = value;
+    this.resolution = 1. / value;
+    this.transform = transform == CrsTransform.IDENTITY ? null : transform;
+  }
+
+  /**
+   * Gets the transform of the positions.
+   *
+   * @return the transform or {@code null}
+   */
+  CrsTransform getTransform() {
+    return transform;
   }
 
   /**
@@ -78,34 +121,195 @@ class CoordinateToListConverter implements Serializable {
    * @return the list
    */
   List<Number> convert(Coordinate source) {
-    int size = nonNull(source) ? 2 : 0;
-    List<Number> list = new ArrayList<>(size);
-    if (size > 0) {
-      Number x = round(source.getX());
-      Number y = round(source.getY());
-      if (nonNull(x) && nonNull(y)) {
-        list.add(x);
-        list.add(y);
-      }
+    if (isNull(source)) {
+      return unmodifiableList(new ArrayList<>(0));
+    }
+    if (isNull(transform)) {
+      return convertTransformed(source.getX(), source.getY());
+    }
+    double[] xy = {source.getX(), source.getY()};
+    transform.transform(xy, 0, 1, 2);
+    return convertTransformed(xy[0], xy[1]);
+  }
+
+  /**
+   * Converts the ordinates, that are already transformed, into a list.
+   *
+   * @param x the x ordinate
+   * @param y the y ordinate
+   * @return the list
+   */
+  List<Number> convertTransformed(double x, double y) {
+    List<Number> list = new ArrayList<>(2);
+    if (!Double.isNaN(x) && !Double.isNaN(y)) {
+      list.add(toNumber(x));
+      list.add(toNumber(y));
     }
     return unmodifiableList(list);
   }
 
-  private Number round(double value) {
-    if (Double.isNaN(value)) {
-      return null;
+  /**
+   * Writes the coordinate as json array directly to the json generator.
+   *
+   * @param source the source
+   * @param generator the json generator
+   * @throws IOException if writing fails
+   */
+  void write(Coordinate source, JsonGenerator generator) throws IOException {
+    if (nonNull(source)) {
+      write(source.getX(), source.getY(), generator);
+    } else {
+      generator.writeStartArray(null, 0);
+      generator.writeEndArray();
     }
-    if (formatValue(value)) {
-      String strValue = NUMBER_FORMAT.format(value);
-      return useBigDecimal ? new BigDecimal(strValue) : new BigDecimal(strValue).doubleValue();
+  }
+
+  /**
+   * Transforms the ordinates (if there is a transform) and writes them as json array directly to
+   * the json generator.
+   *
+   * @param x the x ordinate
+   * @param y the y ordinate
+   * @param generator the json generator
+   * @throws IOException if writing fails
+   */
+  void write(double x, double y, JsonGenerator generator) throws IOException {
+    if (isNull(transform)) {
+      writeTransformed(x, y, generator);
+    } else {
+      double[] xy = {x, y};
+      transform.transform(xy, 0, 1, 2);
+      writeTransformed(xy[0], xy[1], generator);
     }
-    return useBigDecimal ? BigDecimal.valueOf(value) : value;
   }
 
-  private boolean formatValue(final double value) {
-    String[] testValues = TEST_NUMBER_FORMAT.format(value).split(Pattern.quote("."));
-    return testValues[0].length() > MAXIMUM_INTEGER_DIGITS
-        || (testValues.length > 1 && testValues[1].length() > MAXIMUM_FRACTION_DIGITS);
+  /**
+   * Writes the ordinates, that are already transformed, as json array directly to the json
+   * generator.
+   *
+   * @param x the x ordinate
+   * @param y the y ordinate
+   * @param generator the json generator
+   * @throws IOException if writing fails
+   */
+  void writeTransformed(double x, double y, JsonGenerator generator) throws IOException {
+    if (Double.isNaN(x) || Double.isNaN(y)) {
+      generator.writeStartArray(null, 0);
+    } else {
+      boolean binaryFormat = isBinaryFormat(generator);
+      generator.writeStartArray(null, 2);
+      writeNumber(x, generator, binaryFormat);
+      writeNumber(y, generator, binaryFormat);
+    }
+    generator.writeEndArray();
+  }
+
+  private void writeNumber(double value, JsonGenerator generator, boolean binaryFormat)
+      throws IOException {
+    if (useBigDecimal) {
+      generator.writeNumber(toBigDecimal(value));
+      return;
+    }
+    double rounded = round(value);
+    float narrowed = (float) rounded;
+    if (binaryFormat && narrowed == rounded) {
+      generator.writeNumber(narrowed);
+    } else {
+      generator.writeNumber(rounded);
+    }
+  }
+
+  /**
+   * Determines whether the generator writes a binary data format like CBOR or Smile, that stores
+   * floating point numbers natively. In such a format an ordinate, that can be represented
+   * exactly as float, is written as float32 instead of float64. The token buffer of Jackson is
+   * excluded, because the written numbers become the values of converted objects.
+   *
+   * @param generator the generator
+   * @return {@code true} if the generator writes a binary data format, otherwise {@code false}
+   */
+  static boolean isBinaryFormat(JsonGenerator generator) {
+    return generator.canWriteBinaryNatively() && !(generator instanceof TokenBuffer);
+  }
+
+  private Number toNumber(double value) {
+    return useBigDecimal ? toBigDecimal(value) : Double.valueOf(round(value));
+  }
+
+  /**
+   * Rounds the value to the maximum number of fraction digits (the coordinate precision).
+   *
+   * @param value the value
+   * @return the rounded value
+   */
+  double round(double value) {
+    double abs = Math.abs(value);
+    if (!isRoundingRequired(abs)) {
+      return value;
+    }
+    long scaled = scale(abs);
+    return scaled == 0L ? 0. : Math.copySign(scaled / scale, value);
+  }
+
+  /**
+   * Rounds the value to the maximum number of fraction digits and returns it as big decimal
+   * without trailing zeros.
+   *
+   * @param value the value
+   * @return the rounded value
+   */
+  BigDecimal toBigDecimal(double value) {
+    double abs = Math.abs(value);
+    if (!isRoundingRequired(abs)) {
+      return BigDecimal.valueOf(value);
+    }
+    long scaled = scale(abs);
+    if (scaled / scale == abs) {
+      return BigDecimal.valueOf(value);
+    }
+    BigDecimal rounded = BigDecimal
+        .valueOf(value < 0. ? -scaled : scaled, coordinatePrecision)
+        .stripTrailingZeros();
+    return rounded.scale() < 0 ? rounded.setScale(0) : rounded;
+  }
+
+  /**
+   * Determines whether the value may have more fraction digits than allowed. If the distance to
+   * the next double is not smaller than the resolution, the shortest decimal representation of
+   * the value has never more fraction digits than allowed. This is also true for not a number and
+   * infinity.
+   *
+   * @param abs the absolute value
+   * @return {@code true} if the value must be rounded, otherwise {@code false}
+   */
+  private boolean isRoundingRequired(double abs) {
+    return Math.ulp(abs) < resolution;
+  }
+
+  /**
+   * Multiplies the absolute value with the scale and rounds the exact product half up. The
+   * rounding error of the multiplication is calculated with Dekker's product, so the result is
+   * the same as with big decimal arithmetic.
+   *
+   * @param abs the absolute value
+   * @return the scaled and rounded value
+   */
+  private long scale(double abs) {
+    double product = abs * scale;
+    double absHigh = split(abs);
+    double absLow = abs - absHigh;
+    double scaleHigh = split(scale);
+    double scaleLow = scale - scaleHigh;
+    double error = ((absHigh * scaleHigh - product) + absHigh * scaleLow + absLow * scaleHigh)
+        + absLow * scaleLow;
+    double floor = Math.floor(product);
+    double fraction = product - floor;
+    return (long) floor + (fraction - .5 >= -error ? 1L : 0L);
+  }
+
+  private static double split(double value) {
+    double c = SPLITTER * value;
+    return c - (c - value);
   }
 
 }
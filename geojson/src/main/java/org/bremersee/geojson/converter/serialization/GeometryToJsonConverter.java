@@ -24,6 +24,8 @@ import static org.bremersee.geojson.GeoJsonConstants.GEOMETRIES;
 import static org.bremersee.geojson.GeoJsonConstants.GEOMETRY_COLLECTION;
 import static org.bremersee.geojson.GeoJsonConstants.TYPE;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -33,7 +35,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.crs.CrsTransform;
+import org.bremersee.geojson.simplify.GeometrySimplifier;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.LineString;
@@ -51,7 +54,17 @@ import org.locationtech.jts.geom.Polygon;
 public class GeometryToJsonConverter implements Serializable {
 
   @Serial
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L;
+
+  /**
+   * The default coordinate precision (the maximum number of fraction digits of an ordinate).
+   */
+  public static final int DEFAULT_COORDINATE_PRECISION = 9;
+
+  /**
+   * The maximum coordinate precision.
+   */
+  public static final int MAXIMUM_COORDINATE_PRECISION = 15;
 
   /**
    * The point converter.
@@ -88,6 +101,16 @@ public class GeometryToJsonConverter implements Serializable {
    */
   private final boolean withBoundingBox;
 
+  /**
+   * The transform of the positions.
+   */
+  private final CrsTransform transform;
+
+  /**
+   * The simplifier, that is applied to the whole geometry (a topology preserving one).
+   */
+  private final GeometrySimplifier geometrySimplifier;
+
   /**
    * Instantiates a new geometry to json converter.
    */
@@ -102,9 +125,75 @@ public class GeometryToJsonConverter implements Serializable {
    * @param useBigDecimal use big decimal
    */
   public GeometryToJsonConverter(boolean withBoundingBox, boolean useBigDecimal) {
-    CoordinateToListConverter coordinateConverter = new CoordinateToListConverter(useBigDecimal);
+    this(withBoundingBox, useBigDecimal, DEFAULT_COORDINATE_PRECISION);
+  }
+
+  /**
+   * Instantiates a new geometry to json converter.
+   *
+   * @param withBoundingBox with bounding box
+   * @param useBigDecimal use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits of an ordinate (0 to 15);
+   *     the ordinates are rounded half up, six digits are about 10 cm in WGS84
+   */
+  public GeometryToJsonConverter(
+      boolean withBoundingBox,
+      boolean useBigDecimal,
+      int coordinatePrecision) {
+    this(withBoundingBox, useBigDecimal, coordinatePrecision, null);
+  }
+
+  /**
+   * Instantiates a new geometry to json converter, that reprojects the positions while they are
+   * written. The geometry is not copied; the bounding box is calculated from the transformed
+   * positions.
+   *
+   * @param withBoundingBox with bounding box
+   * @param useBigDecimal use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits of an ordinate (0 to 15)
+   * @param transform the transform of the positions (can be {@code null})
+   * @see org.bremersee.geojson.crs.CrsTransformRegistry
+   */
+  public GeometryToJsonConverter(
+      boolean withBoundingBox,
+      boolean useBigDecimal,
+      int coordinatePrecision,
+      CrsTransform transform) {
+    this(withBoundingBox, useBigDecimal, coordinatePrecision, transform, null);
+  }
+
+  /**
+   * Instantiates a new geometry to json converter, that simplifies and reprojects the positions
+   * while they are written. The simplification is applied to the original positions, so the
+   * tolerance is in the units of the geometry. The algorithms of Douglas-Peucker and
+   * Visvalingam-Whyatt select the positions of every coordinate sequence, that are written, so the
+   * geometry is not copied; a topology preserving simplifier creates a simplified copy of the
+   * geometry, that is written then. The bounding box is the one of the original geometry, if it
+   * is not simplified as a whole.
+   *
+   * @param withBoundingBox with bounding box
+   * @param useBigDecimal use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits of an ordinate (0 to 15)
+   * @param transform the transform of the positions (can be {@code null})
+   * @param simplifier the simplifier (can be {@code null})
+   * @see org.bremersee.geojson.crs.CrsTransformRegistry
+   */
+  public GeometryToJsonConverter(
+      boolean withBoundingBox,
+      boolean useBigDecimal,
+      int coordinatePrecision,
+      CrsTransform transform,
+      GeometrySimplifier simplifier) {
+
+    CoordinateToListConverter coordinateConverter = new CoordinateToListConverter(
+        useBigDecimal,
+        coordinatePrecision,
+        transform);
+    boolean sequenceSimplifier = !isNull(simplifier) && simplifier.isSequenceSimplifier();
     CoordinateSequenceToListConverter coordinateSequenceConverter
-        = new CoordinateSequenceToListConverter(coordinateConverter);
+        = new CoordinateSequenceToListConverter(
+        coordinateConverter,
+        sequenceSimplifier ? simplifier : null);
 
     pointConverter = new PointToJsonConverter(coordinateConverter, withBoundingBox);
     lineStringConverter = new LineStringToJsonConverter(
@@ -119,6 +208,8 @@ public class GeometryToJsonConverter implements Serializable {
     multiPolygonConverter = new MultiPolygonToJsonConverter(polygonConverter, withBoundingBox);
 
     this.withBoundingBox = withBoundingBox;
+    this.transform = coordinateConverter.getTransform();
+    this.geometrySimplifier = isNull(simplifier) || sequenceSimplifier ? null : simplifier;
   }
 
   /**
@@ -128,6 +219,14 @@ public class GeometryToJsonConverter implements Serializable {
    * @return the map
    */
   public Map<String, Object> convert(Geometry source) {
+    return convertGeometry(simplify(source));
+  }
+
+  private Geometry simplify(Geometry source) {
+    return isNull(geometrySimplifier) ? source : geometrySimplifier.simplify(source);
+  }
+
+  private Map<String, Object> convertGeometry(Geometry source) {
     if (isNull(source)) {
       return null;
     }
@@ -158,12 +257,12 @@ public class GeometryToJsonConverter implements Serializable {
     if (source instanceof GeometryCollection) {
       List<Map<String, Object>> geometries = new ArrayList<>(source.getNumGeometries());
       for (int i = 0; i < source.getNumGeometries(); i++) {
-        geometries.add(convert(source.getGeometryN(i)));
+        geometries.add(convertGeometry(source.getGeometryN(i)));
       }
       Map<String, Object> map = new LinkedHashMap<>();
       map.put(TYPE, GEOMETRY_COLLECTION);
       if (withBoundingBox) {
-        Optional.ofNullable(GeoJsonGeometryFactory.getBoundingBox(source))
+        Optional.ofNullable(AbstractGeometryToJsonConverter.getBoundingBox(source, transform))
             .map(bbox -> Arrays.stream(bbox).boxed().collect(Collectors.toList()))
             .ifPresent(bbox -> map.put(BBOX, bbox));
       }
@@ -175,4 +274,60 @@ public class GeometryToJsonConverter implements Serializable {
         + "an instance of Point, LineString, Polygon, MultiPoint, MultiLineString, MultiPolygon "
         + "or GeometryCollection.");
   }
+
+  /**
+   * Writes the geometry directly to the json generator. In contrast to {@link #convert(Geometry)}
+   * no maps and lists are created, the ordinates are read from the coordinate sequences and
+   * written as numbers.
+   *
+   * @param source the source
+   * @param generator the json generator
+   * @throws IOException if writing fails
+   */
+  public void write(Geometry source, JsonGenerator generator) throws IOException {
+    writeGeometry(simplify(source), generator);
+  }
+
+  private void writeGeometry(Geometry source, JsonGenerator generator) throws IOException {
+    if (isNull(source)) {
+      generator.writeNull();
+
+    } else if (source instanceof Point point) {
+      pointConverter.write(point, generator);
+
+    } else if (source instanceof LineString lineString) {
+      lineStringConverter.write(lineString, generator);
+
+    } else if (source instanceof Polygon polygon) {
+      polygonConverter.write(polygon, generator);
+
+    } else if (source instanceof MultiPoint multiPoint) {
+      multiPointConverter.write(multiPoint, generator);
+
+    } else if (source instanceof MultiLineString multiLineString) {
+      multiLineStringConverter.write(multiLineString, generator);
+
+    } else if (source instanceof MultiPolygon multiPolygon) {
+      multiPolygonConverter.write(multiPolygon, generator);
+
+    } else if (source instanceof GeometryCollection) {
+      generator.writeStartObject();
+      generator.writeStringField(TYPE, GEOMETRY_COLLECTION);
+      if (withBoundingBox) {
+        AbstractGeometryToJsonConverter.writeBoundingBox(source, transform, generator);
+      }
+      generator.writeFieldName(GEOMETRIES);
+      generator.writeStartArray(null, source.getNumGeometries());
+      for (int i = 0; i < source.getNumGeometries(); i++) {
+        writeGeometry(source.getGeometryN(i), generator);
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+
+    } else {
+      throw new IllegalArgumentException("Geometry [" + source + "] is unsupported. It must be "
+          + "an instance of Point, LineString, Polygon, MultiPoint, MultiLineString, "
+          + "MultiPolygon or GeometryCollection.");
+    }
+  }
 }
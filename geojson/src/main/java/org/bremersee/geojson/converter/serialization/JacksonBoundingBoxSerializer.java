@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.serialization;
+
+import static java.util.Objects.isNull;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.io.Serial;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A Jackson serializer for the bounding box of a feature or a feature collection.
+ *
+ * <p>If a {@link JacksonGeometrySerializer} with a crs transform registry is registered (see
+ * {@link org.bremersee.geojson.GeoJsonObjectMapperModule}), the bounding box is transformed like
+ * the geometries into the coordinate reference system of the document. Otherwise, the bounding
+ * box is written as it is.
+ *
+ * @author Christian Bremer
+ */
+public class JacksonBoundingBoxSerializer extends StdSerializer<double[]>
+    implements ContextualSerializer {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final JacksonGeometrySerializer geometrySerializer;
+
+  /**
+   * Default constructor.
+   */
+  public JacksonBoundingBoxSerializer() {
+    this(null);
+  }
+
+  /**
+   * Constructs a serializer, that transforms the bounding box like the specified geometry
+   * serializer the geometries.
+   *
+   * @param geometrySerializer the geometry serializer (can be {@code null})
+   */
+  public JacksonBoundingBoxSerializer(JacksonGeometrySerializer geometrySerializer) {
+    super(double[].class);
+    this.geometrySerializer = geometrySerializer;
+  }
+
+  @Override
+  public JsonSerializer<?> createContextual(
+      SerializerProvider prov,
+      BeanProperty property) throws JsonMappingException {
+
+    // the lookup without property does not contextualize the registered serializer
+    JsonSerializer<?> registered = prov.findValueSerializer(prov.constructType(Geometry.class));
+    if (registered == geometrySerializer) {
+      return this;
+    }
+    return new JacksonBoundingBoxSerializer(
+        registered instanceof JacksonGeometrySerializer serializer ? serializer : null);
+  }
+
+  @Override
+  public boolean isEmpty(SerializerProvider provider, double[] value) {
+    return isNull(value) || value.length == 0;
+  }
+
+  @Override
+  public void serialize(
+      double[] value,
+      JsonGenerator jgen,
+      SerializerProvider provider) throws IOException {
+
+    double[] bbox = isNull(geometrySerializer)
+        ? value
+        : geometrySerializer.transformBoundingBox(value, jgen, provider);
+    jgen.writeArray(bbox, 0, bbox.length);
+  }
+
+}
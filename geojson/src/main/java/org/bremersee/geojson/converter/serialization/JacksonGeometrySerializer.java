@@ -16,28 +16,107 @@
 
 package org.bremersee.geojson.converter.serialization;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import java.io.IOException;
 import java.io.Serial;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.crs.AbstractGeoJsonCrs;
+import org.bremersee.geojson.crs.CrsTransform;
+import org.bremersee.geojson.crs.CrsTransformRegistry;
+import org.bremersee.geojson.simplify.GeometrySimplifier;
+import org.bremersee.geojson.simplify.LevelOfDetail;
 import org.locationtech.jts.geom.Geometry;
 
 /**
- * A Jackson serializer for a {@link Geometry}.
+ * A Jackson serializer for a {@link Geometry}. The geometry is written directly to the json
+ * generator, no intermediate maps or lists are created.
+ *
+ * <p>Only the token api of the generator is used, so the serializer works with binary data
+ * formats like CBOR or Smile, too. The arrays of positions are written with their sizes, so that
+ * such formats can write arrays of fixed length, and ordinates, that can be represented exactly
+ * as float, are written there as float32 values.
+ *
+ * <p>The geometry can be simplified while it is written. The simplifier of the serializer can be
+ * replaced for a single call, for example for the zoom level of a request, with an attribute of
+ * the object writer:
+ * <pre>
+ * objectMapper.writer()
+ *     .withAttribute(GeometrySimplifier.class, GeometrySimplifier.forZoom(algorithm, zoom, 1.))
+ *     .writeValueAsString(feature);
+ * </pre>
+ *
+ * <p>Instead of a simplifier a {@link LevelOfDetail} of a
+ * {@link org.bremersee.geojson.simplify.LevelOfDetailCache} can be passed as attribute. Then the
+ * cached geometry of the zoom level is written; if it is not cached yet, the geometry is
+ * simplified with the simplifier of the zoom level, while it is written.
+ *
+ * <p>The serializer is contextual: if it is declared on a property (like the geometry of a
+ * {@link org.bremersee.geojson.GeoJsonFeature}) and a serializer of this type is registered for
+ * geometries (see {@link org.bremersee.geojson.GeoJsonObjectMapperModule}), the registered
+ * serializer is used for the property, so that its settings apply.
+ *
+ * <p>If the serializer has a crs transform registry, the positions are reprojected from the
+ * coordinate reference system (CRS) of the geometries into the CRS of the document. The CRS of
+ * the document is the one of the {@code crs} member of the enclosing feature or feature
+ * collection or of the attribute {@code AbstractGeoJsonCrs.class} of the object writer. Without
+ * any of them the positions are written as WGS84 positions.
  *
  * @author Christian Bremer
  */
-public class JacksonGeometrySerializer extends StdSerializer<Geometry> {
+public class JacksonGeometrySerializer extends StdSerializer<Geometry>
+    implements ContextualSerializer {
 
   @Serial
-  private static final long serialVersionUID = 3L;
+  private static final long serialVersionUID = 6L;
+
+  /**
+   * The maximum number of cached converters of the simplifiers of single calls.
+   */
+  private static final int MAX_CACHED_CONVERTERS = 64;
 
   /**
    * The geometry to json converter.
    */
   private final GeometryToJsonConverter converter;
 
+  private final boolean withBoundingBox;
+
+  private final boolean useBigDecimal;
+
+  private final int coordinatePrecision;
+
+  private final CrsTransformRegistry crsTransformRegistry;
+
+  private final String crs;
+
+  private final GeometrySimplifier simplifier;
+
+  /**
+   * The geometry to json converter without simplifier (for cached levels of detail).
+   */
+  private final GeometryToJsonConverter plainConverter;
+
+  /**
+   * The converters of the simplifiers of single calls and of the transforms into the CRS of the
+   * documents.
+   */
+  private final Map<ConverterKey, GeometryToJsonConverter> converters
+      = new ConcurrentHashMap<>();
+
   /**
    * Instantiates a new Jackson geometry serializer.
    */
@@ -52,8 +131,98 @@ public class JacksonGeometrySerializer extends StdSerializer<Geometry> {
    * @param useBigDecimal the use big decimal
    */
   public JacksonGeometrySerializer(boolean withBoundingBox, boolean useBigDecimal) {
+    this(withBoundingBox, useBigDecimal, GeometryToJsonConverter.DEFAULT_COORDINATE_PRECISION);
+  }
+
+  /**
+   * Instantiates a new Jackson geometry serializer.
+   *
+   * @param withBoundingBox the with bounding box
+   * @param useBigDecimal the use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits of an ordinate (0 to 15)
+   */
+  public JacksonGeometrySerializer(
+      boolean withBoundingBox,
+      boolean useBigDecimal,
+      int coordinatePrecision) {
+    this(withBoundingBox, useBigDecimal, coordinatePrecision, null, null);
+  }
+
+  /**
+   * Instantiates a new Jackson geometry serializer, that reprojects the positions while they are
+   * written.
+   *
+   * @param withBoundingBox the with bounding box
+   * @param useBigDecimal the use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits of an ordinate (0 to 15)
+   * @param crsTransformRegistry the crs transform registry (can be {@code null}, then the
+   *     positions are not reprojected)
+   * @param crs the name of the coordinate reference system of the geometries ({@code null}
+   *     means WGS84)
+   */
+  public JacksonGeometrySerializer(
+      boolean withBoundingBox,
+      boolean useBigDecimal,
+      int coordinatePrecision,
+      CrsTransformRegistry crsTransformRegistry,
+      String crs) {
+    this(withBoundingBox, useBigDecimal, coordinatePrecision, crsTransformRegistry, crs, null);
+  }
+
+  /**
+   * Instantiates a new Jackson geometry serializer, that simplifies and reprojects the positions
+   * while they are written.
+   *
+   * @param withBoundingBox the with bounding box
+   * @param useBigDecimal the use big decimal
+   * @param coordinatePrecision the maximum number of fraction digits of an ordinate (0 to 15)
+   * @param crsTransformRegistry the crs transform registry (can be {@code null}, then the
+   *     positions are not reprojected)
+   * @param crs the name of the coordinate reference system of the geometries ({@code null}
+   *     means WGS84)
+   * @param simplifier the default simplifier (can be {@code null})
+   * @see GeometryToJsonConverter#GeometryToJsonConverter(boolean, boolean, int, CrsTransform,
+   *     GeometrySimplifier)
+   */
+  public JacksonGeometrySerializer(
+      boolean withBoundingBox,
+      boolean useBigDecimal,
+      int coordinatePrecision,
+      CrsTransformRegistry crsTransformRegistry,
+      String crs,
+      GeometrySimplifier simplifier) {
     super(Geometry.class, false);
-    this.converter = new GeometryToJsonConverter(withBoundingBox, useBigDecimal);
+    this.withBoundingBox = withBoundingBox;
+    this.useBigDecimal = useBigDecimal;
+    this.coordinatePrecision = coordinatePrecision;
+    this.crsTransformRegistry = crsTransformRegistry;
+    this.crs = crs;
+    this.simplifier = simplifier;
+    this.converter = new GeometryToJsonConverter(
+        withBoundingBox,
+        useBigDecimal,
+        coordinatePrecision,
+        null,
+        simplifier);
+    this.plainConverter = isNull(simplifier)
+        ? converter
+        : new GeometryToJsonConverter(
+            withBoundingBox,
+            useBigDecimal,
+            coordinatePrecision,
+            null,
+            null);
+  }
+
+  @Override
+  public JsonSerializer<?> createContextual(
+      SerializerProvider prov,
+      BeanProperty property) throws JsonMappingException {
+
+    JavaType type = isNull(property) ? prov.constructType(Geometry.class) : property.getType();
+    // the lookup without property does not contextualize the registered serializer
+    JsonSerializer<?> registered = prov.findValueSerializer(type);
+    return registered instanceof JacksonGeometrySerializer ? registered : this;
   }
 
   @Override
@@ -65,9 +234,127 @@ public class JacksonGeometrySerializer extends StdSerializer<Geometry> {
 
     if (value == null) {
       jgen.writeNull();
+      return;
+    }
+    CrsTransform transform = getTransform(jgen, provider);
+    Object attribute = isNull(provider) ? null : provider.getAttribute(LevelOfDetail.class);
+    if (attribute instanceof LevelOfDetail levelOfDetail) {
+      Geometry cached = levelOfDetail.getGeometry(value);
+      if (isNull(cached)) {
+        getConverter(levelOfDetail.getSimplifier(), transform).write(value, jgen);
+      } else {
+        getConverter(null, transform).write(cached, jgen);
+      }
     } else {
-      jgen.writeObject(converter.convert(value));
+      attribute = isNull(provider) ? null : provider.getAttribute(GeometrySimplifier.class);
+      getConverter(
+          attribute instanceof GeometrySimplifier requested ? requested : simplifier,
+          transform)
+          .write(value, jgen);
     }
   }
 
+  /**
+   * Transforms a bounding box, that is written, into the coordinate reference system of the
+   * document.
+   *
+   * @param bbox the bounding box (can be {@code null})
+   * @param jgen the generator
+   * @param provider the serializer provider
+   * @return the transformed bounding box
+   * @throws JsonMappingException if the coordinate reference system is not supported
+   */
+  double[] transformBoundingBox(
+      double[] bbox,
+      JsonGenerator jgen,
+      SerializerProvider provider) throws JsonMappingException {
+
+    return getTransform(jgen, provider).transformBoundingBox(bbox);
+  }
+
+  private CrsTransform getTransform(
+      JsonGenerator jgen,
+      SerializerProvider provider) throws JsonMappingException {
+
+    if (isNull(crsTransformRegistry)) {
+      return CrsTransform.IDENTITY;
+    }
+    try {
+      return crsTransformRegistry.getTransform(crs, getDocumentCrs(jgen, provider));
+    } catch (IllegalArgumentException e) {
+      throw JsonMappingException.from(jgen, e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Gets the name of the coordinate reference system of the document, that is the CRS of the
+   * enclosing feature or feature collection or of the attribute {@code AbstractGeoJsonCrs.class}.
+   *
+   * @param jgen the generator
+   * @param provider the serializer provider
+   * @return the name of the CRS ({@code null} means WGS84)
+   */
+  private static String getDocumentCrs(JsonGenerator jgen, SerializerProvider provider) {
+    for (JsonStreamContext context = jgen.getOutputContext();
+        nonNull(context);
+        context = context.getParent()) {
+      AbstractGeoJsonCrs documentCrs = getCrs(context.getCurrentValue());
+      if (nonNull(documentCrs)) {
+        return CrsTransformRegistry.getName(documentCrs);
+      }
+    }
+    Object attribute = isNull(provider) ? null : provider.getAttribute(AbstractGeoJsonCrs.class);
+    return attribute instanceof AbstractGeoJsonCrs documentCrs
+        ? CrsTransformRegistry.getName(documentCrs)
+        : null;
+  }
+
+  private static AbstractGeoJsonCrs getCrs(Object value) {
+    if (value instanceof GeoJsonFeature<?, ?> feature) {
+      return feature.getCrs();
+    }
+    if (value instanceof GeoJsonFeatureCollection<?, ?> featureCollection) {
+      return featureCollection.getCrs();
+    }
+    return null;
+  }
+
+  private GeometryToJsonConverter getConverter(
+      GeometrySimplifier requested,
+      CrsTransform transform) {
+
+    if (transform == CrsTransform.IDENTITY) {
+      if (isNull(requested)) {
+        return plainConverter;
+      }
+      if (requested.equals(simplifier)) {
+        return converter;
+      }
+    }
+    ConverterKey key = new ConverterKey(requested, transform);
+    GeometryToJsonConverter result = converters.get(key);
+    if (isNull(result)) {
+      result = new GeometryToJsonConverter(
+          withBoundingBox,
+          useBigDecimal,
+          coordinatePrecision,
+          transform,
+          requested);
+      if (converters.size() < MAX_CACHED_CONVERTERS) {
+        converters.putIfAbsent(key, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The key of a cached converter.
+   *
+   * @param simplifier the simplifier (can be {@code null})
+   * @param transform the transform
+   */
+  private record ConverterKey(GeometrySimplifier simplifier, CrsTransform transform) {
+
+  }
+
 }
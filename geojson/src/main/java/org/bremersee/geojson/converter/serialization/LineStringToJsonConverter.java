@@ -19,7 +19,10 @@ package org.bremersee.geojson.converter.serialization;
 import static java.util.Objects.isNull;
 import static org.bremersee.geojson.GeoJsonConstants.LINESTRING;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.io.Serial;
+import org.bremersee.geojson.crs.CrsTransform;
 import org.locationtech.jts.geom.LineString;
 
 /**
@@ -56,8 +59,18 @@ class LineStringToJsonConverter extends AbstractGeometryToJsonConverter<LineStri
     return LINESTRING;
   }
 
+  @Override
+  CrsTransform getTransform() {
+    return coordinateSequenceConverter.getTransform();
+  }
+
   @Override
   Object getGeometryJsonValue(LineString source) {
     return coordinateSequenceConverter.convert(source.getCoordinateSequence());
   }
+
+  @Override
+  void writeGeometryJsonValue(LineString source, JsonGenerator generator) throws IOException {
+    coordinateSequenceConverter.write(source.getCoordinateSequence(), generator);
+  }
 }
@@ -20,9 +20,12 @@ import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.isNull;
 import static org.bremersee.geojson.GeoJsonConstants.MULTI_LINESTRING;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
+import org.bremersee.geojson.crs.CrsTransform;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.MultiLineString;
 
@@ -60,6 +63,11 @@ class MultiLineStringToJsonConverter extends AbstractGeometryToJsonConverter<Mul
     return MULTI_LINESTRING;
   }
 
+  @Override
+  CrsTransform getTransform() {
+    return lineStringConverter.getTransform();
+  }
+
   @Override
   Object getGeometryJsonValue(MultiLineString source) {
     List<Object> list = new ArrayList<>(source.getNumGeometries());
@@ -69,4 +77,13 @@ class MultiLineStringToJsonConverter extends AbstractGeometryToJsonConverter<Mul
     }
     return unmodifiableList(list);
   }
+
+  @Override
+  void writeGeometryJsonValue(MultiLineString source, JsonGenerator generator) throws IOException {
+    generator.writeStartArray(null, source.getNumGeometries());
+    for (int i = 0; i < source.getNumGeometries(); i++) {
+      lineStringConverter.writeGeometryJsonValue((LineString) source.getGeometryN(i), generator);
+    }
+    generator.writeEndArray();
+  }
 }
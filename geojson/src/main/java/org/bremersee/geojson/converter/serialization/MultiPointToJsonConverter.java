@@ -20,9 +20,12 @@ import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.isNull;
 import static org.bremersee.geojson.GeoJsonConstants.MULTI_POINT;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
+import org.bremersee.geojson.crs.CrsTransform;
 import org.locationtech.jts.geom.MultiPoint;
 import org.locationtech.jts.geom.Point;
 
@@ -57,6 +60,11 @@ class MultiPointToJsonConverter extends AbstractGeometryToJsonConverter<MultiPoi
     return MULTI_POINT;
   }
 
+  @Override
+  CrsTransform getTransform() {
+    return pointConverter.getTransform();
+  }
+
   @Override
   Object getGeometryJsonValue(MultiPoint source) {
     List<Object> list = new ArrayList<>(source.getNumGeometries());
@@ -66,4 +74,13 @@ class MultiPointToJsonConverter extends AbstractGeometryToJsonConverter<MultiPoi
     }
     return unmodifiableList(list);
   }
+
+  @Override
+  void writeGeometryJsonValue(MultiPoint source, JsonGenerator generator) throws IOException {
+    generator.writeStartArray(null, source.getNumGeometries());
+    for (int i = 0; i < source.getNumGeometries(); i++) {
+      pointConverter.writeGeometryJsonValue((Point) source.getGeometryN(i), generator);
+    }
+    generator.writeEndArray();
+  }
 }
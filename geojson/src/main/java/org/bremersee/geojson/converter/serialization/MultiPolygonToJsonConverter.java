@@ -20,9 +20,12 @@ import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.isNull;
 import static org.bremersee.geojson.GeoJsonConstants.MULTI_POLYGON;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
+import org.bremersee.geojson.crs.CrsTransform;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Polygon;
 
@@ -57,6 +60,11 @@ class MultiPolygonToJsonConverter extends AbstractGeometryToJsonConverter<MultiP
     return MULTI_POLYGON;
   }
 
+  @Override
+  CrsTransform getTransform() {
+    return polygonConverter.getTransform();
+  }
+
   @Override
   Object getGeometryJsonValue(MultiPolygon source) {
     List<Object> list = new ArrayList<>(source.getNumGeometries());
@@ -66,4 +74,13 @@ class MultiPolygonToJsonConverter extends AbstractGeometryToJsonConverter<MultiP
     }
     return unmodifiableList(list);
   }
+
+  @Override
+  void writeGeometryJsonValue(MultiPolygon source, JsonGenerator generator) throws IOException {
+    generator.writeStartArray(null, source.getNumGeometries());
+    for (int i = 0; i < source.getNumGeometries(); i++) {
+      polygonConverter.writeGeometryJsonValue((Polygon) source.getGeometryN(i), generator);
+    }
+    generator.writeEndArray();
+  }
 }
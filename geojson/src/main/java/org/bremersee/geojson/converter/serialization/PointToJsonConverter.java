@@ -19,7 +19,10 @@ package org.bremersee.geojson.converter.serialization;
 import static java.util.Objects.isNull;
 import static org.bremersee.geojson.GeoJsonConstants.POINT;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.io.Serial;
+import org.bremersee.geojson.crs.CrsTransform;
 import org.locationtech.jts.geom.Point;
 
 /**
@@ -56,8 +59,18 @@ class PointToJsonConverter extends AbstractGeometryToJsonConverter<Point> {
     return POINT;
   }
 
+  @Override
+  CrsTransform getTransform() {
+    return coordinateConverter.getTransform();
+  }
+
   @Override
   Object getGeometryJsonValue(Point source) {
     return coordinateConverter.convert(source.getCoordinate());
   }
+
+  @Override
+  void writeGeometryJsonValue(Point source, JsonGenerator generator) throws IOException {
+    coordinateConverter.write(source.getCoordinate(), generator);
+  }
 }
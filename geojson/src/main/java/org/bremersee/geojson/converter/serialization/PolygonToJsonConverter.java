@@ -20,9 +20,12 @@ import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.isNull;
 import static org.bremersee.geojson.GeoJsonConstants.POLYGON;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
+import org.bremersee.geojson.crs.CrsTransform;
 import org.locationtech.jts.geom.Polygon;
 
 /**
@@ -62,6 +65,11 @@ class PolygonToJsonConverter extends AbstractGeometryToJsonConverter<Polygon> {
     return POLYGON;
   }
 
+  @Override
+  CrsTransform getTransform() {
+    return coordinateSequenceConverter.getTransform();
+  }
+
   @Override
   Object getGeometryJsonValue(Polygon source) {
     List<List<List<Number>>> list = new ArrayList<>();
@@ -73,4 +81,15 @@ class PolygonToJsonConverter extends AbstractGeometryToJsonConverter<Polygon> {
     }
     return unmodifiableList(list);
   }
+
+  @Override
+  void writeGeometryJsonValue(Polygon source, JsonGenerator generator) throws IOException {
+    generator.writeStartArray(null, source.getNumInteriorRing() + 1);
+    coordinateSequenceConverter.write(source.getExteriorRing().getCoordinateSequence(), generator);
+    for (int i = 0; i < source.getNumInteriorRing(); i++) {
+      coordinateSequenceConverter
+          .write(source.getInteriorRingN(i).getCoordinateSequence(), generator);
+    }
+    generator.writeEndArray();
+  }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.crs;
+
+import static java.util.Objects.isNull;
+
+import java.io.Serializable;
+import org.locationtech.jts.geom.CoordinateFilter;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+
+/**
+ * A transformation of positions from one coordinate reference system (CRS) into another.
+ *
+ * <p>The positions are transformed in place in an array of ordinates, so no coordinate objects
+ * are needed. Only the x and y values (longitude and latitude for geographic CRS) are
+ * transformed, other ordinates are left untouched. Implementations must be thread safe.
+ *
+ * @author Christian Bremer
+ * @see CrsTransformRegistry
+ */
+@FunctionalInterface
+public interface CrsTransform extends Serializable {
+
+  /**
+   * The identity transform, that doesn't change the positions.
+   */
+  CrsTransform IDENTITY = (ordinates, offset, count, stride) -> {
+  };
+
+  /**
+   * Transforms positions in place.
+   *
+   * @param ordinates the ordinates, x is at {@code offset + i * stride} and y at
+   *     {@code offset + i * stride + 1}
+   * @param offset the index of the x value of the first position
+   * @param count the number of positions
+   * @param stride the number of ordinates per position
+   */
+  void transform(double[] ordinates, int offset, int count, int stride);
+
+  /**
+   * Creates a transform, that applies this transform and then the specified transform.
+   *
+   * @param after the transform, that is applied after this transform
+   * @return the composed transform
+   */
+  default CrsTransform andThen(CrsTransform after) {
+    if (isNull(after) || after == IDENTITY) {
+      return this;
+    }
+    if (this == IDENTITY) {
+      return after;
+    }
+    return (ordinates, offset, count, stride) -> {
+      transform(ordinates, offset, count, stride);
+      after.transform(ordinates, offset, count, stride);
+    };
+  }
+
+  /**
+   * Creates a coordinate filter of this transform, so that it can be applied to a geometry (for
+   * example with a {@link org.bremersee.geojson.filter.CoordinateFilterPipeline}).
+   *
+   * @return the coordinate filter
+   */
+  default CoordinateFilter toCoordinateFilter() {
+    return coordinate -> {
+      double[] xy = {coordinate.getX(), coordinate.getY()};
+      transform(xy, 0, 1, 2);
+      coordinate.setX(xy[0]);
+      coordinate.setY(xy[1]);
+    };
+  }
+
+  /**
+   * Creates a coordinate sequence filter of this transform, that transforms the positions of a
+   * geometry in place. In contrast to the coordinate filter it works with all kinds of coordinate
+   * sequences, also with the ones, that don't store coordinate objects.
+   *
+   * @return the coordinate sequence filter
+   */
+  default CoordinateSequenceFilter toCoordinateSequenceFilter() {
+    return new CoordinateSequenceFilter() {
+
+      private final double[] xy = new double[2];
+
+      @Override
+      public void filter(CoordinateSequence seq, int i) {
+        xy[0] = seq.getX(i);
+        xy[1] = seq.getY(i);
+        transform(xy, 0, 1, 2);
+        seq.setOrdinate(i, CoordinateSequence.X, xy[0]);
+        seq.setOrdinate(i, CoordinateSequence.Y, xy[1]);
+      }
+
+      @Override
+      public boolean isDone() {
+        return false;
+      }
+
+      @Override
+      public boolean isGeometryChanged() {
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Transforms a bounding box. The transformed corners of a bounding box don't contain all
+   * transformed positions of the box in general (for example in a transverse mercator
+   * projection), so the edges of the box are sampled and the bounding box of the transformed
+   * samples is returned.
+   *
+   * @param bbox the bounding box with four or six values (can be {@code null})
+   * @return the transformed bounding box (a new array) or the bounding box, if the transform is
+   *     the identity transform
+   */
+  default double[] transformBoundingBox(double[] bbox) {
+    if (isNull(bbox) || this == IDENTITY || (bbox.length != 4 && bbox.length != 6)) {
+      return bbox;
+    }
+    int dimension = bbox.length / 2;
+    double minX = bbox[0];
+    double minY = bbox[1];
+    double width = bbox[dimension] - minX;
+    double height = bbox[dimension + 1] - minY;
+    int samples = 8;
+    double[] xy = new double[8 * samples];
+    for (int i = 0, n = 0; i < samples; i++, n += 8) {
+      double dx = width * i / samples;
+      double dy = height * i / samples;
+      xy[n] = minX + dx;
+      xy[n + 1] = minY;
+      xy[n + 2] = minX + width;
+      xy[n + 3] = minY + dy;
+      xy[n + 4] = minX + width - dx;
+      xy[n + 5] = minY + height;
+      xy[n + 6] = minX;
+      xy[n + 7] = minY + height - dy;
+    }
+    transform(xy, 0, 4 * samples, 2);
+    double[] result = bbox.clone();
+    result[0] = Double.POSITIVE_INFINITY;
+    result[1] = Double.POSITIVE_INFINITY;
+    result[dimension] = Double.NEGATIVE_INFINITY;
+    result[dimension + 1] = Double.NEGATIVE_INFINITY;
+    for (int n = 0; n < xy.length; n += 2) {
+      result[0] = Math.min(result[0], xy[n]);
+      result[1] = Math.min(result[1], xy[n + 1]);
+      result[dimension] = Math.max(result[dimension], xy[n]);
+      result[dimension + 1] = Math.max(result[dimension + 1], xy[n + 1]);
+    }
+    return result;
+  }
+
+}
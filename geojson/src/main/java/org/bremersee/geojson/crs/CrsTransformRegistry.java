@@ -0,0 +1,277 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.crs;
+
+import static java.util.Objects.isNull;
+import static org.bremersee.geojson.crs.GeoJsonCrsConstants.DEFAULT_SPATIAL_AUTHORITY;
+import static org.bremersee.geojson.crs.GeoJsonCrsConstants.MERCATOR_SPATIAL_REFERENCE_ID;
+import static org.bremersee.geojson.crs.GeoJsonCrsConstants.MERCATOR_SPATIAL_REFERENCE_ID_ALT;
+import static org.bremersee.geojson.crs.GeoJsonCrsConstants.WGS84_CRS;
+import static org.bremersee.geojson.crs.GeoJsonCrsConstants.WGS84_SPATIAL_REFERENCE_ID;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A registry of coordinate reference systems (CRS), that creates the transforms between them.
+ *
+ * <p>Each CRS is defined by a transform into geographic WGS84 positions (longitude, latitude)
+ * and a transform back. The transform between two CRS is composed of them once and then cached,
+ * so it can be used by many threads. The following CRS are supported without registration:
+ * <ul>
+ * <li>EPSG:4326 (WGS84) and EPSG:4258 (ETRS89), both with longitude as x and latitude as y
+ * like in GeoJSON; CRS84 is treated as EPSG:4326</li>
+ * <li>EPSG:3857 and EPSG:900913 (pseudo mercator)</li>
+ * <li>EPSG:32601 to EPSG:32660 and EPSG:32701 to EPSG:32760 (UTM zones of WGS84)</li>
+ * <li>EPSG:25801 to EPSG:25860 (UTM zones of ETRS89)</li>
+ * </ul>
+ *
+ * <p>ETRS89 and WGS84 are treated as the same datum; the difference is below one meter, which is
+ * the accuracy of WGS84 itself. Other CRS can be added with
+ * {@link #register(String, CrsTransform, CrsTransform)}.
+ *
+ * <p>The names of a CRS can be given as {@code EPSG:25832}, {@code urn:ogc:def:crs:EPSG::25832},
+ * {@code http://www.opengis.net/def/crs/EPSG/0/25832} or
+ * {@code https://spatialreference.org/ref/epsg/25832/}.
+ *
+ * @author Christian Bremer
+ */
+public class CrsTransformRegistry implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private static final CrsTransformRegistry DEFAULT = new CrsTransformRegistry();
+
+  private static final double WGS84_SEMI_MAJOR_AXIS = 6378137.;
+
+  private static final double WGS84_INVERSE_FLATTENING = 298.257223563;
+
+  private static final double GRS80_INVERSE_FLATTENING = 298.257222101;
+
+  private static final int ETRS89_SPATIAL_REFERENCE_ID = 4258;
+
+  private static final int MAX_NAMES = 1024;
+
+  private static final List<Pattern> EPSG_PATTERNS = List.of(
+      Pattern.compile("^epsg:(\\d+)$", Pattern.CASE_INSENSITIVE),
+      Pattern.compile("^urn:ogc:def:crs:epsg:[^:]*:(\\d+)$", Pattern.CASE_INSENSITIVE),
+      Pattern.compile("^https?://www\\.opengis\\.net/def/crs/epsg/[^/]+/(\\d+)$",
+          Pattern.CASE_INSENSITIVE),
+      Pattern.compile("^https?://(?:www\\.)?spatialreference\\.org/ref/epsg/(\\d+)(?:/.*)?$",
+          Pattern.CASE_INSENSITIVE));
+
+  private static final Pattern CRS84_PATTERN = Pattern.compile(
+      "^(?:urn:ogc:def:crs:ogc:1\\.3:|https?://www\\.opengis\\.net/def/crs/ogc/1\\.3/|ogc:)?"
+          + "crs84$",
+      Pattern.CASE_INSENSITIVE);
+
+  private final Map<String, Definition> definitions = new ConcurrentHashMap<>();
+
+  private final Map<String, CrsTransform> transforms = new ConcurrentHashMap<>();
+
+  private final Map<String, CrsTransform> transformsByName = new ConcurrentHashMap<>();
+
+  /**
+   * Gets the default registry.
+   *
+   * @return the default registry
+   */
+  public static CrsTransformRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Registers a coordinate reference system. A registered CRS overrides a built-in CRS with the
+   * same name.
+   *
+   * @param crs the name of the CRS
+   * @param toWgs84 the transform of positions of the CRS into WGS84 positions
+   * @param fromWgs84 the transform of WGS84 positions into positions of the CRS
+   */
+  public void register(String crs, CrsTransform toWgs84, CrsTransform fromWgs84) {
+    if (isNull(crs) || crs.isBlank() || isNull(toWgs84) || isNull(fromWgs84)) {
+      throw new IllegalArgumentException("Name and transforms must be present.");
+    }
+    definitions.put(normalize(crs), new Definition(toWgs84, fromWgs84));
+    transforms.clear();
+    transformsByName.clear();
+  }
+
+  /**
+   * Determines whether the coordinate reference system is supported.
+   *
+   * @param crs the name of the CRS
+   * @return {@code true} if the CRS is supported, otherwise {@code false}
+   */
+  public boolean isSupported(String crs) {
+    return !isNull(findDefinition(normalize(crs)));
+  }
+
+  /**
+   * Gets the transform between two coordinate reference systems.
+   *
+   * @param sourceCrs the name of the source CRS ({@code null} means WGS84)
+   * @param targetCrs the name of the target CRS ({@code null} means WGS84)
+   * @return the transform
+   * @throws IllegalArgumentException if a CRS is not supported
+   */
+  public CrsTransform getTransform(String sourceCrs, String targetCrs) {
+    if (isNull(sourceCrs) && isNull(targetCrs)) {
+      return CrsTransform.IDENTITY;
+    }
+    // the names are normalized only once, because the transform is looked up for every object
+    String name = sourceCrs + '>' + targetCrs;
+    CrsTransform transform = transformsByName.get(name);
+    if (isNull(transform)) {
+      transform = getNormalizedTransform(sourceCrs, targetCrs);
+      if (transformsByName.size() < MAX_NAMES) {
+        transformsByName.putIfAbsent(name, transform);
+      }
+    }
+    return transform;
+  }
+
+  private CrsTransform getNormalizedTransform(String sourceCrs, String targetCrs) {
+    String source = normalize(sourceCrs);
+    String target = normalize(targetCrs);
+    return transforms.computeIfAbsent(source + '>' + target, key -> {
+      if (source.equals(target)) {
+        return CrsTransform.IDENTITY;
+      }
+      return getDefinition(source).toWgs84.andThen(getDefinition(target).fromWgs84);
+    });
+  }
+
+  /**
+   * Gets the transform between two coordinate reference systems of GeoJSON objects.
+   *
+   * @param sourceCrs the source CRS ({@code null} means WGS84)
+   * @param targetCrs the target CRS ({@code null} means WGS84)
+   * @return the transform
+   * @throws IllegalArgumentException if a CRS is not supported
+   */
+  public CrsTransform getTransform(AbstractGeoJsonCrs sourceCrs, AbstractGeoJsonCrs targetCrs) {
+    return getTransform(getName(sourceCrs), getName(targetCrs));
+  }
+
+  /**
+   * Gets the name of the coordinate reference system of a GeoJSON object, that is the name of a
+   * named CRS or the link of a linked CRS.
+   *
+   * @param crs the CRS (can be {@code null})
+   * @return the name of the CRS or {@code null}, if the CRS is {@code null}
+   * @throws IllegalArgumentException if the type of the CRS is not supported
+   */
+  public static String getName(AbstractGeoJsonCrs crs) {
+    if (crs instanceof GeoJsonNamedCrs namedCrs) {
+      return namedCrs.getCrs();
+    }
+    if (crs instanceof GeoJsonLinkedCrs linkedCrs) {
+      return linkedCrs.getHref();
+    }
+    if (isNull(crs)) {
+      return null;
+    }
+    throw new IllegalArgumentException(String.format(
+        "Coordinate reference system [%s] is not supported.", crs));
+  }
+
+  /**
+   * Normalizes the name of a coordinate reference system. Names with an EPSG code are returned
+   * as {@code EPSG:<code>}, CRS84 is returned as {@code EPSG:4326}.
+   *
+   * @param crs the name of the CRS ({@code null} means WGS84)
+   * @return the normalized name
+   */
+  public static String normalize(String crs) {
+    if (isNull(crs) || crs.isBlank()) {
+      return WGS84_CRS;
+    }
+    String name = crs.trim();
+    if (CRS84_PATTERN.matcher(name).matches()) {
+      return WGS84_CRS;
+    }
+    for (Pattern pattern : EPSG_PATTERNS) {
+      Matcher matcher = pattern.matcher(name);
+      if (matcher.matches()) {
+        return DEFAULT_SPATIAL_AUTHORITY + ':'
+            + matcher.group(1).replaceFirst("^0+(?=\\d)", "");
+      }
+    }
+    return name;
+  }
+
+  private Definition getDefinition(String crs) {
+    Definition definition = findDefinition(crs);
+    if (isNull(definition)) {
+      throw new IllegalArgumentException(String.format(
+          "Coordinate reference system [%s] is not supported.", crs));
+    }
+    return definition;
+  }
+
+  private Definition findDefinition(String crs) {
+    Definition definition = definitions.get(crs);
+    if (!isNull(definition)) {
+      return definition;
+    }
+    Matcher matcher = EPSG_PATTERNS.get(0).matcher(crs);
+    if (!matcher.matches() || matcher.group(1).length() > 9) {
+      return null;
+    }
+    int code = Integer.parseInt(matcher.group(1));
+    if (code == WGS84_SPATIAL_REFERENCE_ID || code == ETRS89_SPATIAL_REFERENCE_ID) {
+      return new Definition(CrsTransform.IDENTITY, CrsTransform.IDENTITY);
+    }
+    if (code == MERCATOR_SPATIAL_REFERENCE_ID || code == MERCATOR_SPATIAL_REFERENCE_ID_ALT) {
+      return new Definition(new MercatorTransform(false), new MercatorTransform(true));
+    }
+    if (code > 32600 && code <= 32660 || code > 32700 && code <= 32760) {
+      return utm(WGS84_INVERSE_FLATTENING, code % 100, code > 32700);
+    }
+    if (code > 25800 && code <= 25860) {
+      return utm(GRS80_INVERSE_FLATTENING, code % 100, false);
+    }
+    return null;
+  }
+
+  private static Definition utm(double inverseFlattening, int zone, boolean south) {
+    return new Definition(
+        TransverseMercatorTransform
+            .utm(WGS84_SEMI_MAJOR_AXIS, inverseFlattening, zone, south, false),
+        TransverseMercatorTransform
+            .utm(WGS84_SEMI_MAJOR_AXIS, inverseFlattening, zone, south, true));
+  }
+
+  /**
+   * The definition of a coordinate reference system by its transforms from and to WGS84.
+   *
+   * @param toWgs84 the transform into WGS84
+   * @param fromWgs84 the transform from WGS84
+   */
+  private record Definition(CrsTransform toWgs84, CrsTransform fromWgs84)
+      implements Serializable {
+
+  }
+
+}
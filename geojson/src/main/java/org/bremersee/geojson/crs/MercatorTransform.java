@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.crs;
+
+import static org.bremersee.geojson.filter.FilterConstants.EARTH_RADIUS_METERS;
+
+import java.io.Serial;
+import org.bremersee.geojson.filter.MercatorProjection;
+
+/**
+ * The transform between geographic WGS84 positions and the pseudo mercator projection
+ * (EPSG:3857). The results are identical to the results of the mercator coordinate filters.
+ *
+ * @author Christian Bremer
+ */
+class MercatorTransform implements CrsTransform {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final boolean toMercator;
+
+  /**
+   * Instantiates a new mercator transform.
+   *
+   * @param toMercator {@code true} to project into mercator, {@code false} to project into WGS84
+   */
+  MercatorTransform(boolean toMercator) {
+    this.toMercator = toMercator;
+  }
+
+  @Override
+  public void transform(double[] ordinates, int offset, int count, int stride) {
+    for (int i = 0, n = offset; i < count; i++, n += stride) {
+      if (toMercator) {
+        ordinates[n] = MercatorProjection.toMercatorX(ordinates[n], EARTH_RADIUS_METERS);
+        ordinates[n + 1] = MercatorProjection.toMercatorY(ordinates[n + 1], EARTH_RADIUS_METERS);
+      } else {
+        ordinates[n] = MercatorProjection.toWgs84X(ordinates[n], EARTH_RADIUS_METERS);
+        ordinates[n + 1] = MercatorProjection.toWgs84Y(ordinates[n + 1], EARTH_RADIUS_METERS);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.crs;
+
+import java.io.Serial;
+
+/**
+ * The transform between geographic positions and a transverse mercator projection (like UTM).
+ *
+ * <p>The projection is calculated with the series of Krüger up to the fourth order of the third
+ * flattening, which is accurate to a fraction of a millimeter within a UTM zone. The coefficients
+ * are calculated once, when the transform is created.
+ *
+ * @author Christian Bremer
+ */
+class TransverseMercatorTransform implements CrsTransform {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The scale factor on the central meridian of UTM.
+   */
+  static final double UTM_SCALE_FACTOR = 0.9996;
+
+  /**
+   * The false easting of UTM.
+   */
+  static final double UTM_FALSE_EASTING = 500000.;
+
+  /**
+   * The false northing of UTM on the southern hemisphere.
+   */
+  static final double UTM_FALSE_NORTHING_SOUTH = 10000000.;
+
+  private final double centralMeridian;
+
+  private final double falseEasting;
+
+  private final double falseNorthing;
+
+  private final double scaledRadius;
+
+  private final double eccentricity;
+
+  private final double[] alpha;
+
+  private final double[] beta;
+
+  private final double[] delta;
+
+  private final boolean toProjected;
+
+  /**
+   * Instantiates a new transverse mercator transform.
+   *
+   * @param semiMajorAxis the semi major axis of the ellipsoid
+   * @param inverseFlattening the inverse flattening of the ellipsoid
+   * @param centralMeridian the central meridian in degrees
+   * @param scaleFactor the scale factor on the central meridian
+   * @param falseEasting the false easting
+   * @param falseNorthing the false northing
+   * @param toProjected {@code true} to project geographic positions, {@code false} for the
+   *     inverse transformation
+   */
+  TransverseMercatorTransform(
+      double semiMajorAxis,
+      double inverseFlattening,
+      double centralMeridian,
+      double scaleFactor,
+      double falseEasting,
+      double falseNorthing,
+      boolean toProjected) {
+    double f = 1. / inverseFlattening;
+    double n = f / (2. - f);
+    double n2 = n * n;
+    double n3 = n2 * n;
+    double n4 = n3 * n;
+    this.centralMeridian = Math.toRadians(centralMeridian);
+    this.falseEasting = falseEasting;
+    this.falseNorthing = falseNorthing;
+    this.scaledRadius = scaleFactor * semiMajorAxis / (1. + n) * (1. + n2 / 4. + n2 * n2 / 64.);
+    this.eccentricity = 2. * Math.sqrt(n) / (1. + n);
+    this.alpha = new double[]{
+        n / 2. - 2. * n2 / 3. + 5. * n3 / 16. + 41. * n4 / 180.,
+        13. * n2 / 48. - 3. * n3 / 5. + 557. * n4 / 1440.,
+        61. * n3 / 240. - 103. * n4 / 140.,
+        49561. * n4 / 161280.
+    };
+    this.beta = new double[]{
+        n / 2. - 2. * n2 / 3. + 37. * n3 / 96. - n4 / 360.,
+        n2 / 48. + n3 / 15. - 437. * n4 / 1440.,
+        17. * n3 / 480. - 37. * n4 / 840.,
+        4397. * n4 / 161280.
+    };
+    this.delta = new double[]{
+        2. * n - 2. * n2 / 3. - 2. * n3 + 116. * n4 / 45.,
+        7. * n2 / 3. - 8. * n3 / 5. - 227. * n4 / 45.,
+        56. * n3 / 15. - 136. * n4 / 35.,
+        4279. * n4 / 630.
+    };
+    this.toProjected = toProjected;
+  }
+
+  /**
+   * Creates the transform of a UTM zone.
+   *
+   * @param semiMajorAxis the semi major axis of the ellipsoid
+   * @param inverseFlattening the inverse flattening of the ellipsoid
+   * @param zone the zone (1 to 60)
+   * @param south specifies whether the zone is on the southern hemisphere
+   * @param toProjected {@code true} to project geographic positions, {@code false} for the
+   *     inverse transformation
+   * @return the transverse mercator transform
+   */
+  static TransverseMercatorTransform utm(
+      double semiMajorAxis,
+      double inverseFlattening,
+      int zone,
+      boolean south,
+      boolean toProjected) {
+    if (zone < 1 || zone > 60) {
+      throw new IllegalArgumentException("UTM zone must be between 1 and 60.");
+    }
+    return new TransverseMercatorTransform(
+        semiMajorAxis,
+        inverseFlattening,
+        zone * 6. - 183.,
+        UTM_SCALE_FACTOR,
+        UTM_FALSE_EASTING,
+        south ? UTM_FALSE_NORTHING_SOUTH : 0.,
+        toProjected);
+  }
+
+  @Override
+  public void transform(double[] ordinates, int offset, int count, int stride) {
+    for (int i = 0, n = offset; i < count; i++, n += stride) {
+      if (!Double.isNaN(ordinates[n]) && !Double.isNaN(ordinates[n + 1])) {
+        if (toProjected) {
+          project(ordinates, n);
+        } else {
+          unproject(ordinates, n);
+        }
+      }
+    }
+  }
+
+  private void project(double[] ordinates, int n) {
+    double lambda = Math.toRadians(ordinates[n]) - centralMeridian;
+    double sinPhi = Math.sin(Math.toRadians(ordinates[n + 1]));
+    double t = Math.sinh(atanh(sinPhi) - eccentricity * atanh(eccentricity * sinPhi));
+    double xi = Math.atan2(t, Math.cos(lambda));
+    double eta = atanh(Math.sin(lambda) / Math.sqrt(1. + t * t));
+    double easting = eta;
+    double northing = xi;
+    for (int j = 1; j <= alpha.length; j++) {
+      easting += alpha[j - 1] * Math.cos(2. * j * xi) * Math.sinh(2. * j * eta);
+      northing += alpha[j - 1] * Math.sin(2. * j * xi) * Math.cosh(2. * j * eta);
+    }
+    ordinates[n] = falseEasting + scaledRadius * easting;
+    ordinates[n + 1] = falseNorthing + scaledRadius * northing;
+  }
+
+  private void unproject(double[] ordinates, int n) {
+    double eta = (ordinates[n] - falseEasting) / scaledRadius;
+    double xi = (ordinates[n + 1] - falseNorthing) / scaledRadius;
+    double xiPrime = xi;
+    double etaPrime = eta;
+    for (int j = 1; j <= alpha.length; j++) {
+      xiPrime -= beta[j - 1] * Math.sin(2. * j * xi) * Math.cosh(2. * j * eta);
+      etaPrime -= beta[j - 1] * Math.cos(2. * j * xi) * Math.sinh(2. * j * eta);
+    }
+    double chi = Math.asin(Math.sin(xiPrime) / Math.cosh(etaPrime));
+    double phi = chi;
+    for (int j = 1; j <= alpha.length; j++) {
+      phi += delta[j - 1] * Math.sin(2. * j * chi);
+    }
+    ordinates[n] = Math.toDegrees(centralMeridian + Math.atan2(Math.sinh(etaPrime),
+        Math.cos(xiPrime)));
+    ordinates[n + 1] = Math.toDegrees(phi);
+  }
+
+  private static double atanh(double value) {
+    return 0.5 * Math.log((1. + value) / (1. - value));
+  }
+
+}
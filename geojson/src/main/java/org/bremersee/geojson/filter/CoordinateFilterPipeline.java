@@ -0,0 +1,302 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.filter;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateFilter;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.CoordinateXYZM;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.impl.CoordinateArraySequence;
+
+/**
+ * A pipeline of coordinate filters, that applies all filters to a position in one traversal of
+ * the coordinate sequences.
+ *
+ * <p>Applying each filter to a geometry separately would traverse all coordinates once per
+ * filter. The pipeline applies all filters of a position in the given order before it moves to
+ * the next position. Like {@link Geometry#apply(CoordinateFilter)} the filters get the
+ * coordinate instances of a {@link CoordinateArraySequence}, so filters, that keep references
+ * to the coordinates (like {@link org.locationtech.jts.util.CoordinateArrayFilter}), work as
+ * before. Other sequences (like packed or off-heap sequences) don't hold coordinate instances;
+ * for them the position is read into a reusable coordinate, the filters are applied to it and
+ * the result is written back into the sequence. So the filters also modify these sequences, but
+ * they must not keep references to the coordinates of them.
+ *
+ * <p>The pipeline is immutable and thread safe (if the filters are).
+ *
+ * @author Christian Bremer
+ */
+public class CoordinateFilterPipeline implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The maximum number of geometries, that are processed in parallel mode without splitting.
+   */
+  static final int THRESHOLD = 64;
+
+  private final List<CoordinateFilter> filters;
+
+  /**
+   * Instantiates a new coordinate filter pipeline.
+   *
+   * @param filters the filters
+   */
+  public CoordinateFilterPipeline(CoordinateFilter... filters) {
+    this(isNull(filters) ? List.of() : Arrays.asList(filters));
+  }
+
+  /**
+   * Instantiates a new coordinate filter pipeline.
+   *
+   * @param filters the filters
+   */
+  public CoordinateFilterPipeline(Collection<? extends CoordinateFilter> filters) {
+    List<CoordinateFilter> list = new ArrayList<>();
+    if (nonNull(filters)) {
+      filters.stream().filter(Objects::nonNull).forEach(list::add);
+    }
+    this.filters = Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Creates a new pipeline, that applies the specified filter after the filters of this
+   * pipeline.
+   *
+   * @param filter the filter
+   * @return the new pipeline
+   */
+  public CoordinateFilterPipeline then(CoordinateFilter filter) {
+    List<CoordinateFilter> list = new ArrayList<>(filters);
+    list.add(filter);
+    return new CoordinateFilterPipeline(list);
+  }
+
+  /**
+   * Gets the filters.
+   *
+   * @return the unmodifiable list of filters
+   */
+  public List<CoordinateFilter> getFilters() {
+    return filters;
+  }
+
+  /**
+   * Determines whether the pipeline has no filters.
+   *
+   * @return {@code true} if there are no filters, otherwise {@code false}
+   */
+  public boolean isEmpty() {
+    return filters.isEmpty();
+  }
+
+  /**
+   * Applies the filters to a copy of the geometry. If there are no filters, the geometry itself
+   * is returned.
+   *
+   * @param geometry the geometry
+   * @return the filtered copy of the geometry
+   */
+  public Geometry apply(Geometry geometry) {
+    if (isNull(geometry) || isEmpty()) {
+      return geometry;
+    }
+    return applyInPlace(geometry.copy());
+  }
+
+  /**
+   * Applies the filters to the geometry itself. This avoids the copy, but must only be used with
+   * geometries, that are not shared.
+   *
+   * @param geometry the geometry
+   * @return the geometry
+   */
+  public Geometry applyInPlace(Geometry geometry) {
+    if (nonNull(geometry) && !isEmpty()) {
+      geometry.apply(new FusedFilter(filters));
+    }
+    return geometry;
+  }
+
+  /**
+   * Applies the filters to the geometries in parallel with the common fork join pool.
+   *
+   * @param geometries the geometries
+   * @param inPlace specifies whether the geometries itself are modified instead of copies
+   * @return the filtered geometries in the order of the given collection
+   */
+  public List<Geometry> applyInParallel(
+      Collection<? extends Geometry> geometries,
+      boolean inPlace) {
+    return applyInParallel(geometries, inPlace, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Applies the filters to the geometries in parallel with the specified fork join pool.
+   *
+   * @param geometries the geometries
+   * @param inPlace specifies whether the geometries itself are modified instead of copies
+   * @param pool the fork join pool
+   * @return the filtered geometries in the order of the given collection
+   */
+  public List<Geometry> applyInParallel(
+      Collection<? extends Geometry> geometries,
+      boolean inPlace,
+      ForkJoinPool pool) {
+    if (isNull(geometries) || geometries.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Geometry[] array = geometries.toArray(new Geometry[0]);
+    if (!isEmpty()) {
+      (isNull(pool) ? ForkJoinPool.commonPool() : pool)
+          .invoke(new PipelineTask(this, array, 0, array.length, inPlace));
+    }
+    return new ArrayList<>(Arrays.asList(array));
+  }
+
+  /**
+   * The coordinate sequence filter, that applies all filters to a position. The coordinates of a
+   * coordinate array sequence are filtered directly, the positions of other sequences are read
+   * into a reusable coordinate and written back. So it is not thread safe.
+   */
+  private static class FusedFilter implements CoordinateSequenceFilter {
+
+    private final CoordinateFilter[] filters;
+
+    private final CoordinateXYZM coordinate = new CoordinateXYZM();
+
+    /**
+     * Instantiates a new fused filter.
+     *
+     * @param filters the filters
+     */
+    FusedFilter(List<CoordinateFilter> filters) {
+      this.filters = filters.toArray(new CoordinateFilter[0]);
+    }
+
+    @Override
+    public void filter(CoordinateSequence seq, int i) {
+      if (seq instanceof CoordinateArraySequence) {
+        // the coordinate is an element of the sequence
+        Coordinate element = seq.getCoordinate(i);
+        for (CoordinateFilter filter : filters) {
+          filter.filter(element);
+        }
+        return;
+      }
+      coordinate.setZ(Double.NaN);
+      coordinate.setM(Double.NaN);
+      seq.getCoordinate(i, coordinate);
+      for (CoordinateFilter filter : filters) {
+        filter.filter(coordinate);
+      }
+      seq.setOrdinate(i, CoordinateSequence.X, coordinate.getX());
+      seq.setOrdinate(i, CoordinateSequence.Y, coordinate.getY());
+      int spatial = seq.getDimension() - seq.getMeasures();
+      if (spatial > 2) {
+        seq.setOrdinate(i, CoordinateSequence.Z, coordinate.getZ());
+      }
+      if (seq.getMeasures() > 0) {
+        seq.setOrdinate(i, spatial, coordinate.getM());
+      }
+    }
+
+    @Override
+    public boolean isDone() {
+      return false;
+    }
+
+    @Override
+    public boolean isGeometryChanged() {
+      return true;
+    }
+  }
+
+  /**
+   * The fork join task, that applies the pipeline to a range of geometries.
+   */
+  private static class PipelineTask extends RecursiveAction {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final CoordinateFilterPipeline pipeline;
+
+    private final Geometry[] geometries;
+
+    private final int from;
+
+    private final int to;
+
+    private final boolean inPlace;
+
+    /**
+     * Instantiates a new pipeline task.
+     *
+     * @param pipeline the pipeline
+     * @param geometries the geometries, that will be replaced by the results
+     * @param from the start index (inclusive)
+     * @param to the end index (exclusive)
+     * @param inPlace specifies whether the geometries itself are modified
+     */
+    PipelineTask(
+        CoordinateFilterPipeline pipeline,
+        Geometry[] geometries,
+        int from,
+        int to,
+        boolean inPlace) {
+      this.pipeline = pipeline;
+      this.geometries = geometries;
+      this.from = from;
+      this.to = to;
+      this.inPlace = inPlace;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= THRESHOLD) {
+        for (int i = from; i < to; i++) {
+          geometries[i] = inPlace
+              ? pipeline.applyInPlace(geometries[i])
+              : pipeline.apply(geometries[i]);
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new PipelineTask(pipeline, geometries, from, middle, inPlace),
+          new PipelineTask(pipeline, geometries, middle, to, inPlace));
+    }
+  }
+
+}
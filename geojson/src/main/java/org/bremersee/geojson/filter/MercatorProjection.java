@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.filter;
+
+import static java.util.Objects.isNull;
+
+import org.bremersee.geojson.crs.GeoJsonCrsConstants;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+
+/**
+ * The projection between WGS84 and mercator for single values and for whole arrays.
+ *
+ * <p>The coordinate filters and the batch methods use the same functions, so they produce
+ * identical results. The batch methods work directly on primitive arrays, so no coordinate
+ * objects are created. The single value functions are also used by the transforms of the
+ * {@link org.bremersee.geojson.crs.CrsTransformRegistry}.
+ *
+ * @author Christian Bremer
+ */
+public abstract class MercatorProjection {
+
+  private MercatorProjection() {
+  }
+
+  /**
+   * Projects a WGS84 longitude into a mercator x value.
+   *
+   * @param x the longitude
+   * @param r the earth radius in meters
+   * @return the mercator x value
+   */
+  public static double toMercatorX(double x, double r) {
+    return Double.isNaN(x) ? x : x * r * Math.PI / 180.;
+  }
+
+  /**
+   * Projects a WGS84 latitude into a mercator y value. The latitude is limited to the range of
+   * the mercator projection.
+   *
+   * @param y the latitude
+   * @param r the earth radius in meters
+   * @return the mercator y value
+   */
+  public static double toMercatorY(double y, double r) {
+    if (Double.isNaN(y)) {
+      return y;
+    }
+    double lat = y;
+    if (lat > GeoJsonCrsConstants.MERCATOR_MAX_LAT) {
+      lat = GeoJsonCrsConstants.MERCATOR_MAX_LAT;
+    } else if (lat < GeoJsonCrsConstants.MERCATOR_MIN_LAT) {
+      lat = GeoJsonCrsConstants.MERCATOR_MIN_LAT;
+    }
+    return Math.log(Math.tan(Math.PI / 4 + Math.toRadians(lat) / 2)) * r;
+  }
+
+  /**
+   * Projects a mercator x value into a WGS84 longitude.
+   *
+   * @param x the mercator x value
+   * @param r the earth radius in meters
+   * @return the longitude
+   */
+  public static double toWgs84X(double x, double r) {
+    return Double.isNaN(x) ? x : (x * 180.) / (r * Math.PI);
+  }
+
+  /**
+   * Projects a mercator y value into a WGS84 latitude.
+   *
+   * @param y the mercator y value
+   * @param r the earth radius in meters
+   * @return the latitude
+   */
+  public static double toWgs84Y(double y, double r) {
+    return Double.isNaN(y) ? y : Math.toDegrees(2 * Math.atan(Math.exp(y / r)) - Math.PI / 2);
+  }
+
+  /**
+   * Projects the values of the arrays.
+   *
+   * @param xs the x values (can be {@code null})
+   * @param ys the y values (can be {@code null})
+   * @param r the earth radius in meters
+   * @param toMercator {@code true} to project into mercator, {@code false} to project into WGS84
+   */
+  static void project(double[] xs, double[] ys, double r, boolean toMercator) {
+    if (!isNull(xs)) {
+      for (int i = 0; i < xs.length; i++) {
+        xs[i] = toMercator ? toMercatorX(xs[i], r) : toWgs84X(xs[i], r);
+      }
+    }
+    if (!isNull(ys)) {
+      for (int i = 0; i < ys.length; i++) {
+        ys[i] = toMercator ? toMercatorY(ys[i], r) : toWgs84Y(ys[i], r);
+      }
+    }
+  }
+
+  /**
+   * Projects the interleaved ordinates ({@code x, y[, ...]} per position) of the array.
+   *
+   * @param ordinates the ordinates
+   * @param dimension the number of ordinates per position
+   * @param r the earth radius in meters
+   * @param toMercator {@code true} to project into mercator, {@code false} to project into WGS84
+   */
+  static void project(double[] ordinates, int dimension, double r, boolean toMercator) {
+    assertDimension(dimension);
+    for (int i = 0; i + 1 < ordinates.length; i += dimension) {
+      ordinates[i] = toMercator ? toMercatorX(ordinates[i], r) : toWgs84X(ordinates[i], r);
+      ordinates[i + 1] = toMercator
+          ? toMercatorY(ordinates[i + 1], r)
+          : toWgs84Y(ordinates[i + 1], r);
+    }
+  }
+
+  /**
+   * Projects the interleaved ordinates ({@code x, y[, ...]} per position) of the array. The
+   * values are calculated with double precision.
+   *
+   * @param ordinates the ordinates
+   * @param dimension the number of ordinates per position
+   * @param r the earth radius in meters
+   * @param toMercator {@code true} to project into mercator, {@code false} to project into WGS84
+   */
+  static void project(float[] ordinates, int dimension, double r, boolean toMercator) {
+    assertDimension(dimension);
+    for (int i = 0; i + 1 < ordinates.length; i += dimension) {
+      ordinates[i] = (float) (toMercator
+          ? toMercatorX(ordinates[i], r)
+          : toWgs84X(ordinates[i], r));
+      ordinates[i + 1] = (float) (toMercator
+          ? toMercatorY(ordinates[i + 1], r)
+          : toWgs84Y(ordinates[i + 1], r));
+    }
+  }
+
+  /**
+   * Projects the packed coordinate sequence in its raw array.
+   *
+   * @param sequence the sequence
+   * @param r the earth radius in meters
+   * @param toMercator {@code true} to project into mercator, {@code false} to project into WGS84
+   */
+  static void project(PackedCoordinateSequence sequence, double r, boolean toMercator) {
+    if (isNull(sequence) || sequence.size() == 0) {
+      return;
+    }
+    if (sequence instanceof PackedCoordinateSequence.Double doubleSequence) {
+      project(doubleSequence.getRawCoordinates(), sequence.getDimension(), r, toMercator);
+    } else if (sequence instanceof PackedCoordinateSequence.Float floatSequence) {
+      project(floatSequence.getRawCoordinates(), sequence.getDimension(), r, toMercator);
+    } else {
+      for (int i = 0; i < sequence.size(); i++) {
+        double x = sequence.getX(i);
+        double y = sequence.getY(i);
+        sequence.setOrdinate(i, CoordinateSequence.X, toMercator
+            ? toMercatorX(x, r)
+            : toWgs84X(x, r));
+        sequence.setOrdinate(i, CoordinateSequence.Y, toMercator
+            ? toMercatorY(y, r)
+            : toWgs84Y(y, r));
+      }
+      return;
+    }
+    // setting an ordinate drops the cached coordinates of the sequence
+    sequence.setOrdinate(0, CoordinateSequence.X, sequence.getOrdinate(0, CoordinateSequence.X));
+  }
+
+  private static void assertDimension(int dimension) {
+    if (dimension < 2) {
+      throw new IllegalArgumentException("Dimension must be at least 2.");
+    }
+  }
+
+}
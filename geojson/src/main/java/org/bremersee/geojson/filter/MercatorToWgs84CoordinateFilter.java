@@ -25,6 +25,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateFilter;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 
 /**
  * A coordinate filter that transforms mercator coordinates into WGS84 coordinates.
@@ -55,18 +56,47 @@ public class MercatorToWgs84CoordinateFilter implements CoordinateFilter {
 
   @Override
   public void filter(Coordinate coord) {
-
     if (nonNull(coord)) {
-      if (!Double.isNaN(coord.x)) {
-        coord.x = (coord.x * 180.) / (getEarthRadiusInMeters() * Math.PI);
-      }
-      if (!Double.isNaN(coord.y)) {
-        coord.y = Math
-            .toDegrees(2 * Math.atan(Math.exp(coord.y / getEarthRadiusInMeters())) - Math.PI / 2);
-      }
+      coord.x = MercatorProjection.toWgs84X(coord.x, getEarthRadiusInMeters());
+      coord.y = MercatorProjection.toWgs84Y(coord.y, getEarthRadiusInMeters());
     }
   }
 
+  /**
+   * Transforms the x and the y values of the arrays in bulk. The results are identical to the
+   * results of {@link #filter(Coordinate)}.
+   *
+   * @param xs the x values (can be {@code null})
+   * @param ys the y values (can be {@code null})
+   */
+  public void filter(double[] xs, double[] ys) {
+    MercatorProjection.project(xs, ys, getEarthRadiusInMeters(), false);
+  }
+
+  /**
+   * Transforms the interleaved ordinates ({@code x, y[, z][, m]} per position) of the array in
+   * bulk. Only the x and y values are transformed.
+   *
+   * @param ordinates the ordinates
+   * @param dimension the number of ordinates per position
+   */
+  public void filter(double[] ordinates, int dimension) {
+    if (nonNull(ordinates)) {
+      MercatorProjection.project(ordinates, dimension, getEarthRadiusInMeters(), false);
+    }
+  }
+
+  /**
+   * Transforms the packed coordinate sequence in bulk by working on its raw array. Don't forget
+   * to call {@link org.locationtech.jts.geom.Geometry#geometryChanged()} on the geometry of the
+   * sequence afterwards.
+   *
+   * @param sequence the sequence
+   */
+  public void filter(PackedCoordinateSequence sequence) {
+    MercatorProjection.project(sequence, getEarthRadiusInMeters(), false);
+  }
+
   @Override
   public String toString() {
     return "MercatorToWgs84CoordinateFilter{"
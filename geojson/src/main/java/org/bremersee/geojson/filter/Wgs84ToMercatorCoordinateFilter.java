@@ -18,15 +18,16 @@ package org.bremersee.geojson.filter;
 
 import static java.util.Objects.hash;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.bremersee.geojson.filter.FilterConstants.EARTH_RADIUS_METERS;
 
 import java.io.Serial;
 import java.io.Serializable;
 import lombok.Getter;
 import lombok.Setter;
-import org.bremersee.geojson.crs.GeoJsonCrsConstants;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateFilter;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 
 /**
  * A coordinate filter that transforms WGS84 coordinates into mercator coordinates.
@@ -63,23 +64,47 @@ public class Wgs84ToMercatorCoordinateFilter implements CoordinateFilter, Serial
 
   @Override
   public void filter(Coordinate coord) {
-
     if (coord != null) {
-      if (!Double.isNaN(coord.x)) {
-        coord.x = coord.x * getEarthRadiusInMeters() * Math.PI / 180.;
-      }
-      if (!Double.isNaN(coord.y)) {
-        if (coord.y > GeoJsonCrsConstants.MERCATOR_MAX_LAT) {
-          coord.y = GeoJsonCrsConstants.MERCATOR_MAX_LAT;
-        } else if (coord.y < GeoJsonCrsConstants.MERCATOR_MIN_LAT) {
-          coord.y = GeoJsonCrsConstants.MERCATOR_MIN_LAT;
-        }
-        coord.y = Math.log(Math.tan(Math.PI / 4 + Math.toRadians(coord.y) / 2))
-            * getEarthRadiusInMeters();
-      }
+      coord.x = MercatorProjection.toMercatorX(coord.x, getEarthRadiusInMeters());
+      coord.y = MercatorProjection.toMercatorY(coord.y, getEarthRadiusInMeters());
     }
   }
 
+  /**
+   * Transforms the x and the y values of the arrays in bulk. The results are identical to the
+   * results of {@link #filter(Coordinate)}.
+   *
+   * @param xs the x values (can be {@code null})
+   * @param ys the y values (can be {@code null})
+   */
+  public void filter(double[] xs, double[] ys) {
+    MercatorProjection.project(xs, ys, getEarthRadiusInMeters(), true);
+  }
+
+  /**
+   * Transforms the interleaved ordinates ({@code x, y[, z][, m]} per position) of the array in
+   * bulk. Only the x and y values are transformed.
+   *
+   * @param ordinates the ordinates
+   * @param dimension the number of ordinates per position
+   */
+  public void filter(double[] ordinates, int dimension) {
+    if (nonNull(ordinates)) {
+      MercatorProjection.project(ordinates, dimension, getEarthRadiusInMeters(), true);
+    }
+  }
+
+  /**
+   * Transforms the packed coordinate sequence in bulk by working on its raw array. Don't forget
+   * to call {@link org.locationtech.jts.geom.Geometry#geometryChanged()} on the geometry of the
+   * sequence afterwards.
+   *
+   * @param sequence the sequence
+   */
+  public void filter(PackedCoordinateSequence sequence) {
+    MercatorProjection.project(sequence, getEarthRadiusInMeters(), true);
+  }
+
   @Override
   public String toString() {
     return "Wgs84ToMercatorCoordinateFilter{"
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.geom;
+
+import static java.util.Objects.isNull;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequences;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * A coordinate sequence, that stores the ordinates in off-heap memory, i.e. in a direct buffer.
+ *
+ * <p>The ordinates are stored interleaved ({@code x, y[, z][, m]} per position). Only the
+ * sequence object and the buffer view are held on the heap, so the garbage collector doesn't have
+ * to trace the coordinates. Like the packed coordinate sequences of JTS, the returned coordinate
+ * objects are copies: modifying them doesn't modify the sequence, use
+ * {@link #setOrdinate(int, int, double)} instead.
+ *
+ * <p>The sequences are created by the {@link OffHeapCoordinateSequenceFactory}. The memory is
+ * released, when the sequence (and all other sequences of the same memory chunk) become
+ * unreachable.
+ *
+ * @author Christian Bremer
+ */
+public class OffHeapCoordinateSequence implements CoordinateSequence, Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final OffHeapCoordinateSequenceFactory factory;
+
+  private final int size;
+
+  private final int dimension;
+
+  private final int measures;
+
+  private transient DoubleBuffer ordinates;
+
+  /**
+   * Instantiates a new off heap coordinate sequence.
+   *
+   * @param factory the factory, that allocates the memory
+   * @param size the number of positions
+   * @param dimension the dimension (including the measures)
+   * @param measures the number of measures
+   */
+  OffHeapCoordinateSequence(
+      OffHeapCoordinateSequenceFactory factory,
+      int size,
+      int dimension,
+      int measures) {
+    this.factory = factory;
+    this.size = size;
+    this.dimension = dimension;
+    this.measures = measures;
+    this.ordinates = factory.allocate((long) size * dimension);
+  }
+
+  @Override
+  public int getDimension() {
+    return dimension;
+  }
+
+  @Override
+  public int getMeasures() {
+    return measures;
+  }
+
+  @Override
+  public Coordinate getCoordinate(int i) {
+    return getCoordinateCopy(i);
+  }
+
+  @Override
+  public Coordinate getCoordinateCopy(int i) {
+    Coordinate coordinate = createCoordinate();
+    int offset = i * dimension;
+    for (int d = 0; d < dimension; d++) {
+      coordinate.setOrdinate(d, ordinates.get(offset + d));
+    }
+    return coordinate;
+  }
+
+  @Override
+  public void getCoordinate(int i, Coordinate coordinate) {
+    coordinate.setX(getX(i));
+    coordinate.setY(getY(i));
+    if (hasZ()) {
+      coordinate.setZ(getZ(i));
+    }
+    if (hasM()) {
+      coordinate.setM(getM(i));
+    }
+  }
+
+  @Override
+  public double getX(int i) {
+    return ordinates.get(i * dimension);
+  }
+
+  @Override
+  public double getY(int i) {
+    return ordinates.get(i * dimension + 1);
+  }
+
+  @Override
+  public double getOrdinate(int index, int ordinateIndex) {
+    if (ordinateIndex < 0 || ordinateIndex >= dimension) {
+      return Double.NaN;
+    }
+    return ordinates.get(index * dimension + ordinateIndex);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void setOrdinate(int index, int ordinateIndex, double value) {
+    if (ordinateIndex < 0 || ordinateIndex >= dimension) {
+      throw new IllegalArgumentException(String.format(
+          "Ordinate index %d is not supported by a sequence of dimension %d.",
+          ordinateIndex, dimension));
+    }
+    ordinates.put(index * dimension + ordinateIndex, value);
+  }
+
+  @Override
+  public Coordinate[] toCoordinateArray() {
+    Coordinate[] coordinates = new Coordinate[size];
+    for (int i = 0; i < size; i++) {
+      coordinates[i] = getCoordinateCopy(i);
+    }
+    return coordinates;
+  }
+
+  @Override
+  public Envelope expandEnvelope(Envelope envelope) {
+    for (int i = 0; i < size; i++) {
+      int offset = i * dimension;
+      envelope.expandToInclude(ordinates.get(offset), ordinates.get(offset + 1));
+    }
+    return envelope;
+  }
+
+  /**
+   * Creates a deep copy of this sequence.
+   *
+   * @return the copy
+   * @deprecated use {@link #copy()}
+   */
+  @SuppressWarnings("MethodDoesntCallSuperMethod")
+  @Deprecated
+  @Override
+  public Object clone() {
+    return copy();
+  }
+
+  @Override
+  public OffHeapCoordinateSequence copy() {
+    return copy(factory);
+  }
+
+  /**
+   * Creates a deep copy of this sequence in the memory of the specified factory.
+   *
+   * @param factory the factory, that allocates the memory of the copy
+   * @return the copy
+   */
+  OffHeapCoordinateSequence copy(OffHeapCoordinateSequenceFactory factory) {
+    OffHeapCoordinateSequence copy = new OffHeapCoordinateSequence(
+        factory, size, dimension, measures);
+    copy.ordinates.put(0, ordinates, 0, size * dimension);
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return CoordinateSequences.toString(this);
+  }
+
+  @Serial
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    int length = size * dimension;
+    for (int i = 0; i < length; i++) {
+      out.writeDouble(ordinates.get(i));
+    }
+  }
+
+  @Serial
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    if (isNull(factory) || size < 0 || dimension < 0) {
+      throw new IOException("Invalid off heap coordinate sequence.");
+    }
+    int length = size * dimension;
+    ordinates = factory.allocate(length);
+    for (int i = 0; i < length; i++) {
+      ordinates.put(i, in.readDouble());
+    }
+  }
+
+}
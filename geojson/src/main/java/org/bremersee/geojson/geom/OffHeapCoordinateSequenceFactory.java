@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.geom;
+
+import static java.util.Objects.isNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.Coordinates;
+
+/**
+ * A factory of coordinate sequences, that store the ordinates in off-heap memory.
+ *
+ * <p>Allocating a direct buffer for each sequence would be expensive, because most geometries
+ * have only a few positions. So the factory allocates chunks of direct memory and slices the
+ * sequences from them. A sequence, that is larger than half of a chunk, gets its own buffer. A
+ * chunk is released by the garbage collector, when all sequences of it are unreachable. Note,
+ * that the total amount of direct memory is limited by the jvm option
+ * {@code -XX:MaxDirectMemorySize}.
+ *
+ * <p>The factory is thread safe. The created sequences are not.
+ *
+ * @author Christian Bremer
+ */
+public class OffHeapCoordinateSequenceFactory implements CoordinateSequenceFactory, Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The default chunk capacity (number of ordinates): 131072 ordinates, i.e. one MiB.
+   */
+  public static final int DEFAULT_CHUNK_CAPACITY = 1 << 17;
+
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE / Double.BYTES;
+
+  private final int chunkCapacity;
+
+  private transient DoubleBuffer chunk;
+
+  private transient int chunkPosition;
+
+  /**
+   * Instantiates a new off heap coordinate sequence factory with the default chunk capacity.
+   */
+  public OffHeapCoordinateSequenceFactory() {
+    this(DEFAULT_CHUNK_CAPACITY);
+  }
+
+  /**
+   * Instantiates a new off heap coordinate sequence factory.
+   *
+   * @param chunkCapacity the number of ordinates of a memory chunk
+   */
+  public OffHeapCoordinateSequenceFactory(int chunkCapacity) {
+    if (chunkCapacity <= 0 || chunkCapacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException(String.format(
+          "Chunk capacity must be between 1 and %d.", MAX_CAPACITY));
+    }
+    this.chunkCapacity = chunkCapacity;
+  }
+
+  /**
+   * Gets the chunk capacity.
+   *
+   * @return the number of ordinates of a memory chunk
+   */
+  public int getChunkCapacity() {
+    return chunkCapacity;
+  }
+
+  @Override
+  public OffHeapCoordinateSequence create(Coordinate[] coordinates) {
+    if (isNull(coordinates) || coordinates.length == 0) {
+      return create(0, 3, 0);
+    }
+    OffHeapCoordinateSequence sequence = create(
+        coordinates.length,
+        Coordinates.dimension(coordinates[0]),
+        Coordinates.measures(coordinates[0]));
+    for (int i = 0; i < coordinates.length; i++) {
+      for (int d = 0; d < sequence.getDimension(); d++) {
+        sequence.setOrdinate(i, d, coordinates[i].getOrdinate(d));
+      }
+    }
+    return sequence;
+  }
+
+  @Override
+  public OffHeapCoordinateSequence create(CoordinateSequence coordinateSequence) {
+    if (isNull(coordinateSequence)) {
+      return create(0, 3, 0);
+    }
+    if (coordinateSequence instanceof OffHeapCoordinateSequence offHeapSequence) {
+      return offHeapSequence.copy(this);
+    }
+    OffHeapCoordinateSequence sequence = create(
+        coordinateSequence.size(),
+        coordinateSequence.getDimension(),
+        coordinateSequence.getMeasures());
+    for (int i = 0; i < sequence.size(); i++) {
+      for (int d = 0; d < sequence.getDimension(); d++) {
+        sequence.setOrdinate(i, d, coordinateSequence.getOrdinate(i, d));
+      }
+    }
+    return sequence;
+  }
+
+  @Override
+  public OffHeapCoordinateSequence create(int size, int dimension) {
+    return create(size, dimension, 0);
+  }
+
+  @Override
+  public OffHeapCoordinateSequence create(int size, int dimension, int measures) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Size must not be negative.");
+    }
+    int m = Math.max(0, measures);
+    int spatial = Math.max(2, Math.min(3, dimension - m));
+    return new OffHeapCoordinateSequence(this, size, spatial + Math.min(1, m), Math.min(1, m));
+  }
+
+  /**
+   * Allocates a buffer of direct memory.
+   *
+   * @param length the number of ordinates
+   * @return the buffer
+   */
+  synchronized DoubleBuffer allocate(long length) {
+    if (length < 0 || length > MAX_CAPACITY) {
+      throw new IllegalArgumentException(String.format(
+          "Number of ordinates must be between 0 and %d.", MAX_CAPACITY));
+    }
+    int capacity = (int) length;
+    if (capacity > chunkCapacity / 2) {
+      return allocateDirect(capacity);
+    }
+    if (isNull(chunk) || chunkCapacity - chunkPosition < capacity) {
+      chunk = allocateDirect(chunkCapacity);
+      chunkPosition = 0;
+    }
+    DoubleBuffer buffer = chunk.slice(chunkPosition, capacity);
+    chunkPosition += capacity;
+    return buffer;
+  }
+
+  private static DoubleBuffer allocateDirect(int capacity) {
+    return ByteBuffer
+        .allocateDirect(capacity * Double.BYTES)
+        .order(ByteOrder.nativeOrder())
+        .asDoubleBuffer();
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.bremersee.geojson.converter.serialization.JacksonBoundingBoxSerializer;
+
+/**
+ * The bounding box of a feature collection, that is written by the
+ * {@link GeoJsonFeatureCollectionWriter}. It is written like the bounding box of a
+ * {@link org.bremersee.geojson.GeoJsonFeatureCollection}, so it is transformed, if the object
+ * mapper reprojects the positions.
+ *
+ * @author Christian Bremer
+ */
+final class BoundingBox {
+
+  private final double[] value;
+
+  /**
+   * Instantiates a new bounding box.
+   *
+   * @param value the bounding box
+   */
+  BoundingBox(double[] value) {
+    this.value = value;
+  }
+
+  /**
+   * Gets the bounding box.
+   *
+   * @return the bounding box
+   */
+  @JsonValue
+  @JsonSerialize(using = JacksonBoundingBoxSerializer.class)
+  double[] getValue() {
+    return value;
+  }
+
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import static java.util.Objects.isNull;
+import static org.bremersee.geojson.GeoJsonConstants.FEATURES;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.crs.AbstractGeoJsonCrs;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A loader of large GeoJSON feature collection files, that parses the features in parallel.
+ *
+ * <p>The file is mapped into memory with {@link FileChannel#map(MapMode, long, long)}. A simple
+ * byte scanner, that only tracks strings and the nesting depth, runs once over the file and
+ * finds the boundaries of the features and of the other members of the feature collection. Then
+ * the features are parsed independently of each other on a fork join pool.
+ *
+ * <p>The other members are read first like the ones of a {@link GeoJsonFeatureCollection}, so
+ * the features are read with the coordinate reference system of the {@code crs} member of the
+ * collection, if the object mapper reprojects the positions (see
+ * {@link org.bremersee.geojson.GeoJsonObjectMapperModule}).
+ *
+ * @param <G> the geometry type parameter
+ * @param <P> the properties type parameter
+ * @author Christian Bremer
+ */
+public class GeoJsonFeatureCollectionFileLoader<G extends Geometry, P> {
+
+  private static final int SEGMENT_SHIFT = 30;
+
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+  private static final int SEQUENTIAL_THRESHOLD = 64;
+
+  private static final byte[] FEATURES_NAME = FEATURES.getBytes(StandardCharsets.UTF_8);
+
+  private final ObjectReader featureReader;
+
+  private final ObjectReader collectionReader;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Instantiates a new geo json feature collection file loader, that uses the common pool.
+   *
+   * @param objectMapper the object mapper
+   * @param featureType the feature type
+   */
+  public GeoJsonFeatureCollectionFileLoader(
+      ObjectMapper objectMapper,
+      TypeReference<GeoJsonFeature<G, P>> featureType) {
+
+    this(
+        objectMapper,
+        objectMapper.getTypeFactory().constructType(featureType),
+        ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Instantiates a new geo json feature collection file loader.
+   *
+   * @param objectMapper the object mapper
+   * @param featureType the feature type
+   * @param pool the fork join pool, that parses the features
+   */
+  public GeoJsonFeatureCollectionFileLoader(
+      ObjectMapper objectMapper,
+      JavaType featureType,
+      ForkJoinPool pool) {
+
+    if (isNull(objectMapper) || isNull(featureType) || isNull(pool)) {
+      throw new IllegalArgumentException("Object mapper, feature type and pool must be present.");
+    }
+    this.featureReader = objectMapper.readerFor(featureType);
+    JavaType[] parameters = featureType.findTypeParameters(GeoJsonFeature.class);
+    this.collectionReader = objectMapper.readerFor(objectMapper.getTypeFactory()
+        .constructParametricType(GeoJsonFeatureCollection.class, parameters));
+    this.pool = pool;
+  }
+
+  /**
+   * Loads the feature collection of the file. The features are parsed by the fork join pool of
+   * this loader.
+   *
+   * @param file the file
+   * @return the feature collection
+   * @throws IOException if the file cannot be read or parsed
+   */
+  public GeoJsonFeatureCollection<G, P> load(Path file) throws IOException {
+    MappedFeatureCollection mapped = map(file);
+    GeoJsonFeatureCollection<G, P> collection = readMembers(mapped);
+    ObjectReader reader = getFeatureReader(collection);
+    @SuppressWarnings("unchecked")
+    GeoJsonFeature<G, P>[] features
+        = (GeoJsonFeature<G, P>[]) new GeoJsonFeature<?, ?>[mapped.size()];
+    try {
+      pool.invoke(new ParseAction(reader, mapped, features, 0, features.length));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    collection.addAll(
+        Arrays.stream(features).filter(Objects::nonNull).collect(Collectors.toList()));
+    return collection;
+  }
+
+  /**
+   * Returns a parallel stream of the features of the file. The features are parsed lazily by the
+   * pool, that executes the terminal operation of the stream (this is the common pool, if the
+   * terminal operation is not called within a task of another fork join pool).
+   *
+   * @param file the file
+   * @return the parallel stream of features
+   * @throws IOException if the file cannot be read or the feature boundaries cannot be found
+   */
+  public Stream<GeoJsonFeature<G, P>> stream(Path file) throws IOException {
+    MappedFeatureCollection mapped = map(file);
+    ObjectReader reader = getFeatureReader(readMembers(mapped));
+    return IntStream.range(0, mapped.size())
+        .parallel()
+        .mapToObj(index -> parse(reader, mapped, index))
+        .filter(Objects::nonNull);
+  }
+
+  /**
+   * Reads the other members of the feature collection into a feature collection without
+   * features.
+   *
+   * @param mapped the mapped file
+   * @return the feature collection without features
+   * @throws IOException if the members cannot be read
+   */
+  private GeoJsonFeatureCollection<G, P> readMembers(MappedFeatureCollection mapped)
+      throws IOException {
+    return collectionReader.readValue(mapped.getMembers());
+  }
+
+  private ObjectReader getFeatureReader(GeoJsonFeatureCollection<G, P> collection) {
+    AbstractGeoJsonCrs crs = collection.getCrs();
+    return isNull(crs) ? featureReader : featureReader.withAttribute(AbstractGeoJsonCrs.class, crs);
+  }
+
+  private GeoJsonFeature<G, P> parse(ObjectReader reader, MappedFeatureCollection mapped,
+      int index) {
+    try {
+      return reader.readValue(mapped.getFeature(index));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static MappedFeatureCollection map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      int count = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+      MappedByteBuffer[] segments = new MappedByteBuffer[count];
+      for (int i = 0; i < count; i++) {
+        long position = (long) i << SEGMENT_SHIFT;
+        segments[i] = channel.map(
+            MapMode.READ_ONLY,
+            position,
+            Math.min(SEGMENT_SIZE, size - position));
+      }
+      MappedFeatureCollection mapped = new MappedFeatureCollection(segments, size);
+      mapped.scan();
+      return mapped;
+    }
+  }
+
+  /**
+   * The action, that parses a range of features and splits itself, if the range is large.
+   */
+  private class ParseAction extends RecursiveAction {
+
+    private final ObjectReader reader;
+
+    private final MappedFeatureCollection mapped;
+
+    private final GeoJsonFeature<G, P>[] features;
+
+    private final int from;
+
+    private final int to;
+
+    private ParseAction(
+        ObjectReader reader,
+        MappedFeatureCollection mapped,
+        GeoJsonFeature<G, P>[] features,
+        int from,
+        int to) {
+      this.reader = reader;
+      this.mapped = mapped;
+      this.features = features;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= SEQUENTIAL_THRESHOLD) {
+        for (int i = from; i < to; i++) {
+          features[i] = parse(reader, mapped, i);
+        }
+      } else {
+        int middle = (from + to) >>> 1;
+        invokeAll(
+            new ParseAction(reader, mapped, features, from, middle),
+            new ParseAction(reader, mapped, features, middle, to));
+      }
+    }
+  }
+
+  /**
+   * The mapped file with the boundaries of the features and of the other members of the feature
+   * collection.
+   */
+  private static class MappedFeatureCollection {
+
+    private final MappedByteBuffer[] segments;
+
+    private final long length;
+
+    private long[] features = new long[1024];
+
+    private int size;
+
+    private long[] members = new long[16];
+
+    private int membersSize;
+
+    private MappedFeatureCollection(MappedByteBuffer[] segments, long length) {
+      this.segments = segments;
+      this.length = length;
+    }
+
+    private byte get(long position) {
+      return segments[(int) (position >>> SEGMENT_SHIFT)]
+          .get((int) (position & (SEGMENT_SIZE - 1)));
+    }
+
+    private byte[] copy(long from, long to) {
+      byte[] bytes = new byte[(int) (to - from)];
+      int offset = 0;
+      long position = from;
+      while (position < to) {
+        MappedByteBuffer segment = segments[(int) (position >>> SEGMENT_SHIFT)];
+        int index = (int) (position & (SEGMENT_SIZE - 1));
+        int count = (int) Math.min(to - position, segment.limit() - index);
+        segment.get(index, bytes, offset, count);
+        offset += count;
+        position += count;
+      }
+      return bytes;
+    }
+
+    private int size() {
+      return size;
+    }
+
+    private byte[] getFeature(int index) {
+      return copy(features[2 * index], features[2 * index + 1]);
+    }
+
+    private byte[] getMembers() {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      out.write('{');
+      for (int i = 0; i < membersSize; i++) {
+        if (i > 0) {
+          out.write(',');
+        }
+        out.writeBytes(copy(members[2 * i], members[2 * i + 1]));
+      }
+      out.write('}');
+      return out.toByteArray();
+    }
+
+    private static long[] add(long[] ranges, int index, long from, long to) {
+      long[] result = 2 * index + 2 > ranges.length
+          ? Arrays.copyOf(ranges, ranges.length * 2)
+          : ranges;
+      result[2 * index] = from;
+      result[2 * index + 1] = to;
+      return result;
+    }
+
+    private boolean isFeaturesName(long from, long to) {
+      if (to - from != FEATURES_NAME.length) {
+        return false;
+      }
+      for (int i = 0; i < FEATURES_NAME.length; i++) {
+        if (get(from + i) != FEATURES_NAME[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Scans the file once and finds the boundaries of the features and the members.
+     *
+     * @throws IOException if the file is not a json object
+     */
+    private void scan() throws IOException {
+      int depth = 0;
+      boolean inString = false;
+      boolean escape = false;
+      boolean expectName = false;
+      boolean inName = false;
+      long nameStart = -1L;
+      long memberStart = -1L;
+      boolean featuresMember = false;
+      boolean inFeatures = false;
+      long featureStart = -1L;
+      for (long position = 0; position < length; position++) {
+        byte b = get(position);
+        if (inString) {
+          if (escape) {
+            escape = false;
+          } else if (b == '\\') {
+            escape = true;
+          } else if (b == '"') {
+            inString = false;
+            if (inName) {
+              inName = false;
+              featuresMember = isFeaturesName(nameStart + 1, position);
+            }
+          }
+          continue;
+        }
+        switch (b) {
+          case '"' -> {
+            inString = true;
+            if (depth == 1 && expectName) {
+              expectName = false;
+              inName = true;
+              nameStart = position;
+              memberStart = position;
+            }
+          }
+          case '{', '[' -> {
+            if (depth == 0 && b != '{') {
+              throw new IOException("A feature collection must be a json object.");
+            }
+            if (depth == 0) {
+              expectName = true;
+            } else if (depth == 1 && featuresMember && b == '[') {
+              inFeatures = true;
+            } else if (depth == 2 && inFeatures && b == '{') {
+              featureStart = position;
+            }
+            depth++;
+          }
+          case '}', ']' -> {
+            depth--;
+            if (depth == 2 && inFeatures && b == '}') {
+              features = add(features, size++, featureStart, position + 1);
+            } else if (depth == 1 && inFeatures) {
+              inFeatures = false;
+            } else if (depth == 0) {
+              if (memberStart >= 0 && !featuresMember) {
+                members = add(members, membersSize++, memberStart, position);
+              }
+              return;
+            }
+          }
+          case ',' -> {
+            if (depth == 1) {
+              if (memberStart >= 0 && !featuresMember) {
+                members = add(members, membersSize++, memberStart, position);
+              }
+              memberStart = -1L;
+              featuresMember = false;
+              expectName = true;
+            }
+          }
+          default -> {
+            if (depth == 2 && inFeatures && b != ' ' && b != '\t' && b != '\r' && b != '\n'
+                && b != 'n' && b != 'u' && b != 'l') {
+              throw new IOException(String.format(
+                  "Unexpected character '%s' at position %d, expected a feature.",
+                  (char) b, position));
+            }
+          }
+        }
+      }
+      throw new IOException("Unexpected end of the feature collection.");
+    }
+  }
+
+}
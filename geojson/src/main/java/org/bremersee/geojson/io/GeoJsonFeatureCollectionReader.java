@@ -0,0 +1,304 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.GeoJsonConstants.CRS;
+import static org.bremersee.geojson.GeoJsonConstants.FEATURES;
+import static org.bremersee.geojson.GeoJsonConstants.FEATURE_COLLECTION;
+import static org.bremersee.geojson.GeoJsonConstants.TYPE;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.crs.AbstractGeoJsonCrs;
+import org.bremersee.geojson.model.UnknownAware;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A reader of a GeoJSON feature collection, that reads the features one by one.
+ *
+ * <p>The members of the feature collection are read until the {@code features} array is
+ * reached. Then each call of {@link #next()} reads exactly one feature from the underlying
+ * parser, so the memory usage doesn't depend on the number of features. The bounding box, the
+ * coordinate reference system and the unknown members are available as soon as they have been
+ * read; members that follow the {@code features} array are available when all features have been
+ * read.
+ *
+ * <p>The members are read like the ones of a {@link GeoJsonFeatureCollection}, so the bounding
+ * box is transformed, if the object mapper reprojects the positions (see
+ * {@link org.bremersee.geojson.GeoJsonObjectMapperModule}). The features are read with the
+ * coordinate reference system of the {@code crs} member of the collection, if it precedes the
+ * {@code features} array.
+ *
+ * <p>The reader is not thread safe and should be closed after usage.
+ *
+ * @param <G> the geometry type parameter
+ * @param <P> the properties type parameter
+ * @author Christian Bremer
+ */
+public class GeoJsonFeatureCollectionReader<G extends Geometry, P> extends UnknownAware
+    implements Iterator<GeoJsonFeature<G, P>>, Closeable {
+
+  private final ObjectMapper objectMapper;
+
+  private final JsonParser parser;
+
+  private final ObjectReader collectionFeatureReader;
+
+  private ObjectReader featureReader;
+
+  private double[] bbox;
+
+  private AbstractGeoJsonCrs crs;
+
+  private GeoJsonFeature<G, P> next;
+
+  private boolean finished;
+
+  /**
+   * Instantiates a new geo json feature collection reader.
+   *
+   * @param objectMapper the object mapper
+   * @param inputStream the input stream
+   * @param featureType the feature type
+   * @throws IOException if the feature collection cannot be read
+   */
+  public GeoJsonFeatureCollectionReader(
+      ObjectMapper objectMapper,
+      InputStream inputStream,
+      TypeReference<GeoJsonFeature<G, P>> featureType) throws IOException {
+
+    this(
+        objectMapper,
+        objectMapper.createParser(inputStream),
+        objectMapper.getTypeFactory().constructType(featureType));
+  }
+
+  /**
+   * Instantiates a new geo json feature collection reader.
+   *
+   * @param objectMapper the object mapper
+   * @param reader the reader
+   * @param featureType the feature type
+   * @throws IOException if the feature collection cannot be read
+   */
+  public GeoJsonFeatureCollectionReader(
+      ObjectMapper objectMapper,
+      Reader reader,
+      TypeReference<GeoJsonFeature<G, P>> featureType) throws IOException {
+
+    this(
+        objectMapper,
+        objectMapper.createParser(reader),
+        objectMapper.getTypeFactory().constructType(featureType));
+  }
+
+  /**
+   * Instantiates a new geo json feature collection reader. The parser must be positioned before
+   * or at the start of the feature collection object.
+   *
+   * @param objectMapper the object mapper
+   * @param parser the parser
+   * @param featureType the feature type
+   * @throws IOException if the feature collection cannot be read
+   */
+  public GeoJsonFeatureCollectionReader(
+      ObjectMapper objectMapper,
+      JsonParser parser,
+      JavaType featureType) throws IOException {
+
+    if (isNull(objectMapper) || isNull(parser) || isNull(featureType)) {
+      throw new IllegalArgumentException("Object mapper, parser and feature type must be present.");
+    }
+    this.objectMapper = objectMapper;
+    this.parser = parser;
+    this.collectionFeatureReader = objectMapper.readerFor(featureType);
+    this.featureReader = collectionFeatureReader;
+    JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+    if (token != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, String
+          .format("Unexpected token [%s], expected a feature collection object.", token));
+    }
+    readMembers();
+  }
+
+  /**
+   * Reads the members of the feature collection object until the features array or the end of
+   * the object is reached.
+   *
+   * @throws IOException if the members cannot be read
+   */
+  private void readMembers() throws IOException {
+    TokenBuffer members = new TokenBuffer(parser);
+    members.writeStartObject();
+    members.writeStringField(TYPE, FEATURE_COLLECTION);
+    if (nonNull(crs)) {
+      members.writeFieldName(CRS);
+      objectMapper.writeValue(members, crs);
+    }
+    JsonToken token;
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      String name = parser.currentName();
+      JsonToken valueToken = parser.nextToken();
+      if (FEATURES.equals(name) && valueToken == JsonToken.START_ARRAY) {
+        break;
+      } else if (FEATURES.equals(name) && valueToken != JsonToken.VALUE_NULL) {
+        throw new JsonParseException(parser, "Features must be an array.");
+      } else if (TYPE.equals(name)) {
+        if (!FEATURE_COLLECTION.equals(parser.getValueAsString())) {
+          throw new JsonParseException(parser, String
+              .format("Type must be '%s'.", FEATURE_COLLECTION));
+        }
+      } else if (!FEATURES.equals(name)) {
+        members.writeFieldName(name);
+        members.copyCurrentStructure(parser);
+      }
+    }
+    if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+      throw new JsonParseException(parser, String
+          .format("Unexpected token [%s] in feature collection.", token));
+    }
+    members.writeEndObject();
+    readMembers(members);
+    finished = token == JsonToken.END_OBJECT;
+  }
+
+  /**
+   * Reads the buffered members like the members of a feature collection, so that the bounding
+   * box is transformed with the coordinate reference system of the collection.
+   *
+   * @param members the buffered members
+   * @throws IOException if the members cannot be read
+   */
+  private void readMembers(TokenBuffer members) throws IOException {
+    GeoJsonFeatureCollection<?, ?> collection;
+    try (JsonParser membersParser = members.asParser(objectMapper)) {
+      collection = objectMapper.readValue(membersParser, GeoJsonFeatureCollection.class);
+    }
+    if (nonNull(collection.getBbox())) {
+      bbox = collection.getBbox();
+    }
+    crs = collection.getCrs();
+    featureReader = isNull(crs)
+        ? collectionFeatureReader
+        : collectionFeatureReader.withAttribute(AbstractGeoJsonCrs.class, crs);
+    if (collection.hasUnknown()) {
+      collection.unknown().forEach(this::unknown);
+    }
+  }
+
+  /**
+   * Returns the bounding box of the feature collection, if it has been read yet.
+   *
+   * @return the bounding box or {@code null}
+   */
+  public double[] getBbox() {
+    return bbox;
+  }
+
+  /**
+   * Returns the coordinate reference system of the feature collection, if it has been read yet.
+   *
+   * @return the coordinate reference system or {@code null}
+   */
+  public AbstractGeoJsonCrs getCrs() {
+    return crs;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (nonNull(next)) {
+      return true;
+    }
+    try {
+      while (!finished) {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+          readMembers();
+        } else if (token == JsonToken.START_OBJECT) {
+          next = featureReader.readValue(parser);
+          return true;
+        } else if (token != JsonToken.VALUE_NULL) {
+          throw new JsonParseException(parser, String
+              .format("Unexpected token [%s], expected a feature.", token));
+        }
+      }
+      return false;
+
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public GeoJsonFeature<G, P> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException("There are no more features.");
+    }
+    GeoJsonFeature<G, P> feature = next;
+    next = null;
+    return feature;
+  }
+
+  /**
+   * Returns a sequential stream of the remaining features. Closing the stream closes this
+   * reader.
+   *
+   * @return the stream of features
+   */
+  public Stream<GeoJsonFeature<G, P>> stream() {
+    return StreamSupport
+        .stream(Spliterators.spliteratorUnknownSize(
+            this,
+            Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(() -> {
+          try {
+            close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  @Override
+  public void close() throws IOException {
+    finished = true;
+    next = null;
+    parser.close();
+  }
+
+}
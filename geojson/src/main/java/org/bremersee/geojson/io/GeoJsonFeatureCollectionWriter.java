@@ -0,0 +1,268 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.GeoJsonConstants.BBOX;
+import static org.bremersee.geojson.GeoJsonConstants.CRS;
+import static org.bremersee.geojson.GeoJsonConstants.FEATURES;
+import static org.bremersee.geojson.GeoJsonConstants.FEATURE_COLLECTION;
+import static org.bremersee.geojson.GeoJsonConstants.TYPE;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.crs.AbstractGeoJsonCrs;
+
+/**
+ * A writer of a GeoJSON feature collection, that writes the features one by one.
+ *
+ * <p>The start of the feature collection is written, when the writer is created. Each feature
+ * is written immediately with the object mapper (and so with the geometry serializer of its
+ * module), so the features don't have to be collected before. The end of the feature collection
+ * is written, when the writer is closed.
+ *
+ * <p>A bounding box can be given at creation, then it is written before the features and the
+ * output is the same as the serialization of a
+ * {@link org.bremersee.geojson.GeoJsonFeatureCollection}. Alternatively the bounding box can be
+ * calculated from the written features; then it is written after the features.
+ *
+ * <p>A coordinate reference system can be given at creation, then it is written as {@code crs}
+ * member before the features. If the object mapper reprojects the positions (see
+ * {@link org.bremersee.geojson.GeoJsonObjectMapperModule}), the geometries and bounding boxes of
+ * the features and the bounding box of the collection are transformed into it.
+ *
+ * <p>The writer is not thread safe.
+ *
+ * @author Christian Bremer
+ */
+public class GeoJsonFeatureCollectionWriter implements Closeable, Flushable {
+
+  private final JsonGenerator generator;
+
+  private final ObjectWriter featureWriter;
+
+  private final boolean calculateBoundingBox;
+
+  private double[] bbox;
+
+  private boolean closed;
+
+  /**
+   * Instantiates a new geo json feature collection writer.
+   *
+   * @param objectMapper the object mapper
+   * @param outputStream the output stream
+   * @param calculateBoundingBox specifies whether the bounding box should be calculated from the
+   *     features and written at the end
+   * @throws IOException if the start of the feature collection cannot be written
+   */
+  public GeoJsonFeatureCollectionWriter(
+      ObjectMapper objectMapper,
+      OutputStream outputStream,
+      boolean calculateBoundingBox) throws IOException {
+
+    this(objectMapper, objectMapper.createGenerator(outputStream), null, calculateBoundingBox);
+  }
+
+  /**
+   * Instantiates a new geo json feature collection writer.
+   *
+   * @param objectMapper the object mapper
+   * @param outputStream the output stream
+   * @param bbox the bounding box, that is written before the features (can be {@code null})
+   * @throws IOException if the start of the feature collection cannot be written
+   */
+  public GeoJsonFeatureCollectionWriter(
+      ObjectMapper objectMapper,
+      OutputStream outputStream,
+      double[] bbox) throws IOException {
+
+    this(objectMapper, objectMapper.createGenerator(outputStream), bbox, false);
+  }
+
+  /**
+   * Instantiates a new geo json feature collection writer.
+   *
+   * @param objectMapper the object mapper
+   * @param writer the writer
+   * @param calculateBoundingBox specifies whether the bounding box should be calculated from the
+   *     features and written at the end
+   * @throws IOException if the start of the feature collection cannot be written
+   */
+  public GeoJsonFeatureCollectionWriter(
+      ObjectMapper objectMapper,
+      Writer writer,
+      boolean calculateBoundingBox) throws IOException {
+
+    this(objectMapper, objectMapper.createGenerator(writer), null, calculateBoundingBox);
+  }
+
+  /**
+   * Instantiates a new geo json feature collection writer.
+   *
+   * @param objectMapper the object mapper
+   * @param generator the json generator
+   * @param bbox the bounding box, that is written before the features (can be {@code null})
+   * @param calculateBoundingBox specifies whether the bounding box should be calculated from the
+   *     features and written at the end; must be {@code false}, if a bounding box is given
+   * @throws IOException if the start of the feature collection cannot be written
+   */
+  public GeoJsonFeatureCollectionWriter(
+      ObjectMapper objectMapper,
+      JsonGenerator generator,
+      double[] bbox,
+      boolean calculateBoundingBox) throws IOException {
+
+    this(objectMapper, generator, null, bbox, calculateBoundingBox);
+  }
+
+  /**
+   * Instantiates a new geo json feature collection writer.
+   *
+   * @param objectMapper the object mapper
+   * @param generator the json generator
+   * @param crs the coordinate reference system of the feature collection (can be {@code null})
+   * @param bbox the bounding box, that is written before the features (can be {@code null})
+   * @param calculateBoundingBox specifies whether the bounding box should be calculated from the
+   *     features and written at the end; must be {@code false}, if a bounding box is given
+   * @throws IOException if the start of the feature collection cannot be written
+   */
+  public GeoJsonFeatureCollectionWriter(
+      ObjectMapper objectMapper,
+      JsonGenerator generator,
+      AbstractGeoJsonCrs crs,
+      double[] bbox,
+      boolean calculateBoundingBox) throws IOException {
+
+    if (isNull(objectMapper) || isNull(generator)) {
+      throw new IllegalArgumentException("Object mapper and generator must be present.");
+    }
+    if (nonNull(bbox) && bbox.length != 4 && bbox.length != 6) {
+      throw new IllegalArgumentException(
+          "Bounding box must be null or must have a length of four or six.");
+    }
+    if (nonNull(bbox) && calculateBoundingBox) {
+      throw new IllegalArgumentException(
+          "Bounding box must be null, if it should be calculated.");
+    }
+    this.generator = generator;
+    ObjectWriter writer = objectMapper.writer()
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.featureWriter = isNull(crs)
+        ? writer
+        : writer.withAttribute(AbstractGeoJsonCrs.class, crs);
+    this.calculateBoundingBox = calculateBoundingBox;
+    generator.writeStartObject();
+    generator.writeStringField(TYPE, FEATURE_COLLECTION);
+    if (nonNull(crs)) {
+      generator.writeFieldName(CRS);
+      featureWriter.writeValue(generator, crs);
+    }
+    if (nonNull(bbox)) {
+      writeBoundingBox(bbox);
+    }
+    generator.writeFieldName(FEATURES);
+    generator.writeStartArray();
+  }
+
+  private void writeBoundingBox(double[] bbox) throws IOException {
+    generator.writeFieldName(BBOX);
+    featureWriter.writeValue(generator, new BoundingBox(bbox));
+  }
+
+  /**
+   * Returns the bounding box of the written features, if it is calculated.
+   *
+   * @return the bounding box or {@code null}
+   */
+  public double[] getBbox() {
+    return isNull(bbox) ? null : bbox.clone();
+  }
+
+  /**
+   * Writes a feature. A {@code null} value is ignored.
+   *
+   * @param feature the feature
+   * @throws IOException if the feature cannot be written
+   */
+  public void write(GeoJsonFeature<?, ?> feature) throws IOException {
+    if (closed) {
+      throw new IllegalStateException("Writer is closed.");
+    }
+    if (nonNull(feature)) {
+      featureWriter.writeValue(generator, feature);
+      if (calculateBoundingBox) {
+        bbox = GeoJsonGeometryFactory.mergeBoundingBoxes(
+            bbox,
+            GeoJsonGeometryFactory.getBoundingBox(feature.getGeometry()));
+      }
+    }
+  }
+
+  /**
+   * Writes all features.
+   *
+   * @param features the features
+   * @throws IOException if a feature cannot be written
+   */
+  public void writeAll(Iterable<? extends GeoJsonFeature<?, ?>> features) throws IOException {
+    if (nonNull(features)) {
+      for (GeoJsonFeature<?, ?> feature : features) {
+        write(feature);
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    generator.flush();
+  }
+
+  /**
+   * Writes the end of the feature collection (with the calculated bounding box) and closes the
+   * json generator.
+   *
+   * @throws IOException if the end of the feature collection cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      generator.writeEndArray();
+      if (nonNull(bbox)) {
+        writeBoundingBox(bbox);
+      }
+      generator.writeEndObject();
+    } finally {
+      generator.close();
+    }
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+/**
+ * The formats of a sequence of GeoJSON texts.
+ *
+ * @author Christian Bremer
+ */
+public enum GeoJsonSequenceFormat {
+
+  /**
+   * GeoJSON text sequence (see
+   * <a href="https://tools.ietf.org/html/rfc8142">rfc8142</a>), each text is preceded by a record
+   * separator (0x1E) and followed by a line feed.
+   */
+  TEXT_SEQUENCE("application/geo+json-seq", (byte) 0x1E),
+
+  /**
+   * Newline delimited GeoJSON, each text is written in one line.
+   */
+  NEWLINE_DELIMITED("application/x-ndjson", (byte) '\n');
+
+  private final String mediaType;
+
+  private final byte delimiter;
+
+  GeoJsonSequenceFormat(String mediaType, byte delimiter) {
+    this.mediaType = mediaType;
+    this.delimiter = delimiter;
+  }
+
+  /**
+   * Gets media type.
+   *
+   * @return the media type
+   */
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Gets the byte, that separates the texts.
+   *
+   * @return the delimiter
+   */
+  byte getDelimiter() {
+    return delimiter;
+  }
+
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A reader of a GeoJSON text sequence (see
+ * <a href="https://tools.ietf.org/html/rfc8142">rfc8142</a>) or of newline delimited GeoJSON.
+ *
+ * <p>The input is split into texts at the delimiter of the format. Because a JSON text can't
+ * contain an unescaped record separator or line feed, no parsing is necessary for this. The texts
+ * are parsed into features either in the calling thread or, if an executor is given, in parallel
+ * by the executor. In the latter case a limited number of texts is read ahead, and the features
+ * are returned in the order of the input.
+ *
+ * <p>The reader is not thread safe and should be closed after usage.
+ *
+ * @param <G> the geometry type parameter
+ * @param <P> the properties type parameter
+ * @author Christian Bremer
+ */
+public class GeoJsonSequenceReader<G extends Geometry, P>
+    implements Iterator<GeoJsonFeature<G, P>>, Closeable {
+
+  /**
+   * The default number of texts, that are read ahead and parsed in parallel.
+   */
+  public static final int DEFAULT_READ_AHEAD = 256;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final InputStream inputStream;
+
+  private final ObjectReader featureReader;
+
+  private final byte delimiter;
+
+  private final Executor executor;
+
+  private final int readAhead;
+
+  private final Deque<CompletableFuture<GeoJsonFeature<G, P>>> pending = new ArrayDeque<>();
+
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  private int position;
+
+  private int limit;
+
+  private byte[] text = new byte[1024];
+
+  private boolean endOfInput;
+
+  private GeoJsonFeature<G, P> next;
+
+  /**
+   * Instantiates a new geo json sequence reader, that parses the texts in the calling thread.
+   *
+   * @param objectMapper the object mapper
+   * @param inputStream the input stream
+   * @param featureType the feature type
+   * @param format the format
+   */
+  public GeoJsonSequenceReader(
+      ObjectMapper objectMapper,
+      InputStream inputStream,
+      TypeReference<GeoJsonFeature<G, P>> featureType,
+      GeoJsonSequenceFormat format) {
+
+    this(
+        objectMapper,
+        inputStream,
+        objectMapper.getTypeFactory().constructType(featureType),
+        format,
+        null,
+        DEFAULT_READ_AHEAD);
+  }
+
+  /**
+   * Instantiates a new geo json sequence reader, that parses the texts in parallel with the
+   * given executor.
+   *
+   * @param objectMapper the object mapper
+   * @param inputStream the input stream
+   * @param featureType the feature type
+   * @param format the format
+   * @param executor the executor, that parses the texts; if it is {@code null}, the texts are
+   *     parsed in the calling thread
+   */
+  public GeoJsonSequenceReader(
+      ObjectMapper objectMapper,
+      InputStream inputStream,
+      TypeReference<GeoJsonFeature<G, P>> featureType,
+      GeoJsonSequenceFormat format,
+      Executor executor) {
+
+    this(
+        objectMapper,
+        inputStream,
+        objectMapper.getTypeFactory().constructType(featureType),
+        format,
+        executor,
+        DEFAULT_READ_AHEAD);
+  }
+
+  /**
+   * Instantiates a new geo json sequence reader.
+   *
+   * @param objectMapper the object mapper
+   * @param inputStream the input stream
+   * @param featureType the feature type
+   * @param format the format
+   * @param executor the executor, that parses the texts; if it is {@code null}, the texts are
+   *     parsed in the calling thread
+   * @param readAhead the maximum number of texts, that are read ahead and parsed in parallel
+   */
+  public GeoJsonSequenceReader(
+      ObjectMapper objectMapper,
+      InputStream inputStream,
+      JavaType featureType,
+      GeoJsonSequenceFormat format,
+      Executor executor,
+      int readAhead) {
+
+    if (isNull(objectMapper) || isNull(inputStream) || isNull(featureType) || isNull(format)) {
+      throw new IllegalArgumentException(
+          "Object mapper, input stream, feature type and format must be present.");
+    }
+    if (readAhead < 1) {
+      throw new IllegalArgumentException("Read ahead must be greater than zero.");
+    }
+    this.inputStream = inputStream;
+    this.featureReader = objectMapper.readerFor(featureType);
+    this.delimiter = format.getDelimiter();
+    this.executor = executor;
+    this.readAhead = readAhead;
+  }
+
+  @Override
+  public boolean hasNext() {
+    try {
+      while (isNull(next)) {
+        if (isNull(executor)) {
+          byte[] json = readText();
+          if (isNull(json)) {
+            return false;
+          }
+          next = parse(json);
+        } else {
+          while (pending.size() < readAhead && !endOfInput) {
+            byte[] json = readText();
+            if (nonNull(json)) {
+              pending.add(CompletableFuture.supplyAsync(() -> parseUnchecked(json), executor));
+            }
+          }
+          if (pending.isEmpty()) {
+            return false;
+          }
+          next = pending.poll().get();
+        }
+      }
+      return true;
+
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause()
+          : e.getCause();
+      if (cause instanceof UncheckedIOException uncheckedIoException) {
+        throw uncheckedIoException;
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Parsing GeoJSON text failed.", cause);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UncheckedIOException(new InterruptedIOException("Reading was interrupted."));
+    }
+  }
+
+  @Override
+  public GeoJsonFeature<G, P> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException("There are no more features.");
+    }
+    GeoJsonFeature<G, P> feature = next;
+    next = null;
+    return feature;
+  }
+
+  private GeoJsonFeature<G, P> parse(byte[] json) throws IOException {
+    return featureReader.readValue(json);
+  }
+
+  private GeoJsonFeature<G, P> parseUnchecked(byte[] json) {
+    try {
+      return parse(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads the next text, that is not blank.
+   *
+   * @return the next text or {@code null} if the end of the input is reached
+   * @throws IOException if reading fails
+   */
+  private byte[] readText() throws IOException {
+    while (!endOfInput) {
+      int length = 0;
+      boolean blank = true;
+      boolean delimited = false;
+      while (!delimited) {
+        if (position == limit) {
+          limit = inputStream.read(buffer, 0, buffer.length);
+          position = 0;
+          if (limit < 0) {
+            limit = 0;
+            endOfInput = true;
+            break;
+          }
+        }
+        int start = position;
+        while (position < limit && buffer[position] != delimiter) {
+          byte b = buffer[position++];
+          blank = blank && (b == ' ' || b == '\t' || b == '\r' || b == '\n');
+        }
+        int count = position - start;
+        if (length + count > text.length) {
+          text = Arrays.copyOf(text, Math.max(text.length * 2, length + count));
+        }
+        System.arraycopy(buffer, start, text, length, count);
+        length += count;
+        if (position < limit) {
+          position++;
+          delimited = true;
+        }
+      }
+      if (!blank) {
+        return Arrays.copyOf(text, length);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns a sequential stream of the remaining features. Closing the stream closes this
+   * reader.
+   *
+   * @return the stream of features
+   */
+  public Stream<GeoJsonFeature<G, P>> stream() {
+    return StreamSupport
+        .stream(Spliterators.spliteratorUnknownSize(
+            this,
+            Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(() -> {
+          try {
+            close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  @Override
+  public void close() throws IOException {
+    endOfInput = true;
+    next = null;
+    pending.forEach(future -> future.cancel(false));
+    pending.clear();
+    inputStream.close();
+  }
+
+}
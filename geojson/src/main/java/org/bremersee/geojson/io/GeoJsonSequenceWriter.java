@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.bremersee.geojson.GeoJsonFeature;
+
+/**
+ * A writer of a GeoJSON text sequence (see
+ * <a href="https://tools.ietf.org/html/rfc8142">rfc8142</a>) or of newline delimited GeoJSON.
+ * Each feature is written as one text without indentation.
+ *
+ * <p>The writer is not thread safe.
+ *
+ * @author Christian Bremer
+ */
+public class GeoJsonSequenceWriter implements Closeable, Flushable {
+
+  private static final char RECORD_SEPARATOR = '\u001e';
+
+  private final JsonGenerator generator;
+
+  private final ObjectWriter featureWriter;
+
+  private final GeoJsonSequenceFormat format;
+
+  private boolean closed;
+
+  /**
+   * Instantiates a new geo json sequence writer.
+   *
+   * @param objectMapper the object mapper
+   * @param outputStream the output stream
+   * @param format the format
+   * @throws IOException if the json generator cannot be created
+   */
+  public GeoJsonSequenceWriter(
+      ObjectMapper objectMapper,
+      OutputStream outputStream,
+      GeoJsonSequenceFormat format) throws IOException {
+
+    if (isNull(objectMapper) || isNull(outputStream) || isNull(format)) {
+      throw new IllegalArgumentException(
+          "Object mapper, output stream and format must be present.");
+    }
+    this.generator = objectMapper.getFactory().createGenerator(outputStream);
+    this.generator.setRootValueSeparator(null);
+    this.featureWriter = objectMapper.writer()
+        .without(SerializationFeature.INDENT_OUTPUT)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.format = format;
+  }
+
+  /**
+   * Writes a feature as one text of the sequence. A {@code null} value is ignored.
+   *
+   * @param feature the feature
+   * @throws IOException if the feature cannot be written
+   */
+  public void write(GeoJsonFeature<?, ?> feature) throws IOException {
+    if (closed) {
+      throw new IllegalStateException("Writer is closed.");
+    }
+    if (nonNull(feature)) {
+      if (format == GeoJsonSequenceFormat.TEXT_SEQUENCE) {
+        generator.writeRaw(RECORD_SEPARATOR);
+      }
+      featureWriter.writeValue(generator, feature);
+      generator.writeRaw('\n');
+    }
+  }
+
+  /**
+   * Writes all features.
+   *
+   * @param features the features
+   * @throws IOException if a feature cannot be written
+   */
+  public void writeAll(Iterable<? extends GeoJsonFeature<?, ?>> features) throws IOException {
+    if (nonNull(features)) {
+      for (GeoJsonFeature<?, ?> feature : features) {
+        write(feature);
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    generator.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    generator.close();
+  }
+
+}
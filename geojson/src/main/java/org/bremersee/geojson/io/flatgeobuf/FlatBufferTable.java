@@ -0,0 +1,218 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read only view of a table of the FlatBuffers binary format. The buffer must be in little
+ * endian byte order; the position of the table is absolute.
+ *
+ * @author Christian Bremer
+ */
+class FlatBufferTable {
+
+  private final ByteBuffer buffer;
+
+  private final int position;
+
+  private final int vtable;
+
+  private final int vtableSize;
+
+  /**
+   * Instantiates a new flat buffer table.
+   *
+   * @param buffer the buffer
+   * @param position the absolute position of the table
+   */
+  FlatBufferTable(ByteBuffer buffer, int position) {
+    this.buffer = buffer;
+    this.position = position;
+    this.vtable = position - buffer.getInt(position);
+    this.vtableSize = Short.toUnsignedInt(buffer.getShort(vtable));
+  }
+
+  /**
+   * Returns the root table of a size prefixed buffer, that starts at the given position.
+   *
+   * @param buffer the buffer
+   * @param position the position of the size prefix
+   * @return the root table
+   */
+  static FlatBufferTable sizePrefixedRoot(ByteBuffer buffer, int position) {
+    return new FlatBufferTable(buffer, position + 4 + buffer.getInt(position + 4));
+  }
+
+  private int offset(int index) {
+    int vtableOffset = 4 + 2 * index;
+    return vtableOffset < vtableSize
+        ? Short.toUnsignedInt(buffer.getShort(vtable + vtableOffset))
+        : 0;
+  }
+
+  /**
+   * Determines whether the field is present.
+   *
+   * @param index the field index
+   * @return {@code true} if the field is present, otherwise {@code false}
+   */
+  boolean has(int index) {
+    return offset(index) != 0;
+  }
+
+  /**
+   * Gets an unsigned byte field.
+   *
+   * @param index the field index
+   * @param defaultValue the default value
+   * @return the value
+   */
+  int getUnsignedByte(int index, int defaultValue) {
+    int offset = offset(index);
+    return offset == 0 ? defaultValue : Byte.toUnsignedInt(buffer.get(position + offset));
+  }
+
+  /**
+   * Gets a bool field.
+   *
+   * @param index the field index
+   * @param defaultValue the default value
+   * @return the value
+   */
+  boolean getBool(int index, boolean defaultValue) {
+    int offset = offset(index);
+    return offset == 0 ? defaultValue : buffer.get(position + offset) != 0;
+  }
+
+  /**
+   * Gets an unsigned short field.
+   *
+   * @param index the field index
+   * @param defaultValue the default value
+   * @return the value
+   */
+  int getUnsignedShort(int index, int defaultValue) {
+    int offset = offset(index);
+    return offset == 0 ? defaultValue : Short.toUnsignedInt(buffer.getShort(position + offset));
+  }
+
+  /**
+   * Gets an int field.
+   *
+   * @param index the field index
+   * @param defaultValue the default value
+   * @return the value
+   */
+  int getInt(int index, int defaultValue) {
+    int offset = offset(index);
+    return offset == 0 ? defaultValue : buffer.getInt(position + offset);
+  }
+
+  /**
+   * Gets a long field.
+   *
+   * @param index the field index
+   * @param defaultValue the default value
+   * @return the value
+   */
+  long getLong(int index, long defaultValue) {
+    int offset = offset(index);
+    return offset == 0 ? defaultValue : buffer.getLong(position + offset);
+  }
+
+  private int indirect(int index) {
+    int offset = offset(index);
+    if (offset == 0) {
+      return 0;
+    }
+    int field = position + offset;
+    return field + buffer.getInt(field);
+  }
+
+  /**
+   * Gets a string field.
+   *
+   * @param index the field index
+   * @return the value or {@code null}
+   */
+  String getString(int index) {
+    int vector = indirect(index);
+    if (vector == 0) {
+      return null;
+    }
+    byte[] bytes = new byte[buffer.getInt(vector)];
+    buffer.get(vector + 4, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Gets a table field.
+   *
+   * @param index the field index
+   * @return the table or {@code null}
+   */
+  FlatBufferTable getTable(int index) {
+    int table = indirect(index);
+    return table == 0 ? null : new FlatBufferTable(buffer, table);
+  }
+
+  /**
+   * Gets the length of a vector field.
+   *
+   * @param index the field index
+   * @return the length of the vector (zero, if the field is not present)
+   */
+  int getVectorLength(int index) {
+    int vector = indirect(index);
+    return vector == 0 ? 0 : buffer.getInt(vector);
+  }
+
+  /**
+   * Gets the absolute position of the first element of a vector field.
+   *
+   * @param index the field index
+   * @return the position of the first element (zero, if the field is not present)
+   */
+  int getVectorStart(int index) {
+    int vector = indirect(index);
+    return vector == 0 ? 0 : vector + 4;
+  }
+
+  /**
+   * Gets an element of a vector of tables.
+   *
+   * @param index the field index
+   * @param element the index of the element
+   * @return the table
+   */
+  FlatBufferTable getVectorTable(int index, int element) {
+    int slot = getVectorStart(index) + 4 * element;
+    return new FlatBufferTable(buffer, slot + buffer.getInt(slot));
+  }
+
+  /**
+   * Gets the buffer.
+   *
+   * @return the buffer
+   */
+  ByteBuffer getBuffer() {
+    return buffer;
+  }
+
+}
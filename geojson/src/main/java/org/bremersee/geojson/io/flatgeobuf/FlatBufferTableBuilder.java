@@ -0,0 +1,315 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A builder of a table of the FlatBuffers binary format (see
+ * <a href="https://flatbuffers.dev/flatbuffers_internals.html">FlatBuffers internals</a>).
+ *
+ * <p>The fields are collected and then the table is written from front to back: the vtable
+ * first, then the inline fields of the table and then the referenced strings, vectors and
+ * tables. So all offsets point forward as the format requires. Every value is aligned to its
+ * size relative to the start of the buffer.
+ *
+ * @author Christian Bremer
+ */
+class FlatBufferTableBuilder {
+
+  private final List<Field> fields = new ArrayList<>();
+
+  /**
+   * Adds a byte field (like a bool or an enum of type ubyte).
+   *
+   * @param index the field index
+   * @param value the value
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addByte(int index, int value) {
+    return add(index, 1, (byte) value);
+  }
+
+  /**
+   * Adds a bool field.
+   *
+   * @param index the field index
+   * @param value the value
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addBool(int index, boolean value) {
+    return add(index, 1, (byte) (value ? 1 : 0));
+  }
+
+  /**
+   * Adds a short field.
+   *
+   * @param index the field index
+   * @param value the value
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addShort(int index, int value) {
+    return add(index, 2, (short) value);
+  }
+
+  /**
+   * Adds an int field.
+   *
+   * @param index the field index
+   * @param value the value
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addInt(int index, int value) {
+    return add(index, 4, value);
+  }
+
+  /**
+   * Adds a long field.
+   *
+   * @param index the field index
+   * @param value the value
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addLong(int index, long value) {
+    return add(index, 8, value);
+  }
+
+  /**
+   * Adds a string field.
+   *
+   * @param index the field index
+   * @param value the value
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addString(int index, String value) {
+    return add(index, 4, value.getBytes(StandardCharsets.UTF_8), true);
+  }
+
+  /**
+   * Adds a vector of unsigned bytes.
+   *
+   * @param index the field index
+   * @param values the values
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addBytes(int index, byte[] values) {
+    return add(index, 4, values, false);
+  }
+
+  /**
+   * Adds a vector of unsigned ints.
+   *
+   * @param index the field index
+   * @param values the values
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addInts(int index, int[] values) {
+    return add(index, 4, values);
+  }
+
+  /**
+   * Adds a vector of doubles.
+   *
+   * @param index the field index
+   * @param values the values
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addDoubles(int index, double[] values) {
+    return add(index, 4, values);
+  }
+
+  /**
+   * Adds a table.
+   *
+   * @param index the field index
+   * @param table the table
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addTable(int index, FlatBufferTableBuilder table) {
+    return add(index, 4, table);
+  }
+
+  /**
+   * Adds a vector of tables.
+   *
+   * @param index the field index
+   * @param tables the tables
+   * @return the table builder
+   */
+  FlatBufferTableBuilder addTables(int index, List<FlatBufferTableBuilder> tables) {
+    return add(index, 4, tables.toArray(new FlatBufferTableBuilder[0]));
+  }
+
+  private FlatBufferTableBuilder add(int index, int size, Object value) {
+    return add(index, size, value, false);
+  }
+
+  private FlatBufferTableBuilder add(int index, int size, Object value, boolean string) {
+    fields.add(new Field(index, size, value, string));
+    return this;
+  }
+
+  /**
+   * Builds a size prefixed buffer with this table as root table.
+   *
+   * @return the bytes of the buffer
+   */
+  byte[] buildSizePrefixed() {
+    Output out = new Output();
+    out.position = 8;
+    int table = out.writeTable(this);
+    out.putInt(4, table - 4);
+    out.putInt(0, out.position - 4);
+    return Arrays.copyOf(out.buffer.array(), out.position);
+  }
+
+  private record Field(int index, int size, Object value, boolean string) {
+
+    boolean isReference() {
+      return !(value instanceof Number);
+    }
+  }
+
+  private static class Output {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+    private int position;
+
+    private void ensureCapacity(int length) {
+      if (position + length > buffer.capacity()) {
+        int capacity = Math.max(buffer.capacity() * 2, position + length);
+        buffer = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), capacity))
+            .order(ByteOrder.LITTLE_ENDIAN);
+      }
+    }
+
+    private void align(int alignment, int offset) {
+      int padding = (alignment - ((position + offset) % alignment)) % alignment;
+      ensureCapacity(padding);
+      position += padding;
+    }
+
+    private int reserve(int length) {
+      ensureCapacity(length);
+      int start = position;
+      position += length;
+      return start;
+    }
+
+    private void putInt(int index, int value) {
+      buffer.putInt(index, value);
+    }
+
+    private int writeTable(FlatBufferTableBuilder table) {
+      List<Field> fields = new ArrayList<>(table.fields);
+      fields.sort(Comparator.comparingInt(Field::size).reversed());
+      int numFields = fields.stream().mapToInt(Field::index).max().orElse(-1) + 1;
+      boolean hasLongs = fields.stream().anyMatch(field -> field.size() == 8);
+
+      align(2, 0);
+      int vtable = reserve(4 + 2 * numFields);
+      // the start of the table is followed by the soffset to the vtable
+      align(hasLongs ? 8 : 4, hasLongs ? 4 : 0);
+      int start = reserve(4);
+      putInt(start, start - vtable);
+      int[] offsets = new int[numFields];
+      int[] positions = new int[fields.size()];
+      for (int i = 0; i < fields.size(); i++) {
+        Field field = fields.get(i);
+        align(field.size(), 0);
+        int pos = reserve(field.size());
+        positions[i] = pos;
+        offsets[field.index()] = pos - start;
+        if (field.value() instanceof Byte value) {
+          buffer.put(pos, value);
+        } else if (field.value() instanceof Short value) {
+          buffer.putShort(pos, value);
+        } else if (field.value() instanceof Integer value) {
+          buffer.putInt(pos, value);
+        } else if (field.value() instanceof Long value) {
+          buffer.putLong(pos, value);
+        }
+      }
+      int tableSize = position - start;
+      buffer.putShort(vtable, (short) (4 + 2 * numFields));
+      buffer.putShort(vtable + 2, (short) tableSize);
+      for (int i = 0; i < numFields; i++) {
+        buffer.putShort(vtable + 4 + 2 * i, (short) offsets[i]);
+      }
+      for (int i = 0; i < fields.size(); i++) {
+        Field field = fields.get(i);
+        if (field.isReference()) {
+          int target = writeReference(field);
+          putInt(positions[i], target - positions[i]);
+        }
+      }
+      return start;
+    }
+
+    private int writeReference(Field field) {
+      Object value = field.value();
+      if (value instanceof byte[] bytes) {
+        align(4, 0);
+        int start = reserve(4 + bytes.length + (field.string() ? 1 : 0));
+        putInt(start, bytes.length);
+        buffer.put(start + 4, bytes);
+        if (field.string()) {
+          buffer.put(start + 4 + bytes.length, (byte) 0);
+        }
+        return start;
+      }
+      if (value instanceof int[] ints) {
+        align(4, 0);
+        int start = reserve(4 + 4 * ints.length);
+        putInt(start, ints.length);
+        for (int i = 0; i < ints.length; i++) {
+          putInt(start + 4 + 4 * i, ints[i]);
+        }
+        return start;
+      }
+      if (value instanceof double[] doubles) {
+        align(8, 4);
+        int start = reserve(4 + 8 * doubles.length);
+        putInt(start, doubles.length);
+        for (int i = 0; i < doubles.length; i++) {
+          buffer.putDouble(start + 4 + 8 * i, doubles[i]);
+        }
+        return start;
+      }
+      if (value instanceof FlatBufferTableBuilder table) {
+        return writeTable(table);
+      }
+      FlatBufferTableBuilder[] tables = (FlatBufferTableBuilder[]) value;
+      align(4, 0);
+      int start = reserve(4 + 4 * tables.length);
+      putInt(start, tables.length);
+      for (int i = 0; i < tables.length; i++) {
+        int slot = start + 4 + 4 * i;
+        putInt(slot, writeTable(tables[i]) - slot);
+      }
+      return start;
+    }
+  }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+/**
+ * The constants of the FlatGeobuf format (see
+ * <a href="https://github.com/flatgeobuf/flatgeobuf">FlatGeobuf</a>): the magic bytes, the enums
+ * and the field indexes of the FlatBuffers schemas {@code header.fbs} and {@code feature.fbs}.
+ *
+ * @author Christian Bremer
+ */
+abstract class FlatGeobufConstants {
+
+  /**
+   * The magic bytes (version 3.0.1).
+   */
+  static final byte[] MAGIC_BYTES = {0x66, 0x67, 0x62, 0x03, 0x66, 0x67, 0x62, 0x01};
+
+  /**
+   * The index of the patch version in the magic bytes.
+   */
+  static final int MAGIC_BYTES_PATCH_VERSION = 7;
+
+  /**
+   * The default node size of the packed Hilbert R-tree.
+   */
+  static final int DEFAULT_INDEX_NODE_SIZE = 16;
+
+  // geometry types
+
+  static final int GEOMETRY_TYPE_UNKNOWN = 0;
+
+  static final int GEOMETRY_TYPE_POINT = 1;
+
+  static final int GEOMETRY_TYPE_LINESTRING = 2;
+
+  static final int GEOMETRY_TYPE_POLYGON = 3;
+
+  static final int GEOMETRY_TYPE_MULTI_POINT = 4;
+
+  static final int GEOMETRY_TYPE_MULTI_LINESTRING = 5;
+
+  static final int GEOMETRY_TYPE_MULTI_POLYGON = 6;
+
+  static final int GEOMETRY_TYPE_GEOMETRY_COLLECTION = 7;
+
+  // column types
+
+  static final int COLUMN_TYPE_BYTE = 0;
+
+  static final int COLUMN_TYPE_UBYTE = 1;
+
+  static final int COLUMN_TYPE_BOOL = 2;
+
+  static final int COLUMN_TYPE_SHORT = 3;
+
+  static final int COLUMN_TYPE_USHORT = 4;
+
+  static final int COLUMN_TYPE_INT = 5;
+
+  static final int COLUMN_TYPE_UINT = 6;
+
+  static final int COLUMN_TYPE_LONG = 7;
+
+  static final int COLUMN_TYPE_ULONG = 8;
+
+  static final int COLUMN_TYPE_FLOAT = 9;
+
+  static final int COLUMN_TYPE_DOUBLE = 10;
+
+  static final int COLUMN_TYPE_STRING = 11;
+
+  static final int COLUMN_TYPE_JSON = 12;
+
+  static final int COLUMN_TYPE_DATE_TIME = 13;
+
+  static final int COLUMN_TYPE_BINARY = 14;
+
+  // fields of table Header
+
+  static final int HEADER_NAME = 0;
+
+  static final int HEADER_ENVELOPE = 1;
+
+  static final int HEADER_GEOMETRY_TYPE = 2;
+
+  static final int HEADER_HAS_Z = 3;
+
+  static final int HEADER_COLUMNS = 7;
+
+  static final int HEADER_FEATURES_COUNT = 8;
+
+  static final int HEADER_INDEX_NODE_SIZE = 9;
+
+  static final int HEADER_CRS = 10;
+
+  // fields of table Column
+
+  static final int COLUMN_NAME = 0;
+
+  static final int COLUMN_TYPE = 1;
+
+  // fields of table Crs
+
+  static final int CRS_ORG = 0;
+
+  static final int CRS_CODE = 1;
+
+  static final int CRS_NAME = 2;
+
+  static final int CRS_CODE_STRING = 5;
+
+  // fields of table Geometry
+
+  static final int GEOMETRY_ENDS = 0;
+
+  static final int GEOMETRY_XY = 1;
+
+  static final int GEOMETRY_Z = 2;
+
+  static final int GEOMETRY_TYPE = 6;
+
+  static final int GEOMETRY_PARTS = 7;
+
+  // fields of table Feature
+
+  static final int FEATURE_GEOMETRY = 0;
+
+  static final int FEATURE_PROPERTIES = 1;
+
+  static final int FEATURE_COLUMNS = 2;
+
+  private FlatGeobufConstants() {
+  }
+
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_ENDS;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_PARTS;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_GEOMETRY_COLLECTION;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_LINESTRING;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_MULTI_LINESTRING;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_MULTI_POINT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_MULTI_POLYGON;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_POINT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_POLYGON;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_UNKNOWN;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_XY;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_Z;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Converts JTS geometries into the geometry table of FlatGeobuf and back.
+ *
+ * <p>The coordinates of a geometry are stored as one flat array of x and y values (and
+ * optionally z values); the parts of a multi line string and the rings of a polygon are
+ * separated by their end indexes. Multi polygons and geometry collections consist of parts.
+ *
+ * @author Christian Bremer
+ */
+abstract class FlatGeobufGeometries {
+
+  private FlatGeobufGeometries() {
+  }
+
+  /**
+   * Gets the FlatGeobuf geometry type of the geometry.
+   *
+   * @param geometry the geometry
+   * @return the geometry type
+   */
+  static int getGeometryType(Geometry geometry) {
+    if (geometry instanceof Point) {
+      return GEOMETRY_TYPE_POINT;
+    } else if (geometry instanceof LineString) {
+      return GEOMETRY_TYPE_LINESTRING;
+    } else if (geometry instanceof Polygon) {
+      return GEOMETRY_TYPE_POLYGON;
+    } else if (geometry instanceof MultiPoint) {
+      return GEOMETRY_TYPE_MULTI_POINT;
+    } else if (geometry instanceof MultiLineString) {
+      return GEOMETRY_TYPE_MULTI_LINESTRING;
+    } else if (geometry instanceof MultiPolygon) {
+      return GEOMETRY_TYPE_MULTI_POLYGON;
+    } else if (geometry instanceof GeometryCollection) {
+      return GEOMETRY_TYPE_GEOMETRY_COLLECTION;
+    }
+    throw new IllegalArgumentException(String.format(
+        "Unsupported geometry type: %s", geometry.getGeometryType()));
+  }
+
+  /**
+   * Determines whether the geometry has z values.
+   *
+   * @param geometry the geometry
+   * @return {@code true} if any coordinate of the geometry has a z value, otherwise
+   *     {@code false}
+   */
+  static boolean hasZ(Geometry geometry) {
+    for (int i = 0; i < geometry.getNumGeometries(); i++) {
+      Geometry part = geometry.getGeometryN(i);
+      if (part != geometry) {
+        if (hasZ(part)) {
+          return true;
+        }
+      } else {
+        for (CoordinateSequence sequence : getCoordinateSequences(part)) {
+          for (int j = 0; j < sequence.size(); j++) {
+            if (!Double.isNaN(sequence.getZ(j))) {
+              return true;
+            }
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Creates the geometry table.
+   *
+   * @param geometry the geometry
+   * @return the geometry table
+   */
+  static FlatBufferTableBuilder encode(Geometry geometry) {
+    int type = getGeometryType(geometry);
+    FlatBufferTableBuilder table = new FlatBufferTableBuilder()
+        .addByte(GEOMETRY_TYPE, type);
+    if (type == GEOMETRY_TYPE_MULTI_POLYGON || type == GEOMETRY_TYPE_GEOMETRY_COLLECTION) {
+      List<FlatBufferTableBuilder> parts = new ArrayList<>(geometry.getNumGeometries());
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        parts.add(encode(geometry.getGeometryN(i)));
+      }
+      if (!parts.isEmpty()) {
+        table.addTables(GEOMETRY_PARTS, parts);
+      }
+      return table;
+    }
+    List<CoordinateSequence> sequences = getCoordinateSequences(geometry);
+    int size = sequences.stream().mapToInt(CoordinateSequence::size).sum();
+    if (size == 0) {
+      return table;
+    }
+    boolean hasZ = hasZ(geometry);
+    double[] xy = new double[2 * size];
+    double[] z = hasZ ? new double[size] : null;
+    int[] ends = new int[sequences.size()];
+    int index = 0;
+    for (int i = 0; i < sequences.size(); i++) {
+      CoordinateSequence sequence = sequences.get(i);
+      for (int j = 0; j < sequence.size(); j++, index++) {
+        xy[2 * index] = sequence.getX(j);
+        xy[2 * index + 1] = sequence.getY(j);
+        if (hasZ) {
+          z[index] = sequence.getZ(j);
+        }
+      }
+      ends[i] = index;
+    }
+    if (ends.length > 1
+        && (type == GEOMETRY_TYPE_POLYGON || type == GEOMETRY_TYPE_MULTI_LINESTRING)) {
+      table.addInts(GEOMETRY_ENDS, ends);
+    }
+    table.addDoubles(GEOMETRY_XY, xy);
+    if (hasZ) {
+      table.addDoubles(GEOMETRY_Z, z);
+    }
+    return table;
+  }
+
+  private static List<CoordinateSequence> getCoordinateSequences(Geometry geometry) {
+    List<CoordinateSequence> sequences = new ArrayList<>();
+    if (geometry instanceof Point point) {
+      sequences.add(point.getCoordinateSequence());
+    } else if (geometry instanceof LineString lineString) {
+      sequences.add(lineString.getCoordinateSequence());
+    } else if (geometry instanceof Polygon polygon) {
+      if (!polygon.isEmpty()) {
+        sequences.add(polygon.getExteriorRing().getCoordinateSequence());
+        for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+          sequences.add(polygon.getInteriorRingN(i).getCoordinateSequence());
+        }
+      }
+    } else {
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        sequences.addAll(getCoordinateSequences(geometry.getGeometryN(i)));
+      }
+    }
+    return sequences;
+  }
+
+  /**
+   * Creates the geometry from the geometry table.
+   *
+   * @param table the geometry table
+   * @param type the geometry type of the header; if it is unknown, the type of the table is
+   *     used
+   * @param geometryFactory the geometry factory
+   * @return the geometry
+   */
+  static Geometry decode(FlatBufferTable table, int type, GeometryFactory geometryFactory) {
+    int geometryType = type == GEOMETRY_TYPE_UNKNOWN
+        ? table.getUnsignedByte(GEOMETRY_TYPE, GEOMETRY_TYPE_UNKNOWN)
+        : type;
+    if (geometryType == GEOMETRY_TYPE_MULTI_POLYGON) {
+      Polygon[] polygons = new Polygon[table.getVectorLength(GEOMETRY_PARTS)];
+      for (int i = 0; i < polygons.length; i++) {
+        polygons[i] = (Polygon) decode(
+            table.getVectorTable(GEOMETRY_PARTS, i), GEOMETRY_TYPE_POLYGON, geometryFactory);
+      }
+      return geometryFactory.createMultiPolygon(polygons);
+    }
+    if (geometryType == GEOMETRY_TYPE_GEOMETRY_COLLECTION) {
+      Geometry[] geometries = new Geometry[table.getVectorLength(GEOMETRY_PARTS)];
+      for (int i = 0; i < geometries.length; i++) {
+        geometries[i] = decode(
+            table.getVectorTable(GEOMETRY_PARTS, i), GEOMETRY_TYPE_UNKNOWN, geometryFactory);
+      }
+      return geometryFactory.createGeometryCollection(geometries);
+    }
+    Coordinates coordinates = new Coordinates(table, geometryFactory);
+    int size = coordinates.size();
+    switch (geometryType) {
+      case GEOMETRY_TYPE_POINT:
+        return size == 0
+            ? geometryFactory.createPoint()
+            : geometryFactory.createPoint(coordinates.sequence(0, 1));
+      case GEOMETRY_TYPE_MULTI_POINT:
+        Point[] points = new Point[size];
+        for (int i = 0; i < size; i++) {
+          points[i] = geometryFactory.createPoint(coordinates.sequence(i, i + 1));
+        }
+        return geometryFactory.createMultiPoint(points);
+      case GEOMETRY_TYPE_LINESTRING:
+        return geometryFactory.createLineString(coordinates.sequence(0, size));
+      case GEOMETRY_TYPE_MULTI_LINESTRING:
+        int[] ends = getEnds(table, size);
+        LineString[] lineStrings = new LineString[ends.length];
+        for (int i = 0, start = 0; i < ends.length; start = ends[i++]) {
+          lineStrings[i] = geometryFactory.createLineString(coordinates.sequence(start, ends[i]));
+        }
+        return geometryFactory.createMultiLineString(lineStrings);
+      case GEOMETRY_TYPE_POLYGON:
+        if (size == 0) {
+          return geometryFactory.createPolygon();
+        }
+        int[] rings = getEnds(table, size);
+        LinearRing shell = geometryFactory.createLinearRing(coordinates.sequence(0, rings[0]));
+        LinearRing[] holes = new LinearRing[rings.length - 1];
+        for (int i = 1; i < rings.length; i++) {
+          holes[i - 1] = geometryFactory
+              .createLinearRing(coordinates.sequence(rings[i - 1], rings[i]));
+        }
+        return geometryFactory.createPolygon(shell, holes);
+      default:
+        throw new IllegalArgumentException(String.format(
+            "Unsupported geometry type: %s", geometryType));
+    }
+  }
+
+  private static int[] getEnds(FlatBufferTable table, int size) {
+    int length = table.getVectorLength(GEOMETRY_ENDS);
+    if (length == 0) {
+      return size == 0 ? new int[0] : new int[]{size};
+    }
+    int start = table.getVectorStart(GEOMETRY_ENDS);
+    int[] ends = new int[length];
+    for (int i = 0; i < length; i++) {
+      ends[i] = table.getBuffer().getInt(start + 4 * i);
+    }
+    return ends;
+  }
+
+  /**
+   * The coordinates of a geometry table.
+   */
+  private static class Coordinates {
+
+    private final ByteBuffer buffer;
+
+    private final GeometryFactory geometryFactory;
+
+    private final int xy;
+
+    private final int z;
+
+    private final int size;
+
+    /**
+     * Instantiates new coordinates.
+     *
+     * @param table the geometry table
+     * @param geometryFactory the geometry factory
+     */
+    Coordinates(FlatBufferTable table, GeometryFactory geometryFactory) {
+      this.buffer = table.getBuffer();
+      this.geometryFactory = geometryFactory;
+      this.xy = table.getVectorStart(GEOMETRY_XY);
+      this.size = table.getVectorLength(GEOMETRY_XY) / 2;
+      this.z = table.getVectorLength(GEOMETRY_Z) == size ? table.getVectorStart(GEOMETRY_Z) : 0;
+    }
+
+    int size() {
+      return size;
+    }
+
+    CoordinateSequence sequence(int from, int to) {
+      boolean hasZ = z != 0;
+      CoordinateSequence sequence = geometryFactory.getCoordinateSequenceFactory()
+          .create(to - from, hasZ ? 3 : 2);
+      for (int i = from; i < to; i++) {
+        sequence.setOrdinate(i - from, CoordinateSequence.X, buffer.getDouble(xy + 16 * i));
+        sequence.setOrdinate(i - from, CoordinateSequence.Y, buffer.getDouble(xy + 16 * i + 8));
+        if (hasZ) {
+          sequence.setOrdinate(i - from, CoordinateSequence.Z, buffer.getDouble(z + 8 * i));
+        }
+      }
+      return sequence;
+    }
+  }
+
+}
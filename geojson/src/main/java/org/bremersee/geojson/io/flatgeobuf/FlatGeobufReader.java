@@ -0,0 +1,504 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.crs.GeoJsonCrsConstants.DEFAULT_SPATIAL_AUTHORITY;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_NAME;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_BINARY;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_BOOL;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_BYTE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_DATE_TIME;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_DOUBLE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_FLOAT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_INT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_JSON;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_LONG;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_SHORT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_STRING;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_UBYTE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_UINT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_ULONG;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_USHORT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.CRS_CODE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.CRS_CODE_STRING;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.CRS_NAME;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.CRS_ORG;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.DEFAULT_INDEX_NODE_SIZE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.FEATURE_COLUMNS;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.FEATURE_GEOMETRY;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.FEATURE_PROPERTIES;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_UNKNOWN;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_COLUMNS;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_CRS;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_ENVELOPE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_FEATURES_COUNT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_GEOMETRY_TYPE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_INDEX_NODE_SIZE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_NAME;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.MAGIC_BYTES;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.MAGIC_BYTES_PATCH_VERSION;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+/**
+ * A reader of a FlatGeobuf file (see
+ * <a href="https://github.com/flatgeobuf/flatgeobuf">FlatGeobuf</a>).
+ *
+ * <p>The file is memory mapped, so only the features that are read are loaded from the disk.
+ * If the file has a spatial index (a packed Hilbert R-tree), features can be selected by a
+ * bounding box without reading the other features; otherwise all features are read and
+ * filtered.
+ *
+ * <p>The features are returned as {@link GeoJsonFeature}s with a map of properties and without
+ * id and bounding box. The reader is thread safe and should be closed after usage; the streams
+ * must not be used after the reader is closed.
+ *
+ * @author Christian Bremer
+ */
+public class FlatGeobufReader implements Closeable {
+
+  private static final long SEGMENT_SIZE = 1L << 30;
+
+  private static final long SEGMENT_OVERLAP = 1L << 24;
+
+  private final ObjectMapper objectMapper;
+
+  private final GeometryFactory geometryFactory;
+
+  private final FileChannel channel;
+
+  private final long fileSize;
+
+  private final MappedByteBuffer[] segments;
+
+  private final String name;
+
+  private final double[] bbox;
+
+  private final int geometryType;
+
+  private final String crs;
+
+  private final String[] columnNames;
+
+  private final int[] columnTypes;
+
+  private final long featuresCount;
+
+  private final int indexNodeSize;
+
+  private final ByteBuffer index;
+
+  private final long featuresOffset;
+
+  /**
+   * Instantiates a new FlatGeobuf reader.
+   *
+   * @param objectMapper the object mapper (used for properties of type json)
+   * @param path the path of the file
+   * @throws IOException if the file cannot be opened or if it is not a FlatGeobuf file
+   */
+  public FlatGeobufReader(ObjectMapper objectMapper, Path path) throws IOException {
+    this(objectMapper, path, new GeoJsonGeometryFactory());
+  }
+
+  /**
+   * Instantiates a new FlatGeobuf reader.
+   *
+   * @param objectMapper the object mapper (used for properties of type json)
+   * @param path the path of the file
+   * @param geometryFactory the geometry factory
+   * @throws IOException if the file cannot be opened or if it is not a FlatGeobuf file
+   */
+  public FlatGeobufReader(
+      ObjectMapper objectMapper,
+      Path path,
+      GeometryFactory geometryFactory) throws IOException {
+
+    if (isNull(objectMapper) || isNull(path)) {
+      throw new IllegalArgumentException("Object mapper and path must be present.");
+    }
+    this.objectMapper = objectMapper;
+    this.geometryFactory = isNull(geometryFactory)
+        ? new GeoJsonGeometryFactory()
+        : geometryFactory;
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      this.fileSize = channel.size();
+      this.segments = new MappedByteBuffer[(int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+      ByteBuffer start = slice(0, 12);
+      for (int i = 0; i < MAGIC_BYTES.length; i++) {
+        // files of an older patch version (like 3.0.0) have the same layout
+        if (i == MAGIC_BYTES_PATCH_VERSION
+            ? start.get(i) < 0 || start.get(i) > MAGIC_BYTES[i]
+            : start.get(i) != MAGIC_BYTES[i]) {
+          throw new IOException("File is not a FlatGeobuf file of version 3.");
+        }
+      }
+      int headerSize = start.getInt(8);
+      ByteBuffer headerBuffer = slice(8, 4 + headerSize);
+      FlatBufferTable header = FlatBufferTable.sizePrefixedRoot(headerBuffer, 0);
+      this.name = header.getString(HEADER_NAME);
+      this.bbox = readDoubles(header, HEADER_ENVELOPE);
+      this.geometryType = header.getUnsignedByte(HEADER_GEOMETRY_TYPE, GEOMETRY_TYPE_UNKNOWN);
+      int numColumns = header.getVectorLength(HEADER_COLUMNS);
+      this.columnNames = new String[numColumns];
+      this.columnTypes = new int[numColumns];
+      for (int i = 0; i < numColumns; i++) {
+        FlatBufferTable column = header.getVectorTable(HEADER_COLUMNS, i);
+        columnNames[i] = column.getString(COLUMN_NAME);
+        columnTypes[i] = column.getUnsignedByte(COLUMN_TYPE, COLUMN_TYPE_BYTE);
+      }
+      this.crs = readCrs(header.getTable(HEADER_CRS));
+      this.featuresCount = header.getLong(HEADER_FEATURES_COUNT, 0L);
+      int nodeSize = header.getUnsignedShort(HEADER_INDEX_NODE_SIZE, DEFAULT_INDEX_NODE_SIZE);
+      long indexOffset = 12L + headerSize;
+      if (nodeSize > 1 && featuresCount > 0) {
+        long indexSize = PackedRTree.size(featuresCount, nodeSize);
+        if (indexSize > Integer.MAX_VALUE) {
+          throw new IOException("Spatial index is too large.");
+        }
+        this.indexNodeSize = nodeSize;
+        this.index = channel.map(MapMode.READ_ONLY, indexOffset, indexSize)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        this.featuresOffset = indexOffset + indexSize;
+      } else {
+        this.indexNodeSize = 0;
+        this.index = null;
+        this.featuresOffset = indexOffset;
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static String readCrs(FlatBufferTable table) {
+    if (isNull(table)) {
+      return null;
+    }
+    String org = table.getString(CRS_ORG);
+    int number = table.getInt(CRS_CODE, 0);
+    String code = number != 0 ? String.valueOf(number) : table.getString(CRS_CODE_STRING);
+    if (isNull(code)) {
+      return table.getString(CRS_NAME);
+    }
+    // a missing organization means EPSG
+    return (isNull(org) ? DEFAULT_SPATIAL_AUTHORITY : org) + ':' + code;
+  }
+
+  private static double[] readDoubles(FlatBufferTable table, int field) {
+    int length = table.getVectorLength(field);
+    if (length == 0) {
+      return null;
+    }
+    int start = table.getVectorStart(field);
+    double[] values = new double[length];
+    for (int i = 0; i < length; i++) {
+      values[i] = table.getBuffer().getDouble(start + 8 * i);
+    }
+    return values;
+  }
+
+  /**
+   * Returns the name of the dataset.
+   *
+   * @return the name or {@code null}
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the bounding box of all features.
+   *
+   * @return the bounding box (minX, minY, maxX, maxY) or {@code null}
+   */
+  public double[] getBbox() {
+    return isNull(bbox) ? null : bbox.clone();
+  }
+
+  /**
+   * Returns the coordinate reference system of the features, like {@code EPSG:25832}.
+   *
+   * @return the coordinate reference system or {@code null}, if it is unknown
+   */
+  public String getCrs() {
+    return crs;
+  }
+
+  /**
+   * Returns the number of features.
+   *
+   * @return the number of features
+   */
+  public long getFeaturesCount() {
+    return featuresCount;
+  }
+
+  /**
+   * Determines whether the file has a spatial index.
+   *
+   * @return {@code true} if the file has a spatial index, otherwise {@code false}
+   */
+  public boolean hasIndex() {
+    return nonNull(index);
+  }
+
+  /**
+   * Returns a sequential stream of all features.
+   *
+   * @return the stream of features
+   */
+  public Stream<GeoJsonFeature<Geometry, Map<String, Object>>> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+        new SequentialIterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Returns a stream of the features whose bounding box intersects the given bounding box. If
+   * the file has a spatial index, only the matching features are read.
+   *
+   * @param bbox the bounding box (minX, minY, maxX, maxY or minX, minY, minZ, maxX, maxY, maxZ)
+   * @return the stream of features
+   */
+  public Stream<GeoJsonFeature<Geometry, Map<String, Object>>> stream(double[] bbox) {
+    if (isNull(bbox) || (bbox.length != 4 && bbox.length != 6)) {
+      throw new IllegalArgumentException("Bounding box must have a length of four or six.");
+    }
+    double[] box = bbox.length == 4
+        ? bbox
+        : new double[]{bbox[0], bbox[1], bbox[3], bbox[4]};
+    if (isNull(index)) {
+      Envelope envelope = new Envelope(box[0], box[2], box[1], box[3]);
+      return stream().filter(feature -> nonNull(feature.getGeometry())
+          && envelope.intersects(feature.getGeometry().getEnvelopeInternal()));
+    }
+    long[] offsets = PackedRTree.search(index, featuresCount, indexNodeSize, box);
+    LongFunction<GeoJsonFeature<Geometry, Map<String, Object>>> reader
+        = offset -> readFeature(featuresOffset + offset);
+    return LongStream.of(offsets).mapToObj(reader);
+  }
+
+  private GeoJsonFeature<Geometry, Map<String, Object>> readFeature(long position) {
+    int length = slice(position, 4).getInt(0);
+    ByteBuffer buffer = slice(position, 4 + length);
+    FlatBufferTable feature = FlatBufferTable.sizePrefixedRoot(buffer, 0);
+    FlatBufferTable geometryTable = feature.getTable(FEATURE_GEOMETRY);
+    Geometry geometry = isNull(geometryTable)
+        ? null
+        : FlatGeobufGeometries.decode(geometryTable, geometryType, geometryFactory);
+    return new GeoJsonFeature<>(null, geometry, false, readProperties(feature));
+  }
+
+  private Map<String, Object> readProperties(FlatBufferTable feature) {
+    int length = feature.getVectorLength(FEATURE_PROPERTIES);
+    if (length == 0) {
+      return null;
+    }
+    String[] names = columnNames;
+    int[] types = columnTypes;
+    int numColumns = feature.getVectorLength(FEATURE_COLUMNS);
+    if (numColumns > 0) {
+      names = new String[numColumns];
+      types = new int[numColumns];
+      for (int i = 0; i < numColumns; i++) {
+        FlatBufferTable column = feature.getVectorTable(FEATURE_COLUMNS, i);
+        names[i] = column.getString(COLUMN_NAME);
+        types[i] = column.getUnsignedByte(COLUMN_TYPE, COLUMN_TYPE_BYTE);
+      }
+    }
+    ByteBuffer buffer = feature.getBuffer();
+    int position = feature.getVectorStart(FEATURE_PROPERTIES);
+    int end = position + length;
+    Map<String, Object> properties = new LinkedHashMap<>();
+    while (position < end) {
+      int column = Short.toUnsignedInt(buffer.getShort(position));
+      position += 2;
+      if (column >= names.length) {
+        throw new IllegalStateException(String.format("Illegal column index: %s", column));
+      }
+      Object value;
+      switch (types[column]) {
+        case COLUMN_TYPE_BYTE -> value = buffer.get(position++);
+        case COLUMN_TYPE_UBYTE -> value = Byte.toUnsignedInt(buffer.get(position++));
+        case COLUMN_TYPE_BOOL -> value = buffer.get(position++) != 0;
+        case COLUMN_TYPE_SHORT -> {
+          value = buffer.getShort(position);
+          position += 2;
+        }
+        case COLUMN_TYPE_USHORT -> {
+          value = Short.toUnsignedInt(buffer.getShort(position));
+          position += 2;
+        }
+        case COLUMN_TYPE_INT -> {
+          value = buffer.getInt(position);
+          position += 4;
+        }
+        case COLUMN_TYPE_UINT -> {
+          value = Integer.toUnsignedLong(buffer.getInt(position));
+          position += 4;
+        }
+        case COLUMN_TYPE_LONG -> {
+          value = buffer.getLong(position);
+          position += 8;
+        }
+        case COLUMN_TYPE_ULONG -> {
+          long unsigned = buffer.getLong(position);
+          value = unsigned >= 0
+              ? Long.valueOf(unsigned)
+              : new BigInteger(Long.toUnsignedString(unsigned));
+          position += 8;
+        }
+        case COLUMN_TYPE_FLOAT -> {
+          value = buffer.getFloat(position);
+          position += 4;
+        }
+        case COLUMN_TYPE_DOUBLE -> {
+          value = buffer.getDouble(position);
+          position += 8;
+        }
+        case COLUMN_TYPE_STRING, COLUMN_TYPE_JSON, COLUMN_TYPE_DATE_TIME, COLUMN_TYPE_BINARY -> {
+          byte[] bytes = new byte[buffer.getInt(position)];
+          buffer.get(position + 4, bytes);
+          position += 4 + bytes.length;
+          value = readVariableLengthValue(types[column], bytes);
+        }
+        default -> throw new IllegalStateException(String.format(
+            "Unsupported column type: %s", types[column]));
+      }
+      properties.put(names[column], value);
+    }
+    return properties;
+  }
+
+  private Object readVariableLengthValue(int type, byte[] bytes) {
+    if (type == COLUMN_TYPE_BINARY) {
+      return bytes;
+    }
+    if (type == COLUMN_TYPE_JSON) {
+      try {
+        return objectMapper.readValue(bytes, Object.class);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns a little endian buffer with the bytes of the file from the given position. The
+   * buffer is a view of a memory mapped segment of the file; only if the bytes cross the end of
+   * the segment (and its overlap), they are read into a new buffer.
+   *
+   * @param position the position in the file
+   * @param length the number of bytes
+   * @return the buffer
+   */
+  private ByteBuffer slice(long position, int length) {
+    if (position < 0 || position + length > fileSize) {
+      throw new IllegalStateException("Unexpected end of FlatGeobuf file.");
+    }
+    int segment = (int) (position / SEGMENT_SIZE);
+    long segmentStart = segment * SEGMENT_SIZE;
+    try {
+      MappedByteBuffer mapped = segment(segment, segmentStart);
+      if (position + length <= segmentStart + mapped.capacity()) {
+        return mapped.slice((int) (position - segmentStart), length)
+            .order(ByteOrder.LITTLE_ENDIAN);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new IllegalStateException("Unexpected end of FlatGeobuf file.");
+        }
+      }
+      return buffer.clear();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private MappedByteBuffer segment(int segment, long segmentStart) throws IOException {
+    synchronized (segments) {
+      if (isNull(segments[segment])) {
+        long size = Math.min(SEGMENT_SIZE + SEGMENT_OVERLAP, fileSize - segmentStart);
+        segments[segment] = channel.map(MapMode.READ_ONLY, segmentStart, size);
+      }
+      return segments[segment];
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    Arrays.fill(segments, null);
+    channel.close();
+  }
+
+  private class SequentialIterator
+      implements Iterator<GeoJsonFeature<Geometry, Map<String, Object>>> {
+
+    private long position = featuresOffset;
+
+    @Override
+    public boolean hasNext() {
+      return position < fileSize;
+    }
+
+    @Override
+    public GeoJsonFeature<Geometry, Map<String, Object>> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("There are no more features.");
+      }
+      long current = position;
+      position += 4L + Integer.toUnsignedLong(slice(current, 4).getInt(0));
+      return readFeature(current);
+    }
+  }
+
+}
@@ -0,0 +1,600 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_NAME;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_BOOL;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_DOUBLE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_INT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_JSON;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_LONG;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.COLUMN_TYPE_STRING;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.CRS_CODE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.CRS_CODE_STRING;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.CRS_NAME;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.CRS_ORG;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.DEFAULT_INDEX_NODE_SIZE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.FEATURE_GEOMETRY;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.FEATURE_PROPERTIES;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.GEOMETRY_TYPE_UNKNOWN;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_COLUMNS;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_CRS;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_ENVELOPE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_FEATURES_COUNT;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_GEOMETRY_TYPE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_HAS_Z;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_INDEX_NODE_SIZE;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.HEADER_NAME;
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.MAGIC_BYTES;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.crs.CrsTransformRegistry;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+/**
+ * A writer of a FlatGeobuf file (see
+ * <a href="https://github.com/flatgeobuf/flatgeobuf">FlatGeobuf</a>).
+ *
+ * <p>The features are encoded one by one and spooled into a temporary file. When the writer is
+ * closed, the header, the optional packed Hilbert R-tree and the features (sorted along the
+ * Hilbert curve, if the index is written) are written to the output stream. Only the bounding
+ * boxes and offsets of the features are kept in memory.
+ *
+ * <p>The columns are derived from the properties of the features: the type of a column is
+ * determined by the first value of the property (boolean, int, long, double, string or json
+ * for all other values). A numeric column is widened, if a later value doesn't fit (an int
+ * column becomes a long or double column, a long column becomes a double column); the features,
+ * that are already spooled, are then rewritten once, when the writer is closed. Any other value,
+ * that doesn't match the type of the column, causes an {@link IllegalArgumentException}. The id
+ * of a feature is not stored, because FlatGeobuf has no id; {@code null} values are omitted.
+ *
+ * <p>The coordinates are not transformed. Their coordinate reference system is given by the
+ * caller and written into the header; without it the coordinates are expected to be WGS84 as in
+ * GeoJSON, so EPSG:4326 is written.
+ *
+ * <p>The writer is not thread safe.
+ *
+ * @author Christian Bremer
+ */
+public class FlatGeobufWriter implements Closeable {
+
+  private static final Pattern CRS_PATTERN = Pattern.compile("^([^:]+):([^:]+)$");
+
+  private final ObjectMapper objectMapper;
+
+  private final OutputStream outputStream;
+
+  private final String name;
+
+  private final int indexNodeSize;
+
+  private final String crs;
+
+  private final Path spoolFile;
+
+  private final OutputStream spool;
+
+  private final Map<String, Integer> columnIndexes = new LinkedHashMap<>();
+
+  private final List<Integer> columnTypes = new ArrayList<>();
+
+  private final List<TypeChange> typeChanges = new ArrayList<>();
+
+  private double[] bboxes = new double[4 * 64];
+
+  private long[] offsets = new long[64];
+
+  private int count;
+
+  private long spoolSize;
+
+  private final double[] extent = {
+      Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+      Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+  private int geometryType = -1;
+
+  private boolean hasZ;
+
+  private boolean closed;
+
+  /**
+   * Instantiates a new FlatGeobuf writer, that writes the spatial index with the default node
+   * size.
+   *
+   * @param objectMapper the object mapper (used for properties, that are no simple values)
+   * @param outputStream the output stream
+   * @throws IOException if the temporary file cannot be created
+   */
+  public FlatGeobufWriter(ObjectMapper objectMapper, OutputStream outputStream)
+      throws IOException {
+    this(objectMapper, outputStream, null, DEFAULT_INDEX_NODE_SIZE);
+  }
+
+  /**
+   * Instantiates a new FlatGeobuf writer.
+   *
+   * @param objectMapper the object mapper (used for properties, that are no simple values)
+   * @param outputStream the output stream
+   * @param name the name of the dataset (can be {@code null})
+   * @param indexNodeSize the node size of the spatial index (2 to 65535) or zero, if no spatial
+   *     index should be written
+   * @throws IOException if the temporary file cannot be created
+   */
+  public FlatGeobufWriter(
+      ObjectMapper objectMapper,
+      OutputStream outputStream,
+      String name,
+      int indexNodeSize) throws IOException {
+    this(objectMapper, outputStream, name, indexNodeSize, null);
+  }
+
+  /**
+   * Instantiates a new FlatGeobuf writer.
+   *
+   * @param objectMapper the object mapper (used for properties, that are no simple values)
+   * @param outputStream the output stream
+   * @param name the name of the dataset (can be {@code null})
+   * @param indexNodeSize the node size of the spatial index (2 to 65535) or zero, if no spatial
+   *     index should be written
+   * @param crs the coordinate reference system of the features, like {@code EPSG:25832} or
+   *     {@code urn:ogc:def:crs:EPSG::25832} ({@code null} means WGS84)
+   * @throws IOException if the temporary file cannot be created
+   */
+  public FlatGeobufWriter(
+      ObjectMapper objectMapper,
+      OutputStream outputStream,
+      String name,
+      int indexNodeSize,
+      String crs) throws IOException {
+
+    if (isNull(objectMapper) || isNull(outputStream)) {
+      throw new IllegalArgumentException("Object mapper and output stream must be present.");
+    }
+    if (indexNodeSize != 0 && (indexNodeSize < 2 || indexNodeSize > 0xFFFF)) {
+      throw new IllegalArgumentException(
+          "Index node size must be zero or between 2 and 65535.");
+    }
+    this.objectMapper = objectMapper;
+    this.outputStream = outputStream;
+    this.name = name;
+    this.indexNodeSize = indexNodeSize;
+    this.crs = CrsTransformRegistry.normalize(crs);
+    this.spoolFile = Files.createTempFile("geojson-", ".fgb");
+    this.spool = new BufferedOutputStream(Files.newOutputStream(spoolFile), 64 * 1024);
+  }
+
+  /**
+   * Writes a feature. A {@code null} value is ignored.
+   *
+   * @param feature the feature
+   * @throws IOException if the feature cannot be written
+   */
+  public void write(GeoJsonFeature<?, ?> feature) throws IOException {
+    if (closed) {
+      throw new IllegalStateException("Writer is closed.");
+    }
+    if (isNull(feature)) {
+      return;
+    }
+    Geometry geometry = feature.getGeometry();
+    FlatBufferTableBuilder table = new FlatBufferTableBuilder();
+    if (nonNull(geometry)) {
+      table.addTable(FEATURE_GEOMETRY, FlatGeobufGeometries.encode(geometry));
+    }
+    byte[] properties = encodeProperties(feature.getProperties());
+    if (properties.length > 0) {
+      table.addBytes(FEATURE_PROPERTIES, properties);
+    }
+    byte[] bytes = table.buildSizePrefixed();
+    spool.write(bytes);
+    addFeature(geometry, bytes.length);
+  }
+
+  /**
+   * Writes all features.
+   *
+   * @param features the features
+   * @throws IOException if a feature cannot be written
+   */
+  public void writeAll(Iterable<? extends GeoJsonFeature<?, ?>> features) throws IOException {
+    if (nonNull(features)) {
+      for (GeoJsonFeature<?, ?> feature : features) {
+        write(feature);
+      }
+    }
+  }
+
+  private void addFeature(Geometry geometry, int length) {
+    if (count == offsets.length) {
+      offsets = Arrays.copyOf(offsets, 2 * count);
+      bboxes = Arrays.copyOf(bboxes, 8 * count);
+    }
+    Envelope envelope = isNull(geometry) ? new Envelope() : geometry.getEnvelopeInternal();
+    int i = 4 * count;
+    if (envelope.isNull()) {
+      bboxes[i] = Double.POSITIVE_INFINITY;
+      bboxes[i + 1] = Double.POSITIVE_INFINITY;
+      bboxes[i + 2] = Double.NEGATIVE_INFINITY;
+      bboxes[i + 3] = Double.NEGATIVE_INFINITY;
+    } else {
+      bboxes[i] = envelope.getMinX();
+      bboxes[i + 1] = envelope.getMinY();
+      bboxes[i + 2] = envelope.getMaxX();
+      bboxes[i + 3] = envelope.getMaxY();
+      extent[0] = Math.min(extent[0], envelope.getMinX());
+      extent[1] = Math.min(extent[1], envelope.getMinY());
+      extent[2] = Math.max(extent[2], envelope.getMaxX());
+      extent[3] = Math.max(extent[3], envelope.getMaxY());
+    }
+    offsets[count] = spoolSize;
+    spoolSize += length;
+    count++;
+    if (nonNull(geometry)) {
+      int type = FlatGeobufGeometries.getGeometryType(geometry);
+      geometryType = geometryType == -1 || geometryType == type ? type : GEOMETRY_TYPE_UNKNOWN;
+      hasZ = hasZ || FlatGeobufGeometries.hasZ(geometry);
+    }
+  }
+
+  private byte[] encodeProperties(Object properties) throws IOException {
+    if (isNull(properties)) {
+      return new byte[0];
+    }
+    Map<String, Object> map = properties instanceof Map<?, ?>
+        ? toStringKeyMap((Map<?, ?>) properties)
+        : objectMapper.convertValue(properties, new TypeReference<>() {
+        });
+    ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      Object value = entry.getValue();
+      if (isNull(value)) {
+        continue;
+      }
+      int column = getColumn(entry.getKey(), value);
+      byte[] bytes = null;
+      int type = columnTypes.get(column);
+      if (type == COLUMN_TYPE_STRING) {
+        bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+      } else if (type == COLUMN_TYPE_JSON) {
+        bytes = objectMapper.writeValueAsBytes(value);
+      }
+      buffer = ensureCapacity(buffer, 2 + 8 + (isNull(bytes) ? 0 : 4 + bytes.length));
+      buffer.putShort((short) column);
+      switch (type) {
+        case COLUMN_TYPE_BOOL -> buffer.put((byte) ((Boolean) value ? 1 : 0));
+        case COLUMN_TYPE_INT -> buffer.putInt(((Number) value).intValue());
+        case COLUMN_TYPE_LONG -> buffer.putLong(((Number) value).longValue());
+        case COLUMN_TYPE_DOUBLE -> buffer.putDouble(((Number) value).doubleValue());
+        default -> buffer.putInt(bytes.length).put(bytes);
+      }
+    }
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  private static Map<String, Object> toStringKeyMap(Map<?, ?> map) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    map.forEach((key, value) -> result.put(String.valueOf(key), value));
+    return result;
+  }
+
+  private static ByteBuffer ensureCapacity(ByteBuffer buffer, int length) {
+    if (buffer.remaining() >= length) {
+      return buffer;
+    }
+    ByteBuffer newBuffer = ByteBuffer
+        .allocate(Math.max(2 * buffer.capacity(), buffer.position() + length))
+        .order(ByteOrder.LITTLE_ENDIAN);
+    newBuffer.put(buffer.array(), 0, buffer.position());
+    return newBuffer;
+  }
+
+  private int getColumn(String name, Object value) {
+    Integer column = columnIndexes.get(name);
+    int valueType = getColumnType(value);
+    if (isNull(column)) {
+      if (columnIndexes.size() > 0xFFFF) {
+        throw new IllegalArgumentException("Too many properties.");
+      }
+      column = columnIndexes.size();
+      columnIndexes.put(name, column);
+      columnTypes.add(valueType);
+      return column;
+    }
+    int columnType = columnTypes.get(column);
+    if (columnType == valueType
+        || columnType == COLUMN_TYPE_JSON
+        || (columnType == COLUMN_TYPE_LONG && valueType == COLUMN_TYPE_INT)
+        || (columnType == COLUMN_TYPE_DOUBLE
+        && (valueType == COLUMN_TYPE_INT || valueType == COLUMN_TYPE_LONG))
+        || (columnType == COLUMN_TYPE_INT && valueType == COLUMN_TYPE_LONG
+        && ((Number) value).longValue() == ((Number) value).intValue())) {
+      return column;
+    }
+    if ((columnType == COLUMN_TYPE_INT
+        && (valueType == COLUMN_TYPE_LONG || valueType == COLUMN_TYPE_DOUBLE))
+        || (columnType == COLUMN_TYPE_LONG && valueType == COLUMN_TYPE_DOUBLE)) {
+      // the spooled features keep the types, they were written with
+      typeChanges.add(new TypeChange(
+          count, columnTypes.stream().mapToInt(Integer::intValue).toArray()));
+      columnTypes.set(column, valueType);
+      return column;
+    }
+    throw new IllegalArgumentException(String.format(
+        "Value [%s] of property [%s] doesn't match the type of the column.", value, name));
+  }
+
+  private static int getColumnType(Object value) {
+    if (value instanceof Boolean) {
+      return COLUMN_TYPE_BOOL;
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return COLUMN_TYPE_INT;
+    } else if (value instanceof Long
+        || (value instanceof BigInteger bigInteger && bigInteger.bitLength() < 64)) {
+      return COLUMN_TYPE_LONG;
+    } else if (value instanceof Double || value instanceof Float
+        || value instanceof BigDecimal) {
+      return COLUMN_TYPE_DOUBLE;
+    } else if (value instanceof String) {
+      return COLUMN_TYPE_STRING;
+    }
+    return COLUMN_TYPE_JSON;
+  }
+
+  /**
+   * Writes the header, the spatial index and the features and closes the writer. The output
+   * stream is not closed.
+   *
+   * @throws IOException if the FlatGeobuf file cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      spool.close();
+      if (!typeChanges.isEmpty()) {
+        widenSpooledFeatures();
+      }
+      boolean indexed = indexNodeSize > 0 && count > 0;
+      outputStream.write(MAGIC_BYTES);
+      outputStream.write(buildHeader(indexed));
+      if (indexed) {
+        writeIndexAndFeatures();
+      } else {
+        Files.copy(spoolFile, outputStream);
+      }
+      outputStream.flush();
+    } finally {
+      Files.deleteIfExists(spoolFile);
+    }
+  }
+
+  private byte[] buildHeader(boolean indexed) {
+    FlatBufferTableBuilder header = new FlatBufferTableBuilder();
+    if (nonNull(name)) {
+      header.addString(HEADER_NAME, name);
+    }
+    if (extent[0] <= extent[2]) {
+      header.addDoubles(HEADER_ENVELOPE, extent.clone());
+    }
+    header.addByte(HEADER_GEOMETRY_TYPE, Math.max(geometryType, GEOMETRY_TYPE_UNKNOWN));
+    header.addBool(HEADER_HAS_Z, hasZ);
+    if (!columnIndexes.isEmpty()) {
+      List<FlatBufferTableBuilder> columns = new ArrayList<>(columnIndexes.size());
+      columnIndexes.forEach((columnName, index) -> columns.add(new FlatBufferTableBuilder()
+          .addString(COLUMN_NAME, columnName)
+          .addByte(COLUMN_TYPE, columnTypes.get(index))));
+      header.addTables(HEADER_COLUMNS, columns);
+    }
+    header.addLong(HEADER_FEATURES_COUNT, count);
+    header.addShort(HEADER_INDEX_NODE_SIZE, indexed ? indexNodeSize : 0);
+    header.addTable(HEADER_CRS, buildCrs());
+    return header.buildSizePrefixed();
+  }
+
+  private FlatBufferTableBuilder buildCrs() {
+    FlatBufferTableBuilder table = new FlatBufferTableBuilder();
+    Matcher matcher = CRS_PATTERN.matcher(crs);
+    if (!matcher.matches()) {
+      return table.addString(CRS_NAME, crs);
+    }
+    table.addString(CRS_ORG, matcher.group(1));
+    String code = matcher.group(2);
+    if (code.matches("[1-9]\\d{0,8}")) {
+      return table.addInt(CRS_CODE, Integer.parseInt(code));
+    }
+    return table.addString(CRS_CODE_STRING, code);
+  }
+
+  /**
+   * Rewrites the spooled features, that were written before a column was widened, with the
+   * final column types.
+   *
+   * @throws IOException if the temporary files cannot be read or written
+   */
+  private void widenSpooledFeatures() throws IOException {
+    GeometryFactory geometryFactory = new GeoJsonGeometryFactory();
+    Path widenedFile = Files.createTempFile("geojson-", ".fgb");
+    try {
+      try (FileChannel channel = FileChannel.open(spoolFile, StandardOpenOption.READ);
+          OutputStream out = new BufferedOutputStream(
+              Files.newOutputStream(widenedFile), 64 * 1024)) {
+        long size = 0;
+        int change = 0;
+        for (int i = 0; i < count; i++) {
+          while (change < typeChanges.size() && typeChanges.get(change).features() <= i) {
+            change++;
+          }
+          ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(getLength(i)))
+              .order(ByteOrder.LITTLE_ENDIAN);
+          read(channel, buffer, offsets[i]);
+          byte[] bytes = change < typeChanges.size()
+              ? widenFeature(buffer, typeChanges.get(change).types(), geometryFactory)
+              : buffer.array();
+          out.write(bytes);
+          // the following lengths are computed from offsets, that are not replaced yet
+          offsets[i] = size;
+          size += bytes.length;
+        }
+        spoolSize = size;
+      }
+      Files.move(widenedFile, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(widenedFile);
+    }
+  }
+
+  private byte[] widenFeature(ByteBuffer buffer, int[] types, GeometryFactory geometryFactory) {
+    FlatBufferTable feature = FlatBufferTable.sizePrefixedRoot(buffer, 0);
+    FlatBufferTableBuilder table = new FlatBufferTableBuilder();
+    FlatBufferTable geometry = feature.getTable(FEATURE_GEOMETRY);
+    if (nonNull(geometry)) {
+      table.addTable(FEATURE_GEOMETRY, FlatGeobufGeometries.encode(FlatGeobufGeometries
+          .decode(geometry, GEOMETRY_TYPE_UNKNOWN, geometryFactory)));
+    }
+    int length = feature.getVectorLength(FEATURE_PROPERTIES);
+    if (length > 0) {
+      int position = feature.getVectorStart(FEATURE_PROPERTIES);
+      int end = position + length;
+      // a widened value needs at most 4 bytes more, an entry has at least 3 bytes
+      ByteBuffer properties = ByteBuffer.allocate(2 * length).order(ByteOrder.LITTLE_ENDIAN);
+      while (position < end) {
+        int column = Short.toUnsignedInt(buffer.getShort(position));
+        position += 2;
+        properties.putShort((short) column);
+        int type = columnTypes.get(column);
+        switch (types[column]) {
+          case COLUMN_TYPE_BOOL -> properties.put(buffer.get(position++));
+          case COLUMN_TYPE_INT -> {
+            putNumber(properties, type, buffer.getInt(position));
+            position += 4;
+          }
+          case COLUMN_TYPE_LONG -> {
+            putNumber(properties, type, buffer.getLong(position));
+            position += 8;
+          }
+          case COLUMN_TYPE_DOUBLE -> {
+            properties.putDouble(buffer.getDouble(position));
+            position += 8;
+          }
+          default -> {
+            int size = 4 + buffer.getInt(position);
+            properties.put(buffer.slice(position, size));
+            position += size;
+          }
+        }
+      }
+      table.addBytes(FEATURE_PROPERTIES, Arrays.copyOf(properties.array(), properties.position()));
+    }
+    return table.buildSizePrefixed();
+  }
+
+  private static void putNumber(ByteBuffer buffer, int type, long value) {
+    switch (type) {
+      case COLUMN_TYPE_INT -> buffer.putInt((int) value);
+      case COLUMN_TYPE_LONG -> buffer.putLong(value);
+      default -> buffer.putDouble(value);
+    }
+  }
+
+  private static void read(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of temporary file.");
+      }
+    }
+  }
+
+  private void writeIndexAndFeatures() throws IOException {
+    int[] order = PackedRTree.hilbertSort(bboxes, count, extent);
+    double[] sortedBoxes = new double[4 * count];
+    long[] sortedOffsets = new long[count];
+    long offset = 0;
+    for (int i = 0; i < count; i++) {
+      int feature = order[i];
+      System.arraycopy(bboxes, 4 * feature, sortedBoxes, 4 * i, 4);
+      sortedOffsets[i] = offset;
+      offset += getLength(feature);
+    }
+    PackedRTree.write(sortedBoxes, sortedOffsets, count, indexNodeSize, outputStream);
+    try (FileChannel channel = FileChannel.open(spoolFile, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+      ByteArrayOutputStream chunk = new ByteArrayOutputStream(64 * 1024);
+      for (int i = 0; i < count; i++) {
+        int feature = order[i];
+        int length = Math.toIntExact(getLength(feature));
+        if (buffer.capacity() < length) {
+          buffer = ByteBuffer.allocate(length);
+        }
+        buffer.clear().limit(length);
+        read(channel, buffer, offsets[feature]);
+        chunk.write(buffer.array(), 0, length);
+        if (chunk.size() >= 64 * 1024) {
+          chunk.writeTo(outputStream);
+          chunk.reset();
+        }
+      }
+      chunk.writeTo(outputStream);
+    }
+  }
+
+  private long getLength(int feature) {
+    return (feature + 1 < count ? offsets[feature + 1] : spoolSize) - offsets[feature];
+  }
+
+  /**
+   * The column types, that were used for the features before the given index.
+   */
+  private record TypeChange(int features, int[] types) {
+
+  }
+
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * The packed Hilbert R-tree of FlatGeobuf (a static, bulk loaded R-tree like Flatbush).
+ *
+ * <p>The nodes are stored level by level from the root to the leaves. A node consists of its
+ * bounding box (four doubles) and an offset (unsigned long): the offset of a leaf is the byte
+ * offset of the feature in the feature data, the offset of any other node is the index of its
+ * first child node.
+ *
+ * @author Christian Bremer
+ */
+class PackedRTree {
+
+  /**
+   * The size of a node in bytes.
+   */
+  static final int NODE_ITEM_SIZE = 40;
+
+  private static final int HILBERT_MAX = (1 << 16) - 1;
+
+  private PackedRTree() {
+  }
+
+  /**
+   * Calculates the start (inclusive) and the end (exclusive) node index of each level. The first
+   * element are the bounds of the leaves, the last one are the bounds of the root.
+   *
+   * @param numItems the number of items (leaves)
+   * @param nodeSize the node size
+   * @return the level bounds
+   */
+  static long[][] levelBounds(long numItems, int nodeSize) {
+    if (nodeSize < 2) {
+      throw new IllegalArgumentException("Node size must be at least 2.");
+    }
+    if (numItems <= 0) {
+      throw new IllegalArgumentException("Number of items must be greater than 0.");
+    }
+    long[] levelNumNodes = new long[64];
+    int levels = 0;
+    long n = numItems;
+    long numNodes = n;
+    levelNumNodes[levels++] = n;
+    do {
+      n = (n + nodeSize - 1) / nodeSize;
+      numNodes += n;
+      levelNumNodes[levels++] = n;
+    } while (n != 1);
+    long[][] levelBounds = new long[levels][];
+    n = numNodes;
+    for (int i = 0; i < levels; i++) {
+      levelBounds[i] = new long[]{n - levelNumNodes[i], n};
+      n -= levelNumNodes[i];
+    }
+    return levelBounds;
+  }
+
+  /**
+   * Calculates the number of nodes.
+   *
+   * @param numItems the number of items (leaves)
+   * @param nodeSize the node size
+   * @return the number of nodes
+   */
+  static long numNodes(long numItems, int nodeSize) {
+    long[][] levelBounds = levelBounds(numItems, nodeSize);
+    return levelBounds[0][1];
+  }
+
+  /**
+   * Calculates the size of the tree in bytes.
+   *
+   * @param numItems the number of items (leaves)
+   * @param nodeSize the node size
+   * @return the size in bytes
+   */
+  static long size(long numItems, int nodeSize) {
+    return numNodes(numItems, nodeSize) * NODE_ITEM_SIZE;
+  }
+
+  /**
+   * Calculates the Hilbert value of the center of the bounding box within the extent.
+   *
+   * @param bbox the bounding boxes (minX, minY, maxX, maxY)
+   * @param offset the offset of the bounding box
+   * @param extent the extent (minX, minY, maxX, maxY)
+   * @return the Hilbert value (an unsigned int)
+   */
+  static int hilbert(double[] bbox, int offset, double[] extent) {
+    double width = extent[2] - extent[0];
+    double height = extent[3] - extent[1];
+    int x = 0;
+    int y = 0;
+    if (width != 0.) {
+      x = (int) Math.floor(
+          HILBERT_MAX * ((bbox[offset] + bbox[offset + 2]) / 2. - extent[0]) / width);
+    }
+    if (height != 0.) {
+      y = (int) Math.floor(
+          HILBERT_MAX * ((bbox[offset + 1] + bbox[offset + 3]) / 2. - extent[1]) / height);
+    }
+    return hilbert(x, y);
+  }
+
+  /**
+   * Calculates the position of the point on the Hilbert curve (see
+   * <a href="https://github.com/rawrunprotected/hilbert_curves">hilbert_curves</a>).
+   *
+   * @param x the x value (16 bit)
+   * @param y the y value (16 bit)
+   * @return the Hilbert value (an unsigned int)
+   */
+  static int hilbert(int x, int y) {
+    int a = x ^ y;
+    int b = 0xFFFF ^ a;
+    int c = 0xFFFF ^ (x | y);
+    int d = x & (y ^ 0xFFFF);
+
+    int ca = a | (b >>> 1);
+    int cb = (a >>> 1) ^ a;
+    int cc = ((c >>> 1) ^ (b & (d >>> 1))) ^ c;
+    int cd = ((a & (c >>> 1)) ^ (d >>> 1)) ^ d;
+
+    a = ca;
+    b = cb;
+    c = cc;
+    d = cd;
+    ca = ((a & (a >>> 2)) ^ (b & (b >>> 2)));
+    cb = ((a & (b >>> 2)) ^ (b & ((a ^ b) >>> 2)));
+    cc ^= ((a & (c >>> 2)) ^ (b & (d >>> 2)));
+    cd ^= ((b & (c >>> 2)) ^ ((a ^ b) & (d >>> 2)));
+
+    a = ca;
+    b = cb;
+    c = cc;
+    d = cd;
+    ca = ((a & (a >>> 4)) ^ (b & (b >>> 4)));
+    cb = ((a & (b >>> 4)) ^ (b & ((a ^ b) >>> 4)));
+    cc ^= ((a & (c >>> 4)) ^ (b & (d >>> 4)));
+    cd ^= ((b & (c >>> 4)) ^ ((a ^ b) & (d >>> 4)));
+
+    a = ca;
+    b = cb;
+    c = cc;
+    d = cd;
+    cc ^= ((a & (c >>> 8)) ^ (b & (d >>> 8)));
+    cd ^= ((b & (c >>> 8)) ^ ((a ^ b) & (d >>> 8)));
+
+    a = cc ^ (cc >>> 1);
+    b = cd ^ (cd >>> 1);
+
+    int i0 = x ^ y;
+    int i1 = b | (0xFFFF ^ (i0 | a));
+
+    i0 = (i0 | (i0 << 8)) & 0x00FF00FF;
+    i0 = (i0 | (i0 << 4)) & 0x0F0F0F0F;
+    i0 = (i0 | (i0 << 2)) & 0x33333333;
+    i0 = (i0 | (i0 << 1)) & 0x55555555;
+
+    i1 = (i1 | (i1 << 8)) & 0x00FF00FF;
+    i1 = (i1 | (i1 << 4)) & 0x0F0F0F0F;
+    i1 = (i1 | (i1 << 2)) & 0x33333333;
+    i1 = (i1 | (i1 << 1)) & 0x55555555;
+
+    return (i1 << 1) | i0;
+  }
+
+  /**
+   * Sorts the items by the Hilbert value of the centers of their bounding boxes in descending
+   * order (like the reference implementation).
+   *
+   * @param bboxes the bounding boxes of the items (minX, minY, maxX, maxY)
+   * @param numItems the number of items
+   * @param extent the extent of all items
+   * @return the indexes of the items in sorted order
+   */
+  static int[] hilbertSort(double[] bboxes, int numItems, double[] extent) {
+    long[] keys = new long[numItems];
+    for (int i = 0; i < numItems; i++) {
+      keys[i] = (Integer.toUnsignedLong(hilbert(bboxes, 4 * i, extent)) << 31) | i;
+    }
+    Arrays.sort(keys);
+    int[] order = new int[numItems];
+    for (int i = 0; i < numItems; i++) {
+      order[i] = (int) (keys[numItems - 1 - i] & Integer.MAX_VALUE);
+    }
+    return order;
+  }
+
+  /**
+   * Builds the tree from the sorted leaves and writes it.
+   *
+   * @param leafBoxes the bounding boxes of the leaves (minX, minY, maxX, maxY) in sorted order
+   * @param leafOffsets the offsets of the features in sorted order
+   * @param numItems the number of items (leaves)
+   * @param nodeSize the node size
+   * @param out the output stream
+   * @throws IOException if the tree cannot be written
+   */
+  static void write(
+      double[] leafBoxes,
+      long[] leafOffsets,
+      int numItems,
+      int nodeSize,
+      OutputStream out) throws IOException {
+
+    long[][] levelBounds = levelBounds(numItems, nodeSize);
+    int numNodes = Math.toIntExact(levelBounds[0][1]);
+    double[] boxes = new double[4 * numNodes];
+    long[] offsets = new long[numNodes];
+    int leafStart = (int) levelBounds[0][0];
+    System.arraycopy(leafBoxes, 0, boxes, 4 * leafStart, 4 * numItems);
+    System.arraycopy(leafOffsets, 0, offsets, leafStart, numItems);
+    for (int i = 0; i < levelBounds.length - 1; i++) {
+      int pos = (int) levelBounds[i][0];
+      int end = (int) levelBounds[i][1];
+      int parent = (int) levelBounds[i + 1][0];
+      while (pos < end) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        offsets[parent] = pos;
+        for (int j = 0; j < nodeSize && pos < end; j++, pos++) {
+          minX = Math.min(minX, boxes[4 * pos]);
+          minY = Math.min(minY, boxes[4 * pos + 1]);
+          maxX = Math.max(maxX, boxes[4 * pos + 2]);
+          maxY = Math.max(maxY, boxes[4 * pos + 3]);
+        }
+        boxes[4 * parent] = minX;
+        boxes[4 * parent + 1] = minY;
+        boxes[4 * parent + 2] = maxX;
+        boxes[4 * parent + 3] = maxY;
+        parent++;
+      }
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(1024 * NODE_ITEM_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    for (int i = 0; i < numNodes; i++) {
+      buffer.putDouble(boxes[4 * i]);
+      buffer.putDouble(boxes[4 * i + 1]);
+      buffer.putDouble(boxes[4 * i + 2]);
+      buffer.putDouble(boxes[4 * i + 3]);
+      buffer.putLong(offsets[i]);
+      if (!buffer.hasRemaining()) {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+      }
+    }
+    out.write(buffer.array(), 0, buffer.position());
+  }
+
+  /**
+   * Searches the tree for the leaves that intersect the bounding box.
+   *
+   * @param index the buffer with the tree (in little endian byte order, starting at position 0)
+   * @param numItems the number of items (leaves)
+   * @param nodeSize the node size
+   * @param bbox the bounding box (minX, minY, maxX, maxY)
+   * @return the offsets of the matching features in ascending order
+   */
+  static long[] search(ByteBuffer index, long numItems, int nodeSize, double[] bbox) {
+    long[][] levelBounds = levelBounds(numItems, nodeSize);
+    long numNodes = levelBounds[0][1];
+    long[] results = new long[16];
+    int size = 0;
+    Deque<long[]> queue = new ArrayDeque<>();
+    queue.add(new long[]{0, levelBounds.length - 1});
+    while (!queue.isEmpty()) {
+      long[] next = queue.poll();
+      long nodeIndex = next[0];
+      int level = (int) next[1];
+      boolean leaf = nodeIndex >= numNodes - numItems;
+      long end = Math.min(nodeIndex + nodeSize, levelBounds[level][1]);
+      for (long pos = nodeIndex; pos < end; pos++) {
+        int node = Math.toIntExact(pos * NODE_ITEM_SIZE);
+        if (bbox[2] < index.getDouble(node)
+            || bbox[3] < index.getDouble(node + 8)
+            || bbox[0] > index.getDouble(node + 16)
+            || bbox[1] > index.getDouble(node + 24)) {
+          continue;
+        }
+        long offset = index.getLong(node + 32);
+        if (leaf) {
+          if (size == results.length) {
+            results = Arrays.copyOf(results, size * 2);
+          }
+          results[size++] = offset;
+        } else {
+          queue.add(new long[]{offset, level - 1});
+        }
+      }
+    }
+    long[] offsets = Arrays.copyOf(results, size);
+    Arrays.sort(offsets);
+    return offsets;
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.mvt;
+
+/**
+ * The constants of the Mapbox Vector Tile format (see
+ * <a href="https://github.com/mapbox/vector-tile-spec">Vector Tile Specification</a>): the
+ * wire types of protocol buffers, the field numbers of {@code vector_tile.proto} and the commands
+ * of the geometry encoding.
+ *
+ * @author Christian Bremer
+ */
+abstract class MvtConstants {
+
+  /**
+   * The version of the specification.
+   */
+  static final int VERSION = 2;
+
+  // wire types
+
+  static final int WIRE_TYPE_VARINT = 0;
+
+  static final int WIRE_TYPE_FIXED64 = 1;
+
+  static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+  static final int WIRE_TYPE_FIXED32 = 5;
+
+  // fields of message Tile
+
+  static final int TILE_LAYERS = 3;
+
+  // fields of message Layer
+
+  static final int LAYER_NAME = 1;
+
+  static final int LAYER_FEATURES = 2;
+
+  static final int LAYER_KEYS = 3;
+
+  static final int LAYER_VALUES = 4;
+
+  static final int LAYER_EXTENT = 5;
+
+  static final int LAYER_VERSION = 15;
+
+  // fields of message Feature
+
+  static final int FEATURE_ID = 1;
+
+  static final int FEATURE_TAGS = 2;
+
+  static final int FEATURE_TYPE = 3;
+
+  static final int FEATURE_GEOMETRY = 4;
+
+  // fields of message Value
+
+  static final int VALUE_STRING = 1;
+
+  static final int VALUE_FLOAT = 2;
+
+  static final int VALUE_DOUBLE = 3;
+
+  static final int VALUE_UINT = 5;
+
+  static final int VALUE_SINT = 6;
+
+  static final int VALUE_BOOL = 7;
+
+  // geometry types
+
+  static final int GEOMETRY_TYPE_UNKNOWN = 0;
+
+  static final int GEOMETRY_TYPE_POINT = 1;
+
+  static final int GEOMETRY_TYPE_LINESTRING = 2;
+
+  static final int GEOMETRY_TYPE_POLYGON = 3;
+
+  // commands
+
+  static final int COMMAND_MOVE_TO = 1;
+
+  static final int COMMAND_LINE_TO = 2;
+
+  static final int COMMAND_CLOSE_PATH = 7;
+
+  private MvtConstants() {
+  }
+
+}
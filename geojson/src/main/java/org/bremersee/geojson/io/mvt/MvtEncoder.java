@@ -0,0 +1,352 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.mvt;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.io.mvt.MvtConstants.FEATURE_GEOMETRY;
+import static org.bremersee.geojson.io.mvt.MvtConstants.FEATURE_ID;
+import static org.bremersee.geojson.io.mvt.MvtConstants.FEATURE_TAGS;
+import static org.bremersee.geojson.io.mvt.MvtConstants.FEATURE_TYPE;
+import static org.bremersee.geojson.io.mvt.MvtConstants.GEOMETRY_TYPE_UNKNOWN;
+import static org.bremersee.geojson.io.mvt.MvtConstants.LAYER_EXTENT;
+import static org.bremersee.geojson.io.mvt.MvtConstants.LAYER_FEATURES;
+import static org.bremersee.geojson.io.mvt.MvtConstants.LAYER_KEYS;
+import static org.bremersee.geojson.io.mvt.MvtConstants.LAYER_NAME;
+import static org.bremersee.geojson.io.mvt.MvtConstants.LAYER_VALUES;
+import static org.bremersee.geojson.io.mvt.MvtConstants.LAYER_VERSION;
+import static org.bremersee.geojson.io.mvt.MvtConstants.TILE_LAYERS;
+import static org.bremersee.geojson.io.mvt.MvtConstants.VALUE_BOOL;
+import static org.bremersee.geojson.io.mvt.MvtConstants.VALUE_DOUBLE;
+import static org.bremersee.geojson.io.mvt.MvtConstants.VALUE_FLOAT;
+import static org.bremersee.geojson.io.mvt.MvtConstants.VALUE_SINT;
+import static org.bremersee.geojson.io.mvt.MvtConstants.VALUE_STRING;
+import static org.bremersee.geojson.io.mvt.MvtConstants.VALUE_UINT;
+import static org.bremersee.geojson.io.mvt.MvtConstants.VERSION;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.crs.CrsTransform;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+
+/**
+ * An encoder of a Mapbox Vector Tile (see
+ * <a href="https://github.com/mapbox/vector-tile-spec">Vector Tile Specification</a>, version 2).
+ *
+ * <p>The tile is addressed by zoom level, column and row of the XYZ tiling scheme (the row is
+ * counted from the north). Every layer is added with its features: the geometries are projected
+ * into the pixel space of the tile, clipped at the tile bounds plus the buffer, rounded to
+ * integers and encoded as commands; the properties are encoded with the dictionaries of keys and
+ * values of the layer. Features, that lie outside the clip bounds, are omitted and so are layers
+ * without features. A geometry collection is encoded as one feature per member, because a
+ * feature of a vector tile has only one geometry type.
+ *
+ * <p>The id of a feature is written, if it is an unsigned integer. The types of the property
+ * values are boolean, integer (uint or sint), float, double and string; {@code null} values are
+ * omitted and all other values are written as json strings. The coordinates are expected to be
+ * WGS84 as in GeoJSON, unless a transform into WGS84 is given.
+ *
+ * <p>The buffers of the encoder are reused for every feature and layer, so encoding a feature
+ * allocates little more than the entries of the dictionaries. The encoder is not thread safe.
+ *
+ * @author Christian Bremer
+ */
+public class MvtEncoder {
+
+  /**
+   * The default extent of a tile.
+   */
+  public static final int DEFAULT_EXTENT = 4096;
+
+  /**
+   * The default buffer around a tile.
+   */
+  public static final int DEFAULT_BUFFER = 64;
+
+  private final ObjectMapper objectMapper;
+
+  private final int extent;
+
+  private final MvtGeometryEncoder geometryEncoder;
+
+  private final ProtobufWriter tile = new ProtobufWriter(16 * 1024);
+
+  private final ProtobufWriter layer = new ProtobufWriter(16 * 1024);
+
+  private final ProtobufWriter features = new ProtobufWriter(16 * 1024);
+
+  private final ProtobufWriter message = new ProtobufWriter(1024);
+
+  private final Set<String> layerNames = new HashSet<>();
+
+  private final Map<String, Integer> keys = new LinkedHashMap<>();
+
+  private final Map<Object, Integer> values = new LinkedHashMap<>();
+
+  private int[] tags = new int[32];
+
+  private int tagCount;
+
+  /**
+   * Instantiates a new vector tile encoder with the default extent and buffer.
+   *
+   * @param objectMapper the object mapper (used for properties, that are no simple values)
+   * @param z the zoom level
+   * @param x the column of the tile
+   * @param y the row of the tile (counted from the north)
+   */
+  public MvtEncoder(ObjectMapper objectMapper, int z, int x, int y) {
+    this(objectMapper, z, x, y, DEFAULT_EXTENT, DEFAULT_BUFFER, null);
+  }
+
+  /**
+   * Instantiates a new vector tile encoder.
+   *
+   * @param objectMapper the object mapper (used for properties, that are no simple values)
+   * @param z the zoom level (0 to 30)
+   * @param x the column of the tile
+   * @param y the row of the tile (counted from the north)
+   * @param extent the extent of the tile
+   * @param buffer the buffer around the tile in pixels of the extent
+   * @param transform the transform of the coordinates into WGS84 (can be {@code null})
+   * @see org.bremersee.geojson.crs.CrsTransformRegistry
+   */
+  public MvtEncoder(
+      ObjectMapper objectMapper,
+      int z,
+      int x,
+      int y,
+      int extent,
+      int buffer,
+      CrsTransform transform) {
+
+    if (isNull(objectMapper)) {
+      throw new IllegalArgumentException("Object mapper must be present.");
+    }
+    if (z < 0 || z > 30) {
+      throw new IllegalArgumentException("Zoom level must be between 0 and 30.");
+    }
+    if (x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+      throw new IllegalArgumentException(String.format(
+          "Tile [%d/%d/%d] doesn't exist.", z, x, y));
+    }
+    if (extent <= 0 || buffer < 0) {
+      throw new IllegalArgumentException(
+          "Extent must be positive and buffer must not be negative.");
+    }
+    this.objectMapper = objectMapper;
+    this.extent = extent;
+    this.geometryEncoder = new MvtGeometryEncoder(z, x, y, extent, buffer, transform);
+  }
+
+  /**
+   * Adds a layer with the features of the feature collection.
+   *
+   * @param name the name of the layer
+   * @param featureCollection the feature collection (can be {@code null})
+   * @return the vector tile encoder
+   */
+  public MvtEncoder addLayer(String name, GeoJsonFeatureCollection<?, ?> featureCollection) {
+    return addLayer(name, isNull(featureCollection) ? null : featureCollection.getFeatures());
+  }
+
+  /**
+   * Adds a layer with the features. The layer is omitted, if no feature lies within the tile.
+   *
+   * @param name the name of the layer
+   * @param features the features (can be {@code null})
+   * @return the vector tile encoder
+   */
+  public MvtEncoder addLayer(String name, Iterable<? extends GeoJsonFeature<?, ?>> features) {
+    if (isNull(name) || name.isBlank()) {
+      throw new IllegalArgumentException("Name of layer must be present.");
+    }
+    if (!layerNames.add(name)) {
+      throw new IllegalArgumentException(String.format(
+          "Layer with name [%s] already exists.", name));
+    }
+    if (isNull(features)) {
+      return this;
+    }
+    this.features.reset();
+    keys.clear();
+    values.clear();
+    for (GeoJsonFeature<?, ?> feature : features) {
+      if (nonNull(feature) && nonNull(feature.getGeometry())) {
+        tagCount = -1;
+        encodeFeature(feature, feature.getGeometry());
+      }
+    }
+    if (this.features.size() > 0) {
+      layer.reset();
+      layer.writeVarintField(LAYER_VERSION, VERSION);
+      layer.writeStringField(LAYER_NAME, name);
+      layer.writeRaw(this.features);
+      for (String key : keys.keySet()) {
+        layer.writeStringField(LAYER_KEYS, key);
+      }
+      for (Object value : values.keySet()) {
+        layer.writeMessageField(LAYER_VALUES, encodeValue(value));
+      }
+      layer.writeVarintField(LAYER_EXTENT, extent);
+      tile.writeMessageField(TILE_LAYERS, layer);
+    }
+    return this;
+  }
+
+  private void encodeFeature(GeoJsonFeature<?, ?> feature, Geometry geometry) {
+    if (geometry.getClass() == GeometryCollection.class) {
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        encodeFeature(feature, geometry.getGeometryN(i));
+      }
+      return;
+    }
+    int type = geometryEncoder.encode(geometry);
+    if (type == GEOMETRY_TYPE_UNKNOWN) {
+      return;
+    }
+    if (tagCount < 0) {
+      encodeTags(feature.getProperties());
+    }
+    message.reset();
+    long id = getId(feature.getId());
+    if (id >= 0L) {
+      message.writeVarintField(FEATURE_ID, id);
+    }
+    message.writePackedField(FEATURE_TAGS, tags, tagCount);
+    message.writeVarintField(FEATURE_TYPE, type);
+    message.writePackedField(
+        FEATURE_GEOMETRY,
+        geometryEncoder.getCommands(),
+        geometryEncoder.getCommandCount());
+    features.writeMessageField(LAYER_FEATURES, message);
+  }
+
+  private static long getId(String id) {
+    if (isNull(id) || id.isEmpty() || id.length() > 19) {
+      return -1L;
+    }
+    for (int i = 0; i < id.length(); i++) {
+      if (!Character.isDigit(id.charAt(i))) {
+        return -1L;
+      }
+    }
+    try {
+      return Long.parseLong(id);
+    } catch (NumberFormatException e) {
+      return -1L;
+    }
+  }
+
+  private void encodeTags(Object properties) {
+    tagCount = 0;
+    if (isNull(properties)) {
+      return;
+    }
+    Map<?, ?> map = properties instanceof Map<?, ?>
+        ? (Map<?, ?>) properties
+        : objectMapper.convertValue(properties, new TypeReference<Map<String, Object>>() {
+        });
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      if (isNull(entry.getKey()) || isNull(entry.getValue())) {
+        continue;
+      }
+      Object value = getValueKey(entry.getValue());
+      if (tags.length < tagCount + 2) {
+        tags = Arrays.copyOf(tags, 2 * tags.length);
+      }
+      tags[tagCount++] = keys.computeIfAbsent(String.valueOf(entry.getKey()), k -> keys.size());
+      tags[tagCount++] = values.computeIfAbsent(value, v -> values.size());
+    }
+  }
+
+  /**
+   * Gets the value as it is stored in the dictionary of values: integers as long, decimals as
+   * double, floats as float, booleans and strings as they are and all other values as json.
+   *
+   * @param value the value
+   * @return the value of the dictionary
+   */
+  private Object getValueKey(Object value) {
+    if (value instanceof Boolean || value instanceof String
+        || value instanceof Double || value instanceof Float) {
+      return value;
+    } else if (value instanceof Integer || value instanceof Long
+        || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    } else if (value instanceof BigInteger bigInteger && bigInteger.bitLength() < 64) {
+      return bigInteger.longValue();
+    } else if (value instanceof BigDecimal bigDecimal) {
+      return bigDecimal.doubleValue();
+    } else if (value instanceof Character) {
+      return value.toString();
+    }
+    return objectMapper.valueToTree(value).toString();
+  }
+
+  private ProtobufWriter encodeValue(Object value) {
+    message.reset();
+    if (value instanceof String string) {
+      message.writeStringField(VALUE_STRING, string);
+    } else if (value instanceof Long number) {
+      if (number < 0L) {
+        message.writeSintField(VALUE_SINT, number);
+      } else {
+        message.writeVarintField(VALUE_UINT, number);
+      }
+    } else if (value instanceof Double number) {
+      message.writeDoubleField(VALUE_DOUBLE, number);
+    } else if (value instanceof Float number) {
+      message.writeFloatField(VALUE_FLOAT, number);
+    } else {
+      message.writeVarintField(VALUE_BOOL, (Boolean) value ? 1L : 0L);
+    }
+    return message;
+  }
+
+  /**
+   * Returns the encoded vector tile.
+   *
+   * @return the vector tile
+   */
+  public byte[] toByteArray() {
+    return tile.toByteArray();
+  }
+
+  /**
+   * Writes the encoded vector tile to the output stream. The output stream is not closed.
+   *
+   * @param outputStream the output stream
+   * @throws IOException if writing fails
+   */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    tile.writeTo(outputStream);
+  }
+
+}
@@ -0,0 +1,508 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.mvt;
+
+import static java.util.Objects.nonNull;
+import static org.bremersee.geojson.io.mvt.MvtConstants.COMMAND_CLOSE_PATH;
+import static org.bremersee.geojson.io.mvt.MvtConstants.COMMAND_LINE_TO;
+import static org.bremersee.geojson.io.mvt.MvtConstants.COMMAND_MOVE_TO;
+import static org.bremersee.geojson.io.mvt.MvtConstants.GEOMETRY_TYPE_LINESTRING;
+import static org.bremersee.geojson.io.mvt.MvtConstants.GEOMETRY_TYPE_POINT;
+import static org.bremersee.geojson.io.mvt.MvtConstants.GEOMETRY_TYPE_POLYGON;
+import static org.bremersee.geojson.io.mvt.MvtConstants.GEOMETRY_TYPE_UNKNOWN;
+
+import java.util.Arrays;
+import org.bremersee.geojson.crs.CrsTransform;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * The encoder of the geometry of a vector tile feature.
+ *
+ * <p>The positions are projected into the pixel space of the tile (web mercator, the origin is
+ * the upper left corner of the tile), clipped at the tile bounds plus the buffer, rounded to
+ * integers and encoded as commands with zigzag encoded deltas. Lines are clipped with the
+ * algorithm of Liang-Barsky, rings with the algorithm of Sutherland-Hodgman; geometries, that lie
+ * completely inside the clip bounds, are not clipped at all. Consecutive duplicate positions are
+ * removed and the rings are oriented as the specification requires (exterior rings clockwise,
+ * interior rings counter-clockwise in tile coordinates).
+ *
+ * <p>All intermediate results are written to arrays, that are reused for the next geometry, so
+ * encoding a geometry allocates nothing but the growth of these arrays. The encoder is not thread
+ * safe.
+ *
+ * @author Christian Bremer
+ */
+class MvtGeometryEncoder {
+
+  /**
+   * The maximum latitude of the web mercator projection.
+   */
+  static final double MAX_LATITUDE = 85.0511287798066;
+
+  private final double scale;
+
+  private final int tileX;
+
+  private final int tileY;
+
+  private final int extent;
+
+  private final double min;
+
+  private final double max;
+
+  private final CrsTransform transform;
+
+  private double[] positions = new double[256];
+
+  private double[] clipped = new double[256];
+
+  private double[] swap = new double[256];
+
+  private int[] parts = new int[16];
+
+  private int[] quantized = new int[256];
+
+  private int[] commands = new int[256];
+
+  private int commandCount;
+
+  private int cursorX;
+
+  private int cursorY;
+
+  private double t0;
+
+  private double t1;
+
+  private boolean inside;
+
+  /**
+   * Instantiates a new geometry encoder.
+   *
+   * @param z the zoom level
+   * @param x the column of the tile
+   * @param y the row of the tile (counted from the north)
+   * @param extent the extent of the tile
+   * @param buffer the buffer around the tile
+   * @param transform the transform of the positions into WGS84 (can be {@code null})
+   */
+  MvtGeometryEncoder(int z, int x, int y, int extent, int buffer, CrsTransform transform) {
+    this.scale = Math.scalb(1., z);
+    this.tileX = x;
+    this.tileY = y;
+    this.extent = extent;
+    this.min = -buffer;
+    this.max = extent + (double) buffer;
+    this.transform = transform == CrsTransform.IDENTITY ? null : transform;
+  }
+
+  /**
+   * Gets the encoded commands of the last geometry. The array is reused by the next call of
+   * {@link #encode(Geometry)}.
+   *
+   * @return the commands
+   */
+  int[] getCommands() {
+    return commands;
+  }
+
+  /**
+   * Gets the number of encoded commands and parameters of the last geometry.
+   *
+   * @return the number of commands and parameters
+   */
+  int getCommandCount() {
+    return commandCount;
+  }
+
+  /**
+   * Encodes a point, line string, polygon or multi geometry. Geometry collections must be
+   * encoded member by member, because a feature of a vector tile has only one geometry type.
+   *
+   * @param geometry the geometry
+   * @return the geometry type of the vector tile or {@code 0}, if nothing of the geometry lies
+   *     within the clip bounds
+   */
+  int encode(Geometry geometry) {
+    commandCount = 0;
+    cursorX = 0;
+    cursorY = 0;
+    if (geometry.isEmpty() || !intersects(geometry.getEnvelopeInternal())) {
+      return GEOMETRY_TYPE_UNKNOWN;
+    }
+    int type = GEOMETRY_TYPE_UNKNOWN;
+    if (geometry instanceof Point || geometry instanceof MultiPoint) {
+      encodePoints(geometry);
+      type = GEOMETRY_TYPE_POINT;
+    } else if (geometry instanceof LineString lineString) {
+      encodeLine(lineString);
+      type = GEOMETRY_TYPE_LINESTRING;
+    } else if (geometry instanceof MultiLineString) {
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        encodeLine((LineString) geometry.getGeometryN(i));
+      }
+      type = GEOMETRY_TYPE_LINESTRING;
+    } else if (geometry instanceof Polygon polygon) {
+      encodePolygon(polygon);
+      type = GEOMETRY_TYPE_POLYGON;
+    } else if (geometry instanceof MultiPolygon) {
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        encodePolygon((Polygon) geometry.getGeometryN(i));
+      }
+      type = GEOMETRY_TYPE_POLYGON;
+    }
+    return commandCount > 0 ? type : GEOMETRY_TYPE_UNKNOWN;
+  }
+
+  /**
+   * Checks, whether the envelope intersects the clip bounds. The web mercator projection is
+   * monotonic in both axes, so the projected corners of the envelope are the bounds of the
+   * projected geometry. If there is a transform, this is not true and {@code true} is returned.
+   *
+   * @param envelope the envelope
+   * @return {@code false}, if the geometry lies completely outside the clip bounds
+   */
+  boolean intersects(Envelope envelope) {
+    if (nonNull(transform)) {
+      return true;
+    }
+    return !envelope.isNull()
+        && projectX(envelope.getMaxX()) >= min
+        && projectX(envelope.getMinX()) <= max
+        && projectY(envelope.getMinY()) >= min
+        && projectY(envelope.getMaxY()) <= max;
+  }
+
+  private double projectX(double longitude) {
+    return ((longitude + 180.) / 360. * scale - tileX) * extent;
+  }
+
+  private double projectY(double latitude) {
+    double lat = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+    double sin = Math.sin(Math.toRadians(lat));
+    return ((0.5 - Math.log((1. + sin) / (1. - sin)) / (4. * Math.PI)) * scale - tileY) * extent;
+  }
+
+  /**
+   * Projects the positions of the sequence into the pixel space of the tile.
+   *
+   * @param seq the coordinate sequence
+   * @return the number of positions
+   */
+  private int project(CoordinateSequence seq) {
+    int count = seq.size();
+    positions = ensureCapacity(positions, 2 * count);
+    for (int i = 0, n = 0; i < count; i++, n += 2) {
+      positions[n] = seq.getX(i);
+      positions[n + 1] = seq.getY(i);
+    }
+    if (nonNull(transform)) {
+      transform.transform(positions, 0, count, 2);
+    }
+    inside = true;
+    for (int i = 0, n = 0; i < count; i++, n += 2) {
+      double x = projectX(positions[n]);
+      double y = projectY(positions[n + 1]);
+      positions[n] = x;
+      positions[n + 1] = y;
+      inside = inside && x >= min && x <= max && y >= min && y <= max;
+    }
+    return count;
+  }
+
+  private void encodePoints(Geometry geometry) {
+    int count = 0;
+    for (int i = 0; i < geometry.getNumGeometries(); i++) {
+      Point point = (Point) geometry.getGeometryN(i);
+      if (!point.isEmpty()) {
+        project(point.getCoordinateSequence());
+        if (inside) {
+          quantized = ensureCapacity(quantized, 2 * count + 2);
+          quantized[2 * count] = (int) Math.round(positions[0]);
+          quantized[2 * count + 1] = (int) Math.round(positions[1]);
+          count++;
+        }
+      }
+    }
+    if (count > 0) {
+      addCommand(COMMAND_MOVE_TO, count);
+      for (int i = 0; i < count; i++) {
+        addPosition(quantized[2 * i], quantized[2 * i + 1]);
+      }
+    }
+  }
+
+  private void encodeLine(LineString lineString) {
+    int count = project(lineString.getCoordinateSequence());
+    if (count < 2) {
+      return;
+    }
+    if (inside) {
+      encodeLinePart(positions, 0, count);
+      return;
+    }
+    int partCount = clipLine(count);
+    for (int i = 0; i < partCount; i++) {
+      encodeLinePart(clipped, parts[i], parts[i + 1]);
+    }
+  }
+
+  /**
+   * Clips the projected line with the algorithm of Liang-Barsky segment by segment. The parts of
+   * the clipped line are written to the clipped positions, the start index of every part and the
+   * end index of the last part are written to the parts.
+   *
+   * @param count the number of projected positions
+   * @return the number of parts
+   */
+  private int clipLine(int count) {
+    int size = 0;
+    int partCount = 0;
+    boolean open = false;
+    for (int i = 0, n = 0; i + 1 < count; i++, n += 2) {
+      double x0 = positions[n];
+      double y0 = positions[n + 1];
+      double dx = positions[n + 2] - x0;
+      double dy = positions[n + 3] - y0;
+      t0 = 0.;
+      t1 = 1.;
+      if (!clip(-dx, x0 - min) || !clip(dx, max - x0)
+          || !clip(-dy, y0 - min) || !clip(dy, max - y0)) {
+        open = false;
+        continue;
+      }
+      clipped = ensureCapacity(clipped, 2 * size + 4);
+      if (!open || t0 > 0.) {
+        parts = ensureCapacity(parts, partCount + 2);
+        parts[partCount++] = size;
+        clipped[2 * size] = x0 + t0 * dx;
+        clipped[2 * size + 1] = y0 + t0 * dy;
+        size++;
+        open = true;
+      }
+      clipped[2 * size] = x0 + t1 * dx;
+      clipped[2 * size + 1] = y0 + t1 * dy;
+      size++;
+      open = t1 >= 1.;
+    }
+    parts[partCount] = size;
+    return partCount;
+  }
+
+  private boolean clip(double p, double q) {
+    if (p == 0.) {
+      return q >= 0.;
+    }
+    double r = q / p;
+    if (p < 0.) {
+      if (r > t1) {
+        return false;
+      }
+      t0 = Math.max(t0, r);
+    } else {
+      if (r < t0) {
+        return false;
+      }
+      t1 = Math.min(t1, r);
+    }
+    return true;
+  }
+
+  private void encodeLinePart(double[] source, int from, int to) {
+    int count = quantize(source, from, to);
+    if (count >= 2) {
+      addCommand(COMMAND_MOVE_TO, 1);
+      addPosition(quantized[0], quantized[1]);
+      addCommand(COMMAND_LINE_TO, count - 1);
+      for (int i = 1; i < count; i++) {
+        addPosition(quantized[2 * i], quantized[2 * i + 1]);
+      }
+    }
+  }
+
+  private void encodePolygon(Polygon polygon) {
+    if (polygon.isEmpty() || !encodeRing(polygon.getExteriorRing(), true)) {
+      return;
+    }
+    for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+      encodeRing(polygon.getInteriorRingN(i), false);
+    }
+  }
+
+  /**
+   * Encodes a ring.
+   *
+   * @param ring the ring
+   * @param exterior specifies whether the ring is an exterior ring
+   * @return {@code true}, if the ring was encoded, {@code false}, if it was removed because it
+   *     lies outside the clip bounds or has no area
+   */
+  private boolean encodeRing(LineString ring, boolean exterior) {
+    // the closing position is not projected, the ring is closed by a command
+    int count = project(ring.getCoordinateSequence()) - 1;
+    if (count < 3) {
+      return false;
+    }
+    double[] source = positions;
+    if (!inside) {
+      count = clipRing(count);
+      source = clipped;
+    }
+    count = quantize(source, 0, count);
+    if (count > 1 && quantized[0] == quantized[2 * count - 2]
+        && quantized[1] == quantized[2 * count - 1]) {
+      count--;
+    }
+    if (count < 3) {
+      return false;
+    }
+    long area = 0L;
+    for (int i = 0, j = count - 1; i < count; j = i++) {
+      area += (long) quantized[2 * j] * quantized[2 * i + 1]
+          - (long) quantized[2 * i] * quantized[2 * j + 1];
+    }
+    if (area == 0L) {
+      return false;
+    }
+    if ((area > 0L) != exterior) {
+      reverse(count);
+    }
+    addCommand(COMMAND_MOVE_TO, 1);
+    addPosition(quantized[0], quantized[1]);
+    addCommand(COMMAND_LINE_TO, count - 1);
+    for (int i = 1; i < count; i++) {
+      addPosition(quantized[2 * i], quantized[2 * i + 1]);
+    }
+    addCommand(COMMAND_CLOSE_PATH, 1);
+    return true;
+  }
+
+  /**
+   * Clips the projected ring with the algorithm of Sutherland-Hodgman at the four edges of the
+   * clip bounds. The result is written to the clipped positions.
+   *
+   * @param count the number of projected positions without the closing position
+   * @return the number of clipped positions
+   */
+  private int clipRing(int count) {
+    clipped = ensureCapacity(clipped, 2 * count);
+    System.arraycopy(positions, 0, clipped, 0, 2 * count);
+    int size = count;
+    size = clipEdge(size, 0, min, true);
+    size = clipEdge(size, 0, max, false);
+    size = clipEdge(size, 1, min, true);
+    return clipEdge(size, 1, max, false);
+  }
+
+  private int clipEdge(int count, int axis, double bound, boolean lower) {
+    swap = ensureCapacity(swap, 4 * count);
+    int size = 0;
+    int other = 1 - axis;
+    for (int i = 0, j = count - 1; i < count; j = i++) {
+      double current = clipped[2 * i + axis];
+      double previous = clipped[2 * j + axis];
+      boolean currentInside = lower ? current >= bound : current <= bound;
+      boolean previousInside = lower ? previous >= bound : previous <= bound;
+      if (currentInside != previousInside) {
+        double t = (bound - previous) / (current - previous);
+        swap[2 * size + axis] = bound;
+        swap[2 * size + other] = clipped[2 * j + other]
+            + t * (clipped[2 * i + other] - clipped[2 * j + other]);
+        size++;
+      }
+      if (currentInside) {
+        swap[2 * size] = clipped[2 * i];
+        swap[2 * size + 1] = clipped[2 * i + 1];
+        size++;
+      }
+    }
+    double[] tmp = clipped;
+    clipped = swap;
+    swap = tmp;
+    return size;
+  }
+
+  /**
+   * Rounds the positions to integers and removes consecutive duplicates.
+   *
+   * @param source the source positions
+   * @param from the index of the first position (inclusive)
+   * @param to the index of the last position (exclusive)
+   * @return the number of quantized positions
+   */
+  private int quantize(double[] source, int from, int to) {
+    quantized = ensureCapacity(quantized, 2 * (to - from));
+    int count = 0;
+    for (int i = from; i < to; i++) {
+      int x = (int) Math.round(source[2 * i]);
+      int y = (int) Math.round(source[2 * i + 1]);
+      if (count == 0 || x != quantized[2 * count - 2] || y != quantized[2 * count - 1]) {
+        quantized[2 * count] = x;
+        quantized[2 * count + 1] = y;
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private void reverse(int count) {
+    // the first position stays the first one
+    for (int i = 1, j = count - 1; i < j; i++, j--) {
+      int x = quantized[2 * i];
+      int y = quantized[2 * i + 1];
+      quantized[2 * i] = quantized[2 * j];
+      quantized[2 * i + 1] = quantized[2 * j + 1];
+      quantized[2 * j] = x;
+      quantized[2 * j + 1] = y;
+    }
+  }
+
+  private void addCommand(int id, int count) {
+    commands = ensureCapacity(commands, commandCount + 1);
+    commands[commandCount++] = (id & 0x7) | (count << 3);
+  }
+
+  private void addPosition(int x, int y) {
+    commands = ensureCapacity(commands, commandCount + 2);
+    commands[commandCount++] = ProtobufWriter.zigZag(x - cursorX);
+    commands[commandCount++] = ProtobufWriter.zigZag(y - cursorY);
+    cursorX = x;
+    cursorY = y;
+  }
+
+  private static double[] ensureCapacity(double[] array, int length) {
+    return array.length >= length
+        ? array
+        : Arrays.copyOf(array, Math.max(2 * array.length, length));
+  }
+
+  private static int[] ensureCapacity(int[] array, int length) {
+    return array.length >= length
+        ? array
+        : Arrays.copyOf(array, Math.max(2 * array.length, length));
+  }
+
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.mvt;
+
+import static org.bremersee.geojson.io.mvt.MvtConstants.WIRE_TYPE_FIXED32;
+import static org.bremersee.geojson.io.mvt.MvtConstants.WIRE_TYPE_FIXED64;
+import static org.bremersee.geojson.io.mvt.MvtConstants.WIRE_TYPE_LENGTH_DELIMITED;
+import static org.bremersee.geojson.io.mvt.MvtConstants.WIRE_TYPE_VARINT;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A writer of protocol buffers messages (see
+ * <a href="https://protobuf.dev/programming-guides/encoding/">Encoding</a>).
+ *
+ * <p>The fields are appended to a growing byte array. An embedded message is written by another
+ * writer and then appended with its length, so a writer can be reset and reused for the next
+ * message without allocating a new buffer.
+ *
+ * @author Christian Bremer
+ */
+class ProtobufWriter {
+
+  private byte[] buffer;
+
+  private int size;
+
+  /**
+   * Instantiates a new protocol buffers writer.
+   *
+   * @param capacity the initial capacity in bytes
+   */
+  ProtobufWriter(int capacity) {
+    this.buffer = new byte[Math.max(capacity, 16)];
+  }
+
+  /**
+   * Gets the number of written bytes.
+   *
+   * @return the number of written bytes
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Discards the written bytes.
+   */
+  void reset() {
+    size = 0;
+  }
+
+  /**
+   * Writes a varint field.
+   *
+   * @param field the field number
+   * @param value the value
+   * @return the writer
+   */
+  ProtobufWriter writeVarintField(int field, long value) {
+    writeTag(field, WIRE_TYPE_VARINT);
+    return writeVarint(value);
+  }
+
+  /**
+   * Writes a zigzag encoded varint field (like {@code sint64}).
+   *
+   * @param field the field number
+   * @param value the value
+   * @return the writer
+   */
+  ProtobufWriter writeSintField(int field, long value) {
+    return writeVarintField(field, zigZag(value));
+  }
+
+  /**
+   * Writes a {@code float} field.
+   *
+   * @param field the field number
+   * @param value the value
+   * @return the writer
+   */
+  ProtobufWriter writeFloatField(int field, float value) {
+    writeTag(field, WIRE_TYPE_FIXED32);
+    return writeFixed(Float.floatToIntBits(value), 4);
+  }
+
+  /**
+   * Writes a {@code double} field.
+   *
+   * @param field the field number
+   * @param value the value
+   * @return the writer
+   */
+  ProtobufWriter writeDoubleField(int field, double value) {
+    writeTag(field, WIRE_TYPE_FIXED64);
+    return writeFixed(Double.doubleToLongBits(value), 8);
+  }
+
+  /**
+   * Writes a string field.
+   *
+   * @param field the field number
+   * @param value the value
+   * @return the writer
+   */
+  ProtobufWriter writeStringField(int field, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeTag(field, WIRE_TYPE_LENGTH_DELIMITED);
+    writeVarint(bytes.length);
+    return writeBytes(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Writes an embedded message field.
+   *
+   * @param field the field number
+   * @param message the writer of the embedded message
+   * @return the writer
+   */
+  ProtobufWriter writeMessageField(int field, ProtobufWriter message) {
+    writeTag(field, WIRE_TYPE_LENGTH_DELIMITED);
+    writeVarint(message.size);
+    return writeBytes(message.buffer, 0, message.size);
+  }
+
+  /**
+   * Writes a packed repeated {@code uint32} field. Nothing is written, if there are no values.
+   *
+   * @param field the field number
+   * @param values the values
+   * @param length the number of values
+   * @return the writer
+   */
+  ProtobufWriter writePackedField(int field, int[] values, int length) {
+    if (length == 0) {
+      return this;
+    }
+    int bytes = 0;
+    for (int i = 0; i < length; i++) {
+      bytes += getVarintSize(Integer.toUnsignedLong(values[i]));
+    }
+    writeTag(field, WIRE_TYPE_LENGTH_DELIMITED);
+    writeVarint(bytes);
+    ensureCapacity(bytes);
+    for (int i = 0; i < length; i++) {
+      writeVarint(Integer.toUnsignedLong(values[i]));
+    }
+    return this;
+  }
+
+  /**
+   * Appends the bytes of another writer without a tag (like the fields of a message, that was
+   * written in parts).
+   *
+   * @param other the other writer
+   * @return the writer
+   */
+  ProtobufWriter writeRaw(ProtobufWriter other) {
+    return writeBytes(other.buffer, 0, other.size);
+  }
+
+  /**
+   * Returns a copy of the written bytes.
+   *
+   * @return the bytes
+   */
+  byte[] toByteArray() {
+    return Arrays.copyOf(buffer, size);
+  }
+
+  /**
+   * Writes the written bytes to the output stream.
+   *
+   * @param outputStream the output stream
+   * @throws IOException if writing fails
+   */
+  void writeTo(OutputStream outputStream) throws IOException {
+    outputStream.write(buffer, 0, size);
+  }
+
+  /**
+   * Encodes a signed int with the zigzag encoding.
+   *
+   * @param value the value
+   * @return the zigzag encoded value
+   */
+  static int zigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  /**
+   * Encodes a signed long with the zigzag encoding.
+   *
+   * @param value the value
+   * @return the zigzag encoded value
+   */
+  static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private void writeTag(int field, int wireType) {
+    writeVarint(((long) field << 3) | wireType);
+  }
+
+  private ProtobufWriter writeVarint(long value) {
+    ensureCapacity(10);
+    long v = value;
+    while ((v & ~0x7FL) != 0) {
+      buffer[size++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    buffer[size++] = (byte) v;
+    return this;
+  }
+
+  private ProtobufWriter writeFixed(long value, int length) {
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      buffer[size++] = (byte) (value >>> (8 * i));
+    }
+    return this;
+  }
+
+  private ProtobufWriter writeBytes(byte[] bytes, int offset, int length) {
+    ensureCapacity(length);
+    System.arraycopy(bytes, offset, buffer, size, length);
+    size += length;
+    return this;
+  }
+
+  private void ensureCapacity(int length) {
+    if (buffer.length - size < length) {
+      buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, size + length));
+    }
+  }
+
+  private static int getVarintSize(long value) {
+    return value == 0 ? 1 : (64 - Long.numberOfLeadingZeros(value) + 6) / 7;
+  }
+
+}
@@ -0,0 +1,470 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.simplify;
+
+import static java.util.Objects.hash;
+import static java.util.Objects.isNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.util.GeometryTransformer;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+/**
+ * A simplifier of geometries with a distance tolerance, that can be derived from a zoom level.
+ *
+ * <p>The algorithms of Douglas-Peucker and Visvalingam-Whyatt are applied to every coordinate
+ * sequence on its own: {@link #simplify(CoordinateSequence)} returns the indexes of the positions
+ * to keep, so a serializer can write the simplified sequence directly without copying the
+ * geometry. A closed sequence (like a ring) keeps at least four positions and a line keeps its
+ * first and last position. {@link #simplify(Geometry)} applies the same algorithm to every
+ * sequence of the geometry and creates a simplified copy, so a geometry simplified in advance
+ * is equal to the one, that is simplified while it is written; unlike the simplifiers of JTS,
+ * polygons never collapse and are never repaired. The topology preserving variant must see the
+ * whole geometry, so it can only be applied by {@link #simplify(Geometry)}.
+ *
+ * <p>The simplifier is immutable and thread safe.
+ *
+ * @author Christian Bremer
+ */
+public class GeometrySimplifier implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The default size of a tile in pixels.
+   */
+  public static final int DEFAULT_TILE_SIZE = 256;
+
+  /**
+   * The width of the world in WGS84 degrees.
+   */
+  public static final double WGS84_WORLD_WIDTH = 360.;
+
+  /**
+   * The simplification algorithm.
+   */
+  public enum Algorithm {
+
+    /**
+     * Removes positions, that are nearer to the simplified line than the tolerance.
+     */
+    DOUGLAS_PEUCKER,
+
+    /**
+     * Removes positions, that span a triangle with their neighbours with a smaller area than
+     * the square of the tolerance.
+     */
+    VISVALINGAM_WHYATT,
+
+    /**
+     * Like Douglas-Peucker, but the simplified geometry has the same topology as the original
+     * one (no new intersections, no collapsed rings).
+     */
+    TOPOLOGY_PRESERVING
+  }
+
+  private final Algorithm algorithm;
+
+  private final double tolerance;
+
+  /**
+   * Instantiates a new geometry simplifier.
+   *
+   * @param algorithm the algorithm
+   * @param tolerance the distance tolerance in the units of the coordinates
+   */
+  public GeometrySimplifier(Algorithm algorithm, double tolerance) {
+    if (isNull(algorithm)) {
+      throw new IllegalArgumentException("Algorithm must be present.");
+    }
+    if (!(tolerance >= 0.) || Double.isInfinite(tolerance)) {
+      throw new IllegalArgumentException("Tolerance must be a finite, non negative number.");
+    }
+    this.algorithm = algorithm;
+    this.tolerance = tolerance;
+  }
+
+  /**
+   * Creates a simplifier for WGS84 coordinates, whose tolerance is the specified number of
+   * pixels of a tile with the default size at the zoom level (at the equator).
+   *
+   * @param algorithm the algorithm
+   * @param zoom the zoom level
+   * @param pixels the tolerance in pixels
+   * @return the geometry simplifier
+   */
+  public static GeometrySimplifier forZoom(Algorithm algorithm, int zoom, double pixels) {
+    return forZoom(algorithm, zoom, pixels, DEFAULT_TILE_SIZE, WGS84_WORLD_WIDTH);
+  }
+
+  /**
+   * Creates a simplifier, whose tolerance is the specified number of pixels of a tile at the
+   * zoom level.
+   *
+   * @param algorithm the algorithm
+   * @param zoom the zoom level (0 to 30)
+   * @param pixels the tolerance in pixels
+   * @param tileSize the size of a tile in pixels
+   * @param worldWidth the width of the world in the units of the coordinates (like 360 for
+   *     WGS84 or the circumference of the earth for web mercator)
+   * @return the geometry simplifier
+   */
+  public static GeometrySimplifier forZoom(
+      Algorithm algorithm,
+      int zoom,
+      double pixels,
+      int tileSize,
+      double worldWidth) {
+    if (zoom < 0 || zoom > 30 || tileSize <= 0) {
+      throw new IllegalArgumentException(
+          "Zoom level must be between 0 and 30 and tile size must be positive.");
+    }
+    return new GeometrySimplifier(
+        algorithm,
+        pixels * worldWidth / Math.scalb((double) tileSize, zoom));
+  }
+
+  /**
+   * Gets algorithm.
+   *
+   * @return the algorithm
+   */
+  public Algorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * Gets the distance tolerance.
+   *
+   * @return the tolerance
+   */
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Specifies whether the simplifier can be applied to coordinate sequences.
+   *
+   * @return {@code false}, if the algorithm is topology preserving
+   */
+  public boolean isSequenceSimplifier() {
+    return algorithm != Algorithm.TOPOLOGY_PRESERVING;
+  }
+
+  /**
+   * Simplifies the geometry. The result is a new geometry. The algorithms of Douglas-Peucker and
+   * Visvalingam-Whyatt keep the positions of every coordinate sequence, that
+   * {@link #simplify(CoordinateSequence)} returns.
+   *
+   * @param geometry the geometry (can be {@code null})
+   * @return the simplified geometry
+   */
+  public Geometry simplify(Geometry geometry) {
+    if (isNull(geometry) || tolerance == 0.) {
+      return geometry;
+    }
+    if (!isSequenceSimplifier()) {
+      return TopologyPreservingSimplifier.simplify(geometry, tolerance);
+    }
+    return new SequenceTransformer().transform(geometry);
+  }
+
+  /**
+   * Simplifies the coordinate sequence with the algorithm of Douglas-Peucker or
+   * Visvalingam-Whyatt.
+   *
+   * @param sequence the coordinate sequence (can be {@code null})
+   * @return the ascending indexes of the positions to keep or {@code null}, if all positions
+   *     are kept
+   */
+  public int[] simplify(CoordinateSequence sequence) {
+    if (!isSequenceSimplifier()) {
+      throw new IllegalStateException("A topology preserving simplifier needs the geometry.");
+    }
+    int size = isNull(sequence) ? 0 : sequence.size();
+    boolean closed = size >= 4
+        && sequence.getX(0) == sequence.getX(size - 1)
+        && sequence.getY(0) == sequence.getY(size - 1);
+    int minSize = closed ? 4 : 2;
+    if (tolerance == 0. || size <= minSize) {
+      return null;
+    }
+    double[] xy = new double[2 * size];
+    for (int i = 0; i < size; i++) {
+      xy[2 * i] = sequence.getX(i);
+      xy[2 * i + 1] = sequence.getY(i);
+    }
+    boolean[] keep = algorithm == Algorithm.DOUGLAS_PEUCKER
+        ? douglasPeucker(xy, size, closed)
+        : visvalingamWhyatt(xy, size, minSize);
+    int[] indexes = new int[size];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      if (keep[i]) {
+        indexes[count++] = i;
+      }
+    }
+    return count == size ? null : Arrays.copyOf(indexes, count);
+  }
+
+  /**
+   * Applies the algorithm of Douglas-Peucker with a stack instead of recursion. A closed
+   * sequence is split at the position, that is farthest from the first one, and the farthest
+   * positions of both halves are kept regardless of the tolerance, so that at least a triangle
+   * remains.
+   */
+  private boolean[] douglasPeucker(double[] xy, int size, boolean closed) {
+    boolean[] keep = new boolean[size];
+    keep[0] = true;
+    keep[size - 1] = true;
+    int[] stack = new int[64];
+    int top = 0;
+    if (closed) {
+      int split = 1;
+      double max = -1.;
+      for (int i = 1; i < size - 1; i++) {
+        double dx = xy[2 * i] - xy[0];
+        double dy = xy[2 * i + 1] - xy[1];
+        double distance = dx * dx + dy * dy;
+        if (distance > max) {
+          max = distance;
+          split = i;
+        }
+      }
+      keep[split] = true;
+      keep[getFarthest(xy, 0, split)] = true;
+      keep[getFarthest(xy, split, size - 1)] = true;
+      for (int from = 0, to = 1; to < size; to++) {
+        if (keep[to]) {
+          stack = push(stack, top, from, to);
+          top += 2;
+          from = to;
+        }
+      }
+    } else {
+      stack[top++] = 0;
+      stack[top++] = size - 1;
+    }
+    double squaredTolerance = tolerance * tolerance;
+    while (top > 0) {
+      int to = stack[--top];
+      int from = stack[--top];
+      if (to - from < 2) {
+        continue;
+      }
+      int farthest = getFarthest(xy, from, to);
+      if (getSquaredDistance(xy, farthest, from, to) > squaredTolerance) {
+        keep[farthest] = true;
+        stack = push(stack, top, from, farthest);
+        top += 2;
+        stack = push(stack, top, farthest, to);
+        top += 2;
+      }
+    }
+    return keep;
+  }
+
+  private static int[] push(int[] stack, int top, int from, int to) {
+    int[] result = stack.length < top + 2 ? Arrays.copyOf(stack, 2 * stack.length) : stack;
+    result[top] = from;
+    result[top + 1] = to;
+    return result;
+  }
+
+  /**
+   * Gets the position between from and to (exclusive), that is farthest from the segment. If
+   * there is no such position, from is returned.
+   */
+  private static int getFarthest(double[] xy, int from, int to) {
+    int farthest = from;
+    double max = -1.;
+    for (int i = from + 1; i < to; i++) {
+      double distance = getSquaredDistance(xy, i, from, to);
+      if (distance > max) {
+        max = distance;
+        farthest = i;
+      }
+    }
+    return farthest;
+  }
+
+  private static double getSquaredDistance(double[] xy, int i, int from, int to) {
+    double px = xy[2 * i];
+    double py = xy[2 * i + 1];
+    double ax = xy[2 * from];
+    double ay = xy[2 * from + 1];
+    double dx = xy[2 * to] - ax;
+    double dy = xy[2 * to + 1] - ay;
+    double length = dx * dx + dy * dy;
+    double t = length == 0. ? 0. : ((px - ax) * dx + (py - ay) * dy) / length;
+    t = Math.max(0., Math.min(1., t));
+    double ex = ax + t * dx - px;
+    double ey = ay + t * dy - py;
+    return ex * ex + ey * ey;
+  }
+
+  /**
+   * Applies the algorithm of Visvalingam-Whyatt: the position with the smallest effective area
+   * is removed and the areas of its neighbours are recalculated, until the smallest area is not
+   * smaller than the square of the tolerance or the minimum size is reached. The positions are
+   * kept in a binary min heap.
+   */
+  private boolean[] visvalingamWhyatt(double[] xy, int size, int minSize) {
+    boolean[] keep = new boolean[size];
+    Arrays.fill(keep, true);
+    int[] previous = new int[size];
+    int[] next = new int[size];
+    double[] areas = new double[size];
+    int[] heap = new int[size];
+    int[] heapIndexes = new int[size];
+    int heapSize = 0;
+    for (int i = 1; i < size - 1; i++) {
+      previous[i] = i - 1;
+      next[i] = i + 1;
+      areas[i] = getArea(xy, i - 1, i, i + 1);
+      heap[heapSize] = i;
+      heapIndexes[i] = heapSize++;
+    }
+    for (int i = heapSize / 2 - 1; i >= 0; i--) {
+      siftDown(heap, heapIndexes, areas, heapSize, i);
+    }
+    double minArea = tolerance * tolerance;
+    int count = size;
+    while (heapSize > 0 && count > minSize) {
+      int i = heap[0];
+      if (areas[i] >= minArea) {
+        break;
+      }
+      heap[0] = heap[--heapSize];
+      heapIndexes[heap[0]] = 0;
+      siftDown(heap, heapIndexes, areas, heapSize, 0);
+      keep[i] = false;
+      count--;
+      int p = previous[i];
+      int n = next[i];
+      next[p] = n;
+      previous[n] = p;
+      // the effective area of a neighbour is never smaller than the area of the removed one
+      if (p > 0) {
+        areas[p] = Math.max(areas[i], getArea(xy, previous[p], p, n));
+        update(heap, heapIndexes, areas, heapSize, heapIndexes[p]);
+      }
+      if (n < size - 1) {
+        areas[n] = Math.max(areas[i], getArea(xy, p, n, next[n]));
+        update(heap, heapIndexes, areas, heapSize, heapIndexes[n]);
+      }
+    }
+    return keep;
+  }
+
+  private static double getArea(double[] xy, int a, int b, int c) {
+    return Math.abs((xy[2 * b] - xy[2 * a]) * (xy[2 * c + 1] - xy[2 * a + 1])
+        - (xy[2 * c] - xy[2 * a]) * (xy[2 * b + 1] - xy[2 * a + 1])) / 2.;
+  }
+
+  private static void update(int[] heap, int[] heapIndexes, double[] areas, int size, int k) {
+    int i = k;
+    while (i > 0 && areas[heap[i]] < areas[heap[(i - 1) / 2]]) {
+      swap(heap, heapIndexes, i, (i - 1) / 2);
+      i = (i - 1) / 2;
+    }
+    siftDown(heap, heapIndexes, areas, size, i);
+  }
+
+  private static void siftDown(int[] heap, int[] heapIndexes, double[] areas, int size, int k) {
+    int i = k;
+    while (true) {
+      int smallest = i;
+      int left = 2 * i + 1;
+      int right = left + 1;
+      if (left < size && areas[heap[left]] < areas[heap[smallest]]) {
+        smallest = left;
+      }
+      if (right < size && areas[heap[right]] < areas[heap[smallest]]) {
+        smallest = right;
+      }
+      if (smallest == i) {
+        return;
+      }
+      swap(heap, heapIndexes, i, smallest);
+      i = smallest;
+    }
+  }
+
+  private static void swap(int[] heap, int[] heapIndexes, int i, int j) {
+    int tmp = heap[i];
+    heap[i] = heap[j];
+    heap[j] = tmp;
+    heapIndexes[heap[i]] = i;
+    heapIndexes[heap[j]] = j;
+  }
+
+  /**
+   * The transformer, that copies the positions of every coordinate sequence, that are kept.
+   */
+  private class SequenceTransformer extends GeometryTransformer {
+
+    @Override
+    protected CoordinateSequence transformCoordinates(
+        CoordinateSequence coords,
+        Geometry parent) {
+
+      int[] indexes = simplify(coords);
+      if (isNull(indexes)) {
+        return coords.copy();
+      }
+      CoordinateSequence result = factory.getCoordinateSequenceFactory()
+          .create(indexes.length, coords.getDimension(), coords.getMeasures());
+      for (int i = 0; i < indexes.length; i++) {
+        for (int dimension = 0; dimension < coords.getDimension(); dimension++) {
+          result.setOrdinate(i, dimension, coords.getOrdinate(indexes[i], dimension));
+        }
+      }
+      return result;
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof GeometrySimplifier that)) {
+      return false;
+    }
+    return algorithm == that.algorithm && Double.compare(tolerance, that.tolerance) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash(algorithm, tolerance);
+  }
+
+  @Override
+  public String toString() {
+    return "GeometrySimplifier{"
+        + "algorithm=" + algorithm
+        + ", tolerance=" + tolerance
+        + '}';
+  }
+
+}
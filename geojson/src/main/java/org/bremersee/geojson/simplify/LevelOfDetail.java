@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.simplify;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The level of detail of a zoom level of a {@link LevelOfDetailCache}.
+ *
+ * <p>It can be passed as an attribute of an object writer to the geometry serializer, which then
+ * writes the cached geometry of the zoom level or, if it is not cached yet, simplifies the
+ * geometry while it is written:
+ * <pre>
+ * objectMapper.writer()
+ *     .withAttribute(LevelOfDetail.class, cache.forZoom(zoom))
+ *     .writeValueAsString(featureCollection);
+ * </pre>
+ *
+ * @author Christian Bremer
+ * @see org.bremersee.geojson.converter.serialization.JacksonGeometrySerializer
+ */
+public class LevelOfDetail {
+
+  private final LevelOfDetailCache cache;
+
+  private final int zoom;
+
+  /**
+   * Instantiates a new level of detail.
+   *
+   * @param cache the cache
+   * @param zoom the zoom level
+   */
+  LevelOfDetail(LevelOfDetailCache cache, int zoom) {
+    this.cache = cache;
+    this.zoom = zoom;
+  }
+
+  /**
+   * Gets the zoom level.
+   *
+   * @return the zoom level
+   */
+  public int getZoom() {
+    return zoom;
+  }
+
+  /**
+   * Gets the cached geometry of the zoom level.
+   *
+   * @param geometry the original geometry
+   * @return the cached geometry or {@code null}, if it is not cached yet
+   * @see LevelOfDetailCache#getGeometry(Geometry, int)
+   */
+  public Geometry getGeometry(Geometry geometry) {
+    return cache.getGeometry(geometry, zoom);
+  }
+
+  /**
+   * Gets the simplifier of the zoom level.
+   *
+   * @return the simplifier or {@code null}, if the original geometry is used at the zoom level
+   */
+  public GeometrySimplifier getSimplifier() {
+    return cache.getSimplifier(zoom);
+  }
+
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.simplify;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.simplify.GeometrySimplifier.Algorithm;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A cache of simplified versions (levels of detail) of geometries for bands of zoom levels.
+ *
+ * <p>The bands are defined by ascending zoom levels: the first band starts at the first zoom
+ * level and ends before the second one and so on; from the last zoom level on, the original
+ * geometry is used. The geometry of a band is simplified with the tolerance of the highest zoom
+ * level of the band, so it has enough detail for the whole band. The levels are simplified with
+ * {@link GeometrySimplifier#simplify(Geometry)}, which applies the same algorithm as the
+ * serializer, if a level is not cached, so the output doesn't depend on the state of the cache.
+ * If a level has as many positions as the next finer one or if it is empty or collapsed, the
+ * finer one is used.
+ *
+ * <p>The levels of a geometry are computed once on the executor of the cache, not in the thread,
+ * that requests them: {@link #getGeometry(Geometry, int)} returns {@code null}, if the levels are
+ * not cached yet, and schedules their computation, so that the caller can fall back to simplify
+ * the geometry while it is written. Layers can be computed in advance with
+ * {@link #precompute(Iterable)}. The geometries are identified by identity, so they must not be
+ * changed after they were cached; otherwise they must be invalidated or recomputed with
+ * {@link #recompute(Geometry)}.
+ *
+ * <p>The size of the cache is bounded by the number of cached positions. The positions of the
+ * original geometries are counted, too, because the cache references them. If the bound is
+ * exceeded, the least recently used geometries are evicted. The cache is thread safe.
+ *
+ * @author Christian Bremer
+ * @see LevelOfDetail
+ */
+public class LevelOfDetailCache {
+
+  /**
+   * The default maximum number of cached positions.
+   */
+  public static final long DEFAULT_MAX_POSITIONS = 10_000_000L;
+
+  /**
+   * The default tolerance in pixels.
+   */
+  public static final double DEFAULT_PIXELS = 1.;
+
+  private final int[] zoomLevels;
+
+  private final GeometrySimplifier[] simplifiers;
+
+  private final long maxPositions;
+
+  private final Executor executor;
+
+  private final Map<Key, Levels> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+  private final Map<Key, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+  private long positions;
+
+  /**
+   * Instantiates a new level of detail cache with Douglas-Peucker simplifiers for WGS84 with a
+   * tolerance of one pixel, the default maximum number of positions and the common fork join
+   * pool.
+   *
+   * @param zoomLevels the ascending zoom levels, where the bands start
+   */
+  public LevelOfDetailCache(int... zoomLevels) {
+    this(Algorithm.DOUGLAS_PEUCKER, DEFAULT_PIXELS, zoomLevels, DEFAULT_MAX_POSITIONS, null);
+  }
+
+  /**
+   * Instantiates a new level of detail cache for WGS84 coordinates.
+   *
+   * @param algorithm the simplification algorithm
+   * @param pixels the tolerance in pixels
+   * @param zoomLevels the ascending zoom levels (0 to 30), where the bands start
+   * @param maxPositions the maximum number of cached positions (including the positions of the
+   *     original geometries)
+   * @param executor the executor of the computations (if it is {@code null}, the common fork
+   *     join pool is used)
+   * @see GeometrySimplifier#forZoom(Algorithm, int, double)
+   */
+  public LevelOfDetailCache(
+      Algorithm algorithm,
+      double pixels,
+      int[] zoomLevels,
+      long maxPositions,
+      Executor executor) {
+
+    if (isNull(zoomLevels) || zoomLevels.length < 2) {
+      throw new IllegalArgumentException("At least two zoom levels must be present.");
+    }
+    for (int i = 1; i < zoomLevels.length; i++) {
+      if (zoomLevels[i - 1] >= zoomLevels[i]) {
+        throw new IllegalArgumentException("Zoom levels must be ascending.");
+      }
+    }
+    if (maxPositions <= 0L) {
+      throw new IllegalArgumentException("Maximum number of positions must be positive.");
+    }
+    this.zoomLevels = zoomLevels.clone();
+    this.simplifiers = new GeometrySimplifier[zoomLevels.length - 1];
+    for (int i = 0; i < simplifiers.length; i++) {
+      simplifiers[i] = GeometrySimplifier.forZoom(algorithm, zoomLevels[i + 1] - 1, pixels);
+    }
+    this.maxPositions = maxPositions;
+    this.executor = isNull(executor) ? ForkJoinPool.commonPool() : executor;
+  }
+
+  /**
+   * Gets the zoom levels, where the bands start.
+   *
+   * @return the zoom levels
+   */
+  public int[] getZoomLevels() {
+    return zoomLevels.clone();
+  }
+
+  /**
+   * Returns the level of detail of the zoom level, that can be passed as attribute to the
+   * geometry serializer.
+   *
+   * @param zoom the zoom level
+   * @return the level of detail
+   * @see org.bremersee.geojson.converter.serialization.JacksonGeometrySerializer
+   */
+  public LevelOfDetail forZoom(int zoom) {
+    return new LevelOfDetail(this, zoom);
+  }
+
+  /**
+   * Gets the simplifier of the band of the zoom level.
+   *
+   * @param zoom the zoom level
+   * @return the simplifier or {@code null}, if the original geometry is used at the zoom level
+   */
+  public GeometrySimplifier getSimplifier(int zoom) {
+    int level = getLevel(zoom);
+    return level < 0 ? null : simplifiers[level];
+  }
+
+  private int getLevel(int zoom) {
+    if (zoom >= zoomLevels[zoomLevels.length - 1]) {
+      return -1;
+    }
+    int level = 0;
+    while (level + 1 < simplifiers.length && zoom >= zoomLevels[level + 1]) {
+      level++;
+    }
+    return level;
+  }
+
+  /**
+   * Gets the cached geometry of the band of the zoom level. If the geometry is not cached, its
+   * levels are computed on the executor and {@code null} is returned.
+   *
+   * @param geometry the original geometry (can be {@code null})
+   * @param zoom the zoom level
+   * @return the simplified geometry, the original geometry, if no simplification is needed, or
+   *     {@code null}, if the levels are not cached yet
+   */
+  public Geometry getGeometry(Geometry geometry, int zoom) {
+    int level = getLevel(zoom);
+    if (isNull(geometry) || level < 0) {
+      return geometry;
+    }
+    Key key = new Key(geometry);
+    Levels levels;
+    synchronized (cache) {
+      levels = cache.get(key);
+    }
+    if (isNull(levels)) {
+      schedule(key);
+      return null;
+    }
+    return levels.geometries()[level];
+  }
+
+  /**
+   * Computes the levels of the geometries of the features on the executor, if they are not
+   * cached yet.
+   *
+   * @param features the features
+   * @return the future, that completes, when all levels are computed
+   */
+  public CompletableFuture<Void> precompute(Iterable<? extends GeoJsonFeature<?, ?>> features) {
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    if (nonNull(features)) {
+      for (GeoJsonFeature<?, ?> feature : features) {
+        if (nonNull(feature) && nonNull(feature.getGeometry())) {
+          futures.add(precompute(feature.getGeometry()));
+        }
+      }
+    }
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new));
+  }
+
+  /**
+   * Computes the levels of the geometry on the executor, if they are not cached yet.
+   *
+   * @param geometry the geometry
+   * @return the future, that completes, when the levels are computed
+   */
+  public CompletableFuture<Void> precompute(Geometry geometry) {
+    if (isNull(geometry)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    Key key = new Key(geometry);
+    synchronized (cache) {
+      if (cache.containsKey(key)) {
+        return CompletableFuture.completedFuture(null);
+      }
+    }
+    return schedule(key);
+  }
+
+  /**
+   * Computes the levels of the geometry on the executor again (for example after it was
+   * changed). The old levels are used, until the new ones are computed.
+   *
+   * @param geometry the geometry
+   * @return the future, that completes, when the levels are computed
+   */
+  public CompletableFuture<Void> recompute(Geometry geometry) {
+    if (isNull(geometry)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return schedule(new Key(geometry));
+  }
+
+  /**
+   * Removes the levels of the geometry.
+   *
+   * @param geometry the geometry
+   */
+  public void invalidate(Geometry geometry) {
+    synchronized (cache) {
+      Levels levels = cache.remove(new Key(geometry));
+      if (nonNull(levels)) {
+        positions -= levels.positions();
+      }
+    }
+  }
+
+  /**
+   * Removes all levels.
+   */
+  public void invalidateAll() {
+    synchronized (cache) {
+      cache.clear();
+      positions = 0L;
+    }
+  }
+
+  /**
+   * Gets the number of cached geometries.
+   *
+   * @return the number of cached geometries
+   */
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  /**
+   * Gets the number of cached positions.
+   *
+   * @return the number of cached positions
+   */
+  public long getPositions() {
+    synchronized (cache) {
+      return positions;
+    }
+  }
+
+  private CompletableFuture<Void> schedule(Key key) {
+    CompletableFuture<Void> future = pending.get(key);
+    if (nonNull(future)) {
+      return future;
+    }
+    CompletableFuture<Void> newFuture = new CompletableFuture<>();
+    future = pending.putIfAbsent(key, newFuture);
+    if (nonNull(future)) {
+      return future;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          put(key, compute(key.geometry));
+          newFuture.complete(null);
+        } catch (RuntimeException e) {
+          newFuture.completeExceptionally(e);
+        } finally {
+          pending.remove(key, newFuture);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      pending.remove(key, newFuture);
+      newFuture.completeExceptionally(e);
+    }
+    return newFuture;
+  }
+
+  private Levels compute(Geometry geometry) {
+    Geometry[] geometries = new Geometry[simplifiers.length];
+    Geometry finer = geometry;
+    long count = geometry.getNumPoints();
+    for (int i = simplifiers.length - 1; i >= 0; i--) {
+      Geometry simplified = simplifiers[i].simplify(geometry);
+      if (simplified.getNumPoints() == finer.getNumPoints()
+          || isCollapsed(geometry, simplified)) {
+        simplified = finer;
+      } else {
+        count += simplified.getNumPoints();
+      }
+      geometries[i] = simplified;
+      finer = simplified;
+    }
+    return new Levels(geometries, count);
+  }
+
+  private static boolean isCollapsed(Geometry geometry, Geometry simplified) {
+    return simplified.isEmpty() && !geometry.isEmpty()
+        || simplified.getDimension() < geometry.getDimension()
+        || simplified.getNumGeometries() < geometry.getNumGeometries();
+  }
+
+  private void put(Key key, Levels levels) {
+    if (levels.positions() > maxPositions) {
+      return;
+    }
+    synchronized (cache) {
+      Levels old = cache.put(key, levels);
+      positions += levels.positions() - (isNull(old) ? 0L : old.positions());
+      Iterator<Levels> iterator = cache.values().iterator();
+      while (positions > maxPositions && iterator.hasNext()) {
+        positions -= iterator.next().positions();
+        iterator.remove();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "LevelOfDetailCache{"
+        + "zoomLevels=" + Arrays.toString(zoomLevels)
+        + ", simplifiers=" + Arrays.toString(simplifiers)
+        + ", maxPositions=" + maxPositions
+        + '}';
+  }
+
+  /**
+   * The key of a geometry, that compares the geometry by identity.
+   */
+  private static final class Key {
+
+    private final Geometry geometry;
+
+    private Key(Geometry geometry) {
+      this.geometry = geometry;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key key && key.geometry == geometry;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(geometry);
+    }
+  }
+
+  /**
+   * The levels of a geometry and the number of their positions and of the positions of the
+   * original geometry.
+   *
+   * @param geometries the geometries of the levels
+   * @param positions the number of positions
+   */
+  private record Levels(Geometry[] geometries, long positions) {
+
+  }
+
+}
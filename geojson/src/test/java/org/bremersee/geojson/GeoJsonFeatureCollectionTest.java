@@ -19,7 +19,11 @@ package org.bremersee.geojson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.bremersee.geojson.GeoJsonConstants.FEATURE_COLLECTION;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
@@ -146,4 +150,38 @@ class GeoJsonFeatureCollectionTest {
         .containsExactly(value0, value1);
   }
 
-}
\ No newline at end of file
+  /**
+   * Add one by one with comparator.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void addOneByOneWithComparator(SoftAssertions softly) throws Exception {
+    GeoJsonFeatureCollection<Geometry, Object> model = new GeoJsonFeatureCollection<>(
+        true, Comparator.comparing(GeoJsonFeature::getId));
+    List<Geometry> geometries = new ArrayList<>();
+    for (int i = 9; i >= 0; i--) {
+      Point point = factory.createPoint(i, -i);
+      geometries.add(point);
+      model.add(new GeoJsonFeature<>(String.valueOf(i), point, false, null));
+      softly.assertThat(model.getBbox())
+          .containsExactly(GeoJsonGeometryFactory.getBoundingBox(geometries));
+    }
+    softly.assertThat(model.getFeatures())
+        .extracting(GeoJsonFeature::getId)
+        .containsExactly("0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+
+    model.add(new GeoJsonFeature<>("10", factory.createPoint(10, -10), false, null));
+    ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new GeoJsonObjectMapperModule(factory));
+    JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(model));
+    softly.assertThat(json.get("features").get(0).get("id").asText())
+        .isEqualTo("0");
+    softly.assertThat(json.get("features").get(2).get("id").asText())
+        .isEqualTo("10");
+    softly.assertThat(json.get("bbox").size())
+        .isEqualTo(4);
+  }
+
+}
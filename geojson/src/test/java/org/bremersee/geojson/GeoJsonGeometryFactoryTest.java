@@ -25,8 +25,11 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.bremersee.geojson.filter.SwapCoordinateFilter;
@@ -486,6 +489,34 @@ class GeoJsonGeometryFactoryTest {
     softly.assertThat(GeoJsonGeometryFactory.equals(gc1, gc4)).isFalse();
   }
 
+  /**
+   * Test equals and hash code of topologically equal and different geometries.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void testEqualsAndHashCode(SoftAssertions softly) {
+    Geometry g1 = target.createGeometryFromWellKnownText("LINESTRING (0 0, 1 1, 2 2)");
+    Geometry g2 = target.createGeometryFromWellKnownText("LINESTRING (2 2, 0 0)");
+    Geometry g3 = target.createGeometryFromWellKnownText("LINESTRING (0 0, 1 1.5, 2 2)");
+    Geometry g4 = target.createGeometryFromWellKnownText("LINESTRING (0 0, 3 3)");
+    Geometry g5 = target.createGeometryFromWellKnownText("MULTIPOINT ((0 0), (2 2))");
+    softly.assertThat(GeoJsonGeometryFactory.equals(g1, g2)).isTrue();
+    softly.assertThat(GeoJsonGeometryFactory.hashCode(g1))
+        .isEqualTo(GeoJsonGeometryFactory.hashCode(g2));
+    softly.assertThat(GeoJsonGeometryFactory.equals(g1, g3)).isFalse();
+    softly.assertThat(GeoJsonGeometryFactory.equals(g1, g4)).isFalse();
+    softly.assertThat(GeoJsonGeometryFactory.equals(g1, g5)).isFalse();
+    softly.assertThat(GeoJsonGeometryFactory.hashCode(g1))
+        .isNotEqualTo(GeoJsonGeometryFactory.hashCode(g4));
+    softly.assertThat(GeoJsonGeometryFactory.hashCode(null)).isZero();
+
+    GeoJsonFeature<Geometry, Object> f1 = new GeoJsonFeature<>("1", g1, false, null);
+    GeoJsonFeature<Geometry, Object> f2 = new GeoJsonFeature<>("1", g2, false, null);
+    softly.assertThat(f1).isEqualTo(f2);
+    softly.assertThat(f1.hashCode()).isEqualTo(f2.hashCode());
+  }
+
   /**
    * Gets bounding box.
    *
@@ -614,6 +645,35 @@ class GeoJsonGeometryFactoryTest {
         .isNull();
   }
 
+  /**
+   * Merge bounding boxes.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void mergeBoundingBoxes(SoftAssertions softly) {
+    softly.assertThat(GeoJsonGeometryFactory.mergeBoundingBoxes(null, null))
+        .isNull();
+    softly.assertThat(GeoJsonGeometryFactory.mergeBoundingBoxes(null, new double[]{1, 2, 3, 4}))
+        .containsExactly(1, 2, 3, 4);
+    softly.assertThat(GeoJsonGeometryFactory.mergeBoundingBoxes(new double[]{1, 2, 3, 4}, null))
+        .containsExactly(1, 2, 3, 4);
+    softly.assertThat(GeoJsonGeometryFactory.mergeBoundingBoxes(
+            new double[]{1, 2, 3, 4},
+            new double[]{-1, 3, 2, 5}))
+        .containsExactly(-1, 2, 3, 5);
+    softly.assertThat(GeoJsonGeometryFactory.mergeBoundingBoxes(
+            new double[]{1, 2, 3, 4},
+            new double[]{-1, 3, 7, 2, 5, 8}))
+        .containsExactly(-1, 2, 7, 3, 5, 8);
+    softly.assertThat(GeoJsonGeometryFactory.mergeBoundingBoxes(
+            new double[]{1, 2, 0, 3, 4, 9},
+            new double[]{-1, 3, 7, 2, 5, 8}))
+        .containsExactly(-1, 2, 0, 3, 5, 9);
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> GeoJsonGeometryFactory.mergeBoundingBoxes(new double[1], null));
+  }
+
   /**
    * Create geometry from well known text.
    *
@@ -757,4 +817,111 @@ class GeoJsonGeometryFactoryTest {
                     List.of(new SwapCoordinateFilter()))))
         .isTrue();
   }
-}
\ No newline at end of file
+
+  /**
+   * Create geometry from well known binary.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void createGeometryFromWellKnownBinary(SoftAssertions softly) {
+    Geometry expected = target.createGeometryFromWellKnownText(
+        "POLYGON ((0 0, 0 1, 1 1, 1 0, 0 0), (0.1 0.1, 0.1 0.2, 0.2 0.2, 0.2 0.1, 0.1 0.1))");
+    expected.setSRID(4326);
+    softly.assertThat(target.createGeometryFromWellKnownBinary(
+            GeoJsonGeometryFactory.toWellKnownBinary(expected, false)))
+        .isEqualTo(expected);
+    softly.assertThat(target.createGeometryFromWellKnownBinary(
+            GeoJsonGeometryFactory.toWellKnownBinaryHex(expected, false)))
+        .isEqualTo(expected);
+
+    Geometry actual = target.createGeometryFromWellKnownBinary(
+        GeoJsonGeometryFactory.toWellKnownBinary(expected, true));
+    softly.assertThat(actual)
+        .isEqualTo(expected);
+    softly.assertThat(actual.getSRID())
+        .isEqualTo(4326);
+
+    softly.assertThat(GeoJsonGeometryFactory.toWellKnownBinaryHex(
+            target.createPoint(1, 2), false))
+        .isEqualTo("00000000013FF00000000000004000000000000000");
+    softly.assertThat(target.createGeometryFromWellKnownBinary(
+            "01010000A0E6100000000000000000F03F00000000000000400000000000000840")
+            .getCoordinate().getZ())
+        .isEqualTo(3.);
+
+    softly.assertThat(target.createGeometryFromWellKnownBinary((byte[]) null))
+        .isNull();
+    softly.assertThat(target.createGeometryFromWellKnownBinary((String) null))
+        .isNull();
+    softly.assertThat(GeoJsonGeometryFactory.toWellKnownBinary(null, false))
+        .isNull();
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> target.createGeometryFromWellKnownBinary("0101"));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> target.createGeometryFromWellKnownBinary("XY"));
+  }
+
+  /**
+   * Create geometry from tiny well known binary.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void createGeometryFromTinyWellKnownBinary(SoftAssertions softly) {
+    Geometry expected = target.createGeometryFromWellKnownText(
+        "MULTILINESTRING ((0 0, 1.5 1.5), (2.25 2.25, 3 4))");
+    softly.assertThat(target.createGeometryFromTinyWellKnownBinary(
+            GeoJsonGeometryFactory.toTinyWellKnownBinary(expected, 2)))
+        .isEqualTo(expected);
+    softly.assertThat(target.createGeometryFromTinyWellKnownBinary(null))
+        .isNull();
+    softly.assertThat(GeoJsonGeometryFactory.toTinyWellKnownBinary(null, 2))
+        .isNull();
+  }
+
+  /**
+   * Gets bounding box in parallel.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void getBoundingBoxInParallel(SoftAssertions softly) {
+    Random random = new Random(42L);
+    List<Geometry> geometries = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      double x = random.nextDouble() * 360. - 180.;
+      double y = random.nextDouble() * 180. - 90.;
+      geometries.add(i % 1000 == 0 ? null : target.createLineString(List.of(
+          new Coordinate(x, y),
+          new Coordinate(x + random.nextDouble(), y + random.nextDouble()))));
+    }
+    double[] expected = GeoJsonGeometryFactory.getBoundingBox(geometries);
+    softly.assertThat(expected)
+        .hasSize(4);
+    softly.assertThat(GeoJsonGeometryFactory.getBoundingBoxInParallel(geometries))
+        .containsExactly(expected);
+
+    geometries.add(target.createLineString(List.of(
+        new Coordinate(0, 0, -5), new Coordinate(1, 1, 7))));
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      double[] actual = GeoJsonGeometryFactory.getBoundingBoxInParallel(geometries, pool);
+      softly.assertThat(actual)
+          .containsExactly(GeoJsonGeometryFactory.getBoundingBox(geometries));
+      softly.assertThat(actual)
+          .hasSize(6);
+      softly.assertThat(actual[2])
+          .isEqualTo(-5.);
+      softly.assertThat(actual[5])
+          .isEqualTo(7.);
+    } finally {
+      pool.shutdown();
+    }
+    softly.assertThat(GeoJsonGeometryFactory.getBoundingBoxInParallel(null))
+        .isNull();
+    softly.assertThat(GeoJsonGeometryFactory.getBoundingBoxInParallel(List.of()))
+        .isNull();
+  }
+
+}
@@ -30,12 +30,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.MultiLineString;
 import org.locationtech.jts.geom.MultiPoint;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
 
 /**
  * The geo json object mapper module test.
@@ -105,6 +107,63 @@ class GeoJsonObjectMapperModuleTest {
     assertThat(actual).isEqualTo(expected);
   }
 
+  /**
+   * Map with coordinate precision.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void mapWithCoordinatePrecision(SoftAssertions softly) throws Exception {
+    ObjectMapper om = JsonMapper.builder().build();
+    om.registerModule(new GeoJsonObjectMapperModule(geometryFactory, false, false, 6));
+    var json = om.writeValueAsString(geometryFactory.createGeometryFromWellKnownText(
+        "LINESTRING (1.23456789 -5.6789015, 2 3.0000004)"));
+    softly.assertThat(json)
+        .isEqualTo("{\"type\":\"LineString\",\"coordinates\":"
+            + "[[1.234568,-5.678902],[2.0,3.0]]}");
+
+    om = JsonMapper.builder().build();
+    om.registerModule(new GeoJsonObjectMapperModule(geometryFactory, false, true, 0));
+    json = om.writeValueAsString(geometryFactory.createPoint(1.5, -2.4));
+    softly.assertThat(json)
+        .isEqualTo("{\"type\":\"Point\",\"coordinates\":[2,-2]}");
+  }
+
+  /**
+   * Map feature with coordinate precision and geometry factory of the module.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void mapFeatureWithSettingsOfModule(SoftAssertions softly) throws Exception {
+    ObjectMapper om = JsonMapper.builder().build();
+    om.registerModule(new GeoJsonObjectMapperModule(
+        new GeometryFactory(new PrecisionModel(), 25832), false, false, 6));
+    var feature = new GeoJsonFeature<>(
+        "1",
+        geometryFactory.createGeometryFromWellKnownText(
+            "LINESTRING (1.23456789 -5.6789015, 2 3.0000004)"),
+        false,
+        null);
+    var json = om.writeValueAsString(feature);
+    softly.assertThat(json)
+        .contains("\"coordinates\":[[1.234568,-5.678902],[2.0,3.0]]");
+
+    json = om.writeValueAsString(new GeoJsonFeatureCollection<>(List.of(feature), false));
+    softly.assertThat(json)
+        .contains("\"coordinates\":[[1.234568,-5.678902],[2.0,3.0]]");
+
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> actual = om
+        .readValue(json, new TypeReference<>() {
+        });
+    softly.assertThat(actual.getFeatures())
+        .singleElement()
+        .extracting(f -> f.getGeometry().getSRID())
+        .isEqualTo(25832);
+  }
+
   /**
    * Map line string.
    *
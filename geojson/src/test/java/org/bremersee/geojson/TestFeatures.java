@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The test features, that are shared by the tests of the readers and writers.
+ *
+ * @author Christian Bremer
+ */
+public abstract class TestFeatures {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private TestFeatures() {
+  }
+
+  /**
+   * Creates features with the index as id, the points (i, i + 0.5) and the property
+   * {@code index}.
+   *
+   * @param size the number of features
+   * @return the features
+   */
+  public static List<GeoJsonFeature<Geometry, Map<String, Object>>> points(int size) {
+    return create(
+        size,
+        i -> factory.createPoint(GeoJsonGeometryFactory.createCoordinate(i, i + 0.5)),
+        i -> false,
+        i -> Map.of("index", i));
+  }
+
+  /**
+   * Creates features with the index as id, the lines from (i, i + 0.5) to (i + 1, i - 0.5) and
+   * a bounding box on every second feature.
+   *
+   * @param size the number of features
+   * @param properties the properties of the feature with the given index
+   * @return the features
+   */
+  public static List<GeoJsonFeature<Geometry, Map<String, Object>>> lines(
+      int size,
+      IntFunction<Map<String, Object>> properties) {
+    return create(
+        size,
+        i -> factory.createLineString(List.of(
+            GeoJsonGeometryFactory.createCoordinate(i, i + 0.5),
+            GeoJsonGeometryFactory.createCoordinate(i + 1, i - 0.5))),
+        i -> i % 2 == 0,
+        properties);
+  }
+
+  /**
+   * Creates features with the index as id.
+   *
+   * @param size the number of features
+   * @param geometries the geometry of the feature with the given index (the function is called
+   *     in the order of the indexes)
+   * @param bbox specifies whether the feature with the given index has a bounding box
+   * @param properties the properties of the feature with the given index
+   * @return the features
+   */
+  public static List<GeoJsonFeature<Geometry, Map<String, Object>>> create(
+      int size,
+      IntFunction<Geometry> geometries,
+      IntPredicate bbox,
+      IntFunction<Map<String, Object>> properties) {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      features.add(new GeoJsonFeature<>(
+          String.valueOf(i), geometries.apply(i), bbox.test(i), properties.apply(i)));
+    }
+    return features;
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The GeoJSON feature to geobuf converter test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeoJsonFeatureToGeobufConverterTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static final GeoJsonFeatureToGeobufConverter target
+      = new GeoJsonFeatureToGeobufConverter(objectMapper);
+
+  private static final GeobufToGeoJsonFeatureConverter decoder
+      = new GeobufToGeoJsonFeatureConverter(objectMapper, factory);
+
+  /**
+   * Convert and decode.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertAndDecode(SoftAssertions softly) {
+    Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("name", "Bremen");
+    properties.put("visited", true);
+    properties.put("count", 42);
+    properties.put("negative", -7);
+    properties.put("big", 5_000_000_000L);
+    properties.put("area", 326.7);
+    properties.put("tags", List.of("a", "b"));
+    properties.put("nested", Map.of("x", 1));
+    properties.put("nothing", null);
+    GeoJsonFeature<Geometry, Map<String, Object>> expected = new GeoJsonFeature<>(
+        "feature-1",
+        factory.createGeometryFromWellKnownText("POLYGON ((0 0, 0 1, 1 1, 1 0, 0 0))"),
+        false,
+        properties);
+
+    GeoJsonFeature<Geometry, Map<String, Object>> actual = decoder
+        .convert(target.convert(expected));
+    softly.assertThat(actual.getId())
+        .isEqualTo("feature-1");
+    softly.assertThat(actual.getGeometry())
+        .isEqualTo(expected.getGeometry());
+    softly.assertThat(actual.getProperties())
+        .isEqualTo(properties);
+  }
+
+  /**
+   * Convert and decode feature without geometry and properties.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertAndDecodeEmptyFeature(SoftAssertions softly) {
+    GeoJsonFeature<Geometry, Map<String, Object>> actual = decoder
+        .convert(target.convert(new GeoJsonFeature<>(null, null, false, null)));
+    softly.assertThat(actual.getId())
+        .isNull();
+    softly.assertThat(actual.getGeometry())
+        .isNull();
+    softly.assertThat(actual.getProperties())
+        .isEmpty();
+  }
+
+  /**
+   * Decode geometry and expect illegal argument exception.
+   */
+  @Test
+  void decodeGeometryAndExpectIllegalArgumentException() {
+    byte[] geometry = new GeometryToGeobufConverter()
+        .convert(factory.createGeometryFromWellKnownText("POINT (1 2)"));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> decoder.convert(geometry));
+  }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The geometry to geobuf converter test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeometryToGeobufConverterTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final GeometryToGeobufConverter target = new GeometryToGeobufConverter();
+
+  private static final GeobufToGeometryConverter decoder = new GeobufToGeometryConverter(factory);
+
+  /**
+   * Convert and decode.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertAndDecode(SoftAssertions softly) {
+    List<String> wkts = List.of(
+        "POINT (1.5 -2.25)",
+        "LINESTRING (0 0, 1 1, -2.123456 3.654321)",
+        "POLYGON ((0 0, 0 1, 1 1, 1 0, 0 0))",
+        "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 1 2, 2 2, 2 1, 1 1))",
+        "MULTIPOINT ((1 2), (6 7), (-3 -4))",
+        "MULTILINESTRING ((0 0, 0 1))",
+        "MULTILINESTRING ((0 0, 0 1), (2 2, 2 4, 5 5))",
+        "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0)))",
+        "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0)), "
+            + "((2 2, 2 8, 8 8, 8 2, 2 2), (3 3, 3 4, 4 4, 4 3, 3 3)))",
+        "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (0 0, 1 1), "
+            + "GEOMETRYCOLLECTION (POLYGON ((0 0, 0 1, 1 1, 1 0, 0 0))))");
+    for (String wkt : wkts) {
+      Geometry expected = factory.createGeometryFromWellKnownText(wkt);
+      Geometry actual = decoder.convert(target.convert(expected));
+      softly.assertThat(GeoJsonGeometryFactory.equals(expected, actual))
+          .as(wkt)
+          .isTrue();
+    }
+  }
+
+  /**
+   * Convert and decode empty geometries.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertAndDecodeEmpty(SoftAssertions softly) {
+    List<String> wkts = List.of(
+        "POINT EMPTY",
+        "LINESTRING EMPTY",
+        "POLYGON EMPTY",
+        "MULTIPOINT EMPTY",
+        "MULTILINESTRING EMPTY",
+        "MULTIPOLYGON EMPTY",
+        "GEOMETRYCOLLECTION EMPTY");
+    for (String wkt : wkts) {
+      Geometry expected = factory.createGeometryFromWellKnownText(wkt);
+      Geometry actual = decoder.convert(target.convert(expected));
+      softly.assertThat(actual.isEmpty())
+          .as(wkt)
+          .isTrue();
+      softly.assertThat(actual.getGeometryType())
+          .as(wkt)
+          .isEqualTo(expected.getGeometryType());
+    }
+  }
+
+  /**
+   * Convert and decode with z.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertAndDecodeWithZ(SoftAssertions softly) {
+    Geometry expected = factory.createLineString(new Coordinate[]{
+        new Coordinate(1, 2, 3),
+        new Coordinate(4, 5, 6.5)
+    });
+    Geometry actual = decoder.convert(target.convert(expected));
+    softly.assertThat(actual.getCoordinates())
+        .extracting(Coordinate::getZ)
+        .containsExactly(3., 6.5);
+  }
+
+  /**
+   * Convert with precision.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertWithPrecision(SoftAssertions softly) {
+    Geometry geometry = factory.createGeometryFromWellKnownText("POINT (1.23456789 -9.87654321)");
+    softly.assertThat(decoder.convert(new GeometryToGeobufConverter(2).convert(geometry)))
+        .isEqualTo(factory.createGeometryFromWellKnownText("POINT (1.23 -9.88)"));
+    softly.assertThat(decoder.convert(new GeometryToGeobufConverter(8).convert(geometry)))
+        .isEqualTo(geometry);
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new GeometryToGeobufConverter(-1));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new GeometryToGeobufConverter(11));
+  }
+
+  /**
+   * Convert and compare size with GeoJSON.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void convertAndCompareSize(SoftAssertions softly) throws Exception {
+    Coordinate[] coordinates = new Coordinate[1001];
+    for (int i = 0; i < 1000; i++) {
+      double angle = 2 * Math.PI * i / 1000;
+      coordinates[i] = new Coordinate(
+          8.123456 + 0.01 * Math.cos(angle),
+          52.123456 + 0.01 * Math.sin(angle));
+    }
+    coordinates[1000] = coordinates[0];
+    Geometry geometry = factory.createPolygon(coordinates);
+    ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new GeoJsonObjectMapperModule(factory));
+    int jsonSize = objectMapper.writeValueAsBytes(geometry).length;
+    int geobufSize = target.convert(geometry).length;
+    softly.assertThat(geobufSize * 5)
+        .isLessThanOrEqualTo(jsonSize);
+    softly.assertThat(decoder.convert(target.convert(geometry)).getNumPoints())
+        .isEqualTo(1001);
+  }
+
+  /**
+   * Decode illegal data.
+   */
+  @Test
+  void decodeIllegalData() {
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> decoder.convert(new byte[0]));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> decoder.convert(new byte[]{0x32, 0x05, 0x08}));
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The geometry to tiny well-known binary converter test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeometryToTwkbConverterTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final GeometryToTwkbConverter target = new GeometryToTwkbConverter();
+
+  private static final TwkbToGeometryConverter decoder = new TwkbToGeometryConverter(factory);
+
+  /**
+   * Convert point of the specification.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertPointOfSpecification(SoftAssertions softly) {
+    softly.assertThat(new GeometryToTwkbConverter(0).convert(factory.createPoint(1, 2)))
+        .containsExactly(0x01, 0x00, 0x02, 0x04);
+    softly.assertThat(decoder.convert(new byte[]{0x01, 0x00, 0x02, 0x04}))
+        .isEqualTo(factory.createPoint(1, 2));
+  }
+
+  /**
+   * Convert and decode.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertAndDecode(SoftAssertions softly) {
+    List<String> wkts = List.of(
+        "POINT (1.5 -2.25)",
+        "LINESTRING (0 0, 1 1, -2.123456 3.654321)",
+        "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 1 2, 2 2, 2 1, 1 1))",
+        "MULTIPOINT ((1 2), (6 7), (-3 -4))",
+        "MULTILINESTRING ((0 0, 0 1), (2 2, 2 4, 5 5))",
+        "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0)), "
+            + "((2 2, 2 8, 8 8, 8 2, 2 2), (3 3, 3 4, 4 4, 4 3, 3 3)))",
+        "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (0 0, 1 1), "
+            + "GEOMETRYCOLLECTION (POLYGON ((0 0, 0 1, 1 1, 1 0, 0 0))))",
+        "GEOMETRYCOLLECTION EMPTY");
+    for (String wkt : wkts) {
+      Geometry expected = factory.createGeometryFromWellKnownText(wkt);
+      softly.assertThat(GeoJsonGeometryFactory.equals(
+              expected, decoder.convert(target.convert(expected))))
+          .as(wkt)
+          .isTrue();
+    }
+    for (String wkt : List.of("POINT EMPTY", "LINESTRING EMPTY", "POLYGON EMPTY")) {
+      softly.assertThat(decoder.convert(
+              target.convert(factory.createGeometryFromWellKnownText(wkt))).isEmpty())
+          .as(wkt)
+          .isTrue();
+    }
+  }
+
+  /**
+   * Convert and decode with z.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertAndDecodeWithZ(SoftAssertions softly) {
+    Geometry expected = factory.createLineString(new Coordinate[]{
+        new Coordinate(1, 2, 3.25),
+        new Coordinate(4, 5, 6.5)
+    });
+    softly.assertThat(decoder.convert(new GeometryToTwkbConverter(2).convert(expected))
+            .getCoordinates())
+        .extracting(Coordinate::getZ)
+        .containsExactly(3.25, 6.5);
+  }
+
+  /**
+   * Convert with illegal precision.
+   */
+  @Test
+  void convertWithIllegalPrecision() {
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new GeometryToTwkbConverter(8));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new GeometryToTwkbConverter(-9));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new GeometryToTwkbConverter(2, 8));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> decoder.convert(new byte[]{0x01}));
+  }
+
+}
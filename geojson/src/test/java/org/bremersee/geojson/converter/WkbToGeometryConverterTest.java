@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter;
+
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+
+/**
+ * The well-known binary to geometry converter test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class WkbToGeometryConverterTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final WkbToGeometryConverter target = new WkbToGeometryConverter(factory);
+
+  /**
+   * Convert.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convert(SoftAssertions softly) {
+    List<String> wkts = List.of(
+        "POINT (1.5 2.5)",
+        "LINESTRING (0 0, 1 1)",
+        "MULTIPOINT ((1 2), (6 7))",
+        "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0)), ((2 2, 2 3, 3 3, 3 2, 2 2)))",
+        "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (0 0, 1 1))");
+    for (String wkt : wkts) {
+      Geometry expected = factory.createGeometryFromWellKnownText(wkt);
+      softly.assertThat(GeoJsonGeometryFactory.equals(
+              target.convert(new GeometryToWkbConverter().convert(expected)), expected))
+          .as(wkt)
+          .isTrue();
+      softly.assertThat(GeoJsonGeometryFactory.equals(
+              target.convert(new GeometryToWkbConverter(true).convert(expected)), expected))
+          .as(wkt)
+          .isTrue();
+    }
+  }
+
+  /**
+   * Convert hex string with string converters.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convertHexString(SoftAssertions softly) {
+    Point expected = factory.createPoint(8.5, 52.25);
+    String hex = new GeometryToWkbHexConverter().convert(expected);
+    softly.assertThat(new StringToPointConverter(factory).convert(hex))
+        .isEqualTo(expected);
+    softly.assertThat(new StringToGeometryConverter(factory).convert(hex.toLowerCase()))
+        .isEqualTo(expected);
+    softly.assertThat(new StringToPointConverter(factory).convert("POINT (8.5 52.25)"))
+        .isEqualTo(expected);
+  }
+
+}
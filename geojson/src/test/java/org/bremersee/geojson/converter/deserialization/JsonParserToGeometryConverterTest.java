@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.deserialization;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The json parser to geometry converter test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class JsonParserToGeometryConverterTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
+  private static final JsonParserToGeometryConverter target
+      = new JsonParserToGeometryConverter(factory);
+
+  private static Geometry convert(String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      return target.convert(parser);
+    }
+  }
+
+  /**
+   * Convert geometries.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void convert(SoftAssertions softly) throws IOException {
+    softly.assertThat(convert("{\"type\":\"Point\",\"coordinates\":[1.5,2.5]}"))
+        .isEqualTo(factory.createGeometryFromWellKnownText("POINT (1.5 2.5)"));
+    softly.assertThat(convert("{\"type\":\"LineString\",\"coordinates\":[[0,0],[1,1]]}"))
+        .isEqualTo(factory.createGeometryFromWellKnownText("LINESTRING (0 0, 1 1)"));
+    softly.assertThat(convert("{\"type\":\"Polygon\",\"coordinates\":"
+            + "[[[0,0],[0,1],[1,1],[1,0],[0,0]],"
+            + "[[0.1,0.1],[0.1,0.2],[0.2,0.2],[0.2,0.1],[0.1,0.1]]]}"))
+        .isEqualTo(factory.createGeometryFromWellKnownText(
+            "POLYGON ((0 0, 0 1, 1 1, 1 0, 0 0), "
+                + "(0.1 0.1, 0.1 0.2, 0.2 0.2, 0.2 0.1, 0.1 0.1))"));
+    softly.assertThat(convert("{\"type\":\"MultiPoint\",\"coordinates\":[[1,2],[6,7]]}"))
+        .isEqualTo(factory.createGeometryFromWellKnownText("MULTIPOINT ((1 2), (6 7))"));
+    softly.assertThat(convert("{\"type\":\"MultiLineString\",\"coordinates\":"
+            + "[[[0,0],[0,1]],[[2,2],[2,4]]]}"))
+        .isEqualTo(factory.createGeometryFromWellKnownText(
+            "MULTILINESTRING ((0 0, 0 1), (2 2, 2 4))"));
+    softly.assertThat(convert("{\"type\":\"MultiPolygon\",\"coordinates\":"
+            + "[[[[0,0],[0,1],[1,1],[1,0],[0,0]]],[[[2,2],[2,3],[3,3],[3,2],[2,2]]]]}"))
+        .isEqualTo(factory.createGeometryFromWellKnownText(
+            "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0)), ((2 2, 2 3, 3 3, 3 2, 2 2)))"));
+
+    Geometry actual = convert("{\"geometries\":[{\"coordinates\":[1,2],\"type\":\"Point\"},"
+        + "null,{\"type\":\"LineString\",\"coordinates\":[[0,0],[1,1]]}],"
+        + "\"type\":\"GeometryCollection\"}");
+    softly.assertThat(GeoJsonGeometryFactory.equals(
+            actual,
+            factory.createGeometryFromWellKnownText(
+                "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (0 0, 1 1))")))
+        .isTrue();
+  }
+
+  /**
+   * Convert with members in any order.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void convertWithMembersInAnyOrder(SoftAssertions softly) throws IOException {
+    Geometry actual = convert("{\"bbox\":[0,0,1,1],\"coordinates\":"
+        + "[[[0,0],[0,1],[1,1],[1,0],[0,0]]],\"foo\":{\"bar\":[1,2]},\"type\":\"Polygon\"}");
+    softly.assertThat(actual)
+        .isEqualTo(factory.createGeometryFromWellKnownText(
+            "POLYGON ((0 0, 0 1, 1 1, 1 0, 0 0))"));
+  }
+
+  /**
+   * Convert with z.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void convertWithZ(SoftAssertions softly) throws IOException {
+    Geometry actual = convert("{\"type\":\"LineString\",\"coordinates\":[[0,0,1],[1,1]]}");
+    softly.assertThat(actual.getCoordinates()[0].getZ())
+        .isEqualTo(1.);
+    softly.assertThat(actual.getCoordinates()[1].getZ())
+        .isNaN();
+  }
+
+  /**
+   * Convert empty.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void convertEmpty(SoftAssertions softly) throws IOException {
+    softly.assertThat(convert("{}"))
+        .isNull();
+    softly.assertThat(convert("null"))
+        .isNull();
+    softly.assertThat(convert("{\"type\":\"Point\",\"coordinates\":[]}").isEmpty())
+        .isTrue();
+    softly.assertThat(convert("{\"type\":\"Polygon\",\"coordinates\":[]}").isEmpty())
+        .isTrue();
+    softly.assertThat(convert("{\"type\":\"MultiPoint\"}").isEmpty())
+        .isTrue();
+    softly.assertThat(convert("{\"type\":\"GeometryCollection\"}").isEmpty())
+        .isTrue();
+  }
+
+  /**
+   * Convert and expect json parse exception.
+   */
+  @Test
+  void convertAndExpectJsonParseException() {
+    assertThatExceptionOfType(JsonParseException.class)
+        .isThrownBy(() -> convert("{\"type\":\"IllegalGeometry\",\"coordinates\":[1,2]}"));
+    assertThatExceptionOfType(JsonParseException.class)
+        .isThrownBy(() -> convert("{\"type\":\"Point\",\"coordinates\":[[1,2]]}"));
+    assertThatExceptionOfType(JsonParseException.class)
+        .isThrownBy(() -> convert("{\"type\":\"LineString\",\"coordinates\":[1,2]}"));
+  }
+
+}
@@ -20,12 +20,20 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.bremersee.geojson.GeoJsonConstants.GEOMETRY_COLLECTION;
 import static org.bremersee.geojson.GeoJsonConstants.TYPE;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Map;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 
 /**
  * The type Json to geometry converter test.
@@ -60,4 +68,65 @@ class JsonToGeometryConverterTest {
     assertThatExceptionOfType(IllegalArgumentException.class)
         .isThrownBy(() -> target.convert(Map.of("IllegalGeometry", new Object())));
   }
-}
\ No newline at end of file
+
+  /**
+   * Convert into packed coordinate sequences.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void convertIntoPackedCoordinateSequences(SoftAssertions softly) throws Exception {
+    GeoJsonGeometryFactory factory = GeoJsonGeometryFactory.withPackedCoordinateSequences(false);
+    String json = "{\"type\":\"Polygon\",\"coordinates\":"
+        + "[[[0,0,1],[0,10,2],[10,10,3],[10,0,4],[0,0,1]],"
+        + "[[1,1],[1,2],[2,2],[2,1],[1,1]]]}";
+    ObjectMapper objectMapper = new ObjectMapper();
+    Map<String, Object> map = objectMapper.readValue(json, new TypeReference<>() {
+    });
+
+    Polygon actual = (Polygon) new JsonToGeometryConverter(factory).convert(map);
+    softly.assertThat(actual.getExteriorRing().getCoordinateSequence())
+        .isInstanceOf(PackedCoordinateSequence.Double.class);
+    softly.assertThat(actual.getExteriorRing().getCoordinateSequence().getZ(2))
+        .isEqualTo(3.);
+    softly.assertThat(actual.getInteriorRingN(0).getCoordinateSequence().getDimension())
+        .isEqualTo(2);
+    softly.assertThat(actual)
+        .isEqualTo(new GeoJsonGeometryFactory().createGeometryFromWellKnownText(
+            "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 1 2, 2 2, 2 1, 1 1))"));
+
+    GeoJsonGeometryFactory floatFactory = GeoJsonGeometryFactory
+        .withPackedCoordinateSequences(true);
+    Geometry parsed = objectMapper.copy()
+        .registerModule(new GeoJsonObjectMapperModule(floatFactory))
+        .readValue(json, Geometry.class);
+    softly.assertThat(((Polygon) parsed).getExteriorRing().getCoordinateSequence())
+        .isInstanceOf(PackedCoordinateSequence.Float.class);
+    softly.assertThat(parsed)
+        .isEqualTo(actual);
+  }
+
+  /**
+   * Read the geometry of a feature into packed coordinate sequences.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void readFeatureIntoPackedCoordinateSequences(SoftAssertions softly) throws Exception {
+    String json = "{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\","
+        + "\"coordinates\":[[0,0],[0,10],[10,10]]},\"properties\":{}}";
+    GeoJsonFeature<Geometry, Map<String, Object>> actual = new ObjectMapper()
+        .registerModule(new GeoJsonObjectMapperModule(
+            GeoJsonGeometryFactory.withPackedCoordinateSequences(false)))
+        .readValue(json, new TypeReference<>() {
+        });
+    softly.assertThat(((LineString) actual.getGeometry()).getCoordinateSequence())
+        .isInstanceOf(PackedCoordinateSequence.Double.class);
+    softly.assertThat(actual.getGeometry())
+        .isEqualTo(new GeoJsonGeometryFactory().createGeometryFromWellKnownText(
+            "LINESTRING (0 0, 0 10, 10 10)"));
+  }
+
+}
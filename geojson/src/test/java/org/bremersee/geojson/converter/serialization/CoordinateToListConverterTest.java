@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.serialization;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * The coordinate to list converter test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class CoordinateToListConverterTest {
+
+  /**
+   * Convert.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void convert(SoftAssertions softly) {
+    CoordinateToListConverter target = new CoordinateToListConverter(false);
+    softly.assertThat(target.convert(new Coordinate(1.1234567891234, -2.5)))
+        .containsExactly(1.123456789, -2.5);
+    softly.assertThat(target.convert(new Coordinate(0.0000000004, -0.0000000004)))
+        .containsExactly(0., 0.);
+    softly.assertThat(target.convert(new Coordinate(Double.NaN, 1.)))
+        .isEmpty();
+    softly.assertThat(target.convert(null))
+        .isEmpty();
+
+    target = new CoordinateToListConverter(true);
+    List<Number> actual = target.convert(new Coordinate(1.1234567895, 0.9999999999));
+    softly.assertThat(actual)
+        .extracting(Object::toString)
+        .containsExactly("1.12345679", "1");
+    actual = target.convert(new Coordinate(2., -0.25));
+    softly.assertThat(actual)
+        .extracting(Object::toString)
+        .containsExactly("2.0", "-0.25");
+  }
+
+  /**
+   * Round and compare with big decimal rounding.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void round(SoftAssertions softly) {
+    CoordinateToListConverter target = new CoordinateToListConverter(false);
+    Random random = new Random(42L);
+    for (int i = 0; i < 100000; i++) {
+      double value = (random.nextDouble() - .5) * Math.pow(10., random.nextInt(10));
+      double expected = new BigDecimal(value)
+          .setScale(9, RoundingMode.HALF_UP)
+          .doubleValue();
+      if (BigDecimal.valueOf(value).scale() <= 9) {
+        expected = value;
+      }
+      if (target.round(value) != expected) {
+        softly.assertThat(target.round(value))
+            .as("Rounding of %s", value)
+            .isEqualTo(expected);
+      }
+    }
+    softly.assertThat(target.round(0.0000000005))
+        .isEqualTo(0.000000001);
+    softly.assertThat(target.round(-0.0000000005))
+        .isEqualTo(-0.000000001);
+    softly.assertThat(target.round(Double.POSITIVE_INFINITY))
+        .isEqualTo(Double.POSITIVE_INFINITY);
+    softly.assertThat(target.round(1.e20))
+        .isEqualTo(1.e20);
+  }
+
+  /**
+   * Round with coordinate precision.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void roundWithCoordinatePrecision(SoftAssertions softly) {
+    CoordinateToListConverter target = new CoordinateToListConverter(false, 6);
+    softly.assertThat(target.round(1.2345675))
+        .isEqualTo(1.234568);
+    softly.assertThat(target.round(-52.1234564999))
+        .isEqualTo(-52.123456);
+    softly.assertThat(target.toBigDecimal(8.0000004).toString())
+        .isEqualTo("8");
+
+    target = new CoordinateToListConverter(true, 0);
+    softly.assertThat(target.round(2.5))
+        .isEqualTo(3.);
+    softly.assertThat(target.toBigDecimal(-2.5).toString())
+        .isEqualTo("-3");
+
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new CoordinateToListConverter(false, 16));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new CoordinateToListConverter(false, -1));
+  }
+
+}
@@ -19,7 +19,15 @@ package org.bremersee.geojson.converter.serialization;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.mock;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 
@@ -28,8 +36,56 @@ import org.locationtech.jts.geom.GeometryFactory;
  *
  * @author Christian Bremer
  */
+@ExtendWith(SoftAssertionsExtension.class)
 class GeometryToJsonConverterTest {
 
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  /**
+   * Write geometries and expect the same json as the converted maps.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void write(SoftAssertions softly) throws IOException {
+    write(false, false, softly);
+    write(true, false, softly);
+    write(false, true, softly);
+    write(true, true, softly);
+  }
+
+  private static void write(boolean withBoundingBox, boolean useBigDecimal, SoftAssertions softly)
+      throws IOException {
+
+    GeometryToJsonConverter target = new GeometryToJsonConverter(withBoundingBox, useBigDecimal);
+    String[] wkts = {
+        "POINT (1.1234567891234 2.5)",
+        "POINT EMPTY",
+        "LINESTRING (0 0, 1.123 1, 2 2.0000000001)",
+        "LINESTRING Z (0 0 1, 1 1 2)",
+        "POLYGON ((0 0, 0 1, 1 1, 1 0, 0 0), (0.1 0.1, 0.1 0.2, 0.2 0.2, 0.2 0.1, 0.1 0.1))",
+        "POLYGON EMPTY",
+        "MULTIPOINT ((1 2), (6 7))",
+        "MULTILINESTRING ((0 0, 0 1), (2 2, 2 4))",
+        "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0)), ((2 2, 2 3, 3 3, 3 2, 2 2)))",
+        "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (0 0, 1 1))",
+        "GEOMETRYCOLLECTION EMPTY"
+    };
+    for (String wkt : wkts) {
+      Geometry geometry = factory.createGeometryFromWellKnownText(wkt);
+      StringWriter out = new StringWriter();
+      try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+        target.write(geometry, generator);
+      }
+      softly.assertThat(out.toString())
+          .as("%s (bbox = %s, big decimal = %s)", wkt, withBoundingBox, useBigDecimal)
+          .isEqualTo(objectMapper.writeValueAsString(target.convert(geometry)));
+    }
+  }
+
   /**
    * Convert and expect illegal argument exception.
    */
@@ -38,6 +94,8 @@ class GeometryToJsonConverterTest {
     GeometryToJsonConverter target = new GeometryToJsonConverter();
     assertThatExceptionOfType(IllegalArgumentException.class)
         .isThrownBy(() -> target.convert(mock(IllegalGeometry.class)));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> target.write(mock(IllegalGeometry.class), mock(JsonGenerator.class)));
   }
 
   private abstract static class IllegalGeometry extends Geometry {
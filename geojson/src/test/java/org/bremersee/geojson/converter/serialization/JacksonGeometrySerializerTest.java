@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.converter.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The Jackson geometry serializer test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class JacksonGeometrySerializerTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new GeoJsonObjectMapperModule(factory));
+
+  private static List<NumberType> getNumberTypes(JsonParser parser) throws IOException {
+    List<NumberType> numberTypes = new ArrayList<>();
+    for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+      if (token.isNumeric()) {
+        numberTypes.add(parser.getNumberType());
+      }
+    }
+    return numberTypes;
+  }
+
+  /**
+   * Serialize into binary format.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void serializeIntoBinaryFormat(SoftAssertions softly) throws IOException {
+    Geometry expected = factory.createGeometryFromWellKnownText(
+        "LINESTRING (0.5 1.25, 8.123456789 52.1)");
+    TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+    JsonGenerator binaryGenerator = new JsonGeneratorDelegate(buffer) {
+      @Override
+      public boolean canWriteBinaryNatively() {
+        return true;
+      }
+    };
+    objectMapper.writeValue(binaryGenerator, expected);
+
+    softly.assertThat(getNumberTypes(buffer.asParser()))
+        .containsExactly(NumberType.FLOAT, NumberType.FLOAT, NumberType.DOUBLE, NumberType.DOUBLE);
+    softly.assertThat(objectMapper.readValue(buffer.asParser(), Geometry.class))
+        .isEqualTo(expected);
+  }
+
+  /**
+   * Serialize into token buffer.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void serializeIntoTokenBuffer(SoftAssertions softly) throws IOException {
+    Geometry expected = factory.createGeometryFromWellKnownText("POINT (0.5 1.25)");
+    TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+    objectMapper.writeValue(buffer, expected);
+
+    softly.assertThat(getNumberTypes(buffer.asParser()))
+        .containsExactly(NumberType.DOUBLE, NumberType.DOUBLE);
+    softly.assertThat(objectMapper.readValue(buffer.asParser(), Geometry.class))
+        .isEqualTo(expected);
+  }
+
+}
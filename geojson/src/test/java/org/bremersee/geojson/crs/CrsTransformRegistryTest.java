@@ -0,0 +1,376 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.crs;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.bremersee.geojson.converter.serialization.GeometryToJsonConverter;
+import org.bremersee.geojson.filter.Wgs84ToMercatorCoordinateFilter;
+import org.bremersee.geojson.io.GeoJsonFeatureCollectionReader;
+import org.bremersee.geojson.io.GeoJsonFeatureCollectionWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+
+/**
+ * The crs transform registry test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class CrsTransformRegistryTest {
+
+  private static final CrsTransformRegistry target = new CrsTransformRegistry();
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static double[] transform(CrsTransform transform, double x, double y) {
+    double[] xy = {x, y};
+    transform.transform(xy, 0, 1, 2);
+    return xy;
+  }
+
+  /**
+   * Normalize.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void normalize(SoftAssertions softly) {
+    softly.assertThat(CrsTransformRegistry.normalize(null)).isEqualTo("EPSG:4326");
+    softly.assertThat(CrsTransformRegistry.normalize("urn:ogc:def:crs:OGC:1.3:CRS84"))
+        .isEqualTo("EPSG:4326");
+    softly.assertThat(CrsTransformRegistry.normalize("epsg:25832")).isEqualTo("EPSG:25832");
+    softly.assertThat(CrsTransformRegistry.normalize("urn:ogc:def:crs:EPSG::25832"))
+        .isEqualTo("EPSG:25832");
+    softly.assertThat(CrsTransformRegistry
+            .normalize("http://www.opengis.net/def/crs/EPSG/0/3857"))
+        .isEqualTo("EPSG:3857");
+    softly.assertThat(CrsTransformRegistry
+            .normalize("https://spatialreference.org/ref/epsg/32632/"))
+        .isEqualTo("EPSG:32632");
+    softly.assertThat(CrsTransformRegistry.normalize("foo")).isEqualTo("foo");
+
+    softly.assertThat(target.isSupported("EPSG:32760")).isTrue();
+    softly.assertThat(target.isSupported("EPSG:32761")).isFalse();
+    softly.assertThat(target.isSupported("EPSG:2154")).isFalse();
+  }
+
+  /**
+   * Transform into and from UTM.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void transformUtm(SoftAssertions softly) {
+    CrsTransform toUtm = target.getTransform("EPSG:4326", "EPSG:32632");
+    double[] actual = transform(toUtm, 9.5, 50.);
+    softly.assertThat(actual[0]).isCloseTo(535833.459, within(0.01));
+    softly.assertThat(actual[1]).isCloseTo(5538750.478, within(0.01));
+
+    CrsTransform toWgs84 = target.getTransform("EPSG:32632", null);
+    double[] back = transform(toWgs84, actual[0], actual[1]);
+    softly.assertThat(back[0]).isCloseTo(9.5, within(1e-9));
+    softly.assertThat(back[1]).isCloseTo(50., within(1e-9));
+
+    actual = transform(target.getTransform(
+        new GeoJsonNamedCrs("urn:ogc:def:crs:EPSG::4258"),
+        new GeoJsonLinkedCrs("http://www.opengis.net/def/crs/EPSG/0/25832")), 10., 53.55);
+    softly.assertThat(actual[0]).isCloseTo(566253.456, within(0.01));
+    softly.assertThat(actual[1]).isCloseTo(5933921.421, within(0.01));
+
+    actual = transform(target.getTransform("EPSG:4326", "EPSG:32756"), 151.2, -33.85);
+    softly.assertThat(actual[0]).isCloseTo(333471.815, within(0.01));
+    softly.assertThat(actual[1]).isCloseTo(6253018.169, within(0.01));
+
+    softly.assertThat(target.getTransform("EPSG:4326", "EPSG:32632")).isSameAs(toUtm);
+    softly.assertThat(target.getTransform("EPSG:4258", "CRS84"))
+        .isSameAs(CrsTransform.IDENTITY);
+  }
+
+  /**
+   * Transform into mercator.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void transformMercator(SoftAssertions softly) {
+    Coordinate expected = new Coordinate(8.456, 3.567);
+    new Wgs84ToMercatorCoordinateFilter().filter(expected);
+    double[] actual = transform(target.getTransform("EPSG:4326", "EPSG:900913"), 8.456, 3.567);
+    softly.assertThat(actual[0]).isEqualTo(expected.getX());
+    softly.assertThat(actual[1]).isEqualTo(expected.getY());
+
+    double[] utm = transform(target.getTransform("EPSG:4326", "EPSG:32632"), 8.456, 3.567);
+    actual = transform(target.getTransform("EPSG:32632", "EPSG:3857"), utm[0], utm[1]);
+    softly.assertThat(actual[0]).isCloseTo(expected.getX(), within(0.01));
+    softly.assertThat(actual[1]).isCloseTo(expected.getY(), within(0.01));
+  }
+
+  /**
+   * Register and get unsupported.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void register(SoftAssertions softly) {
+    CrsTransformRegistry registry = new CrsTransformRegistry();
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> registry.getTransform("EPSG:4326", "local"));
+    registry.register(
+        "local",
+        (ordinates, offset, count, stride) -> ordinates[offset] -= 100.,
+        (ordinates, offset, count, stride) -> ordinates[offset] += 100.);
+    softly.assertThat(transform(registry.getTransform("EPSG:4326", "local"), 1., 2.))
+        .containsExactly(101., 2.);
+  }
+
+  /**
+   * Reproject while reading and writing.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void reprojectWhileReadingAndWriting(SoftAssertions softly) throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new GeoJsonObjectMapperModule(
+        factory, true, false, 3, target, null));
+
+    Point point = (Point) objectMapper.readerFor(Geometry.class)
+        .withAttribute(AbstractGeoJsonCrs.class, new GeoJsonNamedCrs("EPSG:32632"))
+        .readValue("{\"type\":\"Point\",\"coordinates\":[535833.4591975093,5538750.477985664]}");
+    softly.assertThat(point.getX()).isCloseTo(9.5, within(1e-8));
+    softly.assertThat(point.getY()).isCloseTo(50., within(1e-8));
+
+    Map<?, ?> json = objectMapper.readValue(
+        objectMapper.writer()
+            .withAttribute(AbstractGeoJsonCrs.class, new GeoJsonNamedCrs("EPSG:32632"))
+            .writeValueAsString(factory.createPoint(9.5, 50.)),
+        Map.class);
+    softly.assertThat(json.get("coordinates")).isEqualTo(List.of(535833.459, 5538750.478));
+    softly.assertThat(((List<?>) json.get("bbox")).get(0))
+        .isInstanceOfSatisfying(Double.class, x -> softly.assertThat(x)
+            .isCloseTo(535833.459, within(0.01)));
+    softly.assertThat(((List<?>) json.get("bbox")).get(3))
+        .isInstanceOfSatisfying(Double.class, y -> softly.assertThat(y)
+            .isCloseTo(5538750.478, within(0.01)));
+
+    Map<String, Object> map = new GeometryToJsonConverter(
+        false, false, 3, target.getTransform("EPSG:4326", "EPSG:32632"))
+        .convert(factory.createGeometryFromWellKnownText("LINESTRING (9.5 50, 9.5 50)"));
+    softly.assertThat(map.get("coordinates"))
+        .isEqualTo(List.of(List.of(535833.459, 5538750.478), List.of(535833.459, 5538750.478)));
+  }
+
+  /**
+   * Reproject a geometry with a crs member.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void reprojectGeometryWithCrsMember(SoftAssertions softly) throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new GeoJsonObjectMapperModule(
+        factory, false, false, 3, target, null));
+
+    Geometry geometry = objectMapper.readValue("{\"type\":\"GeometryCollection\",\"geometries\":["
+        + "{\"type\":\"Point\",\"coordinates\":[535833.4591975093,5538750.477985664]},"
+        + "{\"type\":\"Point\",\"coordinates\":" + mercator(9.5, 50.) + ","
+        + "\"crs\":{\"type\":\"name\",\"properties\":{\"name\":\"EPSG:3857\"}}}],"
+        + "\"crs\":{\"type\":\"name\",\"properties\":{\"name\":\"EPSG:32632\"}}}",
+        Geometry.class);
+    for (int n = 0; n < 2; n++) {
+      Point point = (Point) geometry.getGeometryN(n);
+      softly.assertThat(point.getX()).isCloseTo(9.5, within(1e-8));
+      softly.assertThat(point.getY()).isCloseTo(50., within(1e-8));
+    }
+
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> objectMapper.readValue("{\"type\":\"Point\",\"coordinates\":[1,2],"
+            + "\"crs\":{\"type\":\"name\",\"properties\":{\"name\":\"EPSG:1\"}}}", Geometry.class));
+  }
+
+  /**
+   * Reproject features.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void reprojectFeatures(SoftAssertions softly) throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new GeoJsonObjectMapperModule(
+        factory, false, false, 3, target, null));
+
+    // the crs member follows the bounding box and the geometry
+    GeoJsonFeature<Point, Map<String, Object>> feature = objectMapper.readValue(
+        "{\"type\":\"Feature\",\"bbox\":[535833.459,5538750.478,535833.459,5538750.478],"
+            + "\"geometry\":{\"type\":\"Point\",\"coordinates\":[535833.459,5538750.478]},"
+            + "\"properties\":{},"
+            + "\"crs\":{\"type\":\"name\","
+            + "\"properties\":{\"name\":\"urn:ogc:def:crs:EPSG::32632\"}}}",
+        new TypeReference<>() {
+        });
+    softly.assertThat(feature.getCrs())
+        .isEqualTo(new GeoJsonNamedCrs("urn:ogc:def:crs:EPSG::32632"));
+    softly.assertThat(feature.getGeometry().getX()).isCloseTo(9.5, within(1e-8));
+    softly.assertThat(feature.getGeometry().getY()).isCloseTo(50., within(1e-8));
+    softly.assertThat(feature.getBbox())
+        .containsExactly(new double[]{9.5, 50., 9.5, 50.}, within(1e-8));
+
+    Map<?, ?> json = objectMapper.readValue(objectMapper.writeValueAsString(feature), Map.class);
+    softly.assertThat(json.get("crs")).isEqualTo(Map.of(
+        "type", "name",
+        "properties", Map.of("name", "urn:ogc:def:crs:EPSG::32632")));
+    softly.assertThat(((Map<?, ?>) json.get("geometry")).get("coordinates"))
+        .isEqualTo(List.of(535833.459, 5538750.478));
+    softly.assertThat(json.get("bbox")).asInstanceOf(InstanceOfAssertFactories.LIST)
+        .satisfies(bbox -> softly.assertThat((Double) bbox.get(0))
+            .isCloseTo(535833.459, within(0.01)))
+        .satisfies(bbox -> softly.assertThat((Double) bbox.get(3))
+            .isCloseTo(5538750.478, within(0.01)));
+
+    // without crs member the positions are WGS84 positions
+    json = objectMapper.readValue(objectMapper.writeValueAsString(
+        new GeoJsonFeature<>("1", factory.createPoint(9.5, 50.), false, null)), Map.class);
+    softly.assertThat(((Map<?, ?>) json.get("geometry")).get("coordinates"))
+        .isEqualTo(List.of(9.5, 50.));
+  }
+
+  /**
+   * Reproject feature collections.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void reprojectFeatureCollections(SoftAssertions softly) throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new GeoJsonObjectMapperModule(
+        factory, false, false, 3, target, null));
+
+    // the crs member of the collection follows the features, the second feature has its own one
+    GeoJsonFeatureCollection<Point, Map<String, Object>> collection = objectMapper.readValue(
+        "{\"type\":\"FeatureCollection\",\"bbox\":[0,0,1,1],\"features\":["
+            + "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\","
+            + "\"coordinates\":[535833.459,5538750.478]},\"properties\":{}},"
+            + "{\"type\":\"Feature\","
+            + "\"crs\":{\"type\":\"name\",\"properties\":{\"name\":\"EPSG:3857\"}},"
+            + "\"geometry\":{\"type\":\"Point\",\"coordinates\":" + mercator(9.5, 50.) + "},"
+            + "\"properties\":{}}],"
+            + "\"crs\":{\"type\":\"link\",\"properties\":"
+            + "{\"href\":\"http://www.opengis.net/def/crs/EPSG/0/32632\"}}}",
+        new TypeReference<>() {
+        });
+    softly.assertThat(collection.getCrs()).isInstanceOf(GeoJsonLinkedCrs.class);
+    softly.assertThat(collection.getFeatures())
+        .hasSize(2)
+        .allSatisfy(feature -> {
+          softly.assertThat(feature.getGeometry().getX()).isCloseTo(9.5, within(1e-8));
+          softly.assertThat(feature.getGeometry().getY()).isCloseTo(50., within(1e-8));
+        });
+    softly.assertThat(collection.getBbox())
+        .containsExactly(new double[]{9.5, 50., 9.5, 50.}, within(1e-8));
+
+    Map<?, ?> json = objectMapper.readValue(objectMapper.writeValueAsString(collection), Map.class);
+    List<?> features = (List<?>) json.get("features");
+    softly.assertThat(((Map<?, ?>) ((Map<?, ?>) features.get(0)).get("geometry"))
+            .get("coordinates"))
+        .isEqualTo(List.of(535833.459, 5538750.478));
+    softly.assertThat(((Map<?, ?>) ((Map<?, ?>) features.get(1)).get("geometry"))
+            .get("coordinates"))
+        .asInstanceOf(InstanceOfAssertFactories.LIST)
+        .satisfies(xy -> softly.assertThat((Double) xy.get(0))
+            .isCloseTo(transform(target.getTransform(null, "EPSG:3857"), 9.5, 50.)[0],
+                within(0.001)));
+    softly.assertThat(json.get("bbox")).asInstanceOf(InstanceOfAssertFactories.LIST)
+        .satisfies(bbox -> softly.assertThat((Double) bbox.get(0))
+            .isCloseTo(535833.459, within(0.01)));
+  }
+
+  /**
+   * Reproject streamed feature collections.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void reprojectStreamedFeatureCollections(SoftAssertions softly) throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new GeoJsonObjectMapperModule(
+        factory, false, false, 3, target, null));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GeoJsonFeatureCollectionWriter writer = new GeoJsonFeatureCollectionWriter(
+        objectMapper,
+        objectMapper.createGenerator(out),
+        new GeoJsonNamedCrs("EPSG:32632"),
+        null,
+        true)) {
+      writer.write(new GeoJsonFeature<>("1", factory.createPoint(9.5, 50.), true, null));
+    }
+    Map<?, ?> json = objectMapper.readValue(out.toByteArray(), Map.class);
+    softly.assertThat(json.get("crs")).isEqualTo(Map.of(
+        "type", "name",
+        "properties", Map.of("name", "EPSG:32632")));
+    Map<?, ?> feature = (Map<?, ?>) ((List<?>) json.get("features")).get(0);
+    softly.assertThat(((Map<?, ?>) feature.get("geometry")).get("coordinates"))
+        .isEqualTo(List.of(535833.459, 5538750.478));
+    softly.assertThat(feature.get("bbox")).asInstanceOf(InstanceOfAssertFactories.LIST)
+        .satisfies(bbox -> softly.assertThat((Double) bbox.get(0))
+            .isCloseTo(535833.459, within(0.01)));
+    softly.assertThat(json.get("bbox")).asInstanceOf(InstanceOfAssertFactories.LIST)
+        .satisfies(bbox -> softly.assertThat((Double) bbox.get(1))
+            .isCloseTo(5538750.478, within(0.01)));
+
+    try (GeoJsonFeatureCollectionReader<Point, Map<String, Object>> reader
+        = new GeoJsonFeatureCollectionReader<>(
+        objectMapper, new ByteArrayInputStream(out.toByteArray()), new TypeReference<>() {
+    })) {
+      softly.assertThat(reader.getCrs()).isEqualTo(new GeoJsonNamedCrs("EPSG:32632"));
+      softly.assertThat(reader.stream().toList())
+          .singleElement()
+          .satisfies(f -> {
+            softly.assertThat(f.getGeometry().getX()).isCloseTo(9.5, within(1e-6));
+            softly.assertThat(f.getGeometry().getY()).isCloseTo(50., within(1e-6));
+            softly.assertThat(f.getBbox()[0]).isCloseTo(9.5, within(1e-6));
+          });
+      softly.assertThat(reader.getBbox())
+          .containsExactly(new double[]{9.5, 50., 9.5, 50.}, within(1e-6));
+    }
+  }
+
+  private static String mercator(double x, double y) {
+    double[] xy = transform(target.getTransform(null, "EPSG:3857"), x, y);
+    return "[" + xy[0] + "," + xy[1] + "]";
+  }
+
+}
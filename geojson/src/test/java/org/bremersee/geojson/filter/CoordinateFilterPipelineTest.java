@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.util.CoordinateArrayFilter;
+
+/**
+ * The coordinate filter pipeline test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class CoordinateFilterPipelineTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final CoordinateFilterPipeline target = new CoordinateFilterPipeline(
+      new SwapCoordinateFilter())
+      .then(new Wgs84ToMercatorCoordinateFilter());
+
+  private static final String WKT = "POLYGON ((10 50, 10 51, 11 51, 11 50, 10 50), "
+      + "(10.2 50.2, 10.2 50.4, 10.4 50.4, 10.4 50.2, 10.2 50.2))";
+
+  private static Geometry applySeparately(Geometry geometry) {
+    Geometry copy = geometry.copy();
+    copy.apply(new SwapCoordinateFilter());
+    copy.apply(new Wgs84ToMercatorCoordinateFilter());
+    return copy;
+  }
+
+  /**
+   * Apply.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void apply(SoftAssertions softly) {
+    Geometry geometry = factory.createGeometryFromWellKnownText(WKT);
+    Geometry expected = applySeparately(geometry);
+
+    Geometry actual = target.apply(geometry);
+    softly.assertThat(actual).isEqualTo(expected);
+    softly.assertThat(actual.getEnvelopeInternal()).isEqualTo(expected.getEnvelopeInternal());
+    softly.assertThat(geometry).isEqualTo(factory.createGeometryFromWellKnownText(WKT));
+
+    softly.assertThat(target.applyInPlace(geometry)).isSameAs(geometry);
+    softly.assertThat(geometry).isEqualTo(expected);
+
+    softly.assertThat(new CoordinateFilterPipeline().apply(expected)).isSameAs(expected);
+    softly.assertThat(target.getFilters()).hasSize(2);
+  }
+
+  /**
+   * Apply with filters, that keep the coordinates.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void applyWithCollectingFilter(SoftAssertions softly) {
+    Geometry geometry = factory.createGeometryFromWellKnownText(WKT);
+    CoordinateArrayFilter collector = new CoordinateArrayFilter(geometry.getNumPoints());
+    List<Coordinate> seen = new ArrayList<>();
+    Geometry actual = GeoJsonGeometryFactory.copyAndApplyFilters(
+        geometry, new SwapCoordinateFilter(), collector, seen::add);
+    Coordinate[] coordinates = actual.getCoordinates();
+    softly.assertThat(collector.getCoordinates())
+        .hasSize(coordinates.length)
+        .containsExactly(coordinates);
+    for (int i = 0; i < coordinates.length; i++) {
+      softly.assertThat(collector.getCoordinates()[i])
+          .as("Coordinate %s", i)
+          .isSameAs(coordinates[i]);
+    }
+    softly.assertThat(collector.getCoordinates()[0])
+        .isEqualTo(new Coordinate(50, 10));
+    softly.assertThat(seen)
+        .allSatisfy(coordinate -> softly.assertThat(coordinate.getClass())
+            .isEqualTo(coordinates[0].getClass()));
+  }
+
+  /**
+   * Apply to packed coordinate sequences.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void applyToPackedCoordinateSequences(SoftAssertions softly) {
+    Geometry expected = applySeparately(factory.createGeometryFromWellKnownText(WKT));
+    Geometry packed = GeoJsonGeometryFactory.withPackedCoordinateSequences(false)
+        .createGeometryFromWellKnownText(WKT);
+    softly.assertThat(target.apply(packed)).isEqualTo(expected);
+    Geometry offHeap = GeoJsonGeometryFactory.withOffHeapCoordinateSequences()
+        .createGeometryFromWellKnownText(WKT);
+    softly.assertThat(target.applyInPlace(offHeap)).isEqualTo(expected);
+  }
+
+  /**
+   * Apply in parallel.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void applyInParallel(SoftAssertions softly) {
+    List<Geometry> geometries = new ArrayList<>();
+    List<Geometry> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      Geometry geometry = factory.createPoint(i % 180, i % 80);
+      geometries.add(geometry);
+      expected.add(applySeparately(geometry));
+    }
+    softly.assertThat(target.applyInParallel(geometries, false))
+        .containsExactlyElementsOf(expected);
+    softly.assertThat(geometries.get(5)).isEqualTo(factory.createPoint(5, 5));
+
+    List<Geometry> actual = target.applyInParallel(geometries, true, new ForkJoinPool(2));
+    softly.assertThat(actual).containsExactlyElementsOf(expected);
+    softly.assertThat(actual.get(5)).isSameAs(geometries.get(5));
+    softly.assertThat(target.applyInParallel(null, true)).isEmpty();
+  }
+
+}
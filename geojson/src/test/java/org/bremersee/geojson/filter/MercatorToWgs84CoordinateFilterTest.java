@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 
 /**
  * The mercator to WGS 84 coordinate filter test.
@@ -73,4 +74,39 @@ class MercatorToWgs84CoordinateFilterTest {
     assertEquals(Double.NaN, coordinate.getX());
     assertEquals(Double.NaN, coordinate.getY());
   }
-}
\ No newline at end of file
+
+  /**
+   * Filter in bulk.
+   */
+  @Test
+  void filterInBulk() {
+    MercatorToWgs84CoordinateFilter filter = new MercatorToWgs84CoordinateFilter();
+    double[] xs = new double[]{941317.6141479212, -1.5e7, 0., 2.0e7, Double.NaN, 123.25};
+    double[] ys = new double[]{397333.37049736374, 1.9e7, -1.9e7, 5.0e6, 10., Double.NaN};
+    double[] ordinates = new double[xs.length * 3];
+    Coordinate[] coordinates = new Coordinate[xs.length];
+    for (int i = 0; i < xs.length; i++) {
+      ordinates[i * 3] = xs[i];
+      ordinates[i * 3 + 1] = ys[i];
+      ordinates[i * 3 + 2] = i;
+      coordinates[i] = new Coordinate(xs[i], ys[i], i);
+    }
+    PackedCoordinateSequence sequence = new PackedCoordinateSequence.Double(coordinates, 3);
+    sequence.getCoordinate(0);
+
+    filter.filter(xs, ys);
+    filter.filter(ordinates, 3);
+    filter.filter(sequence);
+    for (int i = 0; i < coordinates.length; i++) {
+      filter.filter(coordinates[i]);
+      assertEquals(coordinates[i].getX(), xs[i]);
+      assertEquals(coordinates[i].getY(), ys[i]);
+      assertEquals(coordinates[i].getX(), ordinates[i * 3]);
+      assertEquals(coordinates[i].getY(), ordinates[i * 3 + 1]);
+      assertEquals(i, ordinates[i * 3 + 2]);
+      assertEquals(coordinates[i].getX(), sequence.getCoordinate(i).getX());
+      assertEquals(coordinates[i].getY(), sequence.getCoordinate(i).getY());
+    }
+  }
+
+}
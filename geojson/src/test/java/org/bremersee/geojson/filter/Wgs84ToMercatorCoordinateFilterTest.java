@@ -25,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 
 /**
  * The WGS 84 to mercator coordinate filter test.
@@ -87,4 +88,39 @@ class Wgs84ToMercatorCoordinateFilterTest {
     assertEquals(Double.NaN, coordinate.getX());
     assertEquals(Double.NaN, coordinate.getY());
   }
-}
\ No newline at end of file
+
+  /**
+   * Filter in bulk.
+   */
+  @Test
+  void filterInBulk() {
+    Wgs84ToMercatorCoordinateFilter filter = new Wgs84ToMercatorCoordinateFilter();
+    double[] xs = new double[]{8.456, -179.5, 0., 180., Double.NaN, 12.25};
+    double[] ys = new double[]{3.567, 89.9, -89.9, 45.5, 10., Double.NaN};
+    double[] ordinates = new double[xs.length * 3];
+    Coordinate[] coordinates = new Coordinate[xs.length];
+    for (int i = 0; i < xs.length; i++) {
+      ordinates[i * 3] = xs[i];
+      ordinates[i * 3 + 1] = ys[i];
+      ordinates[i * 3 + 2] = i;
+      coordinates[i] = new Coordinate(xs[i], ys[i], i);
+    }
+    PackedCoordinateSequence sequence = new PackedCoordinateSequence.Double(coordinates, 3);
+    sequence.getCoordinate(0);
+
+    filter.filter(xs, ys);
+    filter.filter(ordinates, 3);
+    filter.filter(sequence);
+    for (int i = 0; i < coordinates.length; i++) {
+      filter.filter(coordinates[i]);
+      assertEquals(coordinates[i].getX(), xs[i]);
+      assertEquals(coordinates[i].getY(), ys[i]);
+      assertEquals(coordinates[i].getX(), ordinates[i * 3]);
+      assertEquals(coordinates[i].getY(), ordinates[i * 3 + 1]);
+      assertEquals(i, ordinates[i * 3 + 2]);
+      assertEquals(coordinates[i].getX(), sequence.getCoordinate(i).getX());
+      assertEquals(coordinates[i].getY(), sequence.getCoordinate(i).getY());
+    }
+  }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.geom;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.bremersee.geojson.io.GeoJsonFeatureCollectionReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateXYM;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * The off heap coordinate sequence factory test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class OffHeapCoordinateSequenceFactoryTest {
+
+  private static final OffHeapCoordinateSequenceFactory target
+      = new OffHeapCoordinateSequenceFactory(16);
+
+  /**
+   * Create.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void create(SoftAssertions softly) {
+    CoordinateSequence sequence = target.create(new Coordinate[]{
+        new Coordinate(1, 2, 3),
+        new Coordinate(4, 5, 6)
+    });
+    softly.assertThat(sequence.size()).isEqualTo(2);
+    softly.assertThat(sequence.getDimension()).isEqualTo(3);
+    softly.assertThat(sequence.getX(1)).isEqualTo(4.);
+    softly.assertThat(sequence.getZ(1)).isEqualTo(6.);
+    softly.assertThat(sequence.toCoordinateArray())
+        .containsExactly(new Coordinate(1, 2, 3), new Coordinate(4, 5, 6));
+    softly.assertThat(sequence.expandEnvelope(new Envelope()))
+        .isEqualTo(new Envelope(1, 4, 2, 5));
+
+    CoordinateSequence measured = target.create(new Coordinate[]{new CoordinateXYM(1, 2, 7)});
+    softly.assertThat(measured.getDimension()).isEqualTo(3);
+    softly.assertThat(measured.getMeasures()).isEqualTo(1);
+    softly.assertThat(measured.getM(0)).isEqualTo(7.);
+    softly.assertThat(measured.getZ(0)).isNaN();
+
+    CoordinateSequence copy = target.create(sequence);
+    copy.setOrdinate(0, CoordinateSequence.X, 10.);
+    softly.assertThat(copy.getX(0)).isEqualTo(10.);
+    softly.assertThat(sequence.getX(0)).isEqualTo(1.);
+
+    // larger than half a chunk and a new chunk
+    CoordinateSequence large = target.create(5, 2);
+    large.setOrdinate(4, CoordinateSequence.Y, 9.);
+    softly.assertThat(large.getY(4)).isEqualTo(9.);
+    softly.assertThat(target.create(0, 2).size()).isZero();
+
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> large.setOrdinate(0, CoordinateSequence.Z, 1.));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new OffHeapCoordinateSequenceFactory(0));
+  }
+
+  /**
+   * Create geometries with the factory.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void createGeometries(SoftAssertions softly) throws Exception {
+    GeoJsonGeometryFactory factory = GeoJsonGeometryFactory.withOffHeapCoordinateSequences();
+    String json = "{\"type\":\"Polygon\",\"coordinates\":"
+        + "[[[0,0],[0,10],[10,10],[10,0],[0,0]],[[1,1],[1,2],[2,2],[2,1],[1,1]]]}";
+    Geometry actual = new ObjectMapper()
+        .registerModule(new GeoJsonObjectMapperModule(factory))
+        .readValue(json, Geometry.class);
+    softly.assertThat(((Polygon) actual).getExteriorRing().getCoordinateSequence())
+        .isInstanceOf(OffHeapCoordinateSequence.class);
+    Geometry expected = new GeoJsonGeometryFactory().createGeometryFromWellKnownText(
+        "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 1 2, 2 2, 2 1, 1 1))");
+    softly.assertThat(actual).isEqualTo(expected);
+    softly.assertThat(actual.getArea()).isEqualTo(99.);
+    softly.assertThat(actual.copy()).isEqualTo(expected);
+
+    LineString lineString = factory.createLineString(new Coordinate[]{
+        new Coordinate(0, 0), new Coordinate(3, 4)});
+    softly.assertThat(lineString.getLength()).isEqualTo(5.);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+      oos.writeObject(actual);
+    }
+    try (ObjectInputStream ois = new ObjectInputStream(
+        new ByteArrayInputStream(out.toByteArray()))) {
+      Geometry deserialized = (Geometry) ois.readObject();
+      softly.assertThat(deserialized).isEqualTo(expected);
+      softly.assertThat(((Polygon) deserialized).getExteriorRing().getCoordinateSequence())
+          .isInstanceOf(OffHeapCoordinateSequence.class);
+    }
+  }
+
+  /**
+   * Read features with the factory.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void readFeatures(SoftAssertions softly) throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(
+        new GeoJsonObjectMapperModule(GeoJsonGeometryFactory.withOffHeapCoordinateSequences()));
+    String json = "{\"type\":\"FeatureCollection\",\"features\":["
+        + "{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\","
+        + "\"coordinates\":[[0,0],[3,4]]},\"properties\":{}},"
+        + "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\","
+        + "\"coordinates\":[1,2]},\"properties\":{}}]}";
+    try (GeoJsonFeatureCollectionReader<Geometry, Map<String, Object>> reader
+        = new GeoJsonFeatureCollectionReader<>(
+        objectMapper,
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+        new TypeReference<>() {
+        })) {
+
+      List<GeoJsonFeature<Geometry, Map<String, Object>>> actual = reader.stream().toList();
+      softly.assertThat(actual)
+          .hasSize(2);
+      softly.assertThat(((LineString) actual.get(0).getGeometry()).getCoordinateSequence())
+          .isInstanceOf(OffHeapCoordinateSequence.class);
+      softly.assertThat(((Point) actual.get(1).getGeometry()).getCoordinateSequence())
+          .isInstanceOf(OffHeapCoordinateSequence.class);
+      softly.assertThat(actual.get(0).getGeometry().getLength())
+          .isEqualTo(5.);
+    }
+  }
+
+}
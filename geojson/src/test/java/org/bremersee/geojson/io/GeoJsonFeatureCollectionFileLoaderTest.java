@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.bremersee.geojson.TestFeatures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The geo json feature collection file loader test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeoJsonFeatureCollectionFileLoaderTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = JsonMapper.builder()
+      .addModule(new GeoJsonObjectMapperModule())
+      .build();
+
+  private static final TypeReference<GeoJsonFeature<Geometry, Map<String, Object>>> featureType
+      = new TypeReference<>() {
+      };
+
+  @TempDir
+  Path tempDir;
+
+  /**
+   * Load.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void load(SoftAssertions softly) throws IOException {
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> expected
+        = new GeoJsonFeatureCollection<>(TestFeatures.create(
+        1000,
+        i -> factory.createGeometryFromWellKnownText(
+            String.format("POLYGON ((%d 0, %d 1, %d 1, %d 0, %d 0))", i, i, i + 1, i + 1, i)),
+        i -> false,
+        i -> Map.of("name", "Name with \"quotes\", {braces} and [brackets] " + i)), true);
+    Path file = tempDir.resolve("features.json");
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), expected);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      GeoJsonFeatureCollection<Geometry, Map<String, Object>> actual
+          = new GeoJsonFeatureCollectionFileLoader<Geometry, Map<String, Object>>(
+          objectMapper,
+          objectMapper.getTypeFactory().constructType(featureType),
+          pool)
+          .load(file);
+      softly.assertThat(actual)
+          .isEqualTo(expected);
+    } finally {
+      pool.shutdown();
+    }
+
+    try (Stream<GeoJsonFeature<Geometry, Map<String, Object>>> stream
+        = new GeoJsonFeatureCollectionFileLoader<>(objectMapper, featureType).stream(file)) {
+      softly.assertThat(stream.collect(Collectors.toList()))
+          .containsExactlyElementsOf(expected.getFeatures());
+    }
+  }
+
+  /**
+   * Load with members after the features.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void loadWithMembersAfterFeatures(SoftAssertions softly) throws IOException {
+    String json = "\uFEFF{\"foo\":{\"bar\":[1,2]}, \"features\" : [ null ,"
+        + "{\"type\":\"Feature\",\"id\":\"1\",\"geometry\":"
+        + "{\"type\":\"Point\",\"coordinates\":[1,2]},\"properties\":{\"a\":\"}\"}} ],"
+        + "\"type\":\"FeatureCollection\",\"baz\":\"qux\"}";
+    Path file = tempDir.resolve("members.json");
+    Files.writeString(file, json, StandardCharsets.UTF_8);
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> actual
+        = new GeoJsonFeatureCollectionFileLoader<>(objectMapper, featureType).load(file);
+    softly.assertThat(actual.getFeatures())
+        .extracting(GeoJsonFeature::getId)
+        .containsExactly("1");
+    softly.assertThat(actual.getFeatures().get(0).getProperties())
+        .isEqualTo(Map.of("a", "}"));
+    softly.assertThat(actual.findUnknownList("$.foo.bar", Integer.class))
+        .hasValue(List.of(1, 2));
+    softly.assertThat(actual.findUnknown("$.baz", String.class))
+        .hasValue("qux");
+  }
+
+  /**
+   * Load and expect exception.
+   *
+   * @throws IOException the io exception
+   */
+  @Test
+  void loadAndExpectException() throws IOException {
+    GeoJsonFeatureCollectionFileLoader<Geometry, Map<String, Object>> target
+        = new GeoJsonFeatureCollectionFileLoader<>(objectMapper, featureType);
+    Path truncated = tempDir.resolve("truncated.json");
+    Files.writeString(truncated, "{\"type\":\"FeatureCollection\",\"features\":[{\"type\":");
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> target.load(truncated));
+
+    Path array = tempDir.resolve("array.json");
+    Files.writeString(array, "[]");
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> target.load(array));
+
+    Path wrongType = tempDir.resolve("wrong-type.json");
+    Files.writeString(wrongType, "{\"type\":\"Feature\",\"features\":[]}");
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> target.load(wrongType));
+
+    Path illegalFeature = tempDir.resolve("illegal-feature.json");
+    Files.writeString(illegalFeature, "{\"type\":\"FeatureCollection\",\"features\":"
+        + "[{\"type\":\"Point\",\"coordinates\":[1,2]}]}");
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> target.load(illegalFeature));
+    assertThatExceptionOfType(UncheckedIOException.class)
+        .isThrownBy(() -> target.stream(illegalFeature).count());
+  }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.bremersee.geojson.TestFeatures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The geo json feature collection reader test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeoJsonFeatureCollectionReaderTest {
+
+  private static final ObjectMapper objectMapper = JsonMapper.builder()
+      .addModule(new GeoJsonObjectMapperModule())
+      .build();
+
+  private static final TypeReference<GeoJsonFeature<Geometry, Map<String, Object>>> featureType
+      = new TypeReference<>() {
+      };
+
+  /**
+   * Read features.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void read(SoftAssertions softly) throws IOException {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> expected = TestFeatures.points(100);
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> collection
+        = new GeoJsonFeatureCollection<>(expected, true);
+    byte[] json = objectMapper.writeValueAsBytes(collection);
+    try (GeoJsonFeatureCollectionReader<Geometry, Map<String, Object>> target
+        = new GeoJsonFeatureCollectionReader<>(
+        objectMapper, new ByteArrayInputStream(json), featureType)) {
+
+      softly.assertThat(target.getBbox())
+          .containsExactly(collection.getBbox());
+      List<GeoJsonFeature<Geometry, Map<String, Object>>> actual = new ArrayList<>();
+      target.forEachRemaining(actual::add);
+      softly.assertThat(actual)
+          .containsExactlyElementsOf(expected);
+      softly.assertThat(target.hasNext())
+          .isFalse();
+    }
+  }
+
+  /**
+   * Read with members after the features.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void readWithMembersAfterFeatures(SoftAssertions softly) throws IOException {
+    String json = "{\"foo\":{\"bar\":1},\"features\":["
+        + "{\"type\":\"Feature\",\"id\":\"1\",\"geometry\":"
+        + "{\"type\":\"Point\",\"coordinates\":[1,2]},\"properties\":{}},null,"
+        + "{\"type\":\"Feature\",\"id\":\"2\",\"geometry\":null,\"properties\":null}],"
+        + "\"bbox\":[1,2,1,2],\"type\":\"FeatureCollection\",\"baz\":\"qux\"}";
+    GeoJsonFeatureCollectionReader<Geometry, Map<String, Object>> target
+        = new GeoJsonFeatureCollectionReader<>(objectMapper, new StringReader(json), featureType);
+    softly.assertThat(target.getBbox())
+        .isNull();
+    softly.assertThat(target.findUnknown("$.foo.bar", Integer.class))
+        .hasValue(1);
+    try (Stream<GeoJsonFeature<Geometry, Map<String, Object>>> stream = target.stream()) {
+      softly.assertThat(stream.map(GeoJsonFeature::getId).collect(Collectors.toList()))
+          .containsExactly("1", "2");
+    }
+    softly.assertThat(target.getBbox())
+        .containsExactly(1., 2., 1., 2.);
+    softly.assertThat(target.findUnknown("$.baz", String.class))
+        .hasValue("qux");
+  }
+
+  /**
+   * Read empty feature collection.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void readEmpty(SoftAssertions softly) throws IOException {
+    GeoJsonFeatureCollectionReader<Geometry, Map<String, Object>> target
+        = new GeoJsonFeatureCollectionReader<>(
+        objectMapper,
+        new StringReader("{\"type\":\"FeatureCollection\",\"features\":[]}"),
+        featureType);
+    softly.assertThat(target.hasNext())
+        .isFalse();
+    target = new GeoJsonFeatureCollectionReader<>(
+        objectMapper,
+        new StringReader("{\"type\":\"FeatureCollection\"}"),
+        featureType);
+    softly.assertThat(target.hasNext())
+        .isFalse();
+  }
+
+  /**
+   * Read and expect exception.
+   */
+  @Test
+  void readAndExpectException() {
+    assertThatExceptionOfType(JsonParseException.class)
+        .isThrownBy(() -> new GeoJsonFeatureCollectionReader<>(
+            objectMapper,
+            new StringReader("{\"type\":\"Feature\",\"features\":[]}"),
+            featureType));
+    assertThatExceptionOfType(JsonParseException.class)
+        .isThrownBy(() -> new GeoJsonFeatureCollectionReader<>(
+            objectMapper,
+            new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)),
+            featureType));
+    assertThatExceptionOfType(UncheckedIOException.class)
+        .isThrownBy(() -> new GeoJsonFeatureCollectionReader<>(
+            objectMapper,
+            new StringReader("{\"type\":\"FeatureCollection\",\"features\":[1]}"),
+            featureType).next());
+  }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The geo json feature collection writer test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeoJsonFeatureCollectionWriterTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = JsonMapper.builder()
+      .addModule(new GeoJsonObjectMapperModule())
+      .build();
+
+  private static List<GeoJsonFeature<Geometry, Map<String, Object>>> createFeatures() {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = new ArrayList<>();
+    features.add(new GeoJsonFeature<>(
+        "1",
+        factory.createGeometryFromWellKnownText("LINESTRING (0 0, 0 1, 1 1)"),
+        true,
+        Map.of("foo", "bar")));
+    features.add(new GeoJsonFeature<>(
+        "2",
+        factory.createPoint(-3., 5.5),
+        false,
+        null));
+    features.add(new GeoJsonFeature<>("3", null, false, Map.of("baz", 1)));
+    return features;
+  }
+
+  /**
+   * Write and expect the same output as the feature collection.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void write(SoftAssertions softly) throws IOException {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = createFeatures();
+
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> expected
+        = new GeoJsonFeatureCollection<>(features, false);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GeoJsonFeatureCollectionWriter target
+        = new GeoJsonFeatureCollectionWriter(objectMapper, out, false)) {
+      target.writeAll(features);
+    }
+    softly.assertThat(out.toByteArray())
+        .isEqualTo(objectMapper.writeValueAsBytes(expected));
+
+    expected = new GeoJsonFeatureCollection<>(features, true);
+    out = new ByteArrayOutputStream();
+    try (GeoJsonFeatureCollectionWriter target
+        = new GeoJsonFeatureCollectionWriter(objectMapper, out, expected.getBbox())) {
+      for (GeoJsonFeature<Geometry, Map<String, Object>> feature : features) {
+        target.write(feature);
+      }
+      target.write(null);
+    }
+    softly.assertThat(out.toByteArray())
+        .isEqualTo(objectMapper.writeValueAsBytes(expected));
+
+    ObjectMapper prettyMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+    StringWriter writer = new StringWriter();
+    try (GeoJsonFeatureCollectionWriter target = new GeoJsonFeatureCollectionWriter(
+        prettyMapper, prettyMapper.createGenerator(writer), expected.getBbox(), false)) {
+      target.writeAll(features);
+    }
+    softly.assertThat(writer.toString())
+        .isEqualTo(prettyMapper.writeValueAsString(expected));
+  }
+
+  /**
+   * Write with calculated bounding box.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void writeWithCalculatedBoundingBox(SoftAssertions softly) throws IOException {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = createFeatures();
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> expected
+        = new GeoJsonFeatureCollection<>(features, true);
+    StringWriter writer = new StringWriter();
+    GeoJsonFeatureCollectionWriter target
+        = new GeoJsonFeatureCollectionWriter(objectMapper, writer, true);
+    target.writeAll(features);
+    target.flush();
+    softly.assertThat(target.getBbox())
+        .containsExactly(expected.getBbox());
+    target.close();
+    target.close();
+
+    String json = writer.toString();
+    softly.assertThat(json)
+        .endsWith("],\"bbox\":[-3.0,0.0,1.0,5.5]}");
+    GeoJsonFeatureCollection<Geometry, Map<String, Object>> actual = objectMapper
+        .readValue(json, new TypeReference<>() {
+        });
+    softly.assertThat(actual)
+        .isEqualTo(expected);
+
+    assertThatExceptionOfType(IllegalStateException.class)
+        .isThrownBy(() -> target.write(features.get(0)));
+  }
+
+  /**
+   * Create and expect illegal argument exception.
+   */
+  @Test
+  void createAndExpectIllegalArgumentException() {
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new GeoJsonFeatureCollectionWriter(
+            objectMapper, new ByteArrayOutputStream(), new double[]{1., 2.}));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new GeoJsonFeatureCollectionWriter(
+            objectMapper,
+            objectMapper.createGenerator(new ByteArrayOutputStream()),
+            new double[]{1., 2., 3., 4.},
+            true));
+  }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.bremersee.geojson.TestFeatures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The geo json sequence reader and writer test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeoJsonSequenceReaderTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = JsonMapper.builder()
+      .addModule(new GeoJsonObjectMapperModule())
+      .build();
+
+  private static final TypeReference<GeoJsonFeature<Geometry, Map<String, Object>>> featureType
+      = new TypeReference<>() {
+      };
+
+  private static byte[] write(
+      List<GeoJsonFeature<Geometry, Map<String, Object>>> features,
+      GeoJsonSequenceFormat format) throws IOException {
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GeoJsonSequenceWriter writer = new GeoJsonSequenceWriter(objectMapper, out, format)) {
+      writer.writeAll(features);
+      writer.write(null);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Write and read.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void writeAndRead(SoftAssertions softly) throws IOException {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> expected = TestFeatures.lines(
+        500, i -> Map.of("index", i, "name", "line\n" + i));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (GeoJsonSequenceFormat format : GeoJsonSequenceFormat.values()) {
+        byte[] json = write(expected, format);
+        try (GeoJsonSequenceReader<Geometry, Map<String, Object>> target
+            = new GeoJsonSequenceReader<>(
+            objectMapper, new ByteArrayInputStream(json), featureType, format)) {
+          List<GeoJsonFeature<Geometry, Map<String, Object>>> actual = new ArrayList<>();
+          target.forEachRemaining(actual::add);
+          softly.assertThat(actual)
+              .as("Sequential reading of %s", format)
+              .containsExactlyElementsOf(expected);
+        }
+        try (Stream<GeoJsonFeature<Geometry, Map<String, Object>>> stream
+            = new GeoJsonSequenceReader<>(
+            objectMapper, new ByteArrayInputStream(json), featureType, format, executor)
+            .stream()) {
+          softly.assertThat(stream.collect(Collectors.toList()))
+              .as("Parallel reading of %s", format)
+              .containsExactlyElementsOf(expected);
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Write text sequence.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void writeTextSequence(SoftAssertions softly) throws IOException {
+    String json = new String(
+        write(TestFeatures.lines(2, i -> Map.of("index", i)), GeoJsonSequenceFormat.TEXT_SEQUENCE),
+        StandardCharsets.UTF_8);
+    softly.assertThat(json)
+        .startsWith("\u001e{\"type\":\"Feature\",\"id\":\"0\"")
+        .contains("}\n\u001e{\"type\":\"Feature\",\"id\":\"1\"")
+        .endsWith("}\n");
+    softly.assertThat(json.chars().filter(c -> c == '\n').count())
+        .isEqualTo(2);
+  }
+
+  /**
+   * Read newline delimited with blank lines.
+   *
+   * @param softly the softly
+   * @throws IOException the io exception
+   */
+  @Test
+  void readNewlineDelimitedWithBlankLines(SoftAssertions softly) throws IOException {
+    String json = "\r\n{\"type\":\"Feature\",\"id\":\"1\",\"geometry\":null}\r\n  \n"
+        + "null\n{\"type\":\"Feature\",\"id\":\"2\",\"geometry\":"
+        + "{\"type\":\"Point\",\"coordinates\":[1,2]}}";
+    try (GeoJsonSequenceReader<Geometry, Map<String, Object>> target
+        = new GeoJsonSequenceReader<>(
+        objectMapper,
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+        featureType,
+        GeoJsonSequenceFormat.NEWLINE_DELIMITED)) {
+
+      softly.assertThat(target.next().getId())
+          .isEqualTo("1");
+      softly.assertThat(target.next().getGeometry())
+          .isEqualTo(factory.createPoint(1., 2.));
+      softly.assertThat(target.hasNext())
+          .isFalse();
+    }
+  }
+
+  /**
+   * Read and expect exception.
+   */
+  @Test
+  void readAndExpectException() {
+    byte[] json = "{\"type\":\"Feature\"}\n{\"type\":\"Point\"}\n".getBytes(StandardCharsets.UTF_8);
+    assertThatExceptionOfType(UncheckedIOException.class)
+        .isThrownBy(() -> new GeoJsonSequenceReader<>(
+            objectMapper,
+            new ByteArrayInputStream(json),
+            featureType,
+            GeoJsonSequenceFormat.NEWLINE_DELIMITED)
+            .forEachRemaining(feature -> {
+            }));
+    assertThatExceptionOfType(UncheckedIOException.class)
+        .isThrownBy(() -> new GeoJsonSequenceReader<>(
+            objectMapper,
+            new ByteArrayInputStream(json),
+            objectMapper.getTypeFactory().constructType(featureType),
+            GeoJsonSequenceFormat.NEWLINE_DELIMITED,
+            Runnable::run,
+            2)
+            .forEachRemaining(feature -> {
+            }));
+  }
+
+}
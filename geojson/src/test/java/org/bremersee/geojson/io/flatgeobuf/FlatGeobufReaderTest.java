@@ -0,0 +1,340 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.TestFeatures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The flat geobuf reader test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class FlatGeobufReaderTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static final List<String> wkts = List.of(
+      "POINT (1.5 2.5)",
+      "POINT Z (1.5 2.5 3.5)",
+      "POINT EMPTY",
+      "LINESTRING (0 0, 1 1, 2 0)",
+      "POLYGON ((0 0, 0 1, 1 1, 1 0, 0 0))",
+      "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 1 2, 2 2, 2 1, 1 1), "
+          + "(5 5, 5 6, 6 6, 6 5, 5 5))",
+      "MULTIPOINT ((1 2), (6 7))",
+      "MULTILINESTRING ((0 0, 0 1), (2 2, 2 4, 3 5))",
+      "MULTILINESTRING ((0 0, 0 1))",
+      "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0)), ((2 2, 2 3, 3 3, 3 2, 2 2), "
+          + "(2.1 2.1, 2.1 2.2, 2.2 2.2, 2.2 2.1, 2.1 2.1)))",
+      "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (0 0, 1 1), "
+          + "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0))))");
+
+  /**
+   * Creates a FlatGeobuf file, that is assembled by hand from the schemas and laid out like the
+   * builders of the reference implementation do it: every buffer is built from back to front, so
+   * the vtable precedes its table, the fields are ordered by size, fields with default values
+   * are omitted, the vtables are trimmed after the last present field and an equal vtable is
+   * shared (the second column and the crs table point to a vtable, that is not directly in front
+   * of them). The file has the name {@code test}, the envelope (1, 2, 3, 4), point geometries,
+   * the columns {@code name} (string) and {@code count} (int), no spatial index and the crs
+   * code 4326 without organization; the two features are {@code POINT (1 2)} with the
+   * properties {@code name = Mill, count = 7} and {@code POINT (3 4)} with {@code count = -3}.
+   *
+   * @return the bytes of the file
+   */
+  static byte[] createReferenceFile() {
+    ByteBuffer buffer = ByteBuffer.allocate(376).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.put(new byte[]{0x66, 0x67, 0x62, 0x03, 0x66, 0x67, 0x62, 0x01});
+    // header: size prefix, root offset and vtable of 11 fields
+    buffer.putInt(8, 196).putInt(12, 44 - 12);
+    putShorts(buffer, 16, 26, 32, 12, 16, 30, 0, 0, 0, 0, 20, 4, 28, 24);
+    // header table: soffset, features count, name, envelope, columns, crs, index node size and
+    // geometry type
+    buffer.putInt(44, 44 - 16).putLong(48, 2L)
+        .putInt(56, 112 - 56).putInt(60, 76 - 60).putInt(64, 124 - 64).putInt(68, 192 - 68)
+        .putShort(72, (short) 0).put(74, (byte) FlatGeobufConstants.GEOMETRY_TYPE_POINT);
+    buffer.putInt(76, 4).putDouble(80, 1.).putDouble(88, 2.).putDouble(96, 3.).putDouble(104, 4.);
+    putString(buffer, 112, "test");
+    // columns: vector, shared vtable and the two column tables
+    buffer.putInt(124, 2).putInt(128, 144 - 128).putInt(132, 156 - 132);
+    putShorts(buffer, 136, 8, 12, 4, 8);
+    buffer.putInt(144, 144 - 136).putInt(148, 168 - 148)
+        .put(152, (byte) FlatGeobufConstants.COLUMN_TYPE_STRING);
+    buffer.putInt(156, 156 - 136).putInt(160, 180 - 160)
+        .put(164, (byte) FlatGeobufConstants.COLUMN_TYPE_INT);
+    putString(buffer, 168, "name");
+    putString(buffer, 180, "count");
+    // crs table with the vtable behind it (negative soffset)
+    buffer.putInt(192, 192 - 200).putInt(196, 4326);
+    putShorts(buffer, 200, 8, 8, 0, 4);
+    // first feature: size prefix, root offset, vtable, table, properties and geometry
+    buffer.putInt(208, 84).putInt(212, 224 - 212);
+    putShorts(buffer, 216, 8, 12, 4, 8);
+    buffer.putInt(224, 224 - 216).putInt(228, 264 - 228).putInt(232, 236 - 232);
+    buffer.putInt(236, 16)
+        .putShort(240, (short) 0).putInt(242, 4).put(246, "Mill".getBytes(StandardCharsets.UTF_8))
+        .putShort(250, (short) 1).putInt(252, 7);
+    putShorts(buffer, 256, 8, 8, 0, 4);
+    buffer.putInt(264, 264 - 256).putInt(268, 276 - 268);
+    buffer.putInt(276, 2).putDouble(280, 1.).putDouble(288, 2.);
+    // second feature without the name
+    buffer.putInt(296, 76).putInt(300, 312 - 300);
+    putShorts(buffer, 304, 8, 12, 4, 8);
+    buffer.putInt(312, 312 - 304).putInt(316, 344 - 316).putInt(320, 324 - 320);
+    buffer.putInt(324, 6).putShort(328, (short) 1).putInt(330, -3);
+    putShorts(buffer, 336, 8, 8, 0, 4);
+    buffer.putInt(344, 344 - 336).putInt(348, 356 - 348);
+    buffer.putInt(356, 2).putDouble(360, 3.).putDouble(368, 4.);
+    return buffer.array();
+  }
+
+  private static void putShorts(ByteBuffer buffer, int position, int... values) {
+    for (int i = 0; i < values.length; i++) {
+      buffer.putShort(position + 2 * i, (short) values[i]);
+    }
+  }
+
+  private static void putString(ByteBuffer buffer, int position, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putInt(position, bytes.length).put(position + 4, bytes);
+  }
+
+  private static Path write(
+      Path dir,
+      List<GeoJsonFeature<Geometry, Map<String, Object>>> features,
+      int indexNodeSize) throws IOException {
+    Path file = dir.resolve("features-" + indexNodeSize + ".fgb");
+    try (OutputStream out = Files.newOutputStream(file);
+        FlatGeobufWriter writer = new FlatGeobufWriter(objectMapper, out, "test", indexNodeSize)) {
+      writer.writeAll(features);
+    }
+    return file;
+  }
+
+  /**
+   * Read a file, that is laid out like the files of the reference implementation.
+   *
+   * @param softly the softly
+   * @param dir the temporary directory
+   * @throws Exception the exception
+   */
+  @Test
+  void readReferenceFile(SoftAssertions softly, @TempDir Path dir) throws Exception {
+    byte[] bytes = createReferenceFile();
+    FlatGeobufVerifier.verify(bytes);
+    Path file = Files.write(dir.resolve("reference.fgb"), bytes);
+    try (FlatGeobufReader reader = new FlatGeobufReader(objectMapper, file)) {
+      softly.assertThat(reader.getName())
+          .isEqualTo("test");
+      softly.assertThat(reader.getBbox())
+          .containsExactly(1., 2., 3., 4.);
+      softly.assertThat(reader.getCrs())
+          .isEqualTo("EPSG:4326");
+      softly.assertThat(reader.getFeaturesCount())
+          .isEqualTo(2L);
+      softly.assertThat(reader.hasIndex())
+          .isFalse();
+      softly.assertThat(reader.stream().toList())
+          .containsExactly(
+              new GeoJsonFeature<>(
+                  null, factory.createGeometryFromWellKnownText("POINT (1 2)"), false,
+                  Map.of("name", "Mill", "count", 7)),
+              new GeoJsonFeature<>(
+                  null, factory.createGeometryFromWellKnownText("POINT (3 4)"), false,
+                  Map.of("count", -3)));
+    }
+  }
+
+  /**
+   * Read files with wrong magic bytes and expect an io exception.
+   *
+   * @param softly the softly
+   * @param dir the temporary directory
+   * @throws Exception the exception
+   */
+  @Test
+  void readAndExpectIoException(SoftAssertions softly, @TempDir Path dir) throws Exception {
+    for (int i = 0; i < 8; i++) {
+      byte[] bytes = createReferenceFile();
+      bytes[i] = (byte) (bytes[i] + 1);
+      Path file = Files.write(dir.resolve("wrong-" + i + ".fgb"), bytes);
+      softly.assertThatIOException()
+          .as("Wrong magic byte %s", i)
+          .isThrownBy(() -> new FlatGeobufReader(objectMapper, file).close());
+    }
+    byte[] bytes = createReferenceFile();
+    bytes[7] = 0;
+    Path file = Files.write(dir.resolve("patch.fgb"), bytes);
+    try (FlatGeobufReader reader = new FlatGeobufReader(objectMapper, file)) {
+      softly.assertThat(reader.stream().count())
+          .isEqualTo(2L);
+    }
+  }
+
+  /**
+   * Read all geometry types.
+   *
+   * @param softly the softly
+   * @param dir the temporary directory
+   * @throws Exception the exception
+   */
+  @Test
+  void readGeometries(SoftAssertions softly, @TempDir Path dir) throws Exception {
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> expected = new ArrayList<>();
+    for (String wkt : wkts) {
+      expected.add(new GeoJsonFeature<>(
+          null, factory.createGeometryFromWellKnownText(wkt), false, null));
+    }
+    expected.add(new GeoJsonFeature<>(null, null, false, Map.of("empty", true)));
+    Path file = write(dir, expected, 0);
+    try (FlatGeobufReader reader = new FlatGeobufReader(objectMapper, file)) {
+      List<GeoJsonFeature<Geometry, Map<String, Object>>> actual = reader.stream().toList();
+      softly.assertThat(actual)
+          .hasSize(expected.size());
+      for (int i = 0; i < wkts.size() && i < actual.size(); i++) {
+        Geometry expectedGeometry = expected.get(i).getGeometry();
+        Geometry actualGeometry = actual.get(i).getGeometry();
+        softly.assertThat(expectedGeometry.isEmpty()
+                ? actualGeometry.isEmpty()
+                : GeoJsonGeometryFactory.equals(expectedGeometry, actualGeometry))
+            .as("Geometry %s: expected %s, actual %s", i, expectedGeometry, actualGeometry)
+            .isTrue();
+      }
+      softly.assertThat(actual.get(wkts.size()))
+          .isEqualTo(expected.get(wkts.size()));
+      softly.assertThat(actual.get(1).getGeometry().getCoordinate().getZ())
+          .isEqualTo(3.5);
+      softly.assertThat(reader.getName())
+          .isEqualTo("test");
+      softly.assertThat(reader.getFeaturesCount())
+          .isEqualTo(expected.size());
+      softly.assertThat(reader.getBbox())
+          .containsExactly(0., 0., 10., 10.);
+      softly.assertThat(reader.hasIndex())
+          .isFalse();
+    }
+  }
+
+  /**
+   * Read properties.
+   *
+   * @param softly the softly
+   * @param dir the temporary directory
+   * @throws Exception the exception
+   */
+  @Test
+  void readProperties(SoftAssertions softly, @TempDir Path dir) throws Exception {
+    Map<String, Object> properties = Map.of(
+        "bool", true,
+        "int", 42,
+        "long", 1L + Integer.MAX_VALUE,
+        "double", 1.25,
+        "string", "Hällo",
+        "json", Map.of("foo", List.of(1, 2)));
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> expected = List.of(
+        new GeoJsonFeature<>(
+            null, factory.createGeometryFromWellKnownText("POINT (1 2)"), false, properties),
+        new GeoJsonFeature<>(
+            null, factory.createGeometryFromWellKnownText("POINT (3 4)"), false,
+            Map.of("int", 7)));
+    Path file = write(dir, expected, 16);
+    try (FlatGeobufReader reader = new FlatGeobufReader(objectMapper, file)) {
+      softly.assertThat(reader.stream().map(GeoJsonFeature::getProperties).toList())
+          .containsExactlyInAnyOrder(properties, Map.of("int", 7));
+    }
+  }
+
+  /**
+   * Read with bounding box.
+   *
+   * @param softly the softly
+   * @param dir the temporary directory
+   * @throws Exception the exception
+   */
+  @Test
+  void readWithBoundingBox(SoftAssertions softly, @TempDir Path dir) throws Exception {
+    Random random = new Random(42);
+    List<GeoJsonFeature<Geometry, Map<String, Object>>> features = TestFeatures.create(
+        5000,
+        i -> {
+          double x = -180. + 360. * random.nextDouble();
+          double y = -90. + 180. * random.nextDouble();
+          return factory.createLineString(List.of(
+              GeoJsonGeometryFactory.createCoordinate(x, y),
+              GeoJsonGeometryFactory.createCoordinate(
+                  x + random.nextDouble(), y + random.nextDouble())));
+        },
+        i -> false,
+        i -> Map.of("index", i));
+    Path indexed = write(dir, features, 16);
+    Path notIndexed = write(dir, features, 0);
+    double[][] boxes = {
+        {-10., -10., 10., 10.},
+        {100., 45., 101., 46.},
+        {-180., -90., 180., 90.},
+        {200., 0., 201., 1.}
+    };
+    try (FlatGeobufReader indexedReader = new FlatGeobufReader(objectMapper, indexed);
+        FlatGeobufReader notIndexedReader = new FlatGeobufReader(objectMapper, notIndexed)) {
+      softly.assertThat(indexedReader.hasIndex())
+          .isTrue();
+      softly.assertThat(indexedReader.stream().count())
+          .isEqualTo(features.size());
+      for (double[] box : boxes) {
+        Envelope envelope = new Envelope(box[0], box[2], box[1], box[3]);
+        List<Object> expected = features.stream()
+            .filter(f -> envelope.intersects(f.getGeometry().getEnvelopeInternal()))
+            .map(f -> f.getProperties().get("index"))
+            .collect(Collectors.toList());
+        softly.assertThat(indexedReader.stream(box)
+                .map(f -> f.getProperties().get("index"))
+                .toList())
+            .containsExactlyInAnyOrderElementsOf(expected);
+        softly.assertThat(notIndexedReader.stream(box)
+                .map(f -> f.getProperties().get("index"))
+                .toList())
+            .containsExactlyElementsOf(expected);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+import static org.bremersee.geojson.io.flatgeobuf.FlatGeobufConstants.MAGIC_BYTES;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A structural verifier of FlatGeobuf files, that checks the rules of the FlatBuffers binary
+ * format (bounds, alignment, forward pointing offsets, terminated strings) against the schemas
+ * {@code header.fbs} and {@code feature.fbs} like the verifiers, that are generated by the
+ * FlatBuffers compiler for the reference implementation. The spatial index must reference the
+ * start of every feature.
+ *
+ * @author Christian Bremer
+ */
+class FlatGeobufVerifier {
+
+  private enum Kind {
+    BYTE, SHORT, INT, LONG, STRING, UBYTE_VECTOR, UINT_VECTOR, DOUBLE_VECTOR, TABLE, TABLE_VECTOR
+  }
+
+  private record Field(Kind kind, Map<Integer, Field> schema) {
+
+    static Field of(Kind kind) {
+      return new Field(kind, Map.of());
+    }
+  }
+
+  private static final Map<Integer, Field> CRS = Map.of(
+      0, Field.of(Kind.STRING),
+      1, Field.of(Kind.INT),
+      2, Field.of(Kind.STRING),
+      3, Field.of(Kind.STRING),
+      4, Field.of(Kind.STRING),
+      5, Field.of(Kind.STRING));
+
+  private static final Map<Integer, Field> COLUMN = Map.ofEntries(
+      Map.entry(0, Field.of(Kind.STRING)),
+      Map.entry(1, Field.of(Kind.BYTE)),
+      Map.entry(2, Field.of(Kind.STRING)),
+      Map.entry(3, Field.of(Kind.STRING)),
+      Map.entry(4, Field.of(Kind.INT)),
+      Map.entry(5, Field.of(Kind.INT)),
+      Map.entry(6, Field.of(Kind.INT)),
+      Map.entry(7, Field.of(Kind.BYTE)),
+      Map.entry(8, Field.of(Kind.BYTE)),
+      Map.entry(9, Field.of(Kind.BYTE)),
+      Map.entry(10, Field.of(Kind.STRING)));
+
+  private static final Map<Integer, Field> HEADER = Map.ofEntries(
+      Map.entry(0, Field.of(Kind.STRING)),
+      Map.entry(1, Field.of(Kind.DOUBLE_VECTOR)),
+      Map.entry(2, Field.of(Kind.BYTE)),
+      Map.entry(3, Field.of(Kind.BYTE)),
+      Map.entry(4, Field.of(Kind.BYTE)),
+      Map.entry(5, Field.of(Kind.BYTE)),
+      Map.entry(6, Field.of(Kind.BYTE)),
+      Map.entry(7, new Field(Kind.TABLE_VECTOR, COLUMN)),
+      Map.entry(8, Field.of(Kind.LONG)),
+      Map.entry(9, Field.of(Kind.SHORT)),
+      Map.entry(10, new Field(Kind.TABLE, CRS)),
+      Map.entry(11, Field.of(Kind.STRING)),
+      Map.entry(12, Field.of(Kind.STRING)),
+      Map.entry(13, Field.of(Kind.STRING)));
+
+  private static final Map<Integer, Field> GEOMETRY = geometry();
+
+  private static final Map<Integer, Field> FEATURE = Map.of(
+      0, new Field(Kind.TABLE, GEOMETRY),
+      1, Field.of(Kind.UBYTE_VECTOR),
+      2, new Field(Kind.TABLE_VECTOR, COLUMN));
+
+  private static Map<Integer, Field> geometry() {
+    Map<Integer, Field> schema = new HashMap<>(Map.of(
+        0, Field.of(Kind.UINT_VECTOR),
+        1, Field.of(Kind.DOUBLE_VECTOR),
+        2, Field.of(Kind.DOUBLE_VECTOR),
+        3, Field.of(Kind.DOUBLE_VECTOR),
+        4, Field.of(Kind.DOUBLE_VECTOR),
+        5, Field.of(Kind.UBYTE_VECTOR),
+        6, Field.of(Kind.BYTE)));
+    // the parts are geometries, too
+    schema.put(7, new Field(Kind.TABLE_VECTOR, schema));
+    return schema;
+  }
+
+  private final ByteBuffer buffer;
+
+  private int start;
+
+  private int end;
+
+  private FlatGeobufVerifier(byte[] bytes) {
+    this.buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Verifies a FlatGeobuf file.
+   *
+   * @param bytes the bytes of the file
+   * @throws AssertionError if the file violates the format
+   */
+  static void verify(byte[] bytes) {
+    new FlatGeobufVerifier(bytes).verify();
+  }
+
+  private void verify() {
+    int length = buffer.capacity();
+    check(length >= 12, "file is too short");
+    byte[] magic = Arrays.copyOf(buffer.array(), MAGIC_BYTES.length);
+    check(Arrays.equals(magic, 0, 7, MAGIC_BYTES, 0, 7)
+        && magic[7] >= 0 && magic[7] <= MAGIC_BYTES[7], "wrong magic bytes");
+    FlatBufferTable header = verifyBuffer(8, HEADER);
+    long count = header.getLong(FlatGeobufConstants.HEADER_FEATURES_COUNT, 0L);
+    int nodeSize = header.getUnsignedShort(FlatGeobufConstants.HEADER_INDEX_NODE_SIZE, 16);
+    int position = 12 + buffer.getInt(8);
+    int index = position;
+    if (nodeSize > 0 && count > 0) {
+      check(nodeSize > 1, "illegal node size");
+      position += (int) PackedRTree.size(count, nodeSize);
+      check(position <= length, "index is out of bounds");
+    }
+    int featuresOffset = position;
+    Set<Long> offsets = new HashSet<>();
+    while (position < length) {
+      offsets.add((long) (position - featuresOffset));
+      verifyBuffer(position, FEATURE);
+      position = end;
+    }
+    check(position == length, "features are out of bounds");
+    check(offsets.size() == count, "wrong number of features");
+    if (index < featuresOffset) {
+      Set<Long> leaves = new HashSet<>();
+      int itemSize = PackedRTree.NODE_ITEM_SIZE;
+      for (int leaf = featuresOffset - (int) count * itemSize; leaf < featuresOffset;
+          leaf += itemSize) {
+        leaves.add(buffer.getLong(leaf + 32));
+      }
+      check(leaves.equals(offsets), "index doesn't reference the features");
+    }
+  }
+
+  private FlatBufferTable verifyBuffer(int position, Map<Integer, Field> schema) {
+    check(position + 8 <= buffer.capacity(), "size prefix is out of bounds");
+    start = position;
+    end = position + 4 + buffer.getInt(position);
+    check(end > position + 8 && end <= buffer.capacity(), "buffer is out of bounds");
+    int root = position + 4 + buffer.getInt(position + 4);
+    verifyTable(root, schema);
+    return new FlatBufferTable(buffer, root);
+  }
+
+  private void verifyTable(int table, Map<Integer, Field> schema) {
+    checkAligned(table, 4);
+    check(table > start + 4 && table + 4 <= end, "table is out of bounds");
+    int vtable = table - buffer.getInt(table);
+    checkAligned(vtable, 2);
+    check(vtable > start + 4 && vtable + 4 <= end, "vtable is out of bounds");
+    int vtableSize = Short.toUnsignedInt(buffer.getShort(vtable));
+    int tableSize = Short.toUnsignedInt(buffer.getShort(vtable + 2));
+    check(vtableSize >= 4 && vtableSize % 2 == 0 && vtable + vtableSize <= end,
+        "illegal vtable size");
+    check(tableSize >= 4 && table + tableSize <= end, "illegal table size");
+    for (int i = 0; 4 + 2 * i < vtableSize; i++) {
+      int offset = Short.toUnsignedInt(buffer.getShort(vtable + 4 + 2 * i));
+      if (offset == 0) {
+        continue;
+      }
+      Field field = schema.get(i);
+      check(field != null, "unknown field " + i);
+      int size = switch (field.kind()) {
+        case BYTE -> 1;
+        case SHORT -> 2;
+        case LONG -> 8;
+        default -> 4;
+      };
+      int position = table + offset;
+      check(offset >= 4 && offset + size <= tableSize, "field " + i + " is out of the table");
+      checkAligned(position, size);
+      if (size == 4 && field.kind() != Kind.INT) {
+        verifyReference(position + Integer.toUnsignedLong(buffer.getInt(position)), field);
+      }
+    }
+  }
+
+  private void verifyReference(long target, Field field) {
+    check(target > start + 4 && target + 4 <= end, "reference is out of bounds");
+    int position = (int) target;
+    if (field.kind() == Kind.TABLE) {
+      verifyTable(position, field.schema());
+      return;
+    }
+    checkAligned(position, 4);
+    long length = Integer.toUnsignedLong(buffer.getInt(position));
+    int elementSize = switch (field.kind()) {
+      case STRING, UBYTE_VECTOR -> 1;
+      case DOUBLE_VECTOR -> 8;
+      default -> 4;
+    };
+    long elements = position + 4L;
+    check(elements + length * elementSize <= end, "vector is out of bounds");
+    checkAligned((int) elements, elementSize);
+    if (field.kind() == Kind.STRING) {
+      check(elements + length < end && buffer.get((int) (elements + length)) == 0,
+          "string is not terminated");
+      try {
+        StandardCharsets.UTF_8.newDecoder()
+            .decode(buffer.slice((int) elements, (int) length));
+      } catch (CharacterCodingException e) {
+        check(false, "string is not UTF-8");
+      }
+    } else if (field.kind() == Kind.TABLE_VECTOR) {
+      for (int i = 0; i < length; i++) {
+        int slot = (int) elements + 4 * i;
+        verifyReference(slot + Integer.toUnsignedLong(buffer.getInt(slot)),
+            new Field(Kind.TABLE, field.schema()));
+      }
+    }
+  }
+
+  private void checkAligned(int position, int alignment) {
+    check((position - start) % alignment == 0,
+        "position " + position + " is not aligned to " + alignment);
+  }
+
+  private static void check(boolean condition, String message) {
+    if (!condition) {
+      throw new AssertionError("Invalid FlatGeobuf file: " + message);
+    }
+  }
+
+}
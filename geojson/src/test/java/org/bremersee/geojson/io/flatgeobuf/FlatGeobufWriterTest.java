@@ -0,0 +1,262 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.flatgeobuf;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The flat geobuf writer test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class FlatGeobufWriterTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  /**
+   * Write with index.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void writeWithIndex(SoftAssertions softly) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (FlatGeobufWriter writer = new FlatGeobufWriter(objectMapper, out)) {
+      for (int i = 0; i < 20; i++) {
+        writer.write(new GeoJsonFeature<>(
+            null,
+            factory.createPoint(GeoJsonGeometryFactory.createCoordinate(i, -i)),
+            false,
+            Map.of("index", i)));
+      }
+    }
+    byte[] bytes = out.toByteArray();
+    softly.assertThat(Arrays.copyOf(bytes, 4))
+        .containsExactly(0x66, 0x67, 0x62, 0x03);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    FlatBufferTable header = FlatBufferTable.sizePrefixedRoot(buffer, 8);
+    softly.assertThat(header.getLong(FlatGeobufConstants.HEADER_FEATURES_COUNT, 0))
+        .isEqualTo(20L);
+    softly.assertThat(header.getUnsignedShort(FlatGeobufConstants.HEADER_INDEX_NODE_SIZE, 0))
+        .isEqualTo(16);
+    softly.assertThat(header.getUnsignedByte(FlatGeobufConstants.HEADER_GEOMETRY_TYPE, 0))
+        .isEqualTo(FlatGeobufConstants.GEOMETRY_TYPE_POINT);
+
+    // 20 leaves, 2 nodes and the root
+    int indexOffset = 12 + buffer.getInt(8);
+    softly.assertThat(PackedRTree.size(20, 16))
+        .isEqualTo(23L * PackedRTree.NODE_ITEM_SIZE);
+    softly.assertThat(buffer.getDouble(indexOffset))
+        .isEqualTo(0.);
+    softly.assertThat(buffer.getDouble(indexOffset + 8))
+        .isEqualTo(-19.);
+    softly.assertThat(buffer.getDouble(indexOffset + 16))
+        .isEqualTo(19.);
+    softly.assertThat(buffer.getDouble(indexOffset + 24))
+        .isEqualTo(0.);
+  }
+
+  /**
+   * Write and expect illegal argument exception.
+   */
+  @Test
+  void writeAndExpectIllegalArgumentException() {
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new FlatGeobufWriter(objectMapper, new ByteArrayOutputStream(), null, 1));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> {
+          try (FlatGeobufWriter writer = new FlatGeobufWriter(
+              objectMapper, new ByteArrayOutputStream())) {
+            writer.writeAll(List.of(
+                new GeoJsonFeature<>(null, null, false, Map.of("value", 1)),
+                new GeoJsonFeature<>(null, null, false, Map.of("value", "one"))));
+          }
+        });
+  }
+
+  /**
+   * Write columns, whose type is widened by a later value.
+   *
+   * @param softly the softly
+   * @param dir the temporary directory
+   * @throws Exception the exception
+   */
+  @Test
+  void writeAndWidenColumns(SoftAssertions softly, @TempDir Path dir) throws Exception {
+    List<Map<String, Object>> properties = List.of(
+        Map.of("int", 1, "long", 2L, "intToLong", 3, "name", "a"),
+        Map.of("int", 1.5, "long", 2.5, "intToLong", 1L + Integer.MAX_VALUE),
+        Map.of("int", 2, "long", 3L, "intToLong", 4, "name", "c"));
+    for (int indexNodeSize : new int[]{0, 16}) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (FlatGeobufWriter writer = new FlatGeobufWriter(
+          objectMapper, out, null, indexNodeSize)) {
+        for (int i = 0; i < properties.size(); i++) {
+          writer.write(new GeoJsonFeature<>(
+              null,
+              factory.createPoint(GeoJsonGeometryFactory.createCoordinate(i, i)),
+              false,
+              properties.get(i)));
+        }
+      }
+      FlatGeobufVerifier.verify(out.toByteArray());
+      Path file = Files.write(dir.resolve("widened-" + indexNodeSize + ".fgb"), out.toByteArray());
+      try (FlatGeobufReader reader = new FlatGeobufReader(objectMapper, file)) {
+        softly.assertThat(reader.stream()
+                .map(GeoJsonFeature::getProperties)
+                .toList())
+            .containsExactlyInAnyOrder(
+                Map.of("int", 1., "long", 2., "intToLong", 3L, "name", "a"),
+                Map.of("int", 1.5, "long", 2.5, "intToLong", 1L + Integer.MAX_VALUE),
+                Map.of("int", 2., "long", 3., "intToLong", 4L, "name", "c"));
+        softly.assertThat(reader.stream(new double[]{1.5, 1.5, 2.5, 2.5})
+                .map(feature -> feature.getGeometry().getCoordinate().getX())
+                .toList())
+            .containsExactly(2.);
+      }
+    }
+  }
+
+  /**
+   * Write the coordinate reference system of the caller.
+   *
+   * @param softly the softly
+   * @param dir the temporary directory
+   * @throws Exception the exception
+   */
+  @Test
+  void writeCrs(SoftAssertions softly, @TempDir Path dir) throws Exception {
+    Map<String, String> expected = new LinkedHashMap<>();
+    expected.put(null, "EPSG:4326");
+    expected.put("urn:ogc:def:crs:OGC:1.3:CRS84", "EPSG:4326");
+    expected.put("urn:ogc:def:crs:EPSG::25832", "EPSG:25832");
+    expected.put("IGNF:LAMB93", "IGNF:LAMB93");
+    expected.put("LOCAL_CS[\"local\"]", "LOCAL_CS[\"local\"]");
+    int i = 0;
+    for (Map.Entry<String, String> entry : expected.entrySet()) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (FlatGeobufWriter writer = new FlatGeobufWriter(
+          objectMapper, out, null, 16, entry.getKey())) {
+        writer.write(new GeoJsonFeature<>(
+            null, factory.createPoint(GeoJsonGeometryFactory.createCoordinate(500000, 1)),
+            false, null));
+      }
+      FlatGeobufVerifier.verify(out.toByteArray());
+      Path file = Files.write(dir.resolve("crs-" + i++ + ".fgb"), out.toByteArray());
+      try (FlatGeobufReader reader = new FlatGeobufReader(objectMapper, file)) {
+        softly.assertThat(reader.getCrs())
+            .as("Crs of %s", entry.getKey())
+            .isEqualTo(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * The output conforms to the structure of the FlatGeobuf specification.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void writeConformsToSpecification() throws Exception {
+    List<String> wkts = List.of(
+        "POINT (1.5 2.5)",
+        "POINT Z (1.5 2.5 3.5)",
+        "POINT EMPTY",
+        "LINESTRING (0 0, 1 1, 2 0)",
+        "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 1 2, 2 2, 2 1, 1 1))",
+        "MULTIPOINT ((1 2), (6 7))",
+        "MULTILINESTRING ((0 0, 0 1), (2 2, 2 4, 3 5))",
+        "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0)), ((2 2, 2 3, 3 3, 3 2, 2 2)))",
+        "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (0 0, 1 1), "
+            + "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0, 0 0))))");
+    for (int indexNodeSize : new int[]{0, 2, 16}) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (FlatGeobufWriter writer = new FlatGeobufWriter(
+          objectMapper, out, "Größe", indexNodeSize, "EPSG:25832")) {
+        for (int i = 0; i < wkts.size(); i++) {
+          writer.write(new GeoJsonFeature<>(
+              null,
+              factory.createGeometryFromWellKnownText(wkts.get(i)),
+              false,
+              Map.of(
+                  "bool", i % 2 == 0,
+                  "int", i,
+                  "long", 1L + Integer.MAX_VALUE + i,
+                  "double", i / 3.,
+                  "string", "Hällo " + i,
+                  "json", Map.of("foo", List.of(i)))));
+        }
+        writer.write(new GeoJsonFeature<>(null, null, false, null));
+      }
+      FlatGeobufVerifier.verify(out.toByteArray());
+    }
+    ByteArrayOutputStream empty = new ByteArrayOutputStream();
+    new FlatGeobufWriter(objectMapper, empty).close();
+    FlatGeobufVerifier.verify(empty.toByteArray());
+  }
+
+  /**
+   * Hilbert values of a square at the origin are a continuous curve.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void hilbert(SoftAssertions softly) {
+    int size = 16;
+    int[][] cells = new int[size * size][];
+    for (int x = 0; x < size; x++) {
+      for (int y = 0; y < size; y++) {
+        int value = PackedRTree.hilbert(x, y);
+        softly.assertThat(value)
+            .isBetween(0, size * size - 1);
+        if (value >= 0 && value < cells.length) {
+          cells[value] = new int[]{x, y};
+        }
+      }
+    }
+    softly.assertThat(cells[0])
+        .containsExactly(0, 0);
+    for (int i = 1; i < cells.length; i++) {
+      softly.assertThat(Math.abs(cells[i][0] - cells[i - 1][0])
+              + Math.abs(cells[i][1] - cells[i - 1][1]))
+          .isEqualTo(1);
+    }
+  }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.io.mvt;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonFeatureCollection;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * The vector tile encoder test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class MvtEncoderTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static GeoJsonFeature<Geometry, Object> feature(String id, String wkt, Object props) {
+    return new GeoJsonFeature<>(id, factory.createGeometryFromWellKnownText(wkt), false, props);
+  }
+
+  /**
+   * Decodes a protocol buffers message: varints are returned as long, length delimited fields
+   * as byte array and fixed fields as long or int bits.
+   */
+  private static Map<Integer, List<Object>> decode(byte[] bytes) {
+    Map<Integer, List<Object>> fields = new LinkedHashMap<>();
+    int[] pos = {0};
+    while (pos[0] < bytes.length) {
+      long tag = readVarint(bytes, pos);
+      Object value;
+      switch ((int) (tag & 0x7)) {
+        case 0 -> value = readVarint(bytes, pos);
+        case 1 -> {
+          long bits = 0L;
+          for (int i = 0; i < 8; i++) {
+            bits |= (bytes[pos[0]++] & 0xFFL) << (8 * i);
+          }
+          value = bits;
+        }
+        case 2 -> {
+          int length = (int) readVarint(bytes, pos);
+          byte[] data = new byte[length];
+          System.arraycopy(bytes, pos[0], data, 0, length);
+          pos[0] += length;
+          value = data;
+        }
+        case 5 -> {
+          int bits = 0;
+          for (int i = 0; i < 4; i++) {
+            bits |= (bytes[pos[0]++] & 0xFF) << (8 * i);
+          }
+          value = bits;
+        }
+        default -> throw new IllegalStateException("Unknown wire type.");
+      }
+      fields.computeIfAbsent((int) (tag >>> 3), k -> new ArrayList<>()).add(value);
+    }
+    return fields;
+  }
+
+  private static long readVarint(byte[] bytes, int[] pos) {
+    long value = 0L;
+    for (int shift = 0; ; shift += 7) {
+      byte b = bytes[pos[0]++];
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+
+  private static List<Long> decodePacked(Object bytes) {
+    List<Long> values = new ArrayList<>();
+    int[] pos = {0};
+    byte[] data = (byte[]) bytes;
+    while (pos[0] < data.length) {
+      values.add(readVarint(data, pos));
+    }
+    return values;
+  }
+
+  private static List<Map<Integer, List<Object>>> decodeLayers(byte[] tile) {
+    List<Map<Integer, List<Object>>> layers = new ArrayList<>();
+    for (Object layer : decode(tile).getOrDefault(3, List.of())) {
+      layers.add(decode((byte[]) layer));
+    }
+    return layers;
+  }
+
+  private static List<Map<Integer, List<Object>>> decodeFeatures(Map<Integer, List<Object>> layer) {
+    List<Map<Integer, List<Object>>> features = new ArrayList<>();
+    for (Object feature : layer.getOrDefault(2, List.of())) {
+      features.add(decode((byte[]) feature));
+    }
+    return features;
+  }
+
+  private static String string(Object bytes) {
+    return new String((byte[]) bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Encode point and layer.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void encodePoint(SoftAssertions softly) {
+    byte[] tile = new MvtEncoder(objectMapper, 0, 0, 0)
+        .addLayer("points", List.of(feature("42", "POINT (0 0)", null)))
+        .addLayer("empty", List.of())
+        .toByteArray();
+
+    List<Map<Integer, List<Object>>> layers = decodeLayers(tile);
+    softly.assertThat(layers).hasSize(1);
+    Map<Integer, List<Object>> layer = layers.get(0);
+    softly.assertThat(layer.get(15)).containsExactly(2L);
+    softly.assertThat(string(layer.get(1).get(0))).isEqualTo("points");
+    softly.assertThat(layer.get(5)).containsExactly(4096L);
+
+    Map<Integer, List<Object>> feature = decodeFeatures(layer).get(0);
+    softly.assertThat(feature.get(1)).containsExactly(42L);
+    softly.assertThat(feature.get(2)).isNull();
+    softly.assertThat(feature.get(3)).containsExactly(1L);
+    // MoveTo(1), zigzag(2048), zigzag(2048)
+    softly.assertThat(decodePacked(feature.get(4).get(0))).containsExactly(9L, 4096L, 4096L);
+  }
+
+  /**
+   * Encode with clipping and quantization.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void encodeClipped(SoftAssertions softly) {
+    // tile 1/1/0 is the north east quarter of the world, extent 256, buffer 16
+    MvtEncoder encoder = new MvtEncoder(objectMapper, 1, 1, 0, 256, 16, null);
+    encoder.addLayer("features", new GeoJsonFeatureCollection<>(List.of(
+        feature("1", "LINESTRING (-90 0, 90 0)", null),
+        feature("2", "POLYGON ((-90 -20, 90 -20, 90 10, -90 10, -90 -20))", null),
+        feature("3", "POINT (-90 45)", null),
+        feature("4", "MULTIPOINT ((45 45), (45.0001 45.0001), (-90 45))", null),
+        feature("id", "GEOMETRYCOLLECTION (POINT (45 45), LINESTRING (45 45, 90 45))", null)),
+        false));
+
+    List<Map<Integer, List<Object>>> features = decodeFeatures(decodeLayers(
+        encoder.toByteArray()).get(0));
+    softly.assertThat(features).hasSize(5);
+
+    // the line is clipped at x = -16 and lies at the bottom (y = 256) of the tile
+    softly.assertThat(features.get(0).get(3)).containsExactly(2L);
+    softly.assertThat(decodePacked(features.get(0).get(4).get(0)))
+        .containsExactly(9L, 31L, 512L, 10L, 288L, 0L);
+
+    // the polygon is clipped at x = -16 and y = 272, exterior ring is clockwise
+    softly.assertThat(features.get(1).get(3)).containsExactly(3L);
+    List<Long> polygon = decodePacked(features.get(1).get(4).get(0));
+    softly.assertThat(polygon.get(0)).isEqualTo(9L);
+    softly.assertThat(polygon.get(3)).isEqualTo(2L | (3L << 3));
+    softly.assertThat(polygon.get(polygon.size() - 1)).isEqualTo(15L);
+    int[] xs = new int[4];
+    int[] ys = new int[4];
+    int x = 0;
+    int y = 0;
+    for (int i = 0, n = 1; i < 4; i++, n += 2) {
+      n += i == 1 ? 1 : 0;
+      x += decodeZigZag(polygon.get(n));
+      y += decodeZigZag(polygon.get(n + 1));
+      xs[i] = x;
+      ys[i] = y;
+    }
+    long area = 0L;
+    for (int i = 0, j = 3; i < 4; j = i++) {
+      area += (long) xs[j] * ys[i] - (long) xs[i] * ys[j];
+    }
+    softly.assertThat(area).isPositive();
+    softly.assertThat(xs).containsOnly(-16, 128);
+    softly.assertThat(ys).containsOnly(242, 272);
+
+    // the point outside of the buffer is omitted
+    softly.assertThat(features.get(2).get(1)).containsExactly(4L);
+    softly.assertThat(decodePacked(features.get(2).get(4).get(0)))
+        .containsExactly(17L, 128L, 368L, 0L, 0L);
+
+    // the collection is encoded as one feature per member without an id
+    softly.assertThat(features.get(3).get(1)).isNull();
+    softly.assertThat(features.get(3).get(3)).containsExactly(1L);
+    softly.assertThat(features.get(4).get(1)).isNull();
+    softly.assertThat(features.get(4).get(3)).containsExactly(2L);
+  }
+
+  private static long decodeZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Encode properties.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void encodeProperties(SoftAssertions softly) {
+    Map<String, Object> first = new LinkedHashMap<>();
+    first.put("name", "a");
+    first.put("count", 3);
+    first.put("nothing", null);
+    first.put("list", List.of(1, 2));
+    Map<String, Object> second = new LinkedHashMap<>();
+    second.put("count", 3L);
+    second.put("delta", -2);
+    second.put("ratio", 0.5);
+    second.put("single", 1.5f);
+    second.put("flag", true);
+    second.put("name", "a");
+
+    Map<Integer, List<Object>> layer = decodeLayers(new MvtEncoder(objectMapper, 0, 0, 0)
+        .addLayer("features", List.of(
+            feature(null, "POINT (1 1)", first),
+            feature(null, "POINT (2 2)", second)))
+        .toByteArray()).get(0);
+
+    softly.assertThat(layer.get(3).stream().map(MvtEncoderTest::string))
+        .containsExactly("name", "count", "list", "delta", "ratio", "single", "flag");
+    List<Map<Integer, List<Object>>> values = layer.get(4).stream()
+        .map(value -> decode((byte[]) value))
+        .toList();
+    softly.assertThat(values).hasSize(7);
+    softly.assertThat(string(values.get(0).get(1).get(0))).isEqualTo("a");
+    softly.assertThat(values.get(1).get(5)).containsExactly(3L);
+    softly.assertThat(string(values.get(2).get(1).get(0))).isEqualTo("[1,2]");
+    softly.assertThat(values.get(3).get(6)).containsExactly(3L);
+    softly.assertThat(values.get(4).get(3))
+        .containsExactly(Double.doubleToLongBits(0.5));
+    softly.assertThat(values.get(5).get(2)).containsExactly(Float.floatToIntBits(1.5f));
+    softly.assertThat(values.get(6).get(7)).containsExactly(1L);
+
+    List<Map<Integer, List<Object>>> features = decodeFeatures(layer);
+    softly.assertThat(decodePacked(features.get(0).get(2).get(0)))
+        .containsExactly(0L, 0L, 1L, 1L, 2L, 2L);
+    softly.assertThat(decodePacked(features.get(1).get(2).get(0)))
+        .containsExactly(1L, 1L, 3L, 3L, 4L, 4L, 5L, 5L, 6L, 6L, 0L, 0L);
+  }
+
+  /**
+   * Encode and expect illegal argument exception.
+   */
+  @Test
+  void encodeAndExpectIllegalArgumentException() {
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new MvtEncoder(objectMapper, 2, 4, 0));
+    MvtEncoder encoder = new MvtEncoder(objectMapper, 0, 0, 0).addLayer("a", List.of());
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> encoder.addLayer("a", List.of()));
+  }
+
+}
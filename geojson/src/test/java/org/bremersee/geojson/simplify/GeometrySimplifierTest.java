@@ -0,0 +1,235 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.simplify;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.bremersee.geojson.converter.serialization.GeometryToJsonConverter;
+import org.bremersee.geojson.simplify.GeometrySimplifier.Algorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+/**
+ * The geometry simplifier test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class GeometrySimplifierTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new GeoJsonObjectMapperModule(factory));
+
+  private static LineString createLine(int size) {
+    Random random = new Random(42);
+    List<Coordinate> coordinates = new ArrayList<>(size);
+    double y = 0.;
+    for (int i = 0; i < size; i++) {
+      y += random.nextGaussian() * 0.01;
+      coordinates.add(GeoJsonGeometryFactory.createCoordinate(i * 0.001, y));
+    }
+    return factory.createLineString(coordinates);
+  }
+
+  private static Polygon createCircle(int size) {
+    List<Coordinate> coordinates = new ArrayList<>(size + 1);
+    for (int i = 0; i < size; i++) {
+      double angle = 2. * Math.PI * i / size;
+      coordinates.add(GeoJsonGeometryFactory.createCoordinate(Math.cos(angle), Math.sin(angle)));
+    }
+    coordinates.add(coordinates.get(0));
+    return factory.createPolygon(factory.createLinearRing(coordinates));
+  }
+
+  private static List<Coordinate> select(CoordinateSequence sequence, int[] indexes) {
+    List<Coordinate> coordinates = new ArrayList<>(indexes.length);
+    for (int index : indexes) {
+      coordinates.add(sequence.getCoordinate(index));
+    }
+    return coordinates;
+  }
+
+  /**
+   * For zoom.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void forZoom(SoftAssertions softly) {
+    softly.assertThat(GeometrySimplifier.forZoom(Algorithm.DOUGLAS_PEUCKER, 0, 1.).getTolerance())
+        .isCloseTo(360. / 256., within(1e-12));
+    softly.assertThat(GeometrySimplifier
+            .forZoom(Algorithm.VISVALINGAM_WHYATT, 10, 0.5, 512, 40075016.68).getTolerance())
+        .isCloseTo(0.5 * 40075016.68 / 512. / 1024., within(1e-9));
+    softly.assertThat(GeometrySimplifier.forZoom(Algorithm.DOUGLAS_PEUCKER, 3, 1.))
+        .isEqualTo(GeometrySimplifier.forZoom(Algorithm.DOUGLAS_PEUCKER, 3, 1.))
+        .isNotEqualTo(GeometrySimplifier.forZoom(Algorithm.TOPOLOGY_PRESERVING, 3, 1.));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new GeometrySimplifier(Algorithm.DOUGLAS_PEUCKER, -1.));
+    assertThatExceptionOfType(IllegalStateException.class)
+        .isThrownBy(() -> new GeometrySimplifier(Algorithm.TOPOLOGY_PRESERVING, 1.)
+            .simplify(createLine(10).getCoordinateSequence()));
+  }
+
+  /**
+   * Simplify with Douglas-Peucker.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void simplifyWithDouglasPeucker(SoftAssertions softly) {
+    LineString line = createLine(10000);
+    GeometrySimplifier target = new GeometrySimplifier(Algorithm.DOUGLAS_PEUCKER, 0.05);
+    int[] indexes = target.simplify(line.getCoordinateSequence());
+
+    Geometry expected = DouglasPeuckerSimplifier.simplify(line, 0.05);
+    softly.assertThat(indexes.length).isLessThan(line.getNumPoints() / 10);
+    softly.assertThat(select(line.getCoordinateSequence(), indexes))
+        .containsExactly(expected.getCoordinates());
+
+    Polygon circle = createCircle(1000);
+    indexes = new GeometrySimplifier(Algorithm.DOUGLAS_PEUCKER, 10.)
+        .simplify(circle.getExteriorRing().getCoordinateSequence());
+    // the split position and the farthest positions of both halves are kept
+    softly.assertThat(indexes).containsExactly(0, 250, 500, 750, 1000);
+
+    softly.assertThat(new GeometrySimplifier(Algorithm.DOUGLAS_PEUCKER, 1e-9)
+            .simplify(circle.getExteriorRing().getCoordinateSequence()))
+        .isNull();
+  }
+
+  /**
+   * Simplify with Visvalingam-Whyatt.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void simplifyWithVisvalingamWhyatt(SoftAssertions softly) {
+    LineString line = factory.createLineString(new Coordinate[]{
+        new Coordinate(0., 0.),
+        new Coordinate(1., 0.1),
+        new Coordinate(2., 0.),
+        new Coordinate(3., 5.),
+        new Coordinate(4., 0.),
+        new Coordinate(5., 0.)});
+    int[] indexes = new GeometrySimplifier(Algorithm.VISVALINGAM_WHYATT, 0.5)
+        .simplify(line.getCoordinateSequence());
+    softly.assertThat(indexes).containsExactly(0, 2, 3, 4, 5);
+
+    // the effective area of 2 is 5 after 1 was removed, 4 is removed with 2.5
+    indexes = new GeometrySimplifier(Algorithm.VISVALINGAM_WHYATT, 2.)
+        .simplify(line.getCoordinateSequence());
+    softly.assertThat(indexes).containsExactly(0, 2, 3, 5);
+
+    Polygon circle = createCircle(1000);
+    indexes = new GeometrySimplifier(Algorithm.VISVALINGAM_WHYATT, 10.)
+        .simplify(circle.getExteriorRing().getCoordinateSequence());
+    softly.assertThat(indexes).hasSize(4);
+    softly.assertThat(factory.createPolygon(select(
+            circle.getExteriorRing().getCoordinateSequence(), indexes).toArray(Coordinate[]::new))
+        .getArea()).isPositive();
+  }
+
+  /**
+   * Simplify geometry with the algorithm of the coordinate sequences.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void simplifyGeometry(SoftAssertions softly) {
+    Polygon circle = createCircle(1000);
+    LineString line = createLine(10000);
+    for (Algorithm algorithm : List.of(Algorithm.DOUGLAS_PEUCKER, Algorithm.VISVALINGAM_WHYATT)) {
+      GeometrySimplifier target = new GeometrySimplifier(algorithm, 0.05);
+      CoordinateSequence ring = circle.getExteriorRing().getCoordinateSequence();
+      softly.assertThat(((Polygon) target.simplify(circle)).getExteriorRing().getCoordinates())
+          .containsExactly(select(ring, target.simplify(ring)).toArray(Coordinate[]::new));
+      CoordinateSequence sequence = line.getCoordinateSequence();
+      softly.assertThat(target.simplify(line).getCoordinates())
+          .containsExactly(select(sequence, target.simplify(sequence)).toArray(Coordinate[]::new));
+
+      // a small polygon keeps four positions, the simplifiers of JTS let it collapse
+      Polygon small = (Polygon) factory.createGeometryFromWellKnownText(
+          "POLYGON ((0 0, 0.001 0, 0.001 0.001, 0 0.002, 0 0))");
+      Geometry actual = new GeometrySimplifier(algorithm, 1.).simplify(small);
+      softly.assertThat(actual.isEmpty()).isFalse();
+      softly.assertThat(actual.getNumPoints()).isEqualTo(4);
+      softly.assertThat(DouglasPeuckerSimplifier.simplify(small, 1.).isEmpty()).isTrue();
+    }
+  }
+
+  /**
+   * Write simplified.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void writeSimplified(SoftAssertions softly) throws Exception {
+    Polygon circle = createCircle(5000);
+    GeoJsonFeature<Geometry, Object> feature = new GeoJsonFeature<>(
+        "1", circle, false, null);
+
+    String full = objectMapper.writeValueAsString(feature);
+    String simplified = objectMapper.writer()
+        .withAttribute(
+            GeometrySimplifier.class,
+            GeometrySimplifier.forZoom(Algorithm.DOUGLAS_PEUCKER, 8, 1.))
+        .writeValueAsString(feature);
+    softly.assertThat(simplified.length()).isLessThan(full.length() / 20);
+
+    Polygon actual = (Polygon) objectMapper.readValue(simplified, GeoJsonFeature.class)
+        .getGeometry();
+    softly.assertThat(actual.isValid()).isTrue();
+    softly.assertThat(actual.getArea()).isCloseTo(circle.getArea(), within(0.05));
+
+    GeometrySimplifier topologyPreserving = new GeometrySimplifier(
+        Algorithm.TOPOLOGY_PRESERVING, 0.01);
+    Map<String, Object> map = new GeometryToJsonConverter(
+        false, false, 9, null, topologyPreserving)
+        .convert(circle);
+    softly.assertThat(map)
+        .isEqualTo(new GeometryToJsonConverter()
+            .convert(TopologyPreservingSimplifier.simplify(circle, 0.01)));
+    softly.assertThat(objectMapper.writer()
+            .withAttribute(GeometrySimplifier.class, topologyPreserving)
+            .writeValueAsString(circle))
+        .isEqualTo(objectMapper.writeValueAsString(
+            TopologyPreservingSimplifier.simplify(circle, 0.01)));
+  }
+
+}
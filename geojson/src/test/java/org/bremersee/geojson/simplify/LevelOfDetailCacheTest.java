@@ -0,0 +1,237 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.geojson.simplify;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.geojson.GeoJsonFeature;
+import org.bremersee.geojson.GeoJsonGeometryFactory;
+import org.bremersee.geojson.GeoJsonObjectMapperModule;
+import org.bremersee.geojson.simplify.GeometrySimplifier.Algorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * The level of detail cache test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class LevelOfDetailCacheTest {
+
+  private static final GeoJsonGeometryFactory factory = new GeoJsonGeometryFactory();
+
+  private static final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new GeoJsonObjectMapperModule(factory));
+
+  private static Polygon createCircle(double x, int size) {
+    List<Coordinate> coordinates = new ArrayList<>(size + 1);
+    for (int i = 0; i < size; i++) {
+      double angle = 2. * Math.PI * i / size;
+      coordinates.add(GeoJsonGeometryFactory.createCoordinate(
+          x + Math.cos(angle), Math.sin(angle)));
+    }
+    coordinates.add(coordinates.get(0));
+    return factory.createPolygon(factory.createLinearRing(coordinates));
+  }
+
+  private static LevelOfDetailCache createCache(long maxPositions) {
+    return new LevelOfDetailCache(
+        Algorithm.DOUGLAS_PEUCKER, 1., new int[]{0, 4, 8, 12}, maxPositions, Runnable::run);
+  }
+
+  /**
+   * Get simplifier.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void getSimplifier(SoftAssertions softly) {
+    LevelOfDetailCache target = new LevelOfDetailCache(2, 6, 10);
+    softly.assertThat(target.getZoomLevels()).containsExactly(2, 6, 10);
+    softly.assertThat(target.getSimplifier(0))
+        .isEqualTo(GeometrySimplifier.forZoom(Algorithm.DOUGLAS_PEUCKER, 5, 1.));
+    softly.assertThat(target.getSimplifier(5))
+        .isEqualTo(GeometrySimplifier.forZoom(Algorithm.DOUGLAS_PEUCKER, 5, 1.));
+    softly.assertThat(target.getSimplifier(6))
+        .isEqualTo(GeometrySimplifier.forZoom(Algorithm.DOUGLAS_PEUCKER, 9, 1.));
+    softly.assertThat(target.getSimplifier(10)).isNull();
+    softly.assertThat(target.forZoom(7).getSimplifier()).isEqualTo(target.getSimplifier(7));
+
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new LevelOfDetailCache(4));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new LevelOfDetailCache(4, 4));
+  }
+
+  /**
+   * Get geometry.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void getGeometry(SoftAssertions softly) {
+    LevelOfDetailCache target = createCache(LevelOfDetailCache.DEFAULT_MAX_POSITIONS);
+    Polygon circle = createCircle(0., 10000);
+
+    softly.assertThat(target.getGeometry(circle, 12)).isSameAs(circle);
+    softly.assertThat(target.getGeometry(circle, 0)).isNull();
+    softly.assertThat(target.size()).isEqualTo(1);
+
+    Geometry coarse = target.getGeometry(circle, 3);
+    Geometry middle = target.getGeometry(circle, 4);
+    Geometry fine = target.getGeometry(circle, 11);
+    softly.assertThat(target.getGeometry(circle, 0)).isSameAs(coarse);
+    softly.assertThat(coarse.getNumPoints()).isLessThan(middle.getNumPoints());
+    softly.assertThat(middle.getNumPoints()).isLessThan(fine.getNumPoints());
+    softly.assertThat(fine.getNumPoints()).isLessThan(circle.getNumPoints());
+    softly.assertThat(coarse).isEqualTo(target.getSimplifier(0).simplify(circle));
+    // the cache references the original geometry, so its positions are counted, too
+    softly.assertThat(target.getPositions()).isEqualTo(circle.getNumPoints()
+        + coarse.getNumPoints() + middle.getNumPoints() + fine.getNumPoints());
+
+    // an equal geometry is another one
+    softly.assertThat(target.getGeometry(circle.copy(), 0)).isNull();
+    softly.assertThat(target.size()).isEqualTo(2);
+
+    target.invalidate(circle);
+    softly.assertThat(target.size()).isEqualTo(1);
+    target.invalidateAll();
+    softly.assertThat(target.size()).isZero();
+    softly.assertThat(target.getPositions()).isZero();
+  }
+
+  /**
+   * Evict least recently used.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void evictLeastRecentlyUsed(SoftAssertions softly) {
+    LevelOfDetailCache target = createCache(Long.MAX_VALUE);
+    Polygon first = createCircle(0., 10000);
+    target.precompute(first).join();
+    long positions = target.getPositions();
+
+    target = createCache(2 * positions);
+    Polygon second = createCircle(3., 10000);
+    Polygon third = createCircle(6., 10000);
+    target.precompute(first).join();
+    target.precompute(second).join();
+    softly.assertThat(target.getGeometry(first, 0)).isNotNull();
+    target.precompute(third).join();
+
+    softly.assertThat(target.size()).isEqualTo(2);
+    softly.assertThat(target.getPositions()).isEqualTo(2 * positions);
+    softly.assertThat(target.getGeometry(second, 0)).isNull();
+    softly.assertThat(target.size()).isEqualTo(2);
+  }
+
+  /**
+   * Write the same levels of detail, whether they are cached or not.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void writeSameLevelOfDetailWarmAndCold(SoftAssertions softly) throws Exception {
+    LevelOfDetailCache target = new LevelOfDetailCache(
+        Algorithm.DOUGLAS_PEUCKER, 1., new int[]{0, 8, 14}, 100000L, Runnable::run);
+    Geometry small = factory.createGeometryFromWellKnownText(
+        "POLYGON ((10 50, 10.01 50, 10.01 50.01, 10 50.02, 10 50))");
+    Geometry circle = createCircle(0., 5000);
+    for (Geometry geometry : List.of(small, circle)) {
+      for (int zoom : new int[]{3, 10}) {
+        target.invalidateAll();
+        String cold = objectMapper.writer()
+            .withAttribute(LevelOfDetail.class, target.forZoom(zoom))
+            .writeValueAsString(geometry);
+        softly.assertThat(target.size()).isEqualTo(1);
+        String warm = objectMapper.writer()
+            .withAttribute(LevelOfDetail.class, target.forZoom(zoom))
+            .writeValueAsString(geometry);
+        softly.assertThat(warm).isEqualTo(cold).doesNotContain("[[]]");
+      }
+    }
+    target.precompute(small).join();
+    softly.assertThat(target.getGeometry(small, 3).isEmpty()).isFalse();
+  }
+
+  /**
+   * Write cached levels of detail.
+   *
+   * @param softly the softly
+   * @throws Exception the exception
+   */
+  @Test
+  void writeLevelOfDetail(SoftAssertions softly) throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      LevelOfDetailCache target = new LevelOfDetailCache(
+          Algorithm.DOUGLAS_PEUCKER, 1., new int[]{0, 4, 8, 12}, 100000L, executor);
+      List<GeoJsonFeature<Geometry, Object>> features = List.of(
+          new GeoJsonFeature<>("1", createCircle(0., 5000), false, null),
+          new GeoJsonFeature<>("2", createCircle(3., 5000), false, null));
+      Geometry geometry = features.get(0).getGeometry();
+
+      // not cached: the geometry is simplified while it is written
+      String expected = objectMapper.writer()
+          .withAttribute(GeometrySimplifier.class, target.getSimplifier(5))
+          .writeValueAsString(geometry);
+      softly.assertThat(objectMapper.writer()
+              .withAttribute(LevelOfDetail.class, target.forZoom(5))
+              .writeValueAsString(geometry))
+          .isEqualTo(expected);
+
+      target.precompute(features).get(10, TimeUnit.SECONDS);
+      softly.assertThat(target.size()).isEqualTo(2);
+
+      String actual = objectMapper.writer()
+          .withAttribute(LevelOfDetail.class, target.forZoom(5))
+          .writeValueAsString(features.get(0));
+      GeoJsonFeature<?, ?> feature = objectMapper.readValue(actual, GeoJsonFeature.class);
+      softly.assertThat(feature.getGeometry().getNumPoints())
+          .isEqualTo(target.getGeometry(geometry, 5).getNumPoints());
+      softly.assertThat(feature.getGeometry().getArea())
+          .isCloseTo(geometry.getArea(), within(0.05));
+      softly.assertThat(objectMapper.writer()
+              .withAttribute(LevelOfDetail.class, target.forZoom(5))
+              .writeValueAsString(geometry))
+          .isEqualTo(objectMapper.writeValueAsString(target.getGeometry(geometry, 5)));
+
+      softly.assertThat(objectMapper.writer()
+              .withAttribute(LevelOfDetail.class, target.forZoom(12))
+              .writeValueAsString(geometry))
+          .isEqualTo(objectMapper.writeValueAsString(geometry));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}